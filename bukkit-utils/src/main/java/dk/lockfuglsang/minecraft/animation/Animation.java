@@ -8,6 +8,17 @@ import org.bukkit.entity.Player;
 public interface Animation {
     boolean show();
 
+    /**
+     * Shows the animation as part of the given frame, which is sent to the player once all their animations have
+     * been shown. Defaults to showing the animation directly.
+     *
+     * @param frame Frame of the player's animations for this tick.
+     * @return False if the animation has ended, and should be removed.
+     */
+    default boolean show(AnimationFrame frame) {
+        return show();
+    }
+
     boolean hide();
 
     Player getPlayer();
@@ -0,0 +1,50 @@
+package dk.lockfuglsang.minecraft.animation;
+
+import org.bukkit.Location;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the block changes the animations of a single player show in one tick, so they can be sent to the player
+ * as a single multi-block change.
+ */
+public class AnimationFrame {
+    private final List<Location> blockLocations = new ArrayList<>();
+    private final List<BlockData> blockData = new ArrayList<>();
+    private Player player;
+
+    void reset(Player player) {
+        this.player = player;
+        blockLocations.clear();
+        blockData.clear();
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Shows the given block data at the location to the player only.
+     */
+    public void blockChange(Location location, BlockData data) {
+        blockLocations.add(location);
+        blockData.add(data);
+    }
+
+    void flush() {
+        if (!blockLocations.isEmpty()) {
+            List<BlockState> states = new ArrayList<>(blockLocations.size());
+            for (int i = 0; i < blockLocations.size(); i++) {
+                BlockState state = blockLocations.get(i).getBlock().getState();
+                state.setBlockData(blockData.get(i));
+                states.add(state);
+            }
+            player.sendBlockChanges(states);
+        }
+        reset(null);
+    }
+}
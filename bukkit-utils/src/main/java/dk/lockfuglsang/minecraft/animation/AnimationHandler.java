@@ -1,14 +1,11 @@
 package dk.lockfuglsang.minecraft.animation;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -16,11 +13,15 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles particles and per-player block-animations
+ * <p>
+ * All animations are shown by a single ticker task, which only runs while there are animations. Each tick, the
+ * animations of a player are shown into one {@link AnimationFrame}, which is then sent to the player in one go.
  */
 public class AnimationHandler {
-    private final Map<UUID, Set<Animation>> animations = new ConcurrentHashMap<>();
-    private final Map<UUID, AnimationTask> animationTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerAnimations> animations = new ConcurrentHashMap<>();
     private final Plugin plugin;
+    private final Object taskLock = new Object();
+    private volatile BukkitTask ticker;
 
     private int animTick;
 
@@ -34,83 +35,103 @@ public class AnimationHandler {
         plugin.getConfig().set("animations.tick", animTick);
     }
 
-    public synchronized void addAnimation(Animation animation) {
-        if (!animations.containsKey(animation.getPlayer().getUniqueId())) {
-            animations.put(animation.getPlayer().getUniqueId(), new HashSet<Animation>());
-        }
-        animations.get(animation.getPlayer().getUniqueId()).add(animation);
+    public void addAnimation(Animation animation) {
+        // Atomic per player, so the animation can't be added to an entry the ticker is just removing
+        animations.compute(animation.getPlayer().getUniqueId(), (uuid, playerAnimations) -> {
+            if (playerAnimations == null) {
+                playerAnimations = new PlayerAnimations(animation.getPlayer());
+            }
+            playerAnimations.animations.add(animation);
+            return playerAnimations;
+        });
         start();
     }
 
-    public synchronized boolean removeAnimations(Player player) {
-        Set<Animation> animSet = animations.remove(player.getUniqueId());
-        if (animSet == null) {
+    public boolean removeAnimations(Player player) {
+        PlayerAnimations playerAnimations = animations.remove(player.getUniqueId());
+        if (playerAnimations == null) {
             return false;
         }
-        for (Animation animation : animSet) {
-            animation.hide();
-        }
+        playerAnimations.hide();
         return true;
     }
 
-    public synchronized void start() {
-        for (UUID uuid : animations.keySet()) {
-            AnimationTask animationTask = animationTasks.get(uuid);
-            if (animationTask == null && animations.get(uuid) != null && !animations.get(uuid).isEmpty()) {
-                animationTask = new AnimationTask(uuid);
-                animationTask.runTaskTimerAsynchronously(plugin, 0, animTick);
-                animationTasks.put(uuid, animationTask);
+    /**
+     * Starts the ticker, unless it's already running or there are no animations.
+     */
+    public void start() {
+        synchronized (taskLock) {
+            if (ticker == null && !animations.isEmpty()) {
+                ticker = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::tick, 0, animTick);
             }
         }
     }
 
-    public synchronized void stop() {
-        for (UUID uuid :  animations.keySet()) {
-            AnimationTask animationTask = animationTasks.get(uuid);
-            if (animationTask != null) {
-                animationTask.cancel();
-                animationTasks.remove(uuid);
+    /**
+     * Stops the ticker, and hides all animations. The animations are kept, and shown again on {@link #start()}.
+     */
+    public void stop() {
+        synchronized (taskLock) {
+            if (ticker != null) {
+                ticker.cancel();
+                ticker = null;
             }
         }
         if (plugin.isEnabled()) {
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, new Runnable() {
-                @Override
-                public void run() {
-                    Collection<Set<Animation>> anims = new ArrayList<>(animations.values());
-                    for (Set<Animation> animSet : anims) {
-                        for (Animation animation : animSet) {
-                            animation.hide();
-                        }
-                    }
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                for (UUID uuid : animations.keySet()) {
+                    animations.computeIfPresent(uuid, (k, playerAnimations) -> playerAnimations.hide());
                 }
             });
         }
     }
 
-    private class AnimationTask extends BukkitRunnable {
-        private final UUID uniqueId;
-        public AnimationTask(UUID uniqueId) {
-            this.uniqueId = uniqueId;
+    void tick() {
+        // Async timer runs may overlap, so each run has its own frame, reused for all players
+        AnimationFrame frame = new AnimationFrame();
+        for (UUID uuid : animations.keySet()) {
+            // Shown inside the compute, so adding or removing animations of this player waits for it
+            animations.computeIfPresent(uuid, (k, playerAnimations) -> playerAnimations.show(frame) ? playerAnimations : null);
+        }
+        if (animations.isEmpty()) {
+            synchronized (taskLock) {
+                // Re-checked under the lock, as an animation may have been added since
+                if (animations.isEmpty() && ticker != null) {
+                    ticker.cancel();
+                    ticker = null;
+                }
+            }
+        }
+    }
+
+    private static class PlayerAnimations {
+        private final Player player;
+        private final Set<Animation> animations = new LinkedHashSet<>();
+
+        PlayerAnimations(Player player) {
+            this.player = player;
         }
 
-        @Override
-        public void run() {
-            // Copy - to avoid ConcurrentModificationException
-            Set<Animation> animSet = animations.get(uniqueId);
-            Set<Animation> animCopy = (animSet != null) ? new HashSet<>(animSet) : Collections.<Animation>emptySet();
-            for (Animation animation : animCopy) {
-                if (!animation.show()) {
-                    UUID uuid = animation.getPlayer().getUniqueId();
-                    animations.get(uuid).remove(animation);
-                    if (animations.get(uuid).isEmpty()) {
-                        animations.remove(uuid);
-                    }
+        /**
+         * @return False if the player has no animations left.
+         */
+        boolean show(AnimationFrame frame) {
+            frame.reset(player);
+            Iterator<Animation> it = animations.iterator();
+            while (it.hasNext()) {
+                if (!it.next().show(frame)) {
+                    it.remove();
                 }
             }
-            if (animations.get(uniqueId) == null) {
-                cancel();
-                animationTasks.remove(uniqueId);
+            frame.flush();
+            return !animations.isEmpty();
+        }
+
+        PlayerAnimations hide() {
+            for (Animation animation : animations) {
+                animation.hide();
             }
+            return this;
         }
     }
 }
@@ -37,6 +37,21 @@ public class BlockAnimation implements Animation {
         return true;
     }
 
+    @Override
+    public boolean show(AnimationFrame frame) {
+        if (shown) {
+            return true;
+        }
+        if (!player.isOnline()) {
+            return false;
+        }
+        for (Location loc : points) {
+            frame.blockChange(loc, blockData);
+        }
+        shown = true;
+        return true;
+    }
+
     @Override
     public boolean hide() {
         if (shown) {
@@ -0,0 +1,261 @@
+package dk.lockfuglsang.minecraft.animation;
+
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AnimationHandlerTest {
+    private static final int PLAYERS = 400;
+    private static final int ANIMATIONS_PER_PLAYER = 3;
+
+    private Plugin plugin;
+    private BukkitScheduler scheduler;
+    private AnimationHandler handler;
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicInteger maxActiveTasks = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        plugin = mock(Plugin.class);
+        when(plugin.getConfig()).thenReturn(new YamlConfiguration());
+        Server server = mock(Server.class);
+        scheduler = mock(BukkitScheduler.class);
+        when(plugin.getServer()).thenReturn(server);
+        when(server.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskTimerAsynchronously(eq(plugin), any(Runnable.class), anyLong(), anyLong()))
+            .thenAnswer(invocation -> new FakeTask());
+        handler = new AnimationHandler(plugin);
+    }
+
+    @Test
+    public void testOneTickerForAllPlayers() {
+        List<CountingAnimation> all = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            Player player = mockPlayer();
+            for (int j = 0; j < ANIMATIONS_PER_PLAYER; j++) {
+                CountingAnimation animation = new CountingAnimation(player);
+                handler.addAnimation(animation);
+                all.add(animation);
+            }
+        }
+        verify(scheduler, times(1)).runTaskTimerAsynchronously(eq(plugin), any(Runnable.class), anyLong(), anyLong());
+        assertThat(activeTasks.get(), is(1));
+
+        handler.tick();
+        handler.tick();
+        for (CountingAnimation animation : all) {
+            assertThat(animation.shows.get(), is(2));
+        }
+    }
+
+    @Test
+    public void testIdlesWithoutAnimations() {
+        Player player = mockPlayer();
+        handler.addAnimation(new CountingAnimation(player));
+        assertThat(handler.removeAnimations(player), is(true));
+        assertThat(handler.removeAnimations(player), is(false));
+        handler.tick();
+        assertThat(activeTasks.get(), is(0));
+
+        // Ended animations are removed as well
+        CountingAnimation ending = new CountingAnimation(player);
+        handler.addAnimation(ending);
+        assertThat(activeTasks.get(), is(1));
+        ending.ended = true;
+        handler.tick();
+        assertThat(activeTasks.get(), is(0));
+        verify(scheduler, times(2)).runTaskTimerAsynchronously(eq(plugin), any(Runnable.class), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testConcurrentAddAndRemove() throws Exception {
+        List<Player> players = new ArrayList<>();
+        List<List<CountingAnimation>> animations = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(mockPlayer());
+            List<CountingAnimation> playerAnimations = new ArrayList<>();
+            for (int j = 0; j < ANIMATIONS_PER_PLAYER; j++) {
+                playerAnimations.add(new CountingAnimation(players.get(i)));
+            }
+            animations.add(playerAnimations);
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread ticker = new Thread(() -> {
+            while (!done.get()) {
+                handler.tick();
+            }
+        });
+        ticker.start();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < PLAYERS; i++) {
+            int ix = i;
+            pool.execute(() -> {
+                animations.get(ix).forEach(handler::addAnimation);
+                if (ix % 2 == 0) {
+                    handler.removeAnimations(players.get(ix));
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS), is(true));
+        done.set(true);
+        ticker.join();
+
+        List<Integer> before = new ArrayList<>();
+        animations.forEach(list -> list.forEach(a -> before.add(a.shows.get())));
+        handler.tick();
+        int ix = 0;
+        for (int i = 0; i < PLAYERS; i++) {
+            for (CountingAnimation animation : animations.get(i)) {
+                int shown = animation.shows.get() - before.get(ix++);
+                if (i % 2 == 0) {
+                    assertThat("removed animation shown", shown, is(0));
+                    assertThat(animation.hides.get(), is(1));
+                    assertThat(animation.showsAfterHide.get(), is(0));
+                } else {
+                    assertThat("kept animation shown once", shown, is(1));
+                    assertThat(animation.hides.get(), is(0));
+                }
+            }
+        }
+        assertThat(activeTasks.get(), is(1));
+        assertThat(maxActiveTasks.get(), is(1));
+    }
+
+    @Test
+    public void testBlockChangesAreBatchedPerPlayer() {
+        World world = mock(World.class);
+        Block block = mock(Block.class);
+        when(world.getBlockAt(any(Location.class))).thenReturn(block);
+        when(block.getState()).thenReturn(mock(BlockState.class));
+        Player player = mockPlayer();
+        BlockData data = mock(BlockData.class);
+        handler.addAnimation(new BlockAnimation(player, points(world, 0, 10), data));
+        handler.addAnimation(new BlockAnimation(player, points(world, 20, 5), data));
+
+        handler.tick();
+        handler.tick();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<BlockState>> states = ArgumentCaptor.forClass(Collection.class);
+        verify(player, times(1)).sendBlockChanges(states.capture());
+        assertThat(states.getValue().size(), is(15));
+        verify(player, times(0)).sendBlockChange(any(Location.class), any(BlockData.class));
+    }
+
+    private static List<Location> points(World world, int x, int count) {
+        List<Location> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new Location(world, x + i, 64, 0));
+        }
+        return points;
+    }
+
+    private static Player mockPlayer() {
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(player.isOnline()).thenReturn(true);
+        return player;
+    }
+
+    private static class CountingAnimation implements Animation {
+        private final Player player;
+        private final AtomicInteger shows = new AtomicInteger();
+        private final AtomicInteger hides = new AtomicInteger();
+        private final AtomicInteger showsAfterHide = new AtomicInteger();
+        private volatile boolean ended;
+
+        CountingAnimation(Player player) {
+            this.player = player;
+        }
+
+        @Override
+        public boolean show() {
+            if (ended) {
+                return false;
+            }
+            shows.incrementAndGet();
+            if (hides.get() > 0) {
+                showsAfterHide.incrementAndGet();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean hide() {
+            hides.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public Player getPlayer() {
+            return player;
+        }
+    }
+
+    private class FakeTask implements BukkitTask {
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        FakeTask() {
+            maxActiveTasks.accumulateAndGet(activeTasks.incrementAndGet(), Math::max);
+        }
+
+        @Override
+        public int getTaskId() {
+            return 1;
+        }
+
+        @Override
+        public Plugin getOwner() {
+            return plugin;
+        }
+
+        @Override
+        public boolean isSync() {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled.compareAndSet(false, true)) {
+                activeTasks.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package dk.lockfuglsang.minecraft.po;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe cache of compiled {@link MessageFormat}s, keyed by locale and message key.
+ * <p>
+ * The cache is bounded by simply clearing it when it grows beyond its maximum size. Messages are a fixed set of
+ * string literals, so in practice the bound is only reached if formats are built from dynamic content.
+ */
+final class FormatCache {
+    static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    private final int maximumSize;
+    private final Map<Key, CompiledFormat> formats = new ConcurrentHashMap<>();
+
+    private record Key(@NotNull Locale locale, @NotNull String key) {
+    }
+
+    FormatCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    FormatCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Formats the message with the given key.
+     *
+     * @param locale          Locale to format in.
+     * @param key             Key of the message.
+     * @param patternResolver Resolves the pattern of the key, i.e. the translation. Only called on a cache miss.
+     * @param args            Arguments to format, may be null.
+     * @return The formatted message.
+     */
+    @NotNull
+    String format(@NotNull Locale locale, @NotNull String key, @NotNull UnaryOperator<String> patternResolver, @Nullable Object[] args) {
+        Key cacheKey = new Key(locale, key);
+        CompiledFormat compiled = formats.get(cacheKey);
+        if (compiled == null) {
+            compiled = new CompiledFormat(patternResolver.apply(key), locale);
+            if (formats.size() >= maximumSize) {
+                formats.clear();
+            }
+            formats.put(cacheKey, compiled);
+        }
+        return compiled.format(args);
+    }
+
+    void clear() {
+        formats.clear();
+    }
+
+    int size() {
+        return formats.size();
+    }
+
+    private static final class CompiledFormat {
+        private final String pattern;
+        // null if the pattern has neither arguments nor quotes, i.e. formats to itself
+        private final MessageFormat format;
+        private final String noArgs;
+
+        CompiledFormat(@NotNull String pattern, @NotNull Locale locale) {
+            this.pattern = pattern;
+            if (pattern.indexOf('{') == -1 && pattern.indexOf('\'') == -1) {
+                format = null;
+                noArgs = pattern;
+            } else {
+                try {
+                    format = new MessageFormat(pattern, locale);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Problem with: '" + pattern + "'", e);
+                }
+                noArgs = format.format(null);
+            }
+        }
+
+        String format(@Nullable Object[] args) {
+            if (format == null || args == null || args.length == 0) {
+                return noArgs;
+            }
+            // MessageFormat (and its sub-formats) are not thread-safe
+            synchronized (format) {
+                try {
+                    return format.format(args);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Problem with: '" + pattern + "'", e);
+                }
+            }
+        }
+    }
+}
@@ -4,19 +4,17 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.function.UnaryOperator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 /**
  * Convenience util for supporting static imports.
@@ -32,6 +30,9 @@ public enum I18nUtil {
     private static volatile Locale locale;
     private static volatile File dataFolder;
 
+    // Untranslated formats used by pre(), translated formats are cached by the I18n instance
+    private static final FormatCache PRE_FORMATS = new FormatCache();
+
     /**
      * Translates the given {@link String} to the configured language. Returns the given String if no translation is
      * available. Returns an empty String if the given key is null or empty.
@@ -75,8 +76,7 @@ public enum I18nUtil {
     @NotNull
     public static String pre(@Nullable String s, @Nullable Object... args) {
         if (s != null && !s.isEmpty()) {
-            new MessageFormat(s, getLocale());
-            return MessageFormat.format(s, args);
+            return PRE_FORMATS.format(Locale.getDefault(Locale.Category.FORMAT), s, UnaryOperator.identity(), args);
         }
         return "";
     }
@@ -105,6 +105,7 @@ public enum I18nUtil {
             dataFolder = folder;
             locale = loc;
             i18n = new I18n(getLocale());
+            PRE_FORMATS.clear();
         }
     }
 
@@ -136,6 +137,7 @@ public enum I18nUtil {
     public static void clearCache() {
         synchronized (LOCK) {
             i18n = new I18n(getLocale());
+            PRE_FORMATS.clear();
         }
     }
 
@@ -164,16 +166,19 @@ public enum I18nUtil {
      */
     public static class I18n {
         private final Locale locale;
+        private final POCatalog catalog;
         private final Properties translations = new Properties();
+        // Compiled translations, dropped with this instance when the locale is reloaded
+        private final FormatCache formats = new FormatCache();
 
         I18n(Locale locale) {
             this.locale = locale;
 
-            // Order of these calls is important here, because it specifies the priority of the files (git rlf/1233).
-            addPropertiesFromZipInJar().ifPresent(properties -> {
-                translations.putAll(properties);
-                log.log(Level.INFO, "Added {0} translations from ZIP inside JAR.", properties.size());
-            });
+            // The compiled catalog shipped in the jar is the base, the .po files are overrides (git rlf/1233).
+            catalog = readCatalogFromJar().orElse(POCatalog.empty());
+            if (catalog.size() > 0) {
+                log.log(Level.INFO, "Added {0} translations from the compiled catalog inside JAR.", catalog.size());
+            }
             addPropertiesFromJar().ifPresent(properties -> {
                 translations.putAll(properties);
                 log.log(Level.INFO, "Added {0} translations from the JAR.", properties.size());
@@ -183,7 +188,8 @@ public enum I18nUtil {
                 log.log(Level.INFO, "Added {0} translations from the plugin directory.", properties.size());
             });
 
-            log.log(Level.INFO, "Loaded {0} translations.", translations.size());
+            long overridden = translations.stringPropertyNames().stream().filter(catalog::containsKey).count();
+            log.log(Level.INFO, "Loaded {0} translations.", catalog.size() + translations.size() - overridden);
         }
 
         private Optional<Properties> addPropertiesFromJar() {
@@ -199,22 +205,16 @@ public enum I18nUtil {
             return Optional.empty();
         }
 
-        private Optional<Properties> addPropertiesFromZipInJar() {
-            // We zip the .po files, since they are currently half the footprint of the jar.
-            try (
-                    InputStream in = getClass().getClassLoader().getResourceAsStream("i18n.zip");
-                    ZipInputStream zin = in != null ? new ZipInputStream(in, StandardCharsets.UTF_8) : null
-            ) {
-                ZipEntry nextEntry;
-                do {
-                    nextEntry = zin != null ? zin.getNextEntry() : null;
-                    if (nextEntry != null && nextEntry.getName().equalsIgnoreCase(locale + ".po")) {
-                        Properties properties = POParser.asProperties(zin);
-                        return Optional.ofNullable(properties);
-                    }
-                } while (nextEntry != null);
+        private Optional<POCatalog> readCatalogFromJar() {
+            // Compiled from the .po files at build time by POCatalogCompiler, so no parsing is needed on startup.
+            String name = "i18n/" + locale.toString().toLowerCase(Locale.ROOT) + POCatalog.EXTENSION;
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+                if (in == null) {
+                    return Optional.empty();
+                }
+                return Optional.of(POCatalog.read(new BufferedInputStream(in)));
             } catch (IOException e) {
-                log.info("Unable to load translations from i18n.zip!" + locale + ".po: " + e);
+                log.info("Unable to load translations from " + name + ": " + e);
             }
             return Optional.empty();
         }
@@ -236,19 +236,18 @@ public enum I18nUtil {
             if (key == null || key.trim().isEmpty()) {
                 return "";
             }
-            String propKey = translations.getProperty(key);
-            if (propKey != null && !propKey.trim().isEmpty()) {
-                return format(propKey, args);
-            }
-            return format(key, args);
+            return formats.format(locale, key, this::getPattern, args);
         }
 
-        private String format(String propKey, Object[] args) {
-            try {
-                return new MessageFormat(propKey, getLocale()).format(args);
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Problem with: '" + propKey + "'", e);
+        private String getPattern(String key) {
+            String propKey = translations.getProperty(key);
+            if (propKey == null) {
+                propKey = catalog.get(key);
+            }
+            if (propKey != null && !propKey.trim().isEmpty()) {
+                return propKey;
             }
+            return key;
         }
 
         public Locale getLocale() {
@@ -0,0 +1,197 @@
+package dk.lockfuglsang.minecraft.po;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Binary, pre-sorted translation catalog compiled from a .po file at build time, see {@link POCatalogCompiler}.
+ * <p>
+ * The catalog is read in a single pass into one string pool, and keys are looked up by binary search directly
+ * against the pool. Translations are only materialized as {@link String}s the first time they are looked up.
+ * <p>
+ * Format (big-endian): magic, version, entry count, pool length in bytes, then per entry (sorted by key) the key
+ * offset, key length, value offset and value length in chars of the pool, followed by the UTF-8 encoded pool.
+ */
+public class POCatalog {
+    private static final int MAGIC = 0x55534250; // "USBP"
+    private static final int VERSION = 1;
+
+    public static final String EXTENSION = ".pocat";
+
+    private static final POCatalog EMPTY = new POCatalog("", new int[0]);
+
+    private final String pool;
+    // keyOffset, keyLength, valueOffset, valueLength per entry
+    private final int[] index;
+    private final String[] values;
+
+    private POCatalog(@NotNull String pool, @NotNull int[] index) {
+        this.pool = pool;
+        this.index = index;
+        this.values = new String[index.length / 4];
+    }
+
+    public static POCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Writes the translations as a catalog.
+     *
+     * @param translations Translations, as returned by {@link POParser#asProperties(InputStream)}.
+     * @param out          Stream to write to, which is not closed.
+     * @throws IOException If writing fails.
+     */
+    public static void write(@NotNull Properties translations, @NotNull OutputStream out) throws IOException {
+        String[] keys = translations.stringPropertyNames().toArray(new String[0]);
+        Arrays.sort(keys);
+        StringBuilder pool = new StringBuilder();
+        int[] index = new int[keys.length * 4];
+        for (int i = 0; i < keys.length; i++) {
+            String value = translations.getProperty(keys[i]);
+            index[i * 4] = pool.length();
+            index[i * 4 + 1] = keys[i].length();
+            pool.append(keys[i]);
+            index[i * 4 + 2] = pool.length();
+            index[i * 4 + 3] = value.length();
+            pool.append(value);
+        }
+        byte[] poolBytes = pool.toString().getBytes(StandardCharsets.UTF_8);
+        DataOutputStream dout = new DataOutputStream(out);
+        dout.writeInt(MAGIC);
+        dout.writeInt(VERSION);
+        dout.writeInt(keys.length);
+        dout.writeInt(poolBytes.length);
+        for (int value : index) {
+            dout.writeInt(value);
+        }
+        dout.write(poolBytes);
+        dout.flush();
+    }
+
+    /**
+     * Reads a catalog written by {@link #write(Properties, OutputStream)}.
+     *
+     * @param in Stream to read from, which is not closed.
+     * @return The catalog.
+     * @throws IOException If reading fails, or the stream doesn't contain a catalog.
+     */
+    @NotNull
+    public static POCatalog read(@NotNull InputStream in) throws IOException {
+        DataInputStream din = new DataInputStream(in);
+        if (din.readInt() != MAGIC) {
+            throw new IOException("Not a translation catalog");
+        }
+        int version = din.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported translation catalog version " + version);
+        }
+        int count = din.readInt();
+        int poolLength = din.readInt();
+        if (count < 0 || poolLength < 0) {
+            throw new IOException("Corrupt translation catalog");
+        }
+        int[] index = new int[count * 4];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = din.readInt();
+            if (index[i] < 0) {
+                throw new IOException("Corrupt translation catalog");
+            }
+        }
+        byte[] poolBytes = new byte[poolLength];
+        din.readFully(poolBytes);
+        String pool = new String(poolBytes, StandardCharsets.UTF_8);
+        for (int i = 0; i < count; i++) {
+            if (index[i * 4] + index[i * 4 + 1] > pool.length() || index[i * 4 + 2] + index[i * 4 + 3] > pool.length()) {
+                throw new IOException("Corrupt translation catalog");
+            }
+        }
+        return new POCatalog(pool, index);
+    }
+
+    /**
+     * Looks up the translation of the given key.
+     *
+     * @param key Key to look up.
+     * @return The translation, or null if the key isn't in the catalog.
+     */
+    @Nullable
+    public String get(@Nullable String key) {
+        if (key == null) {
+            return null;
+        }
+        int entry = indexOf(key);
+        return entry >= 0 ? valueAt(entry) : null;
+    }
+
+    public boolean containsKey(@Nullable String key) {
+        return key != null && indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Copies all translations into the given map, i.e. for tools that need all of them.
+     */
+    public void copyTo(@NotNull Map<Object, Object> target) {
+        for (int i = 0; i < values.length; i++) {
+            int keyOffset = index[i * 4];
+            target.put(pool.substring(keyOffset, keyOffset + index[i * 4 + 1]), valueAt(i));
+        }
+    }
+
+    private String valueAt(int entry) {
+        String value = values[entry];
+        if (value == null) {
+            // Racing threads at worst create the same String twice
+            int offset = index[entry * 4 + 2];
+            value = pool.substring(offset, offset + index[entry * 4 + 3]);
+            values[entry] = value;
+        }
+        return value;
+    }
+
+    private int indexOf(String key) {
+        int low = 0;
+        int high = values.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Same ordering as String.compareTo, without creating a String for the key in the pool
+    private int compareKey(int entry, String key) {
+        int offset = index[entry * 4];
+        int length = index[entry * 4 + 1];
+        int min = Math.min(length, key.length());
+        for (int i = 0; i < min; i++) {
+            char c1 = pool.charAt(offset + i);
+            char c2 = key.charAt(i);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return length - key.length();
+    }
+}
@@ -0,0 +1,61 @@
+package dk.lockfuglsang.minecraft.po;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Build-time tool compiling all .po files of a folder into {@link POCatalog}s.
+ * <p>
+ * Usage: {@code POCatalogCompiler <po-folder> <target-folder>}
+ */
+public class POCatalogCompiler {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: POCatalogCompiler <po-folder> <target-folder>");
+        }
+        int compiled = compileAll(new File(args[0]), new File(args[1]));
+        System.out.println("Compiled " + compiled + " translation catalogs to " + args[1]);
+    }
+
+    /**
+     * Compiles every .po file in the source folder to a catalog of the same name in the target folder.
+     *
+     * @return The number of compiled catalogs.
+     */
+    public static int compileAll(@NotNull File sourceFolder, @NotNull File targetFolder) throws IOException {
+        File[] poFiles = sourceFolder.listFiles((dir, name) -> name.endsWith(".po"));
+        if (poFiles == null) {
+            throw new IOException("Not a folder: " + sourceFolder);
+        }
+        if (!targetFolder.isDirectory() && !targetFolder.mkdirs()) {
+            throw new IOException("Unable to create " + targetFolder);
+        }
+        for (File poFile : poFiles) {
+            String locale = poFile.getName().substring(0, poFile.getName().length() - ".po".length()).toLowerCase(Locale.ROOT);
+            compile(poFile, new File(targetFolder, locale + POCatalog.EXTENSION));
+        }
+        return poFiles.length;
+    }
+
+    public static void compile(@NotNull File poFile, @NotNull File catalogFile) throws IOException {
+        Properties translations;
+        try (InputStream in = new FileInputStream(poFile)) {
+            translations = POParser.asProperties(in);
+        } catch (IOException e) {
+            throw new IOException("Unable to parse " + poFile + ": " + e.getMessage(), e);
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(catalogFile))) {
+            POCatalog.write(translations, out);
+        }
+    }
+}
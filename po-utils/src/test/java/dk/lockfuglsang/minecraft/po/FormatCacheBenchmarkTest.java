@@ -0,0 +1,87 @@
+package dk.lockfuglsang.minecraft.po;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Microbenchmark of the compiled format cache against compiling a {@link MessageFormat} per call, which is what
+ * {@link I18nUtil#tr(String, Object...)} used to do. The per-call latency and allocation of both are in the assertion
+ * messages.
+ */
+public class FormatCacheBenchmarkTest {
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private static final String NO_ARGS = "§eYou do not have access to that island-schematic!";
+    private static final String WITH_ARGS = "§eNo active cooldowns for §9{0}§e found.";
+
+    private com.sun.management.ThreadMXBean threadBean;
+    // Keeps the results of the calls alive
+    private long sink;
+
+    @Before
+    public void setUp() {
+        URL dataFolderUrl = getClass().getClassLoader().getResource("");
+        I18nUtil.initialize(new File(dataFolderUrl.getFile()), Locale.ENGLISH);
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void testNoArgs() {
+        String translation = I18nUtil.tr(NO_ARGS);
+        Result before = measure("tr(no args) before", () -> new MessageFormat(translation, Locale.ENGLISH).format(null));
+        Result after = measure("tr(no args) after", () -> I18nUtil.tr(NO_ARGS));
+        assertThat(after + " vs " + before, after.bytesPerCall(), lessThan(before.bytesPerCall()));
+    }
+
+    @Test
+    public void testWithArgs() {
+        String translation = I18nUtil.tr(WITH_ARGS, (Object[]) null);
+        Result before = measure("tr(1 arg) before", () -> new MessageFormat(translation, Locale.ENGLISH).format(new Object[]{"player"}));
+        Result after = measure("tr(1 arg) after", () -> I18nUtil.tr(WITH_ARGS, "player"));
+        assertThat(after + " vs " + before, after.bytesPerCall(), lessThan(before.bytesPerCall()));
+    }
+
+    @Test
+    public void testPre() {
+        Result before = measure("pre before", () -> MessageFormat.format(WITH_ARGS, "player"));
+        Result after = measure("pre after", () -> I18nUtil.pre(WITH_ARGS, "player"));
+        assertThat(after + " vs " + before, after.bytesPerCall(), lessThan(before.bytesPerCall()));
+    }
+
+    private record Result(String name, double nanosPerCall, double bytesPerCall) {
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f ns/call, %.1f bytes/call", name, nanosPerCall, bytesPerCall);
+        }
+    }
+
+    private Result measure(String name, Supplier<String> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += call.get().length();
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytes = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += call.get().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        bytes = threadBean.getThreadAllocatedBytes(threadId) - bytes;
+        return new Result(name, 1d * elapsed / ITERATIONS, 1d * bytes / ITERATIONS);
+    }
+}
@@ -0,0 +1,68 @@
+package dk.lockfuglsang.minecraft.po;
+
+import org.junit.Test;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class FormatCacheTest {
+
+    @Test
+    public void testPatternResolvedOncePerLocale() {
+        FormatCache cache = new FormatCache();
+        AtomicInteger resolved = new AtomicInteger();
+        UnaryOperator<String> resolver = key -> {
+            resolved.incrementAndGet();
+            return "Hej {0}";
+        };
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.format(Locale.ENGLISH, "Hello {0}", resolver, new Object[]{"world"}), is("Hej world"));
+        }
+        assertThat(resolved.get(), is(1));
+        cache.format(Locale.GERMAN, "Hello {0}", resolver, new Object[]{"world"});
+        assertThat(resolved.get(), is(2));
+        cache.clear();
+        cache.format(Locale.ENGLISH, "Hello {0}", resolver, null);
+        assertThat(resolved.get(), is(3));
+    }
+
+    @Test
+    public void testNoArgsMatchesMessageFormat() {
+        FormatCache cache = new FormatCache();
+        for (String pattern : new String[]{"plain", "Don''t", "'{0}' is quoted", "{0} stays", "{0,number} stays"}) {
+            String expected = new MessageFormat(pattern, Locale.ENGLISH).format(null);
+            assertThat(pattern, cache.format(Locale.ENGLISH, pattern, UnaryOperator.identity(), null), is(expected));
+            assertThat(pattern, cache.format(Locale.ENGLISH, pattern, UnaryOperator.identity(), new Object[0]), is(expected));
+        }
+    }
+
+    @Test
+    public void testWithArgsMatchesMessageFormat() {
+        FormatCache cache = new FormatCache();
+        Object[] args = {1234567, "x"};
+        for (String pattern : new String[]{"plain", "Don''t {1}", "{0} and {1}", "{0,number,#} {1}"}) {
+            String expected = new MessageFormat(pattern, Locale.GERMANY).format(args);
+            assertThat(pattern, cache.format(Locale.GERMANY, pattern, UnaryOperator.identity(), args), is(expected));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPattern() {
+        new FormatCache().format(Locale.ENGLISH, "{0", UnaryOperator.identity(), null);
+    }
+
+    @Test
+    public void testBounded() {
+        FormatCache cache = new FormatCache(10);
+        for (int i = 0; i < 1000; i++) {
+            cache.format(Locale.ENGLISH, "key " + i, UnaryOperator.identity(), null);
+            assertThat(cache.size(), lessThanOrEqualTo(10));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package dk.lockfuglsang.minecraft.po;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class POCatalogTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTripMatchesPOParser() throws Exception {
+        for (String name : new String[]{"valid_da.po", "valid_emptylines_id.po", "valid_emptylines_str.po", "po/en.po"}) {
+            Properties expected = parse(name);
+            POCatalog catalog = roundTrip(expected);
+            assertThat(name, catalog.size(), is(expected.size()));
+            for (String key : expected.stringPropertyNames()) {
+                assertThat(name + ": " + key, catalog.get(key), is(expected.getProperty(key)));
+            }
+            Properties copy = new Properties();
+            catalog.copyTo(copy);
+            assertThat(name, copy, is(expected));
+        }
+    }
+
+    @Test
+    public void testMissingKeys() throws Exception {
+        Properties translations = new Properties();
+        translations.put("b", "B");
+        translations.put("d", "D");
+        translations.put("§eæøå 中文", "unicode");
+        POCatalog catalog = roundTrip(translations);
+        assertThat(catalog.get("b"), is("B"));
+        assertThat(catalog.get("§eæøå 中文"), is("unicode"));
+        for (String missing : new String[]{"a", "c", "e", "", "bb", "§e"}) {
+            assertThat(missing, catalog.get(missing), nullValue());
+        }
+        assertThat(catalog.get(null), nullValue());
+        assertThat(POCatalog.empty().get("b"), nullValue());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotACatalog() throws Exception {
+        POCatalog.read(new ByteArrayInputStream("msgid \"\"\nmsgstr \"\"\n".getBytes()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedCatalog() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        POCatalog.write(parse("valid_da.po"), out);
+        byte[] bytes = out.toByteArray();
+        POCatalog.read(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+    }
+
+    @Test
+    public void testCompileAll() throws Exception {
+        File source = tempFolder.newFolder("po");
+        File target = new File(tempFolder.getRoot(), "i18n");
+        Files.copy(resource("valid_da.po").toPath(), new File(source, "da.po").toPath());
+        Files.copy(resource("po/en.po").toPath(), new File(source, "en_GB.po").toPath());
+
+        assertThat(POCatalogCompiler.compileAll(source, target), is(2));
+        try (InputStream in = new FileInputStream(new File(target, "en_gb" + POCatalog.EXTENSION))) {
+            POCatalog catalog = POCatalog.read(in);
+            Properties expected = parse("po/en.po");
+            for (String key : expected.stringPropertyNames()) {
+                assertThat(catalog.get(key), is(expected.getProperty(key)));
+            }
+        }
+        assertThat(new File(target, "da" + POCatalog.EXTENSION).isFile(), is(true));
+    }
+
+    private static POCatalog roundTrip(Properties translations) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        POCatalog.write(translations, out);
+        return POCatalog.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private Properties parse(String name) throws IOException {
+        try (InputStream in = new FileInputStream(resource(name))) {
+            return POParser.asProperties(in);
+        }
+    }
+
+    private File resource(String name) {
+        return new File(getClass().getClassLoader().getResource(name).getFile());
+    }
+}
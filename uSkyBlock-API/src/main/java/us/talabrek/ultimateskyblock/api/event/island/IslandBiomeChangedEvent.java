@@ -0,0 +1,40 @@
+package us.talabrek.ultimateskyblock.api.event.island;
+
+import org.bukkit.block.Biome;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.api.IslandInfo;
+
+/**
+ * Fired (async) after the biome of an island has been changed.
+ * @since v3.2.0
+ */
+public class IslandBiomeChangedEvent extends IslandEvent {
+    private static final HandlerList handlers = new HandlerList();
+    private final Biome biome;
+
+    public IslandBiomeChangedEvent(@NotNull final IslandInfo islandInfo, @NotNull final Biome biome) {
+        super(islandInfo, true);
+        this.biome = biome;
+    }
+
+    /**
+     * Gets the new {@link Biome} of the island.
+     * @return The new {@link Biome} of the island.
+     */
+    @NotNull
+    public Biome getBiome() {
+        return biome;
+    }
+
+    @NotNull
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    @NotNull
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+}
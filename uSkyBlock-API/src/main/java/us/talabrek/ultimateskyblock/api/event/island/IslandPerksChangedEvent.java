@@ -0,0 +1,29 @@
+package us.talabrek.ultimateskyblock.api.event.island;
+
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.api.IslandInfo;
+
+/**
+ * Fired (async) after the permission perks of an island member changed the island, i.e. its creature limits,
+ * maximum party size or the name of its leader.
+ * @since v3.2.0
+ */
+public class IslandPerksChangedEvent extends IslandEvent {
+    private static final HandlerList handlers = new HandlerList();
+
+    public IslandPerksChangedEvent(@NotNull final IslandInfo islandInfo) {
+        super(islandInfo, true);
+    }
+
+    @NotNull
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    @NotNull
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+}
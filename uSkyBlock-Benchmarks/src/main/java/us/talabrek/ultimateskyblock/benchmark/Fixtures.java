@@ -0,0 +1,90 @@
+package us.talabrek.ultimateskyblock.benchmark;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.uuid.FilePlayerDB;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Synthetic data and mocked server types shared by the benchmarks, so they run without a server.
+ */
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static @NotNull UUID uuid(int player) {
+        return new UUID(0x5ca1ab1eL, player);
+    }
+
+    static @NotNull String name(int player) {
+        return "player" + player;
+    }
+
+    /**
+     * @return A plugin mock with its data folder at the given path.
+     */
+    static @NotNull uSkyBlock plugin(@NotNull Path dataFolder) {
+        uSkyBlock plugin = mock(uSkyBlock.class, withSettings().stubOnly());
+        when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+        when(plugin.getConfig()).thenReturn(new YamlConfiguration());
+        return plugin;
+    }
+
+    /**
+     * @return A {@link FilePlayerDB} knowing the given number of players.
+     */
+    static @NotNull FilePlayerDB playerDB(@NotNull uSkyBlock plugin, int players) {
+        // Background loads and saves are not run, so the db lives in memory only
+        Scheduler scheduler = mock(Scheduler.class, withSettings().stubOnly());
+        FilePlayerDB playerDB = new FilePlayerDB(plugin, scheduler, Logger.getLogger("benchmark"));
+        for (int i = 0; i < players; i++) {
+            playerDB.updatePlayer(uuid(i), name(i), name(i));
+        }
+        when(plugin.getPlayerDB()).thenReturn(playerDB);
+        return playerDB;
+    }
+
+    static @NotNull YamlConfiguration resource(@NotNull String name) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing resource " + name);
+            }
+            return YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static @NotNull Path tempDir() {
+        try {
+            return Files.createTempDirectory("usb-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void delete(@NotNull Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
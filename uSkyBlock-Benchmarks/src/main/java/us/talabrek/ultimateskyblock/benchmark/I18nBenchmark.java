@@ -0,0 +1,55 @@
+package us.talabrek.ultimateskyblock.benchmark;
+
+import dk.lockfuglsang.minecraft.po.I18nUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translation of messages with {@link I18nUtil#tr}, which is done for almost every message sent to a player.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class I18nBenchmark {
+    @Param({"en", "de"})
+    public String locale;
+
+    private Path dataFolder;
+
+    @Setup
+    public void setUp() {
+        dataFolder = Fixtures.tempDir();
+        I18nUtil.initialize(dataFolder.toFile(), I18nUtil.getLocale(locale));
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(dataFolder);
+    }
+
+    @Benchmark
+    public String tr() {
+        return I18nUtil.tr("\u00a7eLog-file has been flushed.");
+    }
+
+    @Benchmark
+    public String trWithArguments() {
+        return I18nUtil.tr("\u00a74You can complete this again in {0} minutes.", 30);
+    }
+}
@@ -0,0 +1,94 @@
+package us.talabrek.ultimateskyblock.benchmark;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import us.talabrek.ultimateskyblock.island.IslandInfo;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link IslandInfo} getters used by placeholders, menus and the top ten, on an island read from a file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IslandInfoBenchmark {
+    private static final int MEMBERS = 4;
+    private static final int BANS = 10;
+
+    private Path dataFolder;
+    private IslandInfo islandInfo;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataFolder = Fixtures.tempDir();
+        uSkyBlock plugin = Fixtures.plugin(dataFolder);
+        Fixtures.playerDB(plugin, MEMBERS + BANS);
+
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("version", 3);
+        config.set("general.level", 1234.5);
+        config.set("party.leader", Fixtures.name(0));
+        config.set("party.leader-uuid", Fixtures.uuid(0).toString());
+        config.set("party.currentSize", MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            config.set("party.members." + Fixtures.uuid(i) + ".name", Fixtures.name(i));
+        }
+        List<String> bans = new ArrayList<>();
+        for (int i = MEMBERS; i < MEMBERS + BANS; i++) {
+            bans.add(Fixtures.uuid(i).toString());
+        }
+        config.set("banned.list", bans);
+        config.save(dataFolder.resolve("0,0.yml").toFile());
+        islandInfo = new IslandInfo("0,0", plugin, dataFolder);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(dataFolder);
+    }
+
+    @Benchmark
+    public String getLeader() {
+        return islandInfo.getLeader();
+    }
+
+    @Benchmark
+    public Set<String> getMembers() {
+        return islandInfo.getMembers();
+    }
+
+    @Benchmark
+    public double getLevel() {
+        return islandInfo.getLevel();
+    }
+
+    @Benchmark
+    public int getPartySize() {
+        return islandInfo.getPartySize();
+    }
+
+    @Benchmark
+    public List<String> getBans() {
+        return islandInfo.getBans();
+    }
+}
@@ -0,0 +1,211 @@
+package us.talabrek.ultimateskyblock.benchmark;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import us.talabrek.ultimateskyblock.PluginConfig;
+import us.talabrek.ultimateskyblock.island.level.BlockLevelConfigMap;
+import us.talabrek.ultimateskyblock.island.level.ChunkSnapshotLevelLogic;
+import us.talabrek.ultimateskyblock.island.level.IslandScore;
+import us.talabrek.ultimateskyblock.island.level.yml.LevelConfigYmlReader;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.world.WorldManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Island level scoring by {@link ChunkSnapshotLevelLogic#calculateScore}, over synthetic chunks.
+ * <p>
+ * The chunk snapshots are backed by plain arrays of block types, as a snapshot taken from a world needs a server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelScoreBenchmark {
+    private static final int MIN_Y = 0;
+    private static final int MAX_Y = 256;
+    // Roughly the blocks of a built island: mostly air, then building blocks and a few valuable ones
+    private static final Material[] PALETTE = {
+        Material.STONE, Material.COBBLESTONE, Material.DIRT, Material.GRASS_BLOCK, Material.OAK_LOG,
+        Material.OAK_PLANKS, Material.OAK_LEAVES, Material.GLASS, Material.SAND, Material.WATER,
+        Material.IRON_BLOCK, Material.DIAMOND_BLOCK, Material.BEACON, Material.HOPPER, Material.CHEST
+    };
+
+    /**
+     * The width of the island region in blocks.
+     */
+    @Param({"64", "128"})
+    public int size;
+
+    private BlockLevelConfigMap scoreMap;
+    private ChunkSnapshotLevelLogic levelLogic;
+    private ProtectedRegion region;
+    private final List<ChunkSnapshot> snapshots = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        YamlConfiguration levelConfig = Fixtures.resource("levelConfig.yml");
+        scoreMap = new LevelConfigYmlReader().readLevelConfig(levelConfig);
+        levelLogic = new ChunkSnapshotLevelLogic(levelConfig,
+            mock(uSkyBlock.class, withSettings().stubOnly()),
+            mock(WorldManager.class, withSettings().stubOnly()),
+            mock(PluginConfig.class, withSettings().stubOnly()),
+            mock(Scheduler.class, withSettings().stubOnly()),
+            Logger.getLogger("benchmark"),
+            new MetricsRegistry());
+        region = new ProtectedCuboidRegion("island", BlockVector3.at(0, MIN_Y, 0), BlockVector3.at(size - 1, MAX_Y, size - 1));
+        Random random = new Random(42);
+        int chunkCount = size >> 4;
+        for (int cx = 0; cx < chunkCount; cx++) {
+            for (int cz = 0; cz < chunkCount; cz++) {
+                SyntheticSnapshot snapshot = new SyntheticSnapshot(cx, cz);
+                for (int i = 0; i < snapshot.blocks.length; i++) {
+                    snapshot.blocks[i] = random.nextInt(10) == 0 ? PALETTE[random.nextInt(PALETTE.length)] : Material.AIR;
+                }
+                snapshots.add(snapshot);
+            }
+        }
+    }
+
+    @Benchmark
+    public IslandScore calculateScore() {
+        return levelLogic.calculateScore(region, snapshots, null, null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void blockLevelConfigLookup(Blackhole blackhole) {
+        for (Material material : PALETTE) {
+            blackhole.consume(scoreMap.get(material));
+        }
+    }
+
+    /**
+     * A snapshot of the block types of a chunk, the only thing the level logic reads.
+     */
+    private static class SyntheticSnapshot implements ChunkSnapshot {
+        private final int x;
+        private final int z;
+        private final Material[] blocks = new Material[16 * 16 * (MAX_Y - MIN_Y)];
+
+        SyntheticSnapshot(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+
+        @Override
+        public int getX() {
+            return x;
+        }
+
+        @Override
+        public int getZ() {
+            return z;
+        }
+
+        @Override
+        public @NotNull String getWorldName() {
+            return "world";
+        }
+
+        @Override
+        public @NotNull Material getBlockType(int cx, int y, int cz) {
+            return blocks[((y - MIN_Y) << 8) | (cz << 4) | cx];
+        }
+
+        @Override
+        public @NotNull BlockData getBlockData(int cx, int y, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getData(int cx, int y, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getBlockSkyLight(int cx, int y, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getBlockEmittedLight(int cx, int y, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getHighestBlockYAt(int cx, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull Biome getBiome(int cx, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull Biome getBiome(int cx, int y, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public double getRawBiomeTemperature(int cx, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public double getRawBiomeTemperature(int cx, int y, int cz) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getCaptureFullTime() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isSectionEmpty(int sy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean contains(@NotNull BlockData block) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean contains(@NotNull Biome biome) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
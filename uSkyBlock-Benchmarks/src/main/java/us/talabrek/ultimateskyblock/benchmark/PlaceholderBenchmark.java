@@ -0,0 +1,89 @@
+package us.talabrek.ultimateskyblock.benchmark;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import us.talabrek.ultimateskyblock.handler.placeholder.PlaceholderReplacerImpl;
+import us.talabrek.ultimateskyblock.handler.placeholder.PlaceholderTemplate;
+import us.talabrek.ultimateskyblock.handler.placeholder.TextPlaceholder;
+import us.talabrek.ultimateskyblock.island.IslandInfo;
+import us.talabrek.ultimateskyblock.island.IslandLogic;
+import us.talabrek.ultimateskyblock.island.LimitLogic;
+import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.player.PlayerLogic;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Replacing {@code {usb_...}} placeholders in a chat or scoreboard line, as done for every player on every refresh.
+ * The island values are cached by the replacer, so after the first invocation only the rendering is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderBenchmark {
+    private static final String LINE = "\u00a77Island \u00a7e{usb_island_leader}\u00a77: level \u00a7a{usb_island_level}"
+        + "\u00a77, party \u00a7b{usb_island_partysize}/{usb_island_partysize_max}";
+
+    private PlaceholderReplacerImpl replacer;
+    private TextPlaceholder textPlaceholder;
+    private Player player;
+
+    @Setup
+    public void setUp() {
+        uSkyBlock plugin = mock(uSkyBlock.class, withSettings().stubOnly());
+        PlayerLogic playerLogic = mock(PlayerLogic.class, withSettings().stubOnly());
+        IslandLogic islandLogic = mock(IslandLogic.class, withSettings().stubOnly());
+        LimitLogic limitLogic = mock(LimitLogic.class, withSettings().stubOnly());
+        Scheduler scheduler = mock(Scheduler.class, withSettings().stubOnly());
+
+        player = mock(Player.class, withSettings().stubOnly());
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        PlayerInfo playerInfo = mock(PlayerInfo.class, withSettings().stubOnly());
+        when(playerLogic.getPlayerInfo(player.getUniqueId())).thenReturn(playerInfo);
+        IslandInfo islandInfo = mock(IslandInfo.class, withSettings().stubOnly());
+        when(islandInfo.getName()).thenReturn("0,0");
+        when(islandInfo.getLeader()).thenReturn("leader");
+        when(islandInfo.getLevel()).thenReturn(123.4);
+        when(islandInfo.getPartySize()).thenReturn(3);
+        when(islandInfo.getMaxPartySize()).thenReturn(4);
+        when(islandLogic.getIslandInfo(playerInfo)).thenReturn(islandInfo);
+
+        replacer = new PlaceholderReplacerImpl(plugin, playerLogic, islandLogic, limitLogic, scheduler);
+        textPlaceholder = new TextPlaceholder(replacer);
+    }
+
+    @Benchmark
+    public String replaceLine() {
+        return textPlaceholder.replacePlaceholders(player, LINE);
+    }
+
+    @Benchmark
+    public String replacePlaceholder() {
+        return replacer.replace(null, player, "usb_island_level");
+    }
+
+    @Benchmark
+    public PlaceholderTemplate compileTemplate() {
+        // As for a line seen for the first time
+        return PlaceholderTemplate.compile(LINE, name -> replacer.getPlaceholders().contains(name));
+    }
+}
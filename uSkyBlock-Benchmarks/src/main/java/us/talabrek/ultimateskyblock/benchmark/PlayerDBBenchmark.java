@@ -0,0 +1,71 @@
+package us.talabrek.ultimateskyblock.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import us.talabrek.ultimateskyblock.uuid.FilePlayerDB;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name and uuid lookups of the {@link FilePlayerDB}, as done for every island member and tab-completion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerDBBenchmark {
+    @Param({"1000", "20000"})
+    public int players;
+
+    private Path dataFolder;
+    private FilePlayerDB playerDB;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        dataFolder = Fixtures.tempDir();
+        playerDB = Fixtures.playerDB(Fixtures.plugin(dataFolder), players);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(dataFolder);
+    }
+
+    private int nextPlayer() {
+        next = (next + 7919) % players;
+        return next;
+    }
+
+    @Benchmark
+    public String getName() {
+        return playerDB.getName(Fixtures.uuid(nextPlayer()));
+    }
+
+    @Benchmark
+    public UUID getUUIDFromName() {
+        return playerDB.getUUIDFromName(Fixtures.name(nextPlayer()), false);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<String> getNamesBySearch() {
+        // As for tab-completion of a player name
+        return playerDB.getNames("player1");
+    }
+}
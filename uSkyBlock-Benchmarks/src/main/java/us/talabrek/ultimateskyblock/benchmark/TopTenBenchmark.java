@@ -0,0 +1,52 @@
+package us.talabrek.ultimateskyblock.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import us.talabrek.ultimateskyblock.island.TopTenComparator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting the islands by level with the {@link TopTenComparator}, as done when the top ten is generated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopTenBenchmark {
+    @Param({"1000", "20000"})
+    public int islands;
+
+    private final Map<String, Double> levels = new HashMap<>();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < islands; i++) {
+            // Many islands share a level, so ties are broken by name
+            levels.put(Fixtures.name(i), (double) random.nextInt(islands / 10 + 1));
+        }
+    }
+
+    @Benchmark
+    public TreeMap<String, Double> sort() {
+        TreeMap<String, Double> sorted = new TreeMap<>(new TopTenComparator(levels));
+        sorted.putAll(levels);
+        return sorted;
+    }
+}
@@ -0,0 +1,319 @@
+package us.talabrek.ultimateskyblock.api.event;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import us.talabrek.ultimateskyblock.api.async.Callback;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
+import us.talabrek.ultimateskyblock.util.BoundedExecutor;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.util.Scheduler.Workload;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fires async API events in the order they were dispatched for each island.
+ * <p>
+ * Events are queued per island, and a few workers on the {@link Workload#EVENTS} executor take turns firing a batch
+ * of events from each island that has any. So events of one island are never fired concurrently or out of order,
+ * while a busy island doesn't hold up the others.
+ * <p>
+ * The number of queued events is bounded; when the queue is full, new events are dropped. A score event that is still
+ * queued when a newer score event for the same island arrives is superseded, and only the newer one is fired.
+ * <p>
+ * An {@link IslandInfoEvent} carries a callback somebody is waiting for, so it is queued even when the queue is full,
+ * and if it can't be fired because the dispatcher has been shut down, its callback is run without it.
+ */
+@Singleton
+public class EventDispatcher {
+    private static final int BATCH_SIZE = 32;
+    // Key of the events not related to a single island
+    private static final String GLOBAL = "";
+
+    private final Executor executor;
+    private final int parallelism;
+    private final int capacity;
+    private final Consumer<Event> caller;
+    private final Logger logger;
+
+    // Guarded by this
+    private final Map<String, IslandQueue> queues = new HashMap<>();
+    private final ArrayDeque<IslandQueue> ready = new ArrayDeque<>();
+    private int queued = 0;
+    private int workers = 0;
+    private boolean shutdown = false;
+    private long dispatched = 0;
+    private long fired = 0;
+    private long coalesced = 0;
+    private long dropped = 0;
+
+    @Inject
+    public EventDispatcher(@NotNull Scheduler scheduler, @NotNull Plugin plugin, @NotNull Logger logger, @NotNull MetricsRegistry metrics) {
+        this(scheduler.getExecutor(Workload.EVENTS), event -> plugin.getServer().getPluginManager().callEvent(event), logger);
+        metrics.counter("usb_events_dispatched_total", "Async API events dispatched", this::getDispatched);
+        metrics.counter("usb_events_fired_total", "Async API events fired", this::getFired);
+        metrics.counter("usb_events_coalesced_total", "Score events superseded by a newer one before firing", this::getCoalesced);
+        metrics.counter("usb_events_dropped_total", "Async API events dropped because the queue was full or shut down", this::getDropped);
+    }
+
+    private EventDispatcher(BoundedExecutor executor, Consumer<Event> caller, Logger logger) {
+        this(task -> {
+            CompletableFuture<Void> future = executor.submit(task);
+            if (future.isCompletedExceptionally()) {
+                throw new RejectedExecutionException(executor.getName() + " rejected the event dispatcher");
+            }
+        }, executor.getThreads(), Math.max(1, executor.getQueueSize()), caller, logger);
+    }
+
+    EventDispatcher(@NotNull Executor executor, int parallelism, int capacity, @NotNull Consumer<Event> caller, @NotNull Logger logger) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.capacity = capacity;
+        this.caller = caller;
+        this.logger = logger;
+    }
+
+    /**
+     * Queues an async event for firing, after the events already queued for the same island.
+     *
+     * @param islandName Name of the island the event is about, or null if it isn't about a single island.
+     * @param event      Async event to fire.
+     * @return False if the event was dropped, because the queue is full or the dispatcher has been shut down.
+     */
+    public boolean dispatch(@Nullable String islandName, @NotNull Event event) {
+        String key = islandName != null ? islandName : GLOBAL;
+        boolean score = event instanceof uSkyBlockScoreChangedEvent;
+        boolean startWorker = false;
+        boolean rejected = false;
+        synchronized (this) {
+            dispatched++;
+            if (shutdown) {
+                dropped++;
+                rejected = true;
+            } else {
+                IslandQueue queue = queues.get(key);
+                if (score && queue != null && queue.score != null && queue.events.peekLast() == queue.score) {
+                    // Nothing happened since the queued score, so the newer score simply takes its place
+                    queue.score.event = event;
+                    coalesced++;
+                    return true;
+                }
+                if (queued >= capacity && !(event instanceof IslandInfoEvent)) {
+                    if (dropped++ % 1000 == 0) {
+                        logger.warning("Dropped " + dropped + " event(s), as more than " + capacity
+                            + " events are waiting to be fired. Consider raising options.advanced.executors.events.queue");
+                    }
+                    return false;
+                }
+                if (score && queue != null && queue.score != null) {
+                    // Fired after the events in between, and the superseded one is skipped. It still takes up room in
+                    // the queue until then, so the queue stays bounded.
+                    queue.score.superseded = true;
+                    coalesced++;
+                }
+                if (queue == null) {
+                    queue = new IslandQueue(key);
+                    queues.put(key, queue);
+                }
+                Pending pending = new Pending(event);
+                queue.events.add(pending);
+                queued++;
+                if (score) {
+                    queue.score = pending;
+                }
+                if (!queue.scheduled) {
+                    queue.scheduled = true;
+                    ready.add(queue);
+                    if (workers < parallelism) {
+                        workers++;
+                        startWorker = true;
+                    }
+                }
+            }
+        }
+        if (rejected) {
+            completeCallback(event);
+            return false;
+        }
+        if (startWorker) {
+            startWorker();
+        }
+        return true;
+    }
+
+    private void startWorker() {
+        try {
+            executor.execute(this::work);
+        } catch (RejectedExecutionException e) {
+            List<Event> unfired = List.of();
+            synchronized (this) {
+                workers--;
+                if (workers == 0 && shutdown) {
+                    unfired = dropQueued();
+                }
+            }
+            unfired.forEach(this::completeCallback);
+        }
+    }
+
+    /**
+     * Fires batches of events from the islands with queued events, until no island has any.
+     */
+    private void work() {
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            IslandQueue queue;
+            synchronized (this) {
+                queue = ready.poll();
+                if (queue == null) {
+                    workers--;
+                    return;
+                }
+                while (batch.size() < BATCH_SIZE && !queue.events.isEmpty()) {
+                    Pending pending = queue.events.poll();
+                    queued--;
+                    if (pending == queue.score) {
+                        queue.score = null;
+                    }
+                    if (!pending.superseded) {
+                        batch.add(pending.event);
+                    }
+                }
+            }
+            for (Event event : batch) {
+                try {
+                    caller.accept(event);
+                } catch (Throwable t) {
+                    logger.log(Level.WARNING, "Error firing " + event.getEventName(), t);
+                }
+            }
+            synchronized (this) {
+                fired += batch.size();
+                if (queue.events.isEmpty()) {
+                    queue.scheduled = false;
+                    queues.remove(queue.key);
+                } else {
+                    // Back of the line, so the other islands get their turn
+                    ready.add(queue);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * @return The dropped events that weren't superseded.
+     */
+    private List<Event> dropQueued() {
+        List<Event> unfired = new ArrayList<>();
+        for (IslandQueue queue : queues.values()) {
+            for (Pending pending : queue.events) {
+                if (!pending.superseded) {
+                    unfired.add(pending.event);
+                }
+            }
+        }
+        dropped += queued;
+        queued = 0;
+        queues.clear();
+        ready.clear();
+        return unfired;
+    }
+
+    /**
+     * Runs the callback of an event that won't be fired, so whoever is waiting for it isn't left hanging.
+     */
+    private void completeCallback(Event event) {
+        if (event instanceof IslandInfoEvent infoEvent && infoEvent.getCallback() != null) {
+            Callback<?> callback = infoEvent.getCallback();
+            try {
+                callback.run();
+            } catch (Throwable t) {
+                logger.log(Level.WARNING, "Error completing the callback of " + event.getEventName(), t);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting events. Events already queued are still fired, until the events executor is shut down.
+     */
+    public void shutdown() {
+        List<Event> unfired = List.of();
+        synchronized (this) {
+            shutdown = true;
+            if (workers == 0) {
+                unfired = dropQueued();
+            }
+        }
+        unfired.forEach(this::completeCallback);
+    }
+
+    /**
+     * @return The number of events waiting to be fired, including superseded ones not yet skipped.
+     */
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    /**
+     * @return The number of islands with events waiting to be fired.
+     */
+    public synchronized int getQueuedIslands() {
+        return queues.size();
+    }
+
+    public synchronized long getDispatched() {
+        return dispatched;
+    }
+
+    public synchronized long getFired() {
+        return fired;
+    }
+
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    synchronized boolean isIdle() {
+        return queued == 0 && workers == 0;
+    }
+
+    private static final class IslandQueue {
+        private final String key;
+        private final ArrayDeque<Pending> events = new ArrayDeque<>();
+        // The queued score event, if any
+        private Pending score;
+        // Whether the island is in line, or its events are being fired
+        private boolean scheduled;
+
+        private IslandQueue(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Pending {
+        private Event event;
+        private boolean superseded;
+
+        private Pending(Event event) {
+            this.event = event;
+        }
+    }
+}
@@ -1,18 +1,31 @@
 package us.talabrek.ultimateskyblock.api.event;
 
 import com.google.inject.Inject;
-import org.bukkit.Bukkit;
+import org.bukkit.block.Biome;
+import org.bukkit.event.Event;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import us.talabrek.ultimateskyblock.api.event.island.IslandBiomeChangedEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandPerksChangedEvent;
 import us.talabrek.ultimateskyblock.island.IslandInfo;
 import us.talabrek.ultimateskyblock.player.PlayerInfo;
-import us.talabrek.ultimateskyblock.util.Scheduler;
 
 public class EventLogic {
-    private final Scheduler scheduler;
+    private final EventDispatcher dispatcher;
 
     @Inject
-    public EventLogic(@NotNull Scheduler scheduler) {
-        this.scheduler = scheduler;
+    public EventLogic(@NotNull EventDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Fires an async event, after the events already fired for the same island.
+     *
+     * @param islandName Name of the island the event is about, or null if it isn't about a single island.
+     * @param event      Async event to fire.
+     */
+    public void fireAsyncEvent(@Nullable String islandName, @NotNull Event event) {
+        dispatcher.dispatch(islandName, event);
     }
 
     /**
@@ -25,7 +38,7 @@ public class EventLogic {
     public void fireIslandLeaderChangedEvent(us.talabrek.ultimateskyblock.api.IslandInfo islandInfo,
                                              us.talabrek.ultimateskyblock.api.PlayerInfo originalLeaderInfo,
                                              us.talabrek.ultimateskyblock.api.PlayerInfo newLeaderInfo) {
-        scheduler.async(() -> Bukkit.getPluginManager().callEvent(new IslandLeaderChangedEvent(islandInfo, originalLeaderInfo, newLeaderInfo)));
+        dispatcher.dispatch(islandInfo.getName(), new IslandLeaderChangedEvent(islandInfo, originalLeaderInfo, newLeaderInfo));
     }
 
     /**
@@ -35,7 +48,7 @@ public class EventLogic {
      * @param playerInfo {@link PlayerInfo} for the joined member.
      */
     public void fireMemberJoinedEvent(us.talabrek.ultimateskyblock.island.IslandInfo islandInfo, us.talabrek.ultimateskyblock.player.PlayerInfo playerInfo) {
-        scheduler.async(() -> Bukkit.getPluginManager().callEvent(new MemberJoinedEvent(islandInfo, playerInfo)));
+        dispatcher.dispatch(islandInfo.getName(), new MemberJoinedEvent(islandInfo, playerInfo));
     }
 
     /**
@@ -45,10 +58,29 @@ public class EventLogic {
      * @param member     {@link PlayerInfo} for the left member.
      */
     public void fireMemberLeftEvent(IslandInfo islandInfo, PlayerInfo member) {
-        scheduler.async(() -> Bukkit.getPluginManager().callEvent(new MemberLeftEvent(islandInfo, member)));
+        dispatcher.dispatch(islandInfo.getName(), new MemberLeftEvent(islandInfo, member));
+    }
+
+    /**
+     * Fires a new async {@link IslandBiomeChangedEvent}.
+     *
+     * @param islandInfo {@link IslandInfo} for the island that changed biome.
+     * @param biome      The new {@link Biome} of the island.
+     */
+    public void fireIslandBiomeChangedEvent(IslandInfo islandInfo, Biome biome) {
+        dispatcher.dispatch(islandInfo.getName(), new IslandBiomeChangedEvent(islandInfo, biome));
+    }
+
+    /**
+     * Fires a new async {@link IslandPerksChangedEvent}.
+     *
+     * @param islandInfo {@link IslandInfo} for the island that was changed by the perks of a member.
+     */
+    public void fireIslandPerksChangedEvent(IslandInfo islandInfo) {
+        dispatcher.dispatch(islandInfo.getName(), new IslandPerksChangedEvent(islandInfo));
     }
 
     public void shutdown() {
-        // Placeholder for now.
+        dispatcher.shutdown();
     }
 }
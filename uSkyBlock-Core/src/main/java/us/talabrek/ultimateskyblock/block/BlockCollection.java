@@ -19,8 +19,11 @@ public class BlockCollection {
     }
 
     public void add(Block block) {
-        int currentValue = blockCount.getOrDefault(block.getType(), 0);
-        blockCount.put(block.getType(), currentValue + 1);
+        add(block.getType());
+    }
+
+    public void add(Material type) {
+        blockCount.merge(type, 1, Integer::sum);
     }
 
     /**
@@ -29,7 +32,7 @@ public class BlockCollection {
     public String diff(List<BlockRequirement> requirements) {
         StringBuilder sb = new StringBuilder();
         for (BlockRequirement requirement : requirements) {
-            int diff = requirement.amount() - count(requirement.type().getMaterial());
+            int diff = requirement.amount() - getCount(requirement.type().getMaterial());
             if (diff > 0) {
                 sb.append(tr(" \u00a7f{0}x \u00a77{1}", diff, ItemStackUtil.getBlockName(requirement.type())));
             }
@@ -40,7 +43,7 @@ public class BlockCollection {
         return tr("\u00a7eStill the following blocks short: {0}", sb.toString());
     }
 
-    private int count(Material type) {
+    public int getCount(Material type) {
         return blockCount.getOrDefault(type, 0);
     }
 }
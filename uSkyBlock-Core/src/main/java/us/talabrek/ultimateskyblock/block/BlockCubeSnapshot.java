@@ -0,0 +1,99 @@
+package us.talabrek.ultimateskyblock.block;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of the chunks covering a cube of blocks, which can be counted off the main thread.
+ */
+public class BlockCubeSnapshot {
+    private final Map<Long, ChunkSnapshot> snapshots;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    BlockCubeSnapshot(@NotNull Map<Long, ChunkSnapshot> snapshots, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.snapshots = snapshots;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Captures the chunks covering the cube with the given radius around the location.
+     * Must be called from the main thread.
+     *
+     * @param center Center of the cube.
+     * @param radius Radius of the cube.
+     * @return Snapshot of the cube.
+     */
+    public static BlockCubeSnapshot capture(@NotNull Location center, int radius) {
+        World world = center.getWorld();
+        int minX = center.getBlockX() - radius;
+        int maxX = center.getBlockX() + radius;
+        int minZ = center.getBlockZ() - radius;
+        int maxZ = center.getBlockZ() + radius;
+        int minY = Math.max(center.getBlockY() - radius, world.getMinHeight());
+        int maxY = Math.min(center.getBlockY() + radius, world.getMaxHeight() - 1);
+        Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                snapshots.put(chunkKey(cx, cz), world.getChunkAt(cx, cz).getChunkSnapshot(false, false, false));
+            }
+        }
+        return new BlockCubeSnapshot(snapshots, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Counts the blocks of the given materials in the cube. Other materials are skipped.
+     *
+     * @param materials Materials to count.
+     * @return Collection holding the count of each of the given materials found.
+     */
+    public BlockCollection count(@NotNull Set<Material> materials) {
+        BlockCollection blockCollection = new BlockCollection();
+        if (materials.isEmpty()) {
+            return blockCollection;
+        }
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                ChunkSnapshot snapshot = snapshots.get(chunkKey(cx, cz));
+                if (snapshot == null) {
+                    continue;
+                }
+                int x1 = Math.max(minX, cx << 4);
+                int x2 = Math.min(maxX, (cx << 4) + 15);
+                int z1 = Math.max(minZ, cz << 4);
+                int z2 = Math.min(maxZ, (cz << 4) + 15);
+                for (int x = x1; x <= x2; x++) {
+                    for (int z = z1; z <= z2; z++) {
+                        for (int y = minY; y <= maxY; y++) {
+                            Material type = snapshot.getBlockType(x & 0xF, y, z & 0xF);
+                            if (materials.contains(type)) {
+                                blockCollection.add(type);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return blockCollection;
+    }
+}
@@ -9,6 +9,7 @@ import org.jetbrains.annotations.NotNull;
 import us.talabrek.ultimateskyblock.PluginConfig;
 import us.talabrek.ultimateskyblock.Settings;
 import us.talabrek.ultimateskyblock.chat.ChatEvents;
+import us.talabrek.ultimateskyblock.chat.ChatRecipients;
 import us.talabrek.ultimateskyblock.event.ExploitEvents;
 import us.talabrek.ultimateskyblock.event.GriefEvents;
 import us.talabrek.ultimateskyblock.event.InternalEvents;
@@ -21,6 +22,9 @@ import us.talabrek.ultimateskyblock.event.ToolMenuEvents;
 import us.talabrek.ultimateskyblock.event.WitherTagEvents;
 import us.talabrek.ultimateskyblock.event.WorldGuardEvents;
 import us.talabrek.ultimateskyblock.gui.GuiListener;
+import us.talabrek.ultimateskyblock.metrics.ListenerProfiler;
+import us.talabrek.ultimateskyblock.player.PerkLogic;
+import us.talabrek.ultimateskyblock.player.SafeLocationCache;
 import us.talabrek.ultimateskyblock.signs.SignEvents;
 import us.talabrek.ultimateskyblock.command.InviteHandler;
 import us.talabrek.ultimateskyblock.uuid.PlayerDB;
@@ -44,8 +48,12 @@ public class Listeners {
     private final ToolMenuEvents toolMenuEvents;
     private final SignEvents signEvents;
     private final ChatEvents chatEvents;
+    private final ChatRecipients chatRecipients;
     private final InviteHandler inviteHandler;
     private final PlayerDB playerDB;
+    private final SafeLocationCache safeLocationCache;
+    private final PerkLogic perkLogic;
+    private final ListenerProfiler profiler;
 
     @Inject
     public Listeners(
@@ -64,8 +72,12 @@ public class Listeners {
         @NotNull ToolMenuEvents toolMenuEvents,
         @NotNull SignEvents signEvents,
         @NotNull ChatEvents chatEvents,
+        @NotNull ChatRecipients chatRecipients,
         @NotNull InviteHandler inviteHandler,
-        @NotNull PlayerDB playerDB
+        @NotNull PlayerDB playerDB,
+        @NotNull SafeLocationCache safeLocationCache,
+        @NotNull PerkLogic perkLogic,
+        @NotNull ListenerProfiler profiler
     ) {
         this.config = config;
         this.guiListener = guiListener;
@@ -82,44 +94,54 @@ public class Listeners {
         this.toolMenuEvents = toolMenuEvents;
         this.signEvents = signEvents;
         this.chatEvents = chatEvents;
+        this.chatRecipients = chatRecipients;
         this.inviteHandler = inviteHandler;
         this.playerDB = playerDB;
+        this.safeLocationCache = safeLocationCache;
+        this.perkLogic = perkLogic;
+        this.profiler = profiler;
     }
 
     public void registerListeners(Plugin plugin) {
         PluginManager manager = plugin.getServer().getPluginManager();
 
-        manager.registerEvents(internalEvents, plugin);
-        manager.registerEvents(playerEvents, plugin);
-        manager.registerEvents(menuEvents, plugin);
-        manager.registerEvents(guiListener, plugin);
-        manager.registerEvents(exploitEvents, plugin);
-        manager.registerEvents(witherTagEvents, plugin);
-        manager.registerEvents(chatEvents, plugin);
-        manager.registerEvents(inviteHandler, plugin);
-        manager.registerEvents(playerDB, plugin);
+        profiler.registerEvents(manager, internalEvents, plugin);
+        profiler.registerEvents(manager, playerEvents, plugin);
+        profiler.registerEvents(manager, menuEvents, plugin);
+        profiler.registerEvents(manager, guiListener, plugin);
+        profiler.registerEvents(manager, exploitEvents, plugin);
+        profiler.registerEvents(manager, witherTagEvents, plugin);
+        profiler.registerEvents(manager, chatEvents, plugin);
+        profiler.registerEvents(manager, chatRecipients, plugin);
+        chatRecipients.indexOnlinePlayers(plugin.getServer().getOnlinePlayers());
+        profiler.registerEvents(manager, inviteHandler, plugin);
+        profiler.registerEvents(manager, playerDB, plugin);
+        profiler.registerEvents(manager, perkLogic, plugin);
+        if (safeLocationCache.isEnabled()) {
+            profiler.registerEvents(manager, safeLocationCache, plugin);
+        }
 
         // TODO minoneer 06.02.2025: Move this logic. Either into the appropriate listener, or into submodules if we don't want all features active (e.g., the nether)
         if (config.getYamlConfig().getBoolean("options.protection.enabled", true)) {
-            manager.registerEvents(griefEvents, plugin);
+            profiler.registerEvents(manager, griefEvents, plugin);
             if (config.getYamlConfig().getBoolean("options.protection.item-drops", true)) {
-                manager.registerEvents(itemDropEvents, plugin);
+                profiler.registerEvents(manager, itemDropEvents, plugin);
             }
         }
         if (config.getYamlConfig().getBoolean("options.island.spawn-limits.enabled", true)) {
-            manager.registerEvents(spawnEvents, plugin);
+            profiler.registerEvents(manager, spawnEvents, plugin);
         }
         if (config.getYamlConfig().getBoolean("options.protection.visitors.block-banned-entry", true)) {
-            manager.registerEvents(worldGuardEvents, plugin);
+            profiler.registerEvents(manager, worldGuardEvents, plugin);
         }
         if (Settings.nether_enabled) {
-            manager.registerEvents(netherTerraFormEvents, plugin);
+            profiler.registerEvents(manager, netherTerraFormEvents, plugin);
         }
         if (config.getYamlConfig().getBoolean("tool-menu.enabled", true)) {
-            manager.registerEvents(toolMenuEvents, plugin);
+            profiler.registerEvents(manager, toolMenuEvents, plugin);
         }
         if (config.getYamlConfig().getBoolean("signs.enabled", true)) {
-            manager.registerEvents(signEvents, plugin);
+            profiler.registerEvents(manager, signEvents, plugin);
         }
     }
 
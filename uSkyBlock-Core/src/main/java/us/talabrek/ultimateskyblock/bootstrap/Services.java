@@ -14,8 +14,12 @@ import us.talabrek.ultimateskyblock.handler.placeholder.PlaceholderModule;
 import us.talabrek.ultimateskyblock.hook.HookManager;
 import us.talabrek.ultimateskyblock.island.IslandLogic;
 import us.talabrek.ultimateskyblock.island.level.AutoIslandLevelRefresh;
+import us.talabrek.ultimateskyblock.metrics.MetricsExporter;
+import us.talabrek.ultimateskyblock.player.PerkLogic;
 import us.talabrek.ultimateskyblock.player.PlayerLogic;
 import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.util.TimingWheel;
 import us.talabrek.ultimateskyblock.uuid.PlayerDB;
 
 @Singleton
@@ -25,12 +29,16 @@ public class Services {
     private final ChallengeLogic challengeLogic;
     private final EventLogic eventLogic;
     private final PlayerLogic playerLogic;
+    private final PerkLogic perkLogic;
     private final IslandLogic islandLogic;
     private final PlayerDB playerDB;
     private final MetricsManager metricsManager;
     private final HookManager hookManager;
     private final AutoIslandLevelRefresh autoIslandLevelRefresh;
     private final PlaceholderModule placeholderModule;
+    private final TimingWheel timingWheel;
+    private final Scheduler scheduler;
+    private final MetricsExporter metricsExporter;
 
     @Inject
     public Services(
@@ -38,29 +46,38 @@ public class Services {
         @NotNull ChallengeLogic challengeLogic,
         @NotNull EventLogic eventLogic,
         @NotNull PlayerLogic playerLogic,
+        @NotNull PerkLogic perkLogic,
         @NotNull IslandLogic islandLogic,
         @NotNull PlayerDB playerDB,
         @NotNull MetricsManager metricsManager,
         @NotNull HookManager hookManager,
         @NotNull AutoIslandLevelRefresh autoIslandLevelRefresh,
-        @NotNull PlaceholderModule placeholderModule
+        @NotNull PlaceholderModule placeholderModule,
+        @NotNull TimingWheel timingWheel,
+        @NotNull Scheduler scheduler,
+        @NotNull MetricsExporter metricsExporter
     ) {
         this.animationHandler = animationHandler;
         this.challengeLogic = challengeLogic;
         this.eventLogic = eventLogic;
         this.playerLogic = playerLogic;
+        this.perkLogic = perkLogic;
         this.islandLogic = islandLogic;
         this.playerDB = playerDB;
         this.metricsManager = metricsManager;
         this.hookManager = hookManager;
         this.autoIslandLevelRefresh = autoIslandLevelRefresh;
         this.placeholderModule = placeholderModule;
+        this.timingWheel = timingWheel;
+        this.scheduler = scheduler;
+        this.metricsExporter = metricsExporter;
     }
 
     public void startup(uSkyBlock plugin) {
         metricsManager.setup();
         autoIslandLevelRefresh.startup();
         placeholderModule.startup(plugin);
+        metricsExporter.startup();
     }
 
     public void delayedEnable(uSkyBlock plugin) {
@@ -80,8 +97,13 @@ public class Services {
         challengeLogic.shutdown();
         eventLogic.shutdown();
         playerLogic.shutdown();
+        perkLogic.shutdown();
         islandLogic.shutdown();
         playerDB.shutdown();
+        hookManager.shutdown();
+        metricsExporter.shutdown();
+        timingWheel.shutdown();
+        scheduler.shutdown();
         AsyncWorldEditHandler.onDisable(plugin);
         DebugCommand.disableLogging(null);
     }
@@ -185,20 +185,20 @@ public class Challenge {
             }
             reward = getRepeatReward();
         }
-        Map<ItemStack, Integer> requiredItemsForChallenge = getRequiredItems(timesCompleted);
-        if (!requiredItemsForChallenge.isEmpty() || !requiredBlocks.isEmpty()
+        if (!requiredItems.isEmpty() || !requiredBlocks.isEmpty()
             || (requiredEntities != null && !requiredEntities.isEmpty())) {
             lores.add(tr("\u00a7eThis challenge requires:"));
         }
         List<String> details = new ArrayList<>();
-        if (!requiredItemsForChallenge.isEmpty()) {
-            for (Map.Entry<ItemStack, Integer> requiredItem : requiredItemsForChallenge.entrySet()) {
+        if (!requiredItems.isEmpty()) {
+            // Read-only, so no need for the copies made by getRequiredItems
+            for (ItemRequirement requiredItem : requiredItems) {
                 if (wrappedDetails(details).size() >= MAX_DETAILS) {
                     details.add(tr("\u00a77and more..."));
                     break;
                 }
-                int requiredAmount = requiredItem.getValue();
-                ItemStack requiredType = requiredItem.getKey();
+                int requiredAmount = requiredItem.amountForRepetitions(timesCompleted);
+                ItemStack requiredType = requiredItem.type();
                 details.add(requiredAmount > 1
                     ? tr("\u00a7f{0}x \u00a77{1}", requiredAmount, ItemStackUtil.getItemName(requiredType))
                     : tr("\u00a77{0}", ItemStackUtil.getItemName(requiredType)));
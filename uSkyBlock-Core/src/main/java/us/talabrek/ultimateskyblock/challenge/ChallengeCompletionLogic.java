@@ -11,10 +11,13 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.jetbrains.annotations.NotNull;
 import us.talabrek.ultimateskyblock.island.IslandInfo;
 import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.storage.DataFormat;
+import us.talabrek.ultimateskyblock.storage.SnapshotCodec;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
@@ -30,14 +33,22 @@ public class ChallengeCompletionLogic {
     private final uSkyBlock plugin;
     private final File storageFolder;
     private final boolean storeOnIsland;
+    private final DataFormat dataFormat;
     private final LoadingCache<String, Map<String, ChallengeCompletion>> completionCache;
+    private final ChallengeMenuCache menuCache;
 
-    public ChallengeCompletionLogic(uSkyBlock plugin, FileConfiguration config) {
+    public ChallengeCompletionLogic(uSkyBlock plugin, FileConfiguration config, ChallengeMenuCache menuCache) {
         this.plugin = plugin;
+        this.menuCache = menuCache;
         storeOnIsland = config.getString("challengeSharing", "island").equalsIgnoreCase("island");
+        dataFormat = DataFormat.fromConfig(plugin.getConfig());
         completionCache = CacheBuilder
             .from(plugin.getConfig().getString("options.advanced.completionCache", "maximumSize=200,expireAfterWrite=15m,expireAfterAccess=10m"))
-            .removalListener((RemovalListener<String, Map<String, ChallengeCompletion>>) removal -> saveToFile(removal.getKey(), removal.getValue()))
+            .recordStats()
+            .removalListener((RemovalListener<String, Map<String, ChallengeCompletion>>) removal -> {
+                menuCache.invalidate(removal.getKey());
+                saveToFile(removal.getKey(), removal.getValue());
+            })
             .build(new CacheLoader<>() {
                        @Override
                        public @NotNull Map<String, ChallengeCompletion> load(@NotNull String id) {
@@ -52,17 +63,30 @@ public class ChallengeCompletionLogic {
     }
 
     private void saveToFile(String id, Map<String, ChallengeCompletion> map) {
-        File configFile = new File(storageFolder, id + ".yml");
-        FileConfiguration fileConfiguration = new YamlConfiguration();
-        saveToConfiguration(fileConfiguration, map);
+        File configFile = dataFormat.getFile(storageFolder, id);
         try {
-            fileConfiguration.save(configFile);
+            if (dataFormat == DataFormat.BINARY) {
+                SnapshotCodec.writeCompletions(map.values(), configFile.toPath());
+            } else {
+                FileConfiguration fileConfiguration = new YamlConfiguration();
+                saveToConfiguration(fileConfiguration, map);
+                fileConfiguration.save(configFile);
+            }
+            // Otherwise the file in the other format would be read instead, if it is newer
+            for (DataFormat format : DataFormat.values()) {
+                if (format != dataFormat) {
+                    Files.deleteIfExists(format.getFile(storageFolder, id).toPath());
+                }
+            }
         } catch (IOException e) {
             plugin.getLogger().log(Level.WARNING, "Unable to store challenge-completion to " + configFile, e);
         }
     }
 
-    private void saveToConfiguration(FileConfiguration configuration, Map<String, ChallengeCompletion> map) {
+    /**
+     * Writes the completions to the configuration, in the format of the yml files.
+     */
+    public static void saveToConfiguration(FileConfiguration configuration, Map<String, ChallengeCompletion> map) {
         for (Map.Entry<String, ChallengeCompletion> entry : map.entrySet()) {
             String challengeName = entry.getKey();
             ChallengeCompletion completion = entry.getValue();
@@ -76,17 +100,36 @@ public class ChallengeCompletionLogic {
     }
 
     private Map<String, ChallengeCompletion> loadFromFile(String id) {
-        File configFile = new File(storageFolder, id + ".yml");
-        if (!configFile.exists() && storeOnIsland) {
+        File configFile = DataFormat.locate(storageFolder, id);
+        if (configFile == null && storeOnIsland) {
             IslandInfo islandInfo = plugin.getIslandInfo(id);
             if (islandInfo != null && islandInfo.getLeader() != null && islandInfo.getLeaderUniqueId() != null) {
-                File leaderFile = new File(storageFolder, islandInfo.getLeaderUniqueId().toString() + ".yml");
-                if (leaderFile.exists()) {
+                File leaderFile = DataFormat.locate(storageFolder, islandInfo.getLeaderUniqueId().toString());
+                if (leaderFile != null) {
+                    configFile = DataFormat.of(leaderFile).getFile(storageFolder, id);
                     leaderFile.renameTo(configFile);
                 }
             }
         }
-        if (configFile.exists()) {
+        if (configFile != null && DataFormat.of(configFile) == DataFormat.BINARY) {
+            try {
+                Map<String, ChallengeCompletion> stored = SnapshotCodec.readCompletions(configFile.toPath());
+                Map<String, ChallengeCompletion> challengeMap = new ConcurrentHashMap<>();
+                plugin.getChallengeLogic().populateChallenges(challengeMap);
+                for (String challengeName : challengeMap.keySet()) {
+                    ChallengeCompletion completion = stored.get(challengeName);
+                    if (completion != null) {
+                        challengeMap.put(challengeName, completion);
+                    }
+                }
+                return challengeMap;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Unable to read challenge-completion from " + configFile, e);
+                SnapshotCodec.keepUnreadable(configFile.toPath());
+                configFile = DataFormat.YML.getFile(storageFolder, id);
+            }
+        }
+        if (configFile != null && configFile.exists()) {
             FileConfiguration fileConfiguration = new YamlConfiguration();
             FileUtil.readConfig(fileConfiguration, configFile);
             if (fileConfiguration.getRoot() != null) {
@@ -141,6 +184,7 @@ public class ChallengeCompletionLogic {
             challengeMap = loadFromConfiguration(playerInfo.getConfig().getConfigurationSection("player.challenges"));
             if (!challengeMap.isEmpty()) {
                 completionCache.put(id, challengeMap);
+                menuCache.invalidate(id);
             }
             // Wipe it
             playerInfo.getConfig().set("player.challenges", null);
@@ -149,7 +193,10 @@ public class ChallengeCompletionLogic {
         return challengeMap;
     }
 
-    private String getCacheId(PlayerInfo playerInfo) {
+    /**
+     * @return The id the completions of the player are stored under, i.e. the island or the player.
+     */
+    String getCacheId(PlayerInfo playerInfo) {
         return storeOnIsland ? playerInfo.locationForParty() : playerInfo.getUniqueId().toString();
     }
 
@@ -167,6 +214,7 @@ public class ChallengeCompletionLogic {
                 }
             }
             completion.addTimesCompleted();
+            menuCache.invalidate(getCacheId(playerInfo));
         }
     }
 
@@ -175,6 +223,7 @@ public class ChallengeCompletionLogic {
         if (challenges.containsKey(challenge)) {
             challenges.get(challenge).setTimesCompleted(0);
             challenges.get(challenge).setCooldownUntil(null);
+            menuCache.invalidate(getCacheId(playerInfo));
         }
     }
 
@@ -195,12 +244,17 @@ public class ChallengeCompletionLogic {
         Map<String, ChallengeCompletion> challengeMap = new ConcurrentHashMap<>();
         plugin.getChallengeLogic().populateChallenges(challengeMap);
         completionCache.put(getCacheId(playerInfo), challengeMap);
+        menuCache.invalidate(getCacheId(playerInfo));
     }
 
     public void shutdown() {
         flushCache();
     }
 
+    LoadingCache<String, Map<String, ChallengeCompletion>> getCompletionCache() {
+        return completionCache;
+    }
+
     public long flushCache() {
         long size = completionCache.size();
         completionCache.invalidateAll();
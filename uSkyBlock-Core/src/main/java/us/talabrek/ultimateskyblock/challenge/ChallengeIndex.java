@@ -0,0 +1,172 @@
+package us.talabrek.ultimateskyblock.challenge;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static dk.lockfuglsang.minecraft.util.FormatUtil.stripFormatting;
+import static us.talabrek.ultimateskyblock.challenge.ChallengeLogic.ROWS_OF_RANKS;
+
+/**
+ * Immutable lookup structures for the configured challenges, built once when the challenges are loaded.
+ */
+public class ChallengeIndex {
+    private final List<Rank> ranks;
+    private final List<String> names;
+    // lower-cased name or display-name -> first challenge (in config order) matching it
+    private final Map<String, Challenge> exact;
+    // challenge names sorted, with the challenge at the same index
+    private final String[] sortedNames;
+    private final Challenge[] sortedChallenges;
+    // prefixRows[i] = number of menu rows used by ranks 0..i
+    private final int[] prefixRows;
+
+    public ChallengeIndex(@NotNull Collection<Rank> ranks) {
+        this.ranks = List.copyOf(ranks);
+        List<String> allNames = new ArrayList<>();
+        List<Challenge> allChallenges = new ArrayList<>();
+        Map<String, Challenge> exactMap = new HashMap<>();
+        for (Rank rank : this.ranks) {
+            for (Challenge challenge : rank.getChallenges()) {
+                allNames.add(challenge.getName());
+                allChallenges.add(challenge);
+                exactMap.putIfAbsent(challenge.getName().toLowerCase(Locale.ROOT), challenge);
+                exactMap.putIfAbsent(stripFormatting(challenge.getDisplayName()).toLowerCase(Locale.ROOT), challenge);
+            }
+        }
+        this.names = Collections.unmodifiableList(allNames);
+        this.exact = exactMap;
+
+        Integer[] order = new Integer[allChallenges.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(allNames::get));
+        sortedNames = new String[order.length];
+        sortedChallenges = new Challenge[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedNames[i] = allNames.get(order[i]);
+            sortedChallenges[i] = allChallenges.get(order[i]);
+        }
+
+        prefixRows = new int[this.ranks.size()];
+        int totalRows = 0;
+        int previousRowsOnPage = 0;
+        for (int i = 0; i < prefixRows.length; i++) {
+            int currentRows = getRows(this.ranks.get(i));
+            totalRows += currentRows;
+            if (previousRowsOnPage < ROWS_OF_RANKS && (currentRows + previousRowsOnPage) > ROWS_OF_RANKS) {
+                totalRows = totalRows + (ROWS_OF_RANKS - previousRowsOnPage);
+                previousRowsOnPage = currentRows;
+            } else {
+                previousRowsOnPage = previousRowsOnPage + currentRows;
+            }
+            prefixRows[i] = totalRows;
+        }
+    }
+
+    private static int getRows(Rank rank) {
+        int rankSize = 0;
+        for (Challenge challenge : rank.getChallenges()) {
+            rankSize += challenge.getOffset() + 1;
+        }
+        return (int) Math.ceil(rankSize / 8f);
+    }
+
+    /**
+     * Looks up a challenge by name or display-name (ignoring case), or by a prefix of the name
+     * if that prefix identifies exactly one challenge.
+     *
+     * @param challengeName Name, display-name or name prefix of the challenge.
+     * @return The challenge, or null if none or more than one matched.
+     */
+    public @Nullable Challenge getChallenge(@Nullable String challengeName) {
+        if (challengeName == null) {
+            return null;
+        }
+        Challenge challenge = exact.get(challengeName.toLowerCase(Locale.ROOT));
+        if (challenge != null) {
+            return challenge;
+        }
+        int from = lowerBound(challengeName);
+        if (from < sortedNames.length && sortedNames[from].startsWith(challengeName)
+            && (from + 1 == sortedNames.length || !sortedNames[from + 1].startsWith(challengeName))) {
+            return sortedChallenges[from];
+        }
+        return null;
+    }
+
+    /**
+     * @return All challenge names, in config order.
+     */
+    public @NotNull List<String> getChallengeNames() {
+        return names;
+    }
+
+    /**
+     * Returns the sorted challenge names starting with the given prefix (ignoring case).
+     *
+     * @param prefix The prefix to complete.
+     * @return Sorted list of matching challenge names.
+     */
+    public @NotNull List<String> complete(@NotNull String prefix) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        List<String> result = new ArrayList<>();
+        for (int i = lowerBound(lowerPrefix); i < sortedNames.length && sortedNames[i].startsWith(lowerPrefix); i++) {
+            result.add(sortedNames[i]);
+        }
+        return result;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = sortedNames.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedNames[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public @NotNull List<Rank> getRanks() {
+        return ranks;
+    }
+
+    /**
+     * Returns the ranks to show on the given page of the challenge menu, starting with the first rank that
+     * does not fit on the previous pages.
+     *
+     * @param page Page number, starting at 1.
+     * @return Ranks from the first rank on the page until the last rank.
+     */
+    public @NotNull List<Rank> getRanksForPage(int page) {
+        int rowsToSkip = (page - 1) * ROWS_OF_RANKS;
+        for (int i = 0; i < prefixRows.length; i++) {
+            if (rowsToSkip <= 0 || prefixRows[i] > rowsToSkip) {
+                return ranks.subList(i, ranks.size());
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    public int getTotalRows() {
+        return prefixRows.length > 0 ? prefixRows[prefixRows.length - 1] : 0;
+    }
+
+    public int getTotalPages() {
+        return (int) Math.ceil(1f * getTotalRows() / ROWS_OF_RANKS);
+    }
+}
@@ -3,13 +3,12 @@ package us.talabrek.ultimateskyblock.challenge;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import dk.lockfuglsang.minecraft.file.FileUtil;
+import dk.lockfuglsang.minecraft.po.I18nUtil;
 import dk.lockfuglsang.minecraft.util.BlockRequirement;
 import dk.lockfuglsang.minecraft.util.FormatUtil;
 import dk.lockfuglsang.minecraft.util.ItemStackUtil;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
-import org.bukkit.World;
-import org.bukkit.block.Block;
+import org.bukkit.Material;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Entity;
@@ -24,12 +23,15 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 import us.talabrek.ultimateskyblock.api.event.MemberJoinedEvent;
 import us.talabrek.ultimateskyblock.block.BlockCollection;
+import us.talabrek.ultimateskyblock.block.BlockCubeSnapshot;
 import us.talabrek.ultimateskyblock.hook.HookManager;
 import us.talabrek.ultimateskyblock.island.IslandInfo;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
 import us.talabrek.ultimateskyblock.player.Perk;
 import us.talabrek.ultimateskyblock.player.PerkLogic;
 import us.talabrek.ultimateskyblock.player.PlayerInfo;
 import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.Scheduler;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -37,20 +39,22 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 
 import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
-import static dk.lockfuglsang.minecraft.util.FormatUtil.stripFormatting;
 
 /**
  * The home of challenge business logic.
@@ -66,29 +70,38 @@ public class ChallengeLogic implements Listener {
     private final uSkyBlock plugin;
     private final PerkLogic perkLogic;
     private final HookManager hookManager;
+    private final Scheduler scheduler;
 
     private final Map<String, Rank> ranks;
+    private final ChallengeIndex index;
 
     public final ChallengeDefaults defaults;
     public final ChallengeCompletionLogic completionLogic;
     private final ItemStack lockedItem;
     private final Map<Challenge.Type, ItemStack> lockedItemMap = new EnumMap<>(Challenge.Type.class);
+    private final Set<UUID> islandChecksInProgress = ConcurrentHashMap.newKeySet();
+    private final ChallengeMenuCache menuCache = new ChallengeMenuCache();
 
     @Inject
     public ChallengeLogic(
         @NotNull Logger logger,
         @NotNull uSkyBlock plugin,
         @NotNull PerkLogic perkLogic,
-        @NotNull HookManager hookManager
+        @NotNull HookManager hookManager,
+        @NotNull Scheduler scheduler,
+        @NotNull MetricsRegistry metrics
     ) {
         this.logger = logger;
+        this.scheduler = scheduler;
         this.perkLogic = perkLogic;
         this.hookManager = hookManager;
         this.config = FileUtil.getYmlConfiguration("challenges.yml");
         this.plugin = plugin;
         this.defaults = ChallengeFactory.createDefaults(config.getRoot());
         ranks = ChallengeFactory.createRankMap(config.getConfigurationSection("ranks"), defaults);
-        completionLogic = new ChallengeCompletionLogic(plugin, config);
+        index = new ChallengeIndex(ranks.values());
+        completionLogic = new ChallengeCompletionLogic(plugin, config, menuCache);
+        metrics.cache("completion", completionLogic.getCompletionCache());
         String displayItemForLocked = config.getString("lockedDisplayItem", null);
         if (displayItemForLocked != null) {
             lockedItem = ItemStackUtil.createItemStack(displayItemForLocked);
@@ -113,7 +126,7 @@ public class ChallengeLogic implements Listener {
     }
 
     public List<Rank> getRanks() {
-        return Collections.unmodifiableList(new ArrayList<>(ranks.values()));
+        return index.getRanks();
     }
 
     public List<String> getAvailableChallengeNames(PlayerInfo playerInfo) {
@@ -136,13 +149,15 @@ public class ChallengeLogic implements Listener {
     }
 
     public List<String> getAllChallengeNames() {
-        List<String> list = new ArrayList<>();
-        for (Rank rank : ranks.values()) {
-            for (Challenge challenge : rank.getChallenges()) {
-                list.add(challenge.getName());
-            }
-        }
-        return list;
+        return index.getChallengeNames();
+    }
+
+    /**
+     * @param prefix Prefix of the challenge names to find, ignoring case.
+     * @return Sorted list of the challenge names starting with the given prefix.
+     */
+    public List<String> getChallengeNamesStartingWith(String prefix) {
+        return index.complete(prefix);
     }
 
     public List<Challenge> getChallengesForRank(String rank) {
@@ -176,12 +191,9 @@ public class ChallengeLogic implements Listener {
         }
         player.sendMessage(tr("\u00a7eTrying to complete challenge \u00a7a{0}", challenge.getDisplayName()));
         if (challenge.getType() == Challenge.Type.PLAYER) {
-            tryComplete(player, challengeName, "onPlayer");
+            tryCompleteOnPlayer(player, challengeName);
         } else if (challenge.getType() == Challenge.Type.ISLAND) {
-            if (!tryComplete(player, challengeName, "onIsland")) {
-                player.sendMessage(tr("\u00a74{0}", challenge.getDescription()));
-                player.sendMessage(tr("\u00a74You must be standing within {0} blocks of all required items.", challenge.getRadius()));
-            }
+            tryCompleteOnIsland(player, challenge);
         } else if (challenge.getType() == Challenge.Type.ISLAND_LEVEL) {
             if (!tryCompleteIslandLevel(player, challenge)) {
                 player.sendMessage(tr("\u00a74Your island must be level {0} to complete this challenge!", challenge.getRequiredLevel()));
@@ -194,33 +206,7 @@ public class ChallengeLogic implements Listener {
     }
 
     public Challenge getChallenge(String challengeName) {
-        List<Challenge> partialMatch = new ArrayList<>();
-        for (Rank rank : ranks.values()) {
-            for (Challenge challenge : rank.getChallenges()) {
-                if (challenge.getName().equalsIgnoreCase(challengeName)) {
-                    return challenge;
-                } else if (stripFormatting(challenge.getDisplayName()).equalsIgnoreCase(challengeName)) {
-                    return challenge;
-                } else if (challenge.getName().startsWith(challengeName)) {
-                    partialMatch.add(challenge);
-                }
-            }
-        }
-        if (partialMatch.size() == 1) {
-            return partialMatch.get(0);
-        }
-        return null;
-    }
-
-    public boolean tryComplete(final Player player, final String challenge, final String type) {
-        if (type.equalsIgnoreCase("onPlayer")) {
-            return tryCompleteOnPlayer(player, challenge);
-        } else if (type.equalsIgnoreCase("onIsland")) {
-            return tryCompleteOnIsland(player, challenge);
-        } else {
-            player.sendMessage(tr("\u00a74Unknown type of challenge: {0}", type));
-        }
-        return false;
+        return index.getChallenge(challengeName);
     }
 
     /**
@@ -246,46 +232,71 @@ public class ChallengeLogic implements Listener {
         return false;
     }
 
-    private boolean islandContains(Player player, List<BlockRequirement> itemStacks, int radius) {
-        final Location l = player.getLocation();
-        final int px = l.getBlockX();
-        final int py = l.getBlockY();
-        final int pz = l.getBlockZ();
-        World world = l.getWorld();
-        BlockCollection blockCollection = new BlockCollection();
-        for (int x = px - radius; x <= px + radius; x++) {
-            for (int y = py - radius; y <= py + radius; y++) {
-                for (int z = pz - radius; z <= pz + radius; z++) {
-                    Block block = world.getBlockAt(x, y, z);
-                    blockCollection.add(block);
-                }
-            }
-        }
-        String diff = blockCollection.diff(itemStacks);
-        if (diff != null) {
-            player.sendMessage(diff);
-            return false;
-        }
-        return true;
-    }
-
     /**
-     * Try to complete a {@link Challenge} on the island of the given {@link Player} where items or entities are
+     * Try to complete a {@link Challenge} on the island of the given {@link Player} where blocks or entities are
      * required to be present on the island.
+     * The required blocks are counted asynchronously from chunk snapshots, after which the challenge is completed
+     * on the main thread. Only one check per player is in progress at any time.
      *
-     * @param player        Player to complete the challenge for.
-     * @param challengeName Challenge to complete.
-     * @return True if the challenge was completed succesfully, false otherwise.
+     * @param player    Player to complete the challenge for.
+     * @param challenge Challenge to complete.
      */
-    private boolean tryCompleteOnIsland(Player player, String challengeName) {
-        Challenge challenge = getChallenge(challengeName);
+    private void tryCompleteOnIsland(Player player, Challenge challenge) {
+        final UUID uuid = player.getUniqueId();
+        if (!islandChecksInProgress.add(uuid)) {
+            return;
+        }
         List<BlockRequirement> requiredBlocks = challenge.getRequiredBlocks();
         int radius = challenge.getRadius();
-        if (islandContains(player, requiredBlocks, radius) && hasEntitiesNear(player, challenge.getRequiredEntities(), radius)) {
+        if (requiredBlocks.isEmpty()) {
+            try {
+                completeOnIsland(player, challenge, new BlockCollection());
+            } finally {
+                islandChecksInProgress.remove(uuid);
+            }
+            return;
+        }
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        for (BlockRequirement requirement : requiredBlocks) {
+            materials.add(requirement.type().getMaterial());
+        }
+        final BlockCubeSnapshot snapshot;
+        try {
+            snapshot = BlockCubeSnapshot.capture(player.getLocation(), radius);
+        } catch (RuntimeException e) {
+            islandChecksInProgress.remove(uuid);
+            throw e;
+        }
+        scheduler.async(() -> {
+            try {
+                BlockCollection blockCollection = snapshot.count(materials);
+                scheduler.sync(() -> {
+                    try {
+                        if (player.isOnline()) {
+                            completeOnIsland(player, challenge, blockCollection);
+                        }
+                    } finally {
+                        islandChecksInProgress.remove(uuid);
+                    }
+                });
+            } catch (RuntimeException e) {
+                islandChecksInProgress.remove(uuid);
+                logger.log(Level.WARNING, "Unable to check island of " + player.getName() + " for challenge " + challenge.getName(), e);
+            }
+        });
+    }
+
+    private void completeOnIsland(Player player, Challenge challenge, BlockCollection blockCollection) {
+        String diff = blockCollection.diff(challenge.getRequiredBlocks());
+        if (diff != null) {
+            player.sendMessage(diff);
+        }
+        if (diff == null && hasEntitiesNear(player, challenge.getRequiredEntities(), challenge.getRadius())) {
             giveReward(player, challenge);
-            return true;
+        } else {
+            player.sendMessage(tr("\u00a74{0}", challenge.getDescription()));
+            player.sendMessage(tr("\u00a74You must be standing within {0} blocks of all required items.", challenge.getRadius()));
         }
-        return false;
     }
 
     private boolean hasEntitiesNear(Player player, List<EntityMatch> requiredEntities, int radius) {
@@ -443,8 +454,10 @@ public class ChallengeLogic implements Listener {
     }
 
     public ItemStack getItemStack(PlayerInfo playerInfo, String challengeName) {
-        Challenge challenge = getChallenge(challengeName);
-        ChallengeCompletion completion = playerInfo.getChallenge(challengeName);
+        return getItemStack(getChallenge(challengeName), playerInfo.getChallenge(challengeName));
+    }
+
+    private ItemStack getItemStack(Challenge challenge, ChallengeCompletion completion) {
         ItemStack currentChallengeItem = challenge.getDisplayItem(completion, defaults.enableEconomyPlugin);
         ItemMeta meta = currentChallengeItem.getItemMeta();
         List<String> lores = meta.getLore();
@@ -474,11 +487,8 @@ public class ChallengeLogic implements Listener {
     }
 
     public void populateChallengeRank(Inventory menu, PlayerInfo pi, int page, boolean isAdminAccess) {
-        List<Rank> ranksOnPage = new ArrayList<>(ranks.values());
         // page 1 = 0-4, 2 = 5-8, ...
-        if (page > 0) {
-            ranksOnPage = getRanksForPage(page, ranksOnPage);
-        }
+        List<Rank> ranksOnPage = page > 0 ? index.getRanksForPage(page) : index.getRanks();
         int location = 0;
         for (Rank rank : ranksOnPage) {
             location = populateChallengeRank(menu, rank, location, pi, isAdminAccess);
@@ -491,65 +501,22 @@ public class ChallengeLogic implements Listener {
         }
     }
 
-    private List<Rank> getRanksForPage(int page, List<Rank> ranksOnPage) {
-        int rowsToSkip = (page - 1) * ROWS_OF_RANKS;
-        List<Rank> allRanks = new ArrayList<>(ranksOnPage);
-
-        int i = 1;
-        for (Iterator<Rank> it = ranksOnPage.iterator(); it.hasNext(); i++) {
-            it.next();
-            int rowsInRanks = calculateRows(allRanks.subList(0, i));
-            if (rowsToSkip <= 0 || ((rowsToSkip - rowsInRanks) < 0)) {
-                return ranksOnPage;
-            }
-            it.remove();
-        }
-        return ranksOnPage;
-    }
-
-    private int calculateRows(List<Rank> ranksOnPage) {
-        int totalRows = 0;
-        int previousRowsOnPage = 0;
-        int currentRows;
-
-        for (Rank rank : ranksOnPage) {
-            currentRows = getRows(rank);
-            totalRows += currentRows;
-
-            if (previousRowsOnPage < 5 && (currentRows + previousRowsOnPage) > 5) {
-                totalRows = totalRows + (5 - previousRowsOnPage);
-                previousRowsOnPage = currentRows;
-            } else {
-                previousRowsOnPage = previousRowsOnPage + currentRows;
-            }
-        }
-        return totalRows;
-    }
-
-    private int getRows(Rank rank) {
-        int rankSize = 0;
-        for (Challenge challenge : rank.getChallenges()) {
-            rankSize += challenge.getOffset() + 1;
+    public int populateChallengeRank(Inventory menu, final Rank rank, int location, final PlayerInfo playerInfo, boolean isAdminAccess) {
+        Locale locale = I18nUtil.getLocale();
+        ItemStack currentChallengeItem = menuCache.getRankItem(rank, location < (CHALLENGE_PAGESIZE / 2), locale,
+            () -> renderRankItem(rank, location));
+        menu.setItem(location, currentChallengeItem);
+        String owner = playerInfo != null && playerInfo.getHasIsland() ? completionLogic.getCacheId(playerInfo) : null;
+        if (owner == null) {
+            // Nothing to cache the items under, render them every time
+            return populateChallenges(menu, rank, location, currentChallengeItem, playerInfo, isAdminAccess, locale, new ChallengeMenuCache(), "");
         }
-        return (int) Math.ceil(rankSize / 8f);
+        return populateChallenges(menu, rank, location, currentChallengeItem, playerInfo, isAdminAccess, locale, menuCache, owner);
     }
 
-    public int populateChallengeRank(Inventory menu, final Rank rank, int location, final PlayerInfo playerInfo, boolean isAdminAccess) {
-        List<String> lores = new ArrayList<>();
-        ItemStack currentChallengeItem = rank.getDisplayItem();
-        ItemMeta meta4 = currentChallengeItem.getItemMeta();
-        meta4.setDisplayName("\u00a7e\u00a7l" + tr("Rank: {0}", rank.getName()));
-        lores.add(tr("\u00a7fComplete most challenges in"));
-        lores.add(tr("\u00a7fthis rank to unlock the next rank."));
-        if (location < (CHALLENGE_PAGESIZE / 2)) {
-            lores.add(tr("\u00a7eClick here to show previous page"));
-        } else {
-            lores.add(tr("\u00a7eClick here to show next page"));
-        }
-        meta4.setLore(lores);
-        currentChallengeItem.setItemMeta(meta4);
-        menu.setItem(location, currentChallengeItem);
-        List<String> missingRankRequirements = rank.getMissingRequirements(playerInfo);
+    private int populateChallenges(Inventory menu, Rank rank, int location, ItemStack currentChallengeItem, PlayerInfo playerInfo,
+                                   boolean isAdminAccess, Locale locale, ChallengeMenuCache cache, String owner) {
+        List<String> missingRankRequirements = cache.getMissingRequirements(owner, rank, locale, () -> rank.getMissingRequirements(playerInfo));
         for (Challenge challenge : rank.getChallenges()) {
             if (challenge.getOffset() == -1 && !currentChallengeItem.getItemMeta().hasEnchants()) {
                 continue; // skip
@@ -561,35 +528,15 @@ public class ChallengeLogic implements Listener {
             if (location >= CHALLENGE_PAGESIZE) {
                 break;
             }
-            lores.clear();
-            String challengeName = challenge.getName();
             try {
-                currentChallengeItem = getItemStack(playerInfo, challengeName);
-                List<String> missingReqs = challenge.getMissingRequirements(playerInfo);
-                if (!missingRankRequirements.isEmpty() || !missingReqs.isEmpty()) {
-                    if (!isAdminAccess) {
-                        ItemStack locked = challenge.getLockedDisplayItem();
-                        if (locked == null) {
-                            locked = lockedItemMap.get(challenge.getType());
-                        }
-                        if (locked != null) {
-                            currentChallengeItem.setType(locked.getType());
-                        } else if (lockedItem != null) {
-                            currentChallengeItem.setType(lockedItem.getType());
-                        }
-                    } else {
-                        lores = currentChallengeItem.getItemMeta().getLore();
-                    }
-                    meta4 = currentChallengeItem.getItemMeta();
-                    if (defaults.showLockedChallengeName) {
-                        lores.add(meta4.getDisplayName());
-                    }
-                    meta4.setDisplayName(tr("\u00a74\u00a7lLocked Challenge"));
-                    lores.addAll(missingReqs);
-                    lores.addAll(missingRankRequirements);
-                    meta4.setLore(lores);
-                    currentChallengeItem.setItemMeta(meta4);
-                }
+                ChallengeCompletion completion = playerInfo.getChallenge(challenge.getName());
+                List<String> missingReqs = cache.getMissingRequirements(owner, challenge, locale, () -> challenge.getMissingRequirements(playerInfo));
+                boolean locked = !missingRankRequirements.isEmpty() || !missingReqs.isEmpty();
+                ChallengeMenuCache.ItemKey key = new ChallengeMenuCache.ItemKey(challenge.getName(),
+                    completion.getTimesCompleted(), completion.getTimesCompletedInCooldown(), getCooldownShown(completion),
+                    locked, isAdminAccess, locale);
+                currentChallengeItem = cache.getItem(owner, key,
+                    () -> renderChallengeItem(challenge, completion, locked ? missingReqs : null, missingRankRequirements, isAdminAccess));
                 menu.setItem(location, currentChallengeItem);
             } catch (Exception e) {
                 logger.log(Level.SEVERE, "Invalid challenge " + challenge, e);
@@ -598,13 +545,79 @@ public class ChallengeLogic implements Listener {
         return location;
     }
 
+    private ItemStack renderRankItem(Rank rank, int location) {
+        List<String> lores = new ArrayList<>();
+        ItemStack rankItem = rank.getDisplayItem();
+        ItemMeta meta = rankItem.getItemMeta();
+        meta.setDisplayName("\u00a7e\u00a7l" + tr("Rank: {0}", rank.getName()));
+        lores.add(tr("\u00a7fComplete most challenges in"));
+        lores.add(tr("\u00a7fthis rank to unlock the next rank."));
+        if (location < (CHALLENGE_PAGESIZE / 2)) {
+            lores.add(tr("\u00a7eClick here to show previous page"));
+        } else {
+            lores.add(tr("\u00a7eClick here to show next page"));
+        }
+        meta.setLore(lores);
+        rankItem.setItemMeta(meta);
+        return rankItem;
+    }
+
+    /**
+     * Renders the menu item of a challenge.
+     *
+     * @param missingReqs             Missing requirements of the challenge, or null if it isn't locked.
+     * @param missingRankRequirements Missing requirements of the rank of the challenge.
+     */
+    private ItemStack renderChallengeItem(Challenge challenge, ChallengeCompletion completion, List<String> missingReqs,
+                                          List<String> missingRankRequirements, boolean isAdminAccess) {
+        ItemStack currentChallengeItem = getItemStack(challenge, completion);
+        if (missingReqs != null) {
+            List<String> lores = new ArrayList<>();
+            if (!isAdminAccess) {
+                ItemStack locked = challenge.getLockedDisplayItem();
+                if (locked == null) {
+                    locked = lockedItemMap.get(challenge.getType());
+                }
+                if (locked != null) {
+                    currentChallengeItem.setType(locked.getType());
+                } else if (lockedItem != null) {
+                    currentChallengeItem.setType(lockedItem.getType());
+                }
+            } else {
+                lores = currentChallengeItem.getItemMeta().getLore();
+            }
+            ItemMeta meta = currentChallengeItem.getItemMeta();
+            if (defaults.showLockedChallengeName) {
+                lores.add(meta.getDisplayName());
+            }
+            meta.setDisplayName(tr("\u00a74\u00a7lLocked Challenge"));
+            lores.addAll(missingReqs);
+            lores.addAll(missingRankRequirements);
+            meta.setLore(lores);
+            currentChallengeItem.setItemMeta(meta);
+        }
+        return currentChallengeItem;
+    }
+
+    /**
+     * Returns the remaining cooldown of the completion, truncated to the unit shown in the menu.
+     */
+    private static long getCooldownShown(ChallengeCompletion completion) {
+        Duration cooldown = completion.getCooldown();
+        if (cooldown.toDays() > 0) {
+            return cooldown.toDays() * 24 * 60;
+        } else if (cooldown.toHours() > 0) {
+            return cooldown.toHours() * 60;
+        }
+        return cooldown.toMinutes();
+    }
+
     public boolean isResetOnCreate() {
         return config.getBoolean("resetChallengesOnCreate", true);
     }
 
     public int getTotalPages() {
-        int totalRows = calculateRows(getRanks());
-        return (int) Math.ceil(1f * totalRows / ROWS_OF_RANKS);
+        return index.getTotalPages();
     }
 
     public Collection<ChallengeCompletion> getChallenges(PlayerInfo playerInfo) {
@@ -651,6 +664,7 @@ public class ChallengeLogic implements Listener {
 
     public void shutdown() {
         completionLogic.shutdown();
+        menuCache.clear();
     }
 
     public long flushCache() {
@@ -0,0 +1,100 @@
+package us.talabrek.ultimateskyblock.challenge;
+
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the rendered items of the challenge menu.
+ * <p>
+ * Items are cached per completion owner (island or player, depending on challenge sharing), and all items of an
+ * owner are dropped as soon as one of its {@link ChallengeCompletion}s changes. The cached items are shared between
+ * menus, so they must never be modified - {@link org.bukkit.inventory.Inventory#setItem} copies them.
+ */
+public class ChallengeMenuCache {
+    private final Map<String, OwnerCache> owners = new ConcurrentHashMap<>();
+    private final Map<RankKey, ItemStack> rankItems = new ConcurrentHashMap<>();
+
+    /**
+     * Key of a rendered challenge item.
+     *
+     * @param challenge                Name of the challenge.
+     * @param timesCompleted           Total number of completions.
+     * @param timesCompletedInCooldown Number of completions in the current cooldown.
+     * @param cooldownShown            Remaining cooldown, truncated to the unit shown in the lore.
+     * @param locked                   Whether the challenge is locked.
+     * @param adminAccess              Whether the menu is shown to an admin inspecting another player.
+     * @param locale                   Locale the item is rendered in.
+     */
+    public record ItemKey(@NotNull String challenge, int timesCompleted, int timesCompletedInCooldown,
+                          long cooldownShown, boolean locked, boolean adminAccess, @NotNull Locale locale) {
+    }
+
+    private record RankKey(@NotNull Rank rank, boolean firstHalf, @NotNull Locale locale) {
+    }
+
+    private record RequirementKey(@NotNull Object subject, @NotNull Locale locale) {
+    }
+
+    private static class OwnerCache {
+        private final Map<ItemKey, ItemStack> items = new ConcurrentHashMap<>();
+        private final Map<RequirementKey, List<String>> requirements = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the rendered item for the given key, rendering it with the factory if it isn't cached.
+     *
+     * @param owner   Id of the completion owner.
+     * @param key     Key of the item.
+     * @param factory Renders the item.
+     * @return The rendered item, which must not be modified.
+     */
+    public @NotNull ItemStack getItem(@NotNull String owner, @NotNull ItemKey key, @NotNull Supplier<ItemStack> factory) {
+        return owners.computeIfAbsent(owner, k -> new OwnerCache()).items.computeIfAbsent(key, k -> factory.get());
+    }
+
+    /**
+     * Returns the missing requirements of a challenge or rank, computing them if they aren't cached.
+     *
+     * @param owner   Id of the completion owner.
+     * @param subject The {@link Challenge} or {@link Rank}.
+     * @param locale  Locale the requirements are rendered in.
+     * @param factory Computes the missing requirements.
+     * @return Unmodifiable list of missing requirements.
+     */
+    public @NotNull List<String> getMissingRequirements(@NotNull String owner, @NotNull Object subject, @NotNull Locale locale,
+                                                        @NotNull Supplier<List<String>> factory) {
+        return owners.computeIfAbsent(owner, k -> new OwnerCache()).requirements
+            .computeIfAbsent(new RequirementKey(subject, locale), k -> List.copyOf(factory.get()));
+    }
+
+    /**
+     * Returns the rendered header item of a rank, which is the same for all players.
+     */
+    public @NotNull ItemStack getRankItem(@NotNull Rank rank, boolean firstHalf, @NotNull Locale locale, @NotNull Supplier<ItemStack> factory) {
+        return rankItems.computeIfAbsent(new RankKey(rank, firstHalf, locale), k -> factory.get());
+    }
+
+    /**
+     * Drops all rendered items of the given owner, i.e. when one of its completions changed.
+     *
+     * @param owner Id of the completion owner.
+     */
+    public void invalidate(@NotNull String owner) {
+        owners.remove(owner);
+    }
+
+    public void clear() {
+        owners.clear();
+        rankItems.clear();
+    }
+
+    public int size() {
+        return owners.values().stream().mapToInt(o -> o.items.size()).sum();
+    }
+}
@@ -8,20 +8,19 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import us.talabrek.ultimateskyblock.PluginConfig;
-import us.talabrek.ultimateskyblock.api.IslandInfo;
-import us.talabrek.ultimateskyblock.handler.WorldGuardHandler;
 import us.talabrek.ultimateskyblock.handler.placeholder.PlaceholderHandler;
-import us.talabrek.ultimateskyblock.uSkyBlock;
-import us.talabrek.ultimateskyblock.world.WorldManager;
+import us.talabrek.ultimateskyblock.handler.placeholder.PlaceholderTemplate;
+import us.talabrek.ultimateskyblock.util.Scheduler;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.regex.Matcher;
 
 import static us.talabrek.ultimateskyblock.api.event.IslandChatEvent.Type;
 
@@ -36,26 +35,33 @@ public class ChatLogic {
         I18nUtil.tr("But your fantasy friends are gone!"),
         I18nUtil.tr("But you are Talking to your self!")
     );
-    private final uSkyBlock plugin;
-    private final WorldManager worldManager;
+    private final ChatRecipients recipients;
     private final PlaceholderHandler placeholderHandler;
+    private final Scheduler scheduler;
     private final Map<Type, String> formats = new EnumMap<>(Type.class);
+    private final Map<Type, PlaceholderTemplate> templates = new EnumMap<>(Type.class);
     private final Map<UUID, Type> toggled = new HashMap<>();
+    // Messages sent during the current tick, delivered together on the next tick
+    private final Map<Player, List<String>> pending = new LinkedHashMap<>();
 
     @Inject
     public ChatLogic(
-        @NotNull uSkyBlock plugin,
         @NotNull PluginConfig config,
-        @NotNull WorldManager worldManager,
-        @NotNull PlaceholderHandler placeholderHandler
+        @NotNull ChatRecipients recipients,
+        @NotNull PlaceholderHandler placeholderHandler,
+        @NotNull Scheduler scheduler
     ) {
-        this.plugin = plugin;
-        this.worldManager = worldManager;
+        this.recipients = recipients;
         this.placeholderHandler = placeholderHandler;
+        this.scheduler = scheduler;
         formats.put(Type.PARTY,
             config.getYamlConfig().getString("options.party.chat-format", "&9PARTY &r{DISPLAYNAME} &f>&d {MESSAGE}"));
         formats.put(Type.ISLAND,
             config.getYamlConfig().getString("options.island.chat-format", "&9SKY &r{DISPLAYNAME} &f>&b {MESSAGE}"));
+        // Every placeholder of the configured format is compiled in, so the message text is never scanned
+        for (Map.Entry<Type, String> format : formats.entrySet()) {
+            templates.put(format.getKey(), PlaceholderTemplate.compile(FormatUtil.normalize(format.getValue()), name -> true));
+        }
     }
 
     /**
@@ -68,41 +74,57 @@ public class ChatLogic {
      */
     public @NotNull List<Player> getRecipients(Player sender, Type chatType) {
         if (chatType == Type.PARTY) {
-            IslandInfo islandInfo = plugin.getIslandInfo(sender);
-            return islandInfo != null ? islandInfo.getOnlineMembers() : Collections.singletonList(sender);
+            return recipients.getPartyMembers(sender);
         } else if (chatType == Type.ISLAND) {
-            if (worldManager.isSkyWorld(sender.getWorld())) {
-                return WorldGuardHandler.getPlayersInRegion(worldManager.getWorld(),
-                    WorldGuardHandler.getIslandRegionAt(sender.getLocation()));
-            }
-            return Collections.emptyList();
+            return recipients.getPlayersOnIsland(sender);
         }
         return Collections.emptyList();
     }
 
     /**
      * Sends the given message to all online partymembers or island visitors on the given {@link Player}'s island,
-     * depending on the given {@link Type}.
+     * depending on the given {@link Type}. The message is formatted once, and all messages sent during a tick are
+     * delivered together on the next tick. Placeholders are only replaced in the configured format, not in the
+     * message itself.
      *
      * @param sender  Player sending the message.
      * @param type    Message type to send.
      * @param message Message to send.
      */
     public void sendMessage(Player sender, Type type, String message) {
-        String format = getFormat(type);
-        format = FormatUtil.normalize(format);
-        format = format.replaceAll("\\{DISPLAYNAME}", Matcher.quoteReplacement(sender.getDisplayName()));
-        String msg = format.replaceAll("\\{MESSAGE}", Matcher.quoteReplacement(message));
-        msg = placeholderHandler.replacePlaceholders(sender, msg);
+        String msg = templates.get(type).render(placeholder -> switch (placeholder) {
+            case "DISPLAYNAME" -> sender.getDisplayName();
+            case "MESSAGE" -> message;
+            default -> placeholderHandler.replacePlaceholders(sender, "{" + placeholder + "}");
+        });
         List<Player> onlineMembers = getRecipients(sender, type);
         if (onlineMembers.size() <= 1) {
             sender.sendMessage(I18nUtil.tr("\u00a7cSorry! {0}", "\u00a79" +
                 ALONE_MESSAGES.get(((int) Math.round(Math.random() * ALONE_MESSAGES.size())) % ALONE_MESSAGES.size())));
         } else {
-            for (Player member : onlineMembers) {
-                member.sendMessage(msg);
+            enqueue(onlineMembers, msg);
+        }
+    }
+
+    private synchronized void enqueue(List<Player> players, String message) {
+        if (pending.isEmpty()) {
+            scheduler.sync(this::flush);
+        }
+        for (Player player : players) {
+            pending.computeIfAbsent(player, p -> new ArrayList<>()).add(message);
+        }
+    }
+
+    /**
+     * Delivers the pending messages, one batch per recipient.
+     */
+    synchronized void flush() {
+        for (Map.Entry<Player, List<String>> entry : pending.entrySet()) {
+            if (entry.getKey().isOnline()) {
+                entry.getKey().sendMessage(entry.getValue().toArray(new String[0]));
             }
         }
+        pending.clear();
     }
 
     /**
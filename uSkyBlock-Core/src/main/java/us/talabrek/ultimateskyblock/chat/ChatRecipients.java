@@ -0,0 +1,228 @@
+package us.talabrek.ultimateskyblock.chat;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import us.talabrek.ultimateskyblock.Settings;
+import us.talabrek.ultimateskyblock.api.event.MemberJoinedEvent;
+import us.talabrek.ultimateskyblock.api.event.MemberLeftEvent;
+import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.world.WorldManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes the online players by the island they are a member of, and by the island they are on, so chat recipients
+ * can be looked up without scanning all online players.
+ * <p>
+ * The party index is maintained on join, quit and membership changes. The island index is maintained on movement,
+ * but only does work when a player crosses a block boundary, and locates islands on the island grid instead of
+ * querying WorldGuard.
+ */
+@Singleton
+public class ChatRecipients implements Listener {
+    // Marks indexed players without an island
+    private static final String NONE = "";
+
+    private final uSkyBlock plugin;
+    private final WorldManager worldManager;
+    private final Index parties = new Index();
+    private final Index islands = new Index();
+
+    @Inject
+    public ChatRecipients(@NotNull uSkyBlock plugin, @NotNull WorldManager worldManager) {
+        this.plugin = plugin;
+        this.worldManager = worldManager;
+    }
+
+    /**
+     * Indexes players that were already online, i.e. when the plugin is (re)loaded.
+     *
+     * @param players Online players.
+     */
+    public void indexOnlinePlayers(@NotNull Collection<? extends Player> players) {
+        for (Player player : players) {
+            updateParty(player);
+            updateIsland(player, player.getLocation());
+        }
+    }
+
+    /**
+     * Gets the online members of the island the given {@link Player} is a member of.
+     *
+     * @param player Player to look up.
+     * @return Online party members, including the player, or just the player if they don't have an island.
+     */
+    public @NotNull List<Player> getPartyMembers(@NotNull Player player) {
+        // The player data is cached, so re-indexing the sender is cheap, and catches islands changed without an event
+        String island = updateParty(player);
+        return island.equals(NONE) ? Collections.singletonList(player) : parties.get(island);
+    }
+
+    /**
+     * Gets the online players on the island the given {@link Player} is currently on.
+     *
+     * @param player Player to look up.
+     * @return Players on the same island, including the player, or an empty list if the player isn't on an island.
+     */
+    public @NotNull List<Player> getPlayersOnIsland(@NotNull Player player) {
+        String island = updateIsland(player, player.getLocation());
+        if (island.equals(NONE) || plugin.getIslandInfo(island) == null) {
+            return Collections.emptyList();
+        }
+        return islands.get(island);
+    }
+
+    private String updateParty(Player player) {
+        PlayerInfo playerInfo = plugin.getPlayerInfo(player);
+        String island = playerInfo != null && playerInfo.getHasIsland() && playerInfo.locationForParty() != null
+            ? playerInfo.locationForParty() : NONE;
+        parties.put(player, island);
+        return island;
+    }
+
+    private String updateIsland(Player player, @Nullable Location location) {
+        String island = location != null && worldManager.isSkyWorld(location.getWorld())
+            ? getIslandNameAt(location, Settings.island_distance, Settings.island_radius) : NONE;
+        islands.put(player, island);
+        return island;
+    }
+
+    /**
+     * Gets the name of the island grid cell containing the location, or {@link #NONE} if the location is between the
+     * protected areas of the islands. Matches the regions created by WorldGuardHandler.
+     */
+    static @NotNull String getIslandNameAt(@NotNull Location location, int distance, int radius) {
+        int x = location.getBlockX();
+        int z = location.getBlockZ();
+        int islandX = (int) (Math.round((double) x / distance) * distance);
+        int islandZ = (int) (Math.round((double) z / distance) * distance);
+        if (x < islandX - radius || x > islandX + radius - 1 || z < islandZ - radius || z > islandZ + radius - 1) {
+            return NONE;
+        }
+        return islandX + "," + islandZ;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        updateParty(player);
+        updateIsland(player, player.getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        parties.remove(event.getPlayer());
+        islands.remove(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null || (from.getBlockX() == to.getBlockX() && from.getBlockZ() == to.getBlockZ()
+            && from.getWorld() == to.getWorld())) {
+            return;
+        }
+        updateIsland(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        updateIsland(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        updateIsland(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        updateIsland(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onMemberJoined(MemberJoinedEvent event) {
+        Player player = plugin.getPlayerDB().getPlayer(event.getPlayerInfo().getUniqueId());
+        if (player != null) {
+            parties.put(player, event.getIslandInfo().getName());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onMemberLeft(MemberLeftEvent event) {
+        Player player = plugin.getPlayerDB().getPlayer(event.getPlayerInfo().getUniqueId());
+        if (player != null) {
+            parties.removeFrom(player, event.getIslandInfo().getName());
+        }
+    }
+
+    /**
+     * Online players by island name. Updated from async events as well, hence the concurrent collections.
+     */
+    private static class Index {
+        private final Map<UUID, String> islandOf = new ConcurrentHashMap<>();
+        private final Map<String, Set<Player>> players = new ConcurrentHashMap<>();
+
+        List<Player> get(String island) {
+            Set<Player> onIsland = players.get(island);
+            return onIsland != null ? List.copyOf(onIsland) : Collections.emptyList();
+        }
+
+        synchronized void put(Player player, String island) {
+            String old = islandOf.put(player.getUniqueId(), island);
+            if (island.equals(old)) {
+                return;
+            }
+            if (old != null) {
+                removePlayer(old, player);
+            }
+            if (!island.equals(NONE)) {
+                players.computeIfAbsent(island, k -> ConcurrentHashMap.newKeySet()).add(player);
+            }
+        }
+
+        synchronized void removeFrom(Player player, String island) {
+            if (island.equals(islandOf.get(player.getUniqueId()))) {
+                put(player, NONE);
+            }
+        }
+
+        synchronized void remove(Player player) {
+            String old = islandOf.remove(player.getUniqueId());
+            if (old != null) {
+                removePlayer(old, player);
+            }
+        }
+
+        private void removePlayer(String island, Player player) {
+            Set<Player> onIsland = players.get(island);
+            if (onIsland != null) {
+                onIsland.remove(player);
+                if (onIsland.isEmpty()) {
+                    players.remove(island);
+                }
+            }
+        }
+    }
+}
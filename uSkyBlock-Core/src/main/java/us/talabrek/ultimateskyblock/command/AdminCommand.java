@@ -11,6 +11,7 @@ import us.talabrek.ultimateskyblock.command.admin.AdminIslandCommand;
 import us.talabrek.ultimateskyblock.command.admin.ChunkCommand;
 import us.talabrek.ultimateskyblock.command.admin.CooldownCommand;
 import us.talabrek.ultimateskyblock.command.admin.DebugCommand;
+import us.talabrek.ultimateskyblock.command.admin.ExportCommand;
 import us.talabrek.ultimateskyblock.command.admin.FlatlandFixCommand;
 import us.talabrek.ultimateskyblock.command.admin.FlushCommand;
 import us.talabrek.ultimateskyblock.command.admin.GenTopTenCommand;
@@ -19,6 +20,7 @@ import us.talabrek.ultimateskyblock.command.admin.ImportCommand;
 import us.talabrek.ultimateskyblock.command.admin.ItemInfoCommand;
 import us.talabrek.ultimateskyblock.command.admin.JobsCommand;
 import us.talabrek.ultimateskyblock.command.admin.LanguageCommand;
+import us.talabrek.ultimateskyblock.command.admin.MetricsCommand;
 import us.talabrek.ultimateskyblock.command.admin.OrphanCommand;
 import us.talabrek.ultimateskyblock.command.admin.PerkCommand;
 import us.talabrek.ultimateskyblock.command.admin.PlayerInfoCommand;
@@ -75,12 +77,14 @@ public class AdminCommand extends BaseCommandExecutor {
         @NotNull LanguageCommand languageCommand,
         @NotNull FlushCommand flushCommand,
         @NotNull JobsCommand jobsCommand,
+        @NotNull MetricsCommand metricsCommand,
         @NotNull DocumentCommand documentCommand,
         @NotNull RegionCommand regionCommand,
         @NotNull SetMaintenanceCommand setMaintenanceCommand,
         @NotNull ItemInfoCommand itemInfoCommand,
         @NotNull ProtectAllCommand protectAllCommand,
-        @NotNull ChunkCommand chunkCommand
+        @NotNull ChunkCommand chunkCommand,
+        @NotNull ExportCommand exportCommand
 
     ) {
         super("usb", null, marktr("Ultimate SkyBlock Admin"));
@@ -111,11 +115,13 @@ public class AdminCommand extends BaseCommandExecutor {
         add(languageCommand);
         add(flushCommand);
         add(jobsCommand);
+        add(metricsCommand);
         add(documentCommand);
         add(regionCommand);
         add(setMaintenanceCommand);
         add(itemInfoCommand);
         add(protectAllCommand);
         add(chunkCommand);
+        add(exportCommand);
     }
 }
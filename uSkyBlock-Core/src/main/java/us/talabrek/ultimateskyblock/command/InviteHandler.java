@@ -9,7 +9,6 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import us.talabrek.ultimateskyblock.api.event.AcceptEvent;
 import us.talabrek.ultimateskyblock.api.event.InviteEvent;
@@ -18,7 +17,7 @@ import us.talabrek.ultimateskyblock.handler.WorldGuardHandler;
 import us.talabrek.ultimateskyblock.island.IslandInfo;
 import us.talabrek.ultimateskyblock.player.PlayerInfo;
 import us.talabrek.ultimateskyblock.uSkyBlock;
-import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.util.TimingWheel;
 
 import java.time.Duration;
 import java.util.Collection;
@@ -38,12 +37,12 @@ public class InviteHandler implements Listener {
     private final Map<UUID, Invite> inviteMap = new HashMap<>();
     private final Map<String, Map<UUID, String>> waitingInvites = new HashMap<>();
     private final uSkyBlock plugin;
-    private final Scheduler scheduler;
+    private final TimingWheel timingWheel;
 
     @Inject
-    public InviteHandler(@NotNull uSkyBlock plugin, @NotNull Scheduler scheduler) {
+    public InviteHandler(@NotNull uSkyBlock plugin, @NotNull TimingWheel timingWheel) {
         this.plugin = plugin;
-        this.scheduler = scheduler;
+        this.timingWheel = timingWheel;
     }
 
     private synchronized void invite(Player player, final IslandInfo island, Player otherPlayer) {
@@ -72,7 +71,7 @@ public class InviteHandler implements Listener {
             tr("\u00a7f/island [accept/reject]\u00a7e to accept or reject the invite."),
             tr("\u00a74WARNING: You will lose your current island if you accept!"));
         Duration timeout = Duration.ofSeconds(plugin.getConfig().getInt("options.party.invite-timeout", 30));
-        BukkitTask timeoutTask = scheduler.async(() -> uninvite(island, uniqueId), timeout);
+        TimingWheel.Timeout timeoutTask = timingWheel.schedule(timeout, () -> uninvite(island, uniqueId));
         final Invite invite = new Invite(island.getName(), player.getDisplayName(), timeoutTask);
         inviteMap.put(uniqueId, invite);
         waitingInvites.put(island.getName(), invites);
@@ -208,6 +207,6 @@ public class InviteHandler implements Listener {
         }
     }
 
-    private record Invite(String islandName, String displayName, BukkitTask timeoutTask) {
+    private record Invite(String islandName, String displayName, TimingWheel.Timeout timeoutTask) {
     }
 }
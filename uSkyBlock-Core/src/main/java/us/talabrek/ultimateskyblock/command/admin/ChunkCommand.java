@@ -8,6 +8,7 @@ import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.event.ObsidianIndex;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 
 import java.util.Map;
@@ -18,13 +19,15 @@ import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
 public class ChunkCommand extends CompositeCommand {
 
     @Inject
-    public ChunkCommand(@NotNull uSkyBlock plugin) {
+    public ChunkCommand(@NotNull uSkyBlock plugin, @NotNull ObsidianIndex obsidianIndex) {
         super("chunk", "usb.admin.chunk", marktr("various chunk commands"));
 
         add(new RequireChunkCommand("regen", marktr("regenerate current chunk")) {
             @Override
             void doChunkCommand(Player player, Chunk chunk) {
                 plugin.getWorldManager().getChunkRegenerator(chunk.getWorld()).regenerateChunk(chunk);
+                obsidianIndex.invalidate(chunk.getWorld(), chunk.getX() << 4, chunk.getZ() << 4,
+                    (chunk.getX() << 4) + 15, (chunk.getZ() << 4) + 15);
                 player.sendMessage(tr("successfully regenerated chunk at {0},{1}", chunk.getX(), chunk.getZ()));
             }
         });
@@ -6,6 +6,7 @@ import dk.lockfuglsang.minecraft.command.CompositeCommand;
 import dk.lockfuglsang.minecraft.po.I18nUtil;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.metrics.ListenerProfiler;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import dk.lockfuglsang.minecraft.util.FormatUtil;
 import us.talabrek.ultimateskyblock.util.PluginInfo;
@@ -15,6 +16,7 @@ import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.FileHandler;
 import java.util.logging.Formatter;
@@ -36,7 +38,7 @@ public class DebugCommand extends CompositeCommand {
     private static Handler logHandler = null;
 
     @Inject
-    public DebugCommand(@NotNull uSkyBlock plugin, @NotNull PluginInfo pluginInfo) {
+    public DebugCommand(@NotNull uSkyBlock plugin, @NotNull PluginInfo pluginInfo, @NotNull ListenerProfiler profiler) {
         super("debug", "usb.admin.debug", marktr("control debugging"));
         this.pluginInfo = pluginInfo;
 
@@ -75,6 +77,25 @@ public class DebugCommand extends CompositeCommand {
                 return true;
             }
         });
+        add(new AbstractCommand("profile", null, marktr("show and reset the time spent in event listeners")) {
+            @Override
+            public boolean execute(CommandSender sender, String alias, Map<String, Object> data, String... args) {
+                if (!profiler.isEnabled()) {
+                    sender.sendMessage(I18nUtil.tr("\u00a74Profiling is not enabled, set \u00a7doptions.advanced.profileListeners\u00a74 and run \u00a7d/usb reload"));
+                    return true;
+                }
+                List<ListenerProfiler.Snapshot> snapshots = profiler.getSnapshotsAndReset();
+                if (snapshots.isEmpty()) {
+                    sender.sendMessage(I18nUtil.tr("\u00a7eNo events have been handled since the last profile."));
+                    return true;
+                }
+                sender.sendMessage(I18nUtil.tr("\u00a7eTime spent in event listeners since the last profile:"));
+                for (ListenerProfiler.Snapshot snapshot : snapshots) {
+                    sender.sendMessage("\u00a77" + snapshot);
+                }
+                return true;
+            }
+        });
         String debugLevel = plugin.getConfig().getString("options.advanced.debugLevel", null);
         if (debugLevel != null) {
             setLogLevel(plugin.getServer().getConsoleSender(), debugLevel);
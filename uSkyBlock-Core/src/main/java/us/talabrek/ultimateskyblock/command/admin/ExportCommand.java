@@ -0,0 +1,41 @@
+package us.talabrek.ultimateskyblock.command.admin;
+
+import com.google.inject.Inject;
+import dk.lockfuglsang.minecraft.command.AbstractCommand;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.imports.export.YmlExporter;
+import us.talabrek.ultimateskyblock.storage.DataFormat;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.util.Map;
+
+import static dk.lockfuglsang.minecraft.po.I18nUtil.marktr;
+import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
+
+/**
+ * Converts the binary player and challenge-completion files back to yml.
+ */
+public class ExportCommand extends AbstractCommand {
+    private final uSkyBlock plugin;
+
+    @Inject
+    public ExportCommand(@NotNull uSkyBlock plugin) {
+        super("export", "usb.admin.export", marktr("converts the binary player and challenge files back to yml"));
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String alias, Map<String, Object> data, String... args) {
+        if (DataFormat.fromConfig(plugin.getConfig()) == DataFormat.BINARY) {
+            // The files would be written in binary again on the next save
+            sender.sendMessage(tr("\u00a74Set \u00a7eoptions.advanced.dataFormat\u00a74 to \u00a7eyml\u00a74 and run \u00a7e/usb reload\u00a74 before exporting."));
+            return true;
+        }
+        // Saves the cached players and completions, to yml
+        plugin.getPlayerLogic().flushCache();
+        plugin.getChallengeLogic().flushCache();
+        plugin.getImporter().importUSB(sender, YmlExporter.NAME);
+        return true;
+    }
+}
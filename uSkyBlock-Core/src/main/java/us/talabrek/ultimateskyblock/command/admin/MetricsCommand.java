@@ -0,0 +1,53 @@
+package us.talabrek.ultimateskyblock.command.admin;
+
+import com.google.inject.Inject;
+import dk.lockfuglsang.minecraft.command.AbstractCommand;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.metrics.Metric;
+import us.talabrek.ultimateskyblock.metrics.MetricsExporter;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static dk.lockfuglsang.minecraft.po.I18nUtil.marktr;
+import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
+
+/**
+ * Shows a summary of the internal metrics, optionally only those with a name containing the filter.
+ */
+public class MetricsCommand extends AbstractCommand {
+    private final MetricsRegistry registry;
+    private final MetricsExporter exporter;
+
+    @Inject
+    public MetricsCommand(@NotNull MetricsRegistry registry, @NotNull MetricsExporter exporter) {
+        super("metrics", "usb.admin.metrics", "?filter", marktr("shows a summary of the internal metrics"));
+        this.registry = registry;
+        this.exporter = exporter;
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String alias, Map<String, Object> data, String... args) {
+        String filter = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "";
+        List<String> lines = new ArrayList<>();
+        lines.add(tr("\u00a79Metrics"));
+        lines.add(tr("\u00a77----------------"));
+        for (Map.Entry<String, Metric> entry : registry.getMetrics().entrySet()) {
+            if (entry.getKey().contains(filter)) {
+                lines.add(String.format("\u00a77%s: \u00a7e%s", entry.getKey(), entry.getValue().getSummary()));
+            }
+        }
+        if (lines.size() == 2) {
+            lines.add(tr("\u00a7eNo metrics match {0}", filter));
+        }
+        if (exporter.isEnabled()) {
+            lines.add(tr("\u00a77Exported to {0}", exporter.getFile().getFileName()));
+        }
+        sender.sendMessage(lines.toArray(new String[0]));
+        return true;
+    }
+}
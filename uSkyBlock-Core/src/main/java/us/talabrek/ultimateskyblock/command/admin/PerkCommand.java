@@ -53,6 +53,26 @@ public class PerkCommand extends CompositeCommand {
                 return false;
             }
         });
+        add(new AbstractCommand("refresh", "", "?player", marktr("refreshes the perks of a player, or all players")) {
+            @Override
+            public boolean execute(CommandSender sender, String alias, Map<String, Object> data, String... args) {
+                if (args.length == 0) {
+                    plugin.getPerkLogic().invalidateAll();
+                    sender.sendMessage(tr("\u00a7eRefreshing perks of all players."));
+                    return true;
+                } else if (args.length == 1) {
+                    Player player = plugin.getPlayerDB().getPlayer(args[0]);
+                    if (player != null) {
+                        plugin.getPerkLogic().invalidate(player.getUniqueId());
+                        sender.sendMessage(tr("\u00a7eRefreshing perks of {0}.", player.getName()));
+                        return true;
+                    } else {
+                        sender.sendMessage(tr("\u00a74No player named {0} was found!", args[0]));
+                    }
+                }
+                return false;
+            }
+        });
         for (Map.Entry<String, Perk> entry : plugin.getPerkLogic().getPerkMap().entrySet()) {
             addFeaturePermission(entry.getKey(), tr("additional perks {0}", stripFormatting(entry.getValue().toString().trim().replaceAll("\\n", ","))));
         }
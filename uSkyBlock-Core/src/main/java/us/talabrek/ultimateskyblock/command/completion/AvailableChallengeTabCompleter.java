@@ -36,6 +36,6 @@ public class AvailableChallengeTabCompleter extends AbstractTabCompleter {
                 return challengeLogic.getAvailableChallengeNames(pi);
             }
         }
-        return challengeLogic.getAllChallengeNames();
+        return challengeLogic.getChallengeNamesStartingWith(term);
     }
 }
@@ -12,6 +12,6 @@ import java.util.List;
 public class ChallengeTabCompleter extends AbstractTabCompleter {
     @Override
     protected List<String> getTabList(CommandSender commandSender, String term) {
-        return uSkyBlock.getInstance().getChallengeLogic().getAllChallengeNames();
+        return uSkyBlock.getInstance().getChallengeLogic().getChallengeNamesStartingWith(term);
     }
 }
@@ -2,6 +2,7 @@ package us.talabrek.ultimateskyblock.event;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -13,26 +14,42 @@ import org.bukkit.event.inventory.InventoryPickupItemEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
 
 /**
  * Handles the internal item-drop protection.
+ * <p>
+ * Dropped items are marked with the UUID of their owner in the persistent data of the stack, and the mark is removed
+ * again when the item is picked up. Items marked with the owner lore of earlier versions are converted when met.
  */
 @Singleton
 public class ItemDropEvents implements Listener {
     private final uSkyBlock plugin;
     private final boolean visitorsCanDrop;
+    private final NamespacedKey ownerKey;
+    // The translated legacy owner lore line, around the owner name
+    private final String legacyOwnerPrefix;
+    private final String legacyOwnerSuffix;
 
     @Inject
     public ItemDropEvents(@NotNull uSkyBlock plugin) {
         this.plugin = plugin;
         visitorsCanDrop = plugin.getConfig().getBoolean("options.protection.visitors.item-drops", true);
+        ownerKey = new NamespacedKey(plugin, "drop-owner");
+        String legacyOwner = tr("Owner: {0}", "\0");
+        int ix = legacyOwner.indexOf('\0');
+        legacyOwnerPrefix = ix != -1 ? legacyOwner.substring(0, ix) : legacyOwner;
+        legacyOwnerSuffix = ix != -1 ? legacyOwner.substring(ix + 1) : "";
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
@@ -67,34 +84,92 @@ public class ItemDropEvents implements Listener {
         }
     }
 
-    private void addDropInfo(Player player, ItemStack stack) {
+    /**
+     * Marks the stack as dropped by the player. Legacy owner lore is stripped on the way.
+     */
+    void addDropInfo(Player player, ItemStack stack) {
         ItemMeta meta = stack.getItemMeta();
         if (meta != null) {
-            List<String> lore = meta.getLore();
-            if (lore == null) {
-                lore = new ArrayList<>();
-            }
-            String ownerTag = tr("Owner: {0}", player.getName());
-            if (!lore.contains(ownerTag)) {
-                lore.add(ownerTag);
-            }
-            meta.setLore(lore);
+            stripLegacyOwner(meta);
+            setOwner(meta, player.getUniqueId());
             stack.setItemMeta(meta);
         }
     }
 
-    private void clearDropInfo(Item item) {
+    /**
+     * Gets the player that dropped the item, converting items marked with legacy owner lore.
+     *
+     * @return The owner, or null if the item isn't owned by anyone.
+     */
+    @Nullable UUID getOwner(Item item) {
         ItemStack stack = item.getItemStack();
+        if (!stack.hasItemMeta()) {
+            return null;
+        }
         ItemMeta meta = stack.getItemMeta();
-        if (meta != null) {
-            List<String> lore = meta.getLore();
-            if (lore != null && !lore.isEmpty()) {
-                lore.removeIf(line -> line.contains(tr("Owner: {0}", "")));
-                meta.setLore(lore);
-                stack.setItemMeta(meta);
-                item.setItemStack(stack);
+        long[] owner = meta.getPersistentDataContainer().get(ownerKey, PersistentDataType.LONG_ARRAY);
+        if (owner != null && owner.length == 2) {
+            return new UUID(owner[0], owner[1]);
+        }
+        String legacyOwner = stripLegacyOwner(meta);
+        if (legacyOwner == null) {
+            return null;
+        }
+        UUID uuid = plugin.getPlayerDB().getUUIDFromName(legacyOwner, false);
+        if (uuid != null) {
+            setOwner(meta, uuid);
+        }
+        stack.setItemMeta(meta);
+        item.setItemStack(stack);
+        return uuid;
+    }
+
+    private void setOwner(ItemMeta meta, UUID uuid) {
+        meta.getPersistentDataContainer().set(ownerKey, PersistentDataType.LONG_ARRAY,
+            new long[]{uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()});
+    }
+
+    void clearDropInfo(Item item) {
+        ItemStack stack = item.getItemStack();
+        if (!stack.hasItemMeta()) {
+            return;
+        }
+        ItemMeta meta = stack.getItemMeta();
+        boolean changed = stripLegacyOwner(meta) != null;
+        PersistentDataContainer container = meta.getPersistentDataContainer();
+        if (container.has(ownerKey, PersistentDataType.LONG_ARRAY)) {
+            container.remove(ownerKey);
+            changed = true;
+        }
+        if (changed) {
+            stack.setItemMeta(meta);
+            item.setItemStack(stack);
+        }
+    }
+
+    /**
+     * Removes the owner lines items were marked with before the owner was kept in the persistent data.
+     *
+     * @return The name of the owner in the last owner line, or null if there were none.
+     */
+    private @Nullable String stripLegacyOwner(ItemMeta meta) {
+        if (!meta.hasLore()) {
+            return null;
+        }
+        List<String> lore = meta.getLore();
+        String owner = null;
+        for (Iterator<String> it = lore.iterator(); it.hasNext(); ) {
+            String line = it.next();
+            if (line.length() >= legacyOwnerPrefix.length() + legacyOwnerSuffix.length()
+                && line.startsWith(legacyOwnerPrefix) && line.endsWith(legacyOwnerSuffix)) {
+                owner = line.substring(legacyOwnerPrefix.length(), line.length() - legacyOwnerSuffix.length());
+                it.remove();
             }
         }
+        if (owner != null) {
+            meta.setLore(lore.isEmpty() ? null : lore);
+        }
+        return owner;
     }
 
     @EventHandler(priority = EventPriority.HIGHEST)
@@ -128,15 +203,6 @@ public class ItemDropEvents implements Listener {
     }
 
     private boolean wasDroppedBy(Player player, EntityPickupItemEvent event) {
-        ItemStack itemStack = event.getItem().getItemStack();
-        ItemMeta meta = itemStack.getItemMeta();
-        if (meta != null) {
-            List<String> lore = meta.getLore();
-            if (lore != null && !lore.isEmpty()) {
-                String lastLine = lore.get(lore.size() - 1);
-                return lastLine.equalsIgnoreCase(tr("Owner: {0}", player.getName()));
-            }
-        }
-        return false;
+        return player.getUniqueId().equals(getOwner(event.getItem()));
     }
 }
@@ -6,6 +6,7 @@ import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.configuration.ConfigurationSection;
@@ -29,8 +30,6 @@ import us.talabrek.ultimateskyblock.util.LocationUtil;
 import us.talabrek.ultimateskyblock.util.MaterialUtil;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,7 +44,9 @@ public class NetherTerraFormEvents implements Listener {
     private final Map<Material, List<MaterialUtil.MaterialProbability>> terraFormMap = new HashMap<>();
     private final Map<String, Double> toolWeights = new HashMap<>();
     private static final Random RND = new Random();
+    private static final BlockFace[] ADJACENT_FACES = {BlockFace.DOWN, BlockFace.UP, BlockFace.WEST, BlockFace.EAST, BlockFace.NORTH, BlockFace.SOUTH};
     private final double maxScan;
+    private final TerraformPlane plane;
     private final double chanceWither;
     private final double chanceSkeleton;
     private final double chanceBlaze;
@@ -78,6 +79,7 @@ public class NetherTerraFormEvents implements Listener {
             }
         }
         maxScan = plugin.getConfig().getInt("nether.terraform-distance", 7);
+        plane = new TerraformPlane((int) Math.ceil(maxScan));
         config = plugin.getConfig().getConfigurationSection("nether.spawn-chances");
         if (config != null) {
             chanceBlaze = config.getDouble("blaze", 0.2);
@@ -136,29 +138,44 @@ public class NetherTerraFormEvents implements Listener {
     }
 
     private void spawnBlock(Material type, Location location, Vector v, ProtectedCuboidRegion islandRegion) {
+        World world = location.getWorld();
         Location spawnLoc;
         if (MaterialUtil.isFallingMaterial(type)) {
-            spawnLoc = findSolidSpawnLocation(location, v, islandRegion);
+            spawnLoc = findSpawnLocation(world, location.getX(), location.getY(), location.getZ(), v,
+                (x, y, z) -> world.getBlockAt(x, y, z).getType() == Material.AIR
+                    && world.getBlockAt(x, y - 1, z).getType().isSolid()
+                    && isInIslandRegion(islandRegion, x, y, z));
         } else {
-            spawnLoc = findAirSpawnLocation(location, v, islandRegion);
+            spawnLoc = findSpawnLocation(world,
+                Math.round(location.getX() + v.getX()),
+                Math.round(location.getY() + v.getY()),
+                Math.round(location.getZ() + v.getZ()), v,
+                (x, y, z) -> world.getBlockAt(x, y, z).getType() == Material.AIR
+                    && isAdjacentToSolid(world, x, y, z)
+                    && isInIslandRegion(islandRegion, x, y, z));
         }
         if (spawnLoc != null) {
             spawnLoc.getWorld().getBlockAt(spawnLoc).setType(type);
         }
     }
 
-    private Location findAirSpawnLocation(Location location, Vector v, ProtectedCuboidRegion islandRegion) {
-        // Searches in a cone for an air block
-        Location lookAt = new Location(location.getWorld(),
-            Math.round(location.getX() + v.getX()),
-            Math.round(location.getY() + v.getY()),
-            Math.round(location.getZ() + v.getZ()));
+    /**
+     * Searches in a cone for a block accepted by the probe, by sampling planes further and further along the vector.
+     */
+    private Location findSpawnLocation(World world, double x, double y, double z, Vector v, TerraformPlane.Probe probe) {
         while (v.length() < maxScan) {
-            for (Location loc : getLocationsInPlane(lookAt, v)) {
-                if (loc.getBlock().getType() == Material.AIR && isAdjacentToSolid(loc)
-                    && isInIslandRegion(islandRegion, loc)) {
-                    return loc;
-                }
+            int radius = (int) Math.floor(v.length());
+            boolean xFixed = Math.abs(v.getX()) > Math.abs(v.getZ());
+            int cx = (int) Math.round(x + v.getX());
+            int cy = (int) Math.round(y + v.getY());
+            int cz = (int) Math.round(z + v.getZ());
+            int candidate = plane.find(radius, xFixed, cx, cy, cz, RND, probe);
+            if (candidate != -1) {
+                int dxz = plane.getDxz(radius, candidate);
+                return new Location(world,
+                    cx + (xFixed ? 0 : dxz),
+                    cy + plane.getDy(radius, candidate),
+                    cz + (xFixed ? dxz : 0));
             }
             double n = v.length();
             v.normalize().multiply(n + 1);
@@ -166,58 +183,19 @@ public class NetherTerraFormEvents implements Listener {
         return null;
     }
 
-    private boolean isInIslandRegion(ProtectedCuboidRegion islandRegion, Location loc) {
-        return WorldGuardHandler.isInRegion(islandRegion, loc);
+    private boolean isInIslandRegion(ProtectedCuboidRegion islandRegion, int x, int y, int z) {
+        return islandRegion.contains(x, y, z);
     }
 
-    private boolean isAdjacentToSolid(Location loc) {
-        for (BlockFace face : Arrays.asList(BlockFace.DOWN, BlockFace.UP, BlockFace.WEST, BlockFace.EAST, BlockFace.NORTH, BlockFace.SOUTH)) {
-            if (loc.getBlock().getRelative(face).getType().isSolid()) {
+    private boolean isAdjacentToSolid(World world, int x, int y, int z) {
+        for (BlockFace face : ADJACENT_FACES) {
+            if (world.getBlockAt(x + face.getModX(), y + face.getModY(), z + face.getModZ()).getType().isSolid()) {
                 return true;
             }
         }
         return false;
     }
 
-    private Location findSolidSpawnLocation(Location location, Vector v, ProtectedCuboidRegion islandRegion) {
-        // Searches in a cone for an air block
-        while (v.length() < maxScan) {
-            for (Location loc : getLocationsInPlane(location, v)) {
-                if (loc.getBlock().getType() == Material.AIR
-                    && loc.getBlock().getRelative(BlockFace.DOWN).getType().isSolid()
-                    && isInIslandRegion(islandRegion, loc)) {
-                    return loc;
-                }
-            }
-            double n = v.length();
-            v.normalize().multiply(n + 1);
-        }
-        return null;
-    }
-
-    private List<Location> getLocationsInPlane(Location location, Vector v) {
-        Location lookAt = new Location(location.getWorld(),
-            Math.round(location.getX() + v.getX()),
-            Math.round(location.getY() + v.getY()),
-            Math.round(location.getZ() + v.getZ()));
-        List<Location> locs = new ArrayList<>();
-        boolean xFixed = Math.abs(v.getX()) > Math.abs(v.getZ());
-        for (int r = 1; r <= v.length(); r++) {
-            for (int dy = -r; dy <= r; dy++) {
-                for (int dxz = -r; dxz <= r; dxz++) {
-                    if (xFixed) {
-                        locs.add(lookAt.clone().add(0, dy, dxz));
-                    } else {
-                        locs.add(lookAt.clone().add(dxz, dy, 0));
-                    }
-                }
-            }
-        }
-        Collections.shuffle(locs);
-        locs = locs.subList(0, locs.size() / 2); // Only try half
-        return locs;
-    }
-
     public List<Material> getYield(Material material, double toolWeight) {
         List<Material> copy = new ArrayList<>();
         for (MaterialUtil.MaterialProbability e : terraFormMap.get(material)) {
@@ -0,0 +1,161 @@
+package us.talabrek.ultimateskyblock.event;
+
+import com.google.inject.Singleton;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Positions of obsidian per chunk, for telling whether there's other obsidian close to a block without scanning the
+ * blocks around it.
+ * <p>
+ * A chunk is indexed from a {@link ChunkSnapshot} the first time it is queried, and kept up to date from block
+ * events afterwards. Changes to chunks that haven't been indexed are ignored, as they'll be seen when indexing.
+ * Chunks are dropped from the index when they unload. Anything that changes blocks without firing block events, like
+ * WorldEdit, schematic pastes or chunk regeneration, must call {@link #invalidate} for the area it changed, or the index
+ * goes stale. Only used from the main thread.
+ */
+@Singleton
+public class ObsidianIndex {
+    private final Map<UUID, Map<Long, Set<Integer>>> worlds = new HashMap<>();
+
+    /**
+     * Tests for obsidian, other than the block itself, within the radius of the block.
+     */
+    boolean hasObsidianNearby(@NotNull Block block, int radius) {
+        World world = block.getWorld();
+        int bx = block.getX();
+        int by = block.getY();
+        int bz = block.getZ();
+        int self = getChunk(world, bx >> 4, bz >> 4).contains(pack(bx & 15, by, bz & 15)) ? 1 : 0;
+        int minCx = (bx - radius) >> 4;
+        int maxCx = (bx + radius) >> 4;
+        int minCz = (bz - radius) >> 4;
+        int maxCz = (bz + radius) >> 4;
+        int count = 0;
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                count += getChunk(world, cx, cz).size();
+            }
+        }
+        if (count <= self) {
+            // The common case, no other obsidian in the chunks around the block
+            return false;
+        }
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                for (int packed : getChunk(world, cx, cz)) {
+                    int x = (cx << 4) + unpackX(packed);
+                    int y = unpackY(packed);
+                    int z = (cz << 4) + unpackZ(packed);
+                    if ((x != bx || y != by || z != bz)
+                        && Math.abs(x - bx) <= radius && Math.abs(y - by) <= radius && Math.abs(z - bz) <= radius) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Updates the index for a block that is, or will be, of the given type.
+     */
+    void update(@NotNull Block block, @NotNull Material type) {
+        Map<Long, Set<Integer>> chunks = worlds.get(block.getWorld().getUID());
+        Set<Integer> chunk = chunks != null ? chunks.get(chunkKey(block.getX() >> 4, block.getZ() >> 4)) : null;
+        if (chunk == null) {
+            return;
+        }
+        int packed = pack(block.getX() & 15, block.getY(), block.getZ() & 15);
+        if (type == Material.OBSIDIAN) {
+            chunk.add(packed);
+        } else {
+            chunk.remove(packed);
+        }
+    }
+
+    void unloadChunk(@NotNull World world, int cx, int cz) {
+        Map<Long, Set<Integer>> chunks = worlds.get(world.getUID());
+        if (chunks != null) {
+            chunks.remove(chunkKey(cx, cz));
+        }
+    }
+
+    /**
+     * Drops the indexed chunks overlapping the given area, i.e. when it was changed by WorldEdit or a schematic paste.
+     */
+    public void invalidate(@NotNull World world, int minX, int minZ, int maxX, int maxZ) {
+        Map<Long, Set<Integer>> chunks = worlds.get(world.getUID());
+        if (chunks == null) {
+            return;
+        }
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                chunks.remove(chunkKey(cx, cz));
+            }
+        }
+    }
+
+    void unloadWorld(@NotNull World world) {
+        worlds.remove(world.getUID());
+    }
+
+    /**
+     * Gets the number of obsidian blocks in the chunk, indexing it if needed.
+     */
+    int getCount(@NotNull World world, int cx, int cz) {
+        return getChunk(world, cx, cz).size();
+    }
+
+    private Set<Integer> getChunk(World world, int cx, int cz) {
+        return worlds.computeIfAbsent(world.getUID(), uuid -> new HashMap<>())
+            .computeIfAbsent(chunkKey(cx, cz), key -> scan(world, cx, cz));
+    }
+
+    private static Set<Integer> scan(World world, int cx, int cz) {
+        ChunkSnapshot snapshot = world.getChunkAt(cx, cz).getChunkSnapshot(false, false, false);
+        Set<Integer> obsidian = new HashSet<>();
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = minY; y < maxY; y++) {
+                    if (snapshot.getBlockType(x, y, z) == Material.OBSIDIAN) {
+                        obsidian.add(pack(x, y, z));
+                    }
+                }
+            }
+        }
+        return obsidian;
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xffffffffL);
+    }
+
+    // The block y is kept in the upper bits, as it may be negative
+    private static int pack(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+
+    private static int unpackX(int packed) {
+        return packed & 15;
+    }
+
+    private static int unpackY(int packed) {
+        return packed >> 8;
+    }
+
+    private static int unpackZ(int packed) {
+        return (packed >> 4) & 15;
+    }
+}
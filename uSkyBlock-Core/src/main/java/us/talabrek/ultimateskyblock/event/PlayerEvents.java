@@ -7,6 +7,7 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Levelled;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -19,6 +20,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFormEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityChangeBlockEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
@@ -29,6 +31,9 @@ import org.bukkit.event.player.PlayerBucketEmptyEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.PortalCreateEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.projectiles.ProjectileSource;
@@ -42,7 +47,6 @@ import us.talabrek.ultimateskyblock.island.IslandInfo;
 import us.talabrek.ultimateskyblock.player.PatienceTester;
 import us.talabrek.ultimateskyblock.player.PlayerInfo;
 import us.talabrek.ultimateskyblock.uSkyBlock;
-import us.talabrek.ultimateskyblock.util.LocationUtil;
 import us.talabrek.ultimateskyblock.world.WorldManager;
 
 import java.time.Duration;
@@ -73,6 +77,7 @@ public class PlayerEvents implements Listener {
     private final boolean visitorMonsterProtected;
     private final boolean protectLava;
     private final Map<UUID, Instant> obsidianClick = new HashMap<>();
+    private final ObsidianIndex obsidianIndex;
     private final boolean blockLimitsEnabled;
     private final Map<Material, Material> leafSaplings = Map.of(
         Material.OAK_LEAVES, Material.OAK_SAPLING,
@@ -83,8 +88,9 @@ public class PlayerEvents implements Listener {
         Material.DARK_OAK_LEAVES, Material.DARK_OAK_SAPLING);
 
     @Inject
-    public PlayerEvents(@NotNull uSkyBlock plugin) {
+    public PlayerEvents(@NotNull uSkyBlock plugin, @NotNull ObsidianIndex obsidianIndex) {
         this.plugin = plugin;
+        this.obsidianIndex = obsidianIndex;
         FileConfiguration config = plugin.getConfig();
         visitorFallProtected = config.getBoolean("options.protection.visitors.fall", true);
         visitorFireProtected = config.getBoolean("options.protection.visitors.fire-damage", true);
@@ -135,6 +141,7 @@ public class PlayerEvents implements Listener {
                         player.getWorld().dropItem(block.getLocation(), new ItemStack(Material.LAVA_BUCKET));
                     }
                     block.setType(Material.AIR);
+                    obsidianIndex.update(block, Material.AIR);
                     event.setCancelled(true);
                 }
             } else {
@@ -145,19 +152,66 @@ public class PlayerEvents implements Listener {
 
     /**
      * Tests for more than one obsidian close by.
+     * <p>
+     * Looked up in an index of obsidian per chunk, which is kept up to date by the block events below.
      */
     public boolean testForObsidian(final Block block) {
-        for (int x = -3; x <= 3; ++x) {
-            for (int y = -3; y <= 3; ++y) {
-                for (int z = -3; z <= 3; ++z) {
-                    final Block testBlock = block.getWorld().getBlockAt(block.getX() + x, block.getY() + y, block.getZ() + z);
-                    if ((x != 0 || y != 0 || z != 0) && testBlock.getType() == Material.OBSIDIAN) {
-                        return true;
-                    }
-                }
-            }
+        return obsidianIndex.hasObsidianNearby(block, 3);
+    }
+
+    ObsidianIndex getObsidianIndex() {
+        return obsidianIndex;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onObsidianPlace(BlockPlaceEvent event) {
+        obsidianIndex.update(event.getBlockPlaced(), event.getBlockPlaced().getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onObsidianBreak(BlockBreakEvent event) {
+        obsidianIndex.update(event.getBlock(), Material.AIR);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onObsidianForm(BlockFormEvent event) {
+        obsidianIndex.update(event.getBlock(), event.getNewState().getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onObsidianChange(EntityChangeBlockEvent event) {
+        obsidianIndex.update(event.getBlock(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onObsidianExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            obsidianIndex.update(block, Material.AIR);
         }
-        return false;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onObsidianBlockExplode(BlockExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            obsidianIndex.update(block, Material.AIR);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onObsidianPortalCreate(PortalCreateEvent event) {
+        for (BlockState state : event.getBlocks()) {
+            obsidianIndex.update(state.getBlock(), state.getType());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        obsidianIndex.unloadChunk(event.getWorld(), event.getChunk().getX(), event.getChunk().getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        obsidianIndex.unloadWorld(event.getWorld());
     }
 
     // Prevent re-placing lava that was picked up in the last tick
@@ -281,10 +335,7 @@ public class PlayerEvents implements Listener {
         if (Settings.extras_respawnAtIsland) {
             PlayerInfo playerInfo = plugin.getPlayerInfo(event.getPlayer());
             if (playerInfo.getHasIsland()) {
-                Location homeLocation = LocationUtil.findNearestSafeLocation(playerInfo.getHomeLocation(), null);
-                if (homeLocation == null) {
-                    homeLocation = LocationUtil.findNearestSafeLocation(playerInfo.getIslandLocation(), null);
-                }
+                Location homeLocation = plugin.getSafeHomeLocation(playerInfo);
                 // If homeLocation is somehow still null, we intentionally fallthrough
                 if (homeLocation != null) {
                     event.setRespawnLocation(homeLocation);
@@ -356,7 +407,7 @@ public class PlayerEvents implements Listener {
             if (!PatienceTester.isRunning(player, key)) {
                 PatienceTester.startRunning(player, key);
                 player.sendMessage(tr("\u00a74{0} is limited. \u00a7eScanning your island to see if you are allowed to place more, please be patient", ItemStackUtil.getItemName(new ItemStack(type))));
-                plugin.fireAsyncEvent(new IslandInfoEvent(player, islandInfo.getIslandLocation(), new Callback<>() {
+                plugin.fireAsyncEvent(islandInfo.getName(), new IslandInfoEvent(player, islandInfo.getIslandLocation(), new Callback<>() {
                     @Override
                     public void run() {
                         player.sendMessage(tr("\u00a7e... Scanning complete, you can try again"));
@@ -0,0 +1,93 @@
+package us.talabrek.ultimateskyblock.event;
+
+import java.util.Random;
+
+/**
+ * Candidate block offsets in the plane facing the player, precomputed per radius, for picking where to terra-form.
+ * <p>
+ * For a radius {@code R}, the candidates are the squares of side {@code 2r+1} around the center for each
+ * {@code r} in {@code 1..R}, so the inner squares are included once per larger radius and thus are more likely to
+ * be picked. The plane spans the y-axis and either the x- or the z-axis, depending on the direction.
+ * <p>
+ * Sampling visits a random half of the candidates in random order, by lazily running a Fisher-Yates shuffle over a
+ * reused index permutation, so nothing is allocated per sample. Not thread-safe, as the permutations are shared.
+ */
+class TerraformPlane {
+    private final int[][] dy;
+    private final int[][] dxz;
+    private final int[][] permutations;
+
+    /**
+     * Tests whether a candidate block is usable.
+     */
+    @FunctionalInterface
+    interface Probe {
+        boolean test(int x, int y, int z);
+    }
+
+    TerraformPlane(int maxRadius) {
+        int radii = Math.max(maxRadius, 0) + 1;
+        dy = new int[radii][];
+        dxz = new int[radii][];
+        permutations = new int[radii][];
+        for (int radius = 0; radius < radii; radius++) {
+            int size = 0;
+            for (int r = 1; r <= radius; r++) {
+                size += (2 * r + 1) * (2 * r + 1);
+            }
+            dy[radius] = new int[size];
+            dxz[radius] = new int[size];
+            permutations[radius] = new int[size];
+            int ix = 0;
+            for (int r = 1; r <= radius; r++) {
+                for (int y = -r; y <= r; y++) {
+                    for (int xz = -r; xz <= r; xz++) {
+                        dy[radius][ix] = y;
+                        dxz[radius][ix] = xz;
+                        permutations[radius][ix] = ix;
+                        ix++;
+                    }
+                }
+            }
+        }
+    }
+
+    int getMaxRadius() {
+        return dy.length - 1;
+    }
+
+    int size(int radius) {
+        return dy[radius].length;
+    }
+
+    /**
+     * Visits a random half of the candidates for the radius around the center, in random order.
+     *
+     * @param xFixed Whether the plane is perpendicular to the x-axis, otherwise to the z-axis.
+     * @return The candidate index of the first block accepted by the probe, or -1 if none was.
+     */
+    int find(int radius, boolean xFixed, int x, int y, int z, Random rnd, Probe probe) {
+        int r = Math.min(radius, getMaxRadius());
+        int[] permutation = permutations[r];
+        int n = permutation.length;
+        int half = n / 2;
+        for (int i = 0; i < half; i++) {
+            int j = i + rnd.nextInt(n - i);
+            int candidate = permutation[j];
+            permutation[j] = permutation[i];
+            permutation[i] = candidate;
+            if (probe.test(x + (xFixed ? 0 : dxz[r][candidate]), y + dy[r][candidate], z + (xFixed ? dxz[r][candidate] : 0))) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    int getDy(int radius, int candidate) {
+        return dy[Math.min(radius, getMaxRadius())][candidate];
+    }
+
+    int getDxz(int radius, int candidate) {
+        return dxz[Math.min(radius, getMaxRadius())][candidate];
+    }
+}
@@ -4,7 +4,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
-import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.util.TimingWheel;
 
 import java.time.Clock;
 import java.time.Duration;
@@ -20,17 +20,20 @@ import java.util.stream.Collectors;
 @Singleton
 public class CooldownHandler {
 
-    private final Map<KeyPair, Instant> cooldownExpires = new HashMap<>();
+    private final Map<KeyPair, Cooldown> cooldownExpires = new HashMap<>();
     private final Clock clock;
-    private final Scheduler scheduler;
+    private final TimingWheel timingWheel;
 
     private record KeyPair(@NotNull UUID uuid, @NotNull String cmd) {
     }
 
+    private record Cooldown(@NotNull Instant expires, @NotNull TimingWheel.Timeout timeout) {
+    }
+
     @Inject
-    public CooldownHandler(@NotNull Clock clock, @NotNull Scheduler scheduler) {
+    public CooldownHandler(@NotNull Clock clock, @NotNull TimingWheel timingWheel) {
         this.clock = clock;
-        this.scheduler = scheduler;
+        this.timingWheel = timingWheel;
     }
 
     public Duration getCooldown(@NotNull Player player, @NotNull String cmd) {
@@ -38,29 +41,37 @@ public class CooldownHandler {
             return Duration.ZERO;
         }
         var now = clock.instant();
-        var end = cooldownExpires.getOrDefault(new KeyPair(player.getUniqueId(), cmd), now);
+        var cooldown = cooldownExpires.get(new KeyPair(player.getUniqueId(), cmd));
+        var end = cooldown != null ? cooldown.expires() : now;
         var remaining = Duration.between(now, end);
         return remaining.isNegative() ? Duration.ZERO : remaining;
     }
 
     public void resetCooldown(@NotNull Player player, @NotNull String cmd, @NotNull Duration cooldown) {
         var key = new KeyPair(player.getUniqueId(), cmd);
-        if (cooldown.isZero() || cooldown.isNegative()) {
-            cooldownExpires.remove(key);
-        } else {
-            cooldownExpires.put(key, clock.instant().plus(cooldown));
-            scheduler.sync(() -> cooldownExpires.remove(key), cooldown.plusSeconds(1));
+        clearCooldown(key);
+        if (cooldown.isPositive()) {
+            var timeout = timingWheel.schedule(cooldown, () -> cooldownExpires.remove(key));
+            cooldownExpires.put(key, new Cooldown(clock.instant().plus(cooldown), timeout));
         }
     }
 
     public boolean clearCooldown(@NotNull Player player, @NotNull String cmd) {
-        var key = new KeyPair(player.getUniqueId(), cmd);
-        return cooldownExpires.remove(key) != null;
+        return clearCooldown(new KeyPair(player.getUniqueId(), cmd));
+    }
+
+    private boolean clearCooldown(KeyPair key) {
+        var cooldown = cooldownExpires.remove(key);
+        if (cooldown != null) {
+            cooldown.timeout().cancel();
+            return true;
+        }
+        return false;
     }
 
     public Map<String, Instant> getCooldowns(@NotNull UUID uuid) {
         return cooldownExpires.entrySet().stream()
             .filter(e -> e.getKey().uuid().equals(uuid))
-            .collect(Collectors.toMap(e -> e.getKey().cmd(), Map.Entry::getValue));
+            .collect(Collectors.toMap(e -> e.getKey().cmd(), e -> e.getValue().expires()));
     }
 }
@@ -15,6 +15,7 @@ public class PlaceholderModule {
     private final ServerCommandReplaceListener serverCommandListener;
     private final TextPlaceholder textPlaceholder;
     private final Provider<MVdWPlaceholderAPI> mvdwPlaceholderProvider;
+    private final PlaceholderReplacerImpl placeholderReplacer;
 
     @Inject
     public PlaceholderModule(
@@ -23,7 +24,8 @@ public class PlaceholderModule {
         @NotNull ChatReplaceListener chatReplaceListener,
         @NotNull ServerCommandReplaceListener serverCommandListener,
         @NotNull TextPlaceholder textPlaceholder,
-        @NotNull Provider<MVdWPlaceholderAPI> mvdwPlaceholderProvider
+        @NotNull Provider<MVdWPlaceholderAPI> mvdwPlaceholderProvider,
+        @NotNull PlaceholderReplacerImpl placeholderReplacer
     ) {
         this.placeholderHandler = placeholderHandler;
         this.config = config;
@@ -31,9 +33,11 @@ public class PlaceholderModule {
         this.serverCommandListener = serverCommandListener;
         this.textPlaceholder = textPlaceholder;
         this.mvdwPlaceholderProvider = mvdwPlaceholderProvider;
+        this.placeholderReplacer = placeholderReplacer;
     }
 
     public void startup(uSkyBlock plugin) {
+        plugin.getServer().getPluginManager().registerEvents(placeholderReplacer, plugin);
         if (config.getYamlConfig().getBoolean("placeholder.chatplaceholder", false)) {
             plugin.getServer().getPluginManager().registerEvents(chatReplaceListener, plugin);
         }
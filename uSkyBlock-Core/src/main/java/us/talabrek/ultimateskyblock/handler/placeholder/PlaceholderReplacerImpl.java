@@ -1,15 +1,33 @@
 package us.talabrek.ultimateskyblock.handler.placeholder;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import us.talabrek.ultimateskyblock.api.IslandRank;
+import us.talabrek.ultimateskyblock.api.event.IslandLeaderChangedEvent;
+import us.talabrek.ultimateskyblock.api.event.MemberJoinedEvent;
+import us.talabrek.ultimateskyblock.api.event.MemberLeftEvent;
+import us.talabrek.ultimateskyblock.api.event.uSkyBlockEvent;
+import us.talabrek.ultimateskyblock.api.event.uSkyBlockScoreChangedEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandBanPlayerEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandBiomeChangedEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandPerksChangedEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandTrustPlayerEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandUnbanPlayerEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandUntrustPlayerEvent;
+import us.talabrek.ultimateskyblock.handler.WorldGuardHandler;
 import us.talabrek.ultimateskyblock.island.IslandInfo;
 import us.talabrek.ultimateskyblock.island.IslandLogic;
 import us.talabrek.ultimateskyblock.island.LimitLogic;
@@ -17,99 +35,116 @@ import us.talabrek.ultimateskyblock.player.PlayerInfo;
 import us.talabrek.ultimateskyblock.player.PlayerLogic;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import us.talabrek.ultimateskyblock.util.LocationUtil;
+import us.talabrek.ultimateskyblock.util.Scheduler;
 
+import java.lang.ref.WeakReference;
 import java.util.Collection;
-import java.util.Set;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static dk.lockfuglsang.minecraft.po.I18nUtil.pre;
 import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
 
 /**
- * The actual replacer for placeholders
+ * The actual replacer for placeholders.
+ * <p>
+ * Island placeholder values are computed once and kept per island until the state they depend on changes, which
+ * is pushed to the replacer by the events listened for below.
  */
 @Singleton
-public class PlaceholderReplacerImpl implements PlaceholderAPI.PlaceholderReplacer {
-    private static final Collection<String> PLACEHOLDERS = Set.of(
-        "usb_version",
-        "usb_island_level",
-        "usb_island_level_int",
-        "usb_island_rank",
-        "usb_island_leader",
-        "usb_island_golems_max",
-        "usb_island_monsters_max",
-        "usb_island_animals_max",
-        "usb_island_villagers_max",
-        "usb_island_partysize_max",
-        "usb_island_golems",
-        "usb_island_monsters",
-        "usb_island_animals",
-        "usb_island_villagers",
-        "usb_island_partysize",
-        "usb_island_biome",
-        "usb_island_bans",
-        "usb_island_members",
-        "usb_island_trustees",
-        "usb_island_location",
-        "usb_island_location_x",
-        "usb_island_location_y",
-        "usb_island_location_z",
-        "usb_island_schematic"
+public class PlaceholderReplacerImpl implements PlaceholderAPI.PlaceholderReplacer, Listener {
+    /**
+     * The island state a placeholder value is computed from.
+     */
+    enum Dependency {SCORE, RANK, PARTY, LIMITS, BANS, TRUSTEES, BIOME, CREATURES, LOCATION}
+
+    private static final Map<String, Dependency> ISLAND_PLACEHOLDERS = Map.ofEntries(
+        Map.entry("usb_island_level", Dependency.SCORE),
+        Map.entry("usb_island_level_int", Dependency.SCORE),
+        Map.entry("usb_island_rank", Dependency.RANK),
+        Map.entry("usb_island_leader", Dependency.PARTY),
+        Map.entry("usb_island_golems_max", Dependency.LIMITS),
+        Map.entry("usb_island_monsters_max", Dependency.LIMITS),
+        Map.entry("usb_island_animals_max", Dependency.LIMITS),
+        Map.entry("usb_island_villagers_max", Dependency.LIMITS),
+        Map.entry("usb_island_partysize_max", Dependency.LIMITS),
+        Map.entry("usb_island_golems", Dependency.CREATURES),
+        Map.entry("usb_island_monsters", Dependency.CREATURES),
+        Map.entry("usb_island_animals", Dependency.CREATURES),
+        Map.entry("usb_island_villagers", Dependency.CREATURES),
+        Map.entry("usb_island_partysize", Dependency.PARTY),
+        Map.entry("usb_island_biome", Dependency.BIOME),
+        Map.entry("usb_island_bans", Dependency.BANS),
+        Map.entry("usb_island_members", Dependency.PARTY),
+        Map.entry("usb_island_trustees", Dependency.TRUSTEES),
+        Map.entry("usb_island_location", Dependency.LOCATION),
+        Map.entry("usb_island_location_x", Dependency.LOCATION),
+        Map.entry("usb_island_location_y", Dependency.LOCATION),
+        Map.entry("usb_island_location_z", Dependency.LOCATION),
+        Map.entry("usb_island_schematic", Dependency.LOCATION)
+    );
+    private static final Map<LimitLogic.CreatureType, String> CREATURE_PLACEHOLDERS = Map.of(
+        LimitLogic.CreatureType.GOLEM, "usb_island_golems",
+        LimitLogic.CreatureType.MONSTER, "usb_island_monsters",
+        LimitLogic.CreatureType.ANIMAL, "usb_island_animals",
+        LimitLogic.CreatureType.VILLAGER, "usb_island_villagers"
     );
+    private static final Collection<String> PLACEHOLDERS = Stream.concat(
+        Stream.of("usb_version"), ISLAND_PLACEHOLDERS.keySet().stream()).collect(Collectors.toUnmodifiableSet());
+
     private final uSkyBlock plugin;
     private final PlayerLogic playerLogic;
     private final IslandLogic islandLogic;
     private final LimitLogic limitLogic;
-    private final LoadingCache<CacheEntry, String> cache;
+    private final Scheduler scheduler;
+    private final Cache<String, IslandValues> islands;
 
     @Inject
     public PlaceholderReplacerImpl(
         @NotNull uSkyBlock plugin,
         @NotNull PlayerLogic playerLogic,
         @NotNull IslandLogic islandLogic,
-        @NotNull LimitLogic limitLogic
+        @NotNull LimitLogic limitLogic,
+        @NotNull Scheduler scheduler
     ) {
         this.plugin = plugin;
         this.playerLogic = playerLogic;
         this.islandLogic = islandLogic;
         this.limitLogic = limitLogic;
-
-        this.cache = CacheBuilder
-            .from(plugin.getConfig().getString("options.advanced.placeholderCache",
-                "maximumSize=200,expireAfterWrite=20s"))
-            .build(new CacheLoader<>() {
-                @Override
-                public @NotNull String load(@NotNull CacheEntry cacheEntry) throws Exception {
-                    try {
-                        return lookup(cacheEntry);
-                    } catch (RuntimeException e) {
-                        throw new ExecutionException(e.getMessage(), e);
-                    }
-                }
-            });
+        this.scheduler = scheduler;
+        this.islands = CacheBuilder
+            .from(plugin.getConfig().getString("options.advanced.placeholderCache", "maximumSize=200"))
+            .build();
+        limitLogic.addCensusListener(this::onCreatureCensus);
     }
 
-    private String lookup(CacheEntry entry) {
-        String placeholder = entry.placeholder();
-        if (placeholder.startsWith("usb_island")) {
-            PlayerInfo playerInfo = playerLogic.getPlayerInfo(entry.uuid());
+    private String lookup(UUID uuid, String placeholder) {
+        if (ISLAND_PLACEHOLDERS.containsKey(placeholder)) {
+            PlayerInfo playerInfo = playerLogic.getPlayerInfo(uuid);
             IslandInfo islandInfo = islandLogic.getIslandInfo(playerInfo);
             if (playerInfo == null || islandInfo == null) {
                 return tr("N/A");
             }
-            return lookup(islandInfo, placeholder);
-        } else if (placeholder.startsWith("usb_")) {
-            return lookup(placeholder);
+            return getValues(islandInfo).get(placeholder, () -> lookup(islandInfo, placeholder));
+        } else if (placeholder.equals("usb_version")) {
+            return plugin.getDescription().getVersion();
         }
         throw new IllegalArgumentException("Unsupported placeholder " + placeholder);
     }
 
-    private String lookup(String placeholder) {
-        if (placeholder.equals("usb_version")) {
-            return plugin.getDescription().getVersion();
+    private IslandValues getValues(IslandInfo islandInfo) {
+        IslandValues values = islands.getIfPresent(islandInfo.getName());
+        // A new IslandInfo for the same name means the island was deleted or reloaded, so start over
+        if (values == null || values.islandInfo.get() != islandInfo) {
+            values = new IslandValues(islandInfo);
+            islands.put(islandInfo.getName(), values);
         }
-        throw new IllegalArgumentException("Unsupported placeholder " + placeholder);
+        return values;
     }
 
     private String lookup(IslandInfo islandInfo, String placeholder) {
@@ -170,14 +205,163 @@ public class PlaceholderReplacerImpl implements PlaceholderAPI.PlaceholderReplac
         if (uuid == null) {
             return null;
         }
-        CacheEntry cacheKey = new CacheEntry(uuid, placeholder);
         try {
-            return cache.get(cacheKey);
-        } catch (ExecutionException e) {
+            return lookup(uuid, placeholder);
+        } catch (RuntimeException e) {
             return null;
         }
     }
 
-    private record CacheEntry(UUID uuid, String placeholder) {
+    /**
+     * Drops the values of the given island that depend on the given state.
+     */
+    void invalidate(@Nullable String islandName, @NotNull Dependency dependency) {
+        IslandValues values = islandName != null ? islands.getIfPresent(islandName) : null;
+        if (values != null) {
+            values.invalidate(dependency);
+        }
+    }
+
+    /**
+     * Drops the values of all islands that depend on the given state.
+     */
+    void invalidateAll(@NotNull Dependency dependency) {
+        for (IslandValues values : islands.asMap().values()) {
+            values.invalidate(dependency);
+        }
+    }
+
+    private void onCreatureCensus(String islandName, Map<LimitLogic.CreatureType, Integer> census) {
+        IslandValues values = islands.getIfPresent(islandName);
+        if (values != null) {
+            for (Map.Entry<LimitLogic.CreatureType, String> entry : CREATURE_PLACEHOLDERS.entrySet()) {
+                values.put(entry.getValue(), "" + census.get(entry.getKey()));
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onScoreChanged(uSkyBlockScoreChangedEvent event) {
+        invalidate(LocationUtil.getIslandName(event.getIslandLocation()), Dependency.SCORE);
+        // Ranks of other islands shift as well
+        invalidateAll(Dependency.RANK);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRankUpdated(uSkyBlockEvent event) {
+        if (event.getCause() == uSkyBlockEvent.Cause.RANK_UPDATED) {
+            invalidateAll(Dependency.RANK);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onMemberJoined(MemberJoinedEvent event) {
+        invalidateParty(event.getIslandInfo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onMemberLeft(MemberLeftEvent event) {
+        invalidateParty(event.getIslandInfo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLeaderChanged(IslandLeaderChangedEvent event) {
+        invalidateParty(event.getIslandInfo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPerksChanged(IslandPerksChangedEvent event) {
+        invalidateParty(event.getIslandInfo());
+    }
+
+    private void invalidateParty(us.talabrek.ultimateskyblock.api.IslandInfo islandInfo) {
+        invalidate(islandInfo.getName(), Dependency.PARTY);
+        invalidate(islandInfo.getName(), Dependency.LIMITS);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBiomeChanged(IslandBiomeChangedEvent event) {
+        invalidate(event.getIslandInfo().getName(), Dependency.BIOME);
+    }
+
+    // Bans and trusts are fired before the island is changed, so the values are dropped on the next tick
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBan(IslandBanPlayerEvent event) {
+        invalidateLater(event.getIslandInfo().getName(), Dependency.BANS);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onUnban(IslandUnbanPlayerEvent event) {
+        invalidateLater(event.getIslandInfo().getName(), Dependency.BANS);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTrust(IslandTrustPlayerEvent event) {
+        invalidateLater(event.getIslandInfo().getName(), Dependency.TRUSTEES);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onUntrust(IslandUntrustPlayerEvent event) {
+        invalidateLater(event.getIslandInfo().getName(), Dependency.TRUSTEES);
+    }
+
+    private void invalidateLater(String islandName, Dependency dependency) {
+        scheduler.sync(() -> invalidate(islandName, dependency));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCreatureSpawn(CreatureSpawnEvent event) {
+        invalidateCreatures(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCreatureDeath(EntityDeathEvent event) {
+        invalidateCreatures(event.getEntity());
+    }
+
+    private void invalidateCreatures(LivingEntity entity) {
+        if (islands.size() == 0 || !plugin.getWorldManager().isSkyAssociatedWorld(entity.getWorld())) {
+            return;
+        }
+        invalidate(getIslandNameAt(entity), Dependency.CREATURES);
+    }
+
+    @Nullable
+    String getIslandNameAt(@NotNull Entity entity) {
+        return WorldGuardHandler.getIslandNameAt(entity.getLocation());
+    }
+
+    private static class IslandValues {
+        // Weak, so islands dropped from the IslandLogic cache aren't kept in memory
+        private final WeakReference<IslandInfo> islandInfo;
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        // Bumped on every invalidation, so values computed while the island changed aren't stored
+        private final AtomicLong generation = new AtomicLong();
+
+        IslandValues(IslandInfo islandInfo) {
+            this.islandInfo = new WeakReference<>(islandInfo);
+        }
+
+        String get(String placeholder, Supplier<String> lookup) {
+            String value = values.get(placeholder);
+            if (value == null) {
+                long before = generation.get();
+                value = lookup.get();
+                if (value != null && generation.get() == before) {
+                    values.put(placeholder, value);
+                }
+            }
+            return value;
+        }
+
+        void put(String placeholder, String value) {
+            values.put(placeholder, value);
+        }
+
+        void invalidate(Dependency dependency) {
+            generation.incrementAndGet();
+            values.keySet().removeIf(placeholder -> ISLAND_PLACEHOLDERS.get(placeholder) == dependency);
+        }
     }
 }
@@ -0,0 +1,117 @@
+package us.talabrek.ultimateskyblock.handler.placeholder;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A format string compiled into literal and {@code {placeholder}} segments, so it can be rendered in a single pass
+ * without scanning the format again.
+ */
+public class PlaceholderTemplate {
+    private final String format;
+    // Literal text, or the placeholder name for placeholder segments
+    private final String[] segments;
+    private final boolean[] placeholder;
+    private final int literalLength;
+    private final boolean hasPlaceholders;
+
+    private PlaceholderTemplate(@NotNull String format, @NotNull List<String> segments, @NotNull List<Boolean> placeholder) {
+        this.format = format;
+        this.segments = segments.toArray(new String[0]);
+        this.placeholder = new boolean[segments.size()];
+        int length = 0;
+        boolean anyPlaceholder = false;
+        for (int i = 0; i < this.segments.length; i++) {
+            this.placeholder[i] = placeholder.get(i);
+            if (this.placeholder[i]) {
+                anyPlaceholder = true;
+            } else {
+                length += this.segments[i].length();
+            }
+        }
+        this.literalLength = length;
+        this.hasPlaceholders = anyPlaceholder;
+    }
+
+    /**
+     * Compiles the format. Text in curly braces is a placeholder if the predicate accepts its name, anything else
+     * is kept as literal text.
+     *
+     * @param format        Format to compile.
+     * @param isPlaceholder Whether a name is a placeholder.
+     * @return The compiled template.
+     */
+    public static @NotNull PlaceholderTemplate compile(@NotNull String format, @NotNull Predicate<String> isPlaceholder) {
+        List<String> segments = new ArrayList<>();
+        List<Boolean> placeholder = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int ix = 0;
+        while (ix < format.length()) {
+            int start = format.indexOf('{', ix);
+            int end = start != -1 ? format.indexOf('}', start + 1) : -1;
+            if (start == -1 || end == -1) {
+                break;
+            }
+            String name = format.substring(start + 1, end);
+            if (name.indexOf('{') == -1 && isPlaceholder.test(name)) {
+                literal.append(format, ix, start);
+                if (!literal.isEmpty()) {
+                    segments.add(literal.toString());
+                    placeholder.add(false);
+                    literal.setLength(0);
+                }
+                segments.add(name);
+                placeholder.add(true);
+                ix = end + 1;
+            } else {
+                // Not a placeholder, keep the brace and continue scanning after it
+                literal.append(format, ix, start + 1);
+                ix = start + 1;
+            }
+        }
+        literal.append(format, ix, format.length());
+        if (!literal.isEmpty()) {
+            segments.add(literal.toString());
+            placeholder.add(false);
+        }
+        return new PlaceholderTemplate(format, segments, placeholder);
+    }
+
+    /**
+     * Renders the template.
+     *
+     * @param resolver Resolves the value of a placeholder. If it returns null, the placeholder is kept as is.
+     * @return The rendered text.
+     */
+    public @NotNull String render(@NotNull Function<String, String> resolver) {
+        if (!hasPlaceholders()) {
+            return format;
+        }
+        StringBuilder sb = new StringBuilder(literalLength + 16 * segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            if (placeholder[i]) {
+                String value = resolver.apply(segments[i]);
+                if (value != null) {
+                    sb.append(value);
+                } else {
+                    sb.append('{').append(segments[i]).append('}');
+                }
+            } else {
+                sb.append(segments[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    public boolean hasPlaceholders() {
+        return hasPlaceholders;
+    }
+
+    public @NotNull String getFormat() {
+        return format;
+    }
+}
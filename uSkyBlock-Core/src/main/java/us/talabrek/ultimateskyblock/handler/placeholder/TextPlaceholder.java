@@ -1,62 +1,47 @@
 package us.talabrek.ultimateskyblock.handler.placeholder;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Common PlaceholderAPI for internal placeholders.
  */
 @Singleton
 public class TextPlaceholder implements PlaceholderAPI {
+    private static final int MAX_TEMPLATES = 256;
 
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{(?<placeholder>usb_[^}]*)\\}");
     private final PlaceholderReplacer replacer;
+    private final LoadingCache<String, PlaceholderTemplate> templates;
 
     @Inject
     public TextPlaceholder(@NotNull PlaceholderReplacer replacer) {
         this.replacer = replacer;
+        this.templates = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TEMPLATES)
+            .build(CacheLoader.from(format -> PlaceholderTemplate.compile(format, name -> replacer.getPlaceholders().contains(name))));
     }
 
     @Override
     public @Nullable String replacePlaceholders(@Nullable Player player, @Nullable String message) {
-        return replacePlaceholdersInternal(player, message);
+        if (message == null || !message.contains("{usb_")) {
+            return message;
+        }
+        return getTemplate(message).render(placeholder -> replacer.replace(null, player, placeholder));
     }
 
-    private @Nullable String replacePlaceholdersInternal(@Nullable Player player, @Nullable String message) {
-        if (message == null) {
-            return null;
-        }
-        String result = message;
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(message);
-        if (matcher.find()) {
-            int ix = 0;
-            StringBuilder sb = new StringBuilder();
-            do {
-                sb.append(message, ix, matcher.start());
-                String placeholderString = matcher.group("placeholder");
-                if (placeholderString != null && replacer.getPlaceholders().contains(placeholderString)) {
-                    String replacement = replacer.replace(null, player, placeholderString);
-                    if (replacement != null) {
-                        sb.append(replacement);
-                    } else {
-                        sb.append(message, matcher.start(), matcher.end());
-                    }
-                } else {
-                    sb.append("{").append(placeholderString).append("}");
-                }
-                ix = matcher.end();
-            } while (matcher.find());
-            if (ix < message.length()) {
-                sb.append(message.substring(ix));
-            }
-            result = sb.toString();
-        }
-        return result;
+    /**
+     * Returns the compiled template of the given format, compiling it if it isn't cached.
+     *
+     * @param format Format with {@code {usb_...}} placeholders.
+     * @return The compiled template.
+     */
+    public @NotNull PlaceholderTemplate getTemplate(@NotNull String format) {
+        return templates.getUnchecked(format);
     }
 }
@@ -6,6 +6,7 @@ import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 import us.talabrek.ultimateskyblock.hook.economy.EconomyHook;
 import us.talabrek.ultimateskyblock.hook.economy.VaultEconomy;
+import us.talabrek.ultimateskyblock.hook.permissions.LuckPermsHook;
 import us.talabrek.ultimateskyblock.hook.permissions.PermissionsHook;
 import us.talabrek.ultimateskyblock.hook.permissions.VaultPermissions;
 import us.talabrek.ultimateskyblock.hook.world.MultiverseHook;
@@ -82,6 +83,21 @@ public class HookManager {
         setupMultiverse();
         setupEconomyHook();
         setupPermissionsHook();
+        setupPermissionChangesHook();
+    }
+
+    /**
+     * Unhooks all registered hooks.
+     */
+    public void shutdown() {
+        for (PluginHook hook : hooks.values()) {
+            try {
+                hook.onUnhook();
+            } catch (HookFailedException ex) {
+                logger.log(Level.WARNING, "Failed to unhook " + hook.getHookName(), ex);
+            }
+        }
+        hooks.clear();
     }
 
     /**
@@ -146,4 +162,23 @@ public class HookManager {
         logger.warning("Failed to find a compatible permissions system. Permission rewards will be disabled.");
         return false;
     }
+
+    /**
+     * Checks and hooks into permission plugins that notify about permission changes, so cached perks can be
+     * invalidated when they happen.
+     *
+     * @return True if a compatible plugin has been found and hooking succeeded, false otherwise.
+     */
+    public boolean setupPermissionChangesHook() {
+        try {
+            if (Bukkit.getPluginManager().isPluginEnabled("LuckPerms")) {
+                registerHook(new LuckPermsHook(plugin));
+                logger.info("Hooked into LuckPerms permission changes.");
+                return true;
+            }
+        } catch (HookFailedException ex) {
+            logger.log(Level.SEVERE, "Failed to hook into LuckPerms permission changes.", ex);
+        }
+        return false;
+    }
 }
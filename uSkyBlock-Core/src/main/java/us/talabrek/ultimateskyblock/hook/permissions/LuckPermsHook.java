@@ -0,0 +1,46 @@
+package us.talabrek.ultimateskyblock.hook.permissions;
+
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.hook.HookFailedException;
+import us.talabrek.ultimateskyblock.hook.PluginHook;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listens for permission changes in LuckPerms, and invalidates the cached perks of the affected players.
+ */
+public class LuckPermsHook extends PluginHook {
+    private final List<EventSubscription<?>> subscriptions = new ArrayList<>();
+
+    public LuckPermsHook(@NotNull uSkyBlock plugin) {
+        super(plugin, "PermissionChanges", "LuckPerms");
+    }
+
+    @Override
+    public void onHook() throws HookFailedException {
+        LuckPerms luckPerms;
+        try {
+            luckPerms = LuckPermsProvider.get();
+        } catch (IllegalStateException e) {
+            throw new HookFailedException("LuckPerms API is not loaded: " + e.getMessage());
+        }
+        // Fired whenever the permissions of a user or group are recalculated, i.e. after any change
+        subscriptions.add(luckPerms.getEventBus().subscribe(plugin, UserDataRecalculateEvent.class,
+            event -> plugin.getPerkLogic().invalidate(event.getUser().getUniqueId())));
+        subscriptions.add(luckPerms.getEventBus().subscribe(plugin, GroupDataRecalculateEvent.class,
+            event -> plugin.getPerkLogic().invalidateAll()));
+    }
+
+    @Override
+    public void onUnhook() throws HookFailedException {
+        subscriptions.forEach(EventSubscription::close);
+        subscriptions.clear();
+    }
+}
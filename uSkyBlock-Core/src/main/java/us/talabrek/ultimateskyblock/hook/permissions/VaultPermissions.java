@@ -35,12 +35,17 @@ public class VaultPermissions extends PermissionsHook implements Listener {
 
     @Override
     public boolean addPermission(@NotNull Player player, @NotNull String perk) {
-        return permission.playerAdd(player, perk);
+        boolean added = permission.playerAdd(player, perk);
+        // Vault doesn't notify about permission changes, so invalidate the changes we make ourselves
+        plugin.getPerkLogic().invalidate(player.getUniqueId());
+        return added;
     }
 
     @Override
     public boolean removePermission(@NotNull Player player, @NotNull String perk) {
-        return permission.playerRemove(player, perk);
+        boolean removed = permission.playerRemove(player, perk);
+        plugin.getPerkLogic().invalidate(player.getUniqueId());
+        return removed;
     }
 
     @EventHandler
@@ -1,72 +1,119 @@
 package us.talabrek.ultimateskyblock.hook.placeholderapi;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import us.talabrek.ultimateskyblock.api.IslandLevel;
+import us.talabrek.ultimateskyblock.api.event.island.IslandPerksChangedEvent;
 import us.talabrek.ultimateskyblock.island.IslandInfo;
-import us.talabrek.ultimateskyblock.island.IslandLogic;
 import us.talabrek.ultimateskyblock.player.PlayerInfo;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 
-public class UsbExpansion extends PlaceholderExpansion {
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * PlaceholderAPI expansion for {@code %uskyblock_self_<field>%} and {@code %uskyblock_istop_<place>_<field>%}.
+ * <p>
+ * Scoreboards request these many times per second, so the params are parsed once per distinct params string, players
+ * are looked up in the player cache, and the island values are read from a snapshot that is only rebuilt when the
+ * island has changed or its perks were changed.
+ */
+public class UsbExpansion extends PlaceholderExpansion implements Listener {
+    private static final int MAX_REQUESTS = 256;
 
     private final uSkyBlock usb;
+    private final Cache<String, Request> requests = CacheBuilder.newBuilder().maximumSize(MAX_REQUESTS).build();
+    private final Cache<String, IslandSnapshot> snapshots;
 
     public UsbExpansion(uSkyBlock usb) {
         this.usb = usb;
+        this.snapshots = CacheBuilder
+            .from(usb.getConfig().getString("options.advanced.placeholderCache", "maximumSize=200"))
+            .build();
+        usb.getServer().getPluginManager().registerEvents(this, usb);
     }
 
     @Override
-    public String onRequest(OfflinePlayer player, String params_) {
-        IslandLogic logic = usb.getIslandLogic();
-        String[] params = params_.split("_");
-
-        if(params[0].equalsIgnoreCase("istop")) {
-            // check if top10 even exists
-            if(logic.getRanks(0, 1).size() == 0) {
-                return "unknown";
-            }
-            int place;
-            try {
-                place = Integer.parseInt(params[1]);
-            }catch (NumberFormatException e) {
-                return "error";
-            }
-            if(logic.getRanks(0, place).size() < place -1) {
-                return "place does not exist";
-            }
-            IslandLevel isLevel = logic.getRanks(0, place).get(place - 1);
-            switch (params[2]) {
-                case "leadername": return isLevel.getLeaderName();
-                case "coordinates": return isLevel.getIslandName();
-                case "level": return String.valueOf(isLevel.getScore());
+    public String onRequest(OfflinePlayer player, String params) {
+        Request request = requests.getIfPresent(params);
+        if (request == null) {
+            request = Request.parse(params);
+            if (request == null) {
+                return null; // Placeholder is unknown by the Expansion
             }
+            requests.put(params, request);
+        }
+        return switch (request.kind()) {
+            case ISTOP -> getTopValue(request);
+            case SELF -> getSelfValue(player, request.field());
+        };
+    }
+
+    private String getTopValue(Request request) {
+        if (request.place() <= 0) {
+            return "error";
+        }
+        List<IslandLevel> ranks = usb.getIslandLogic().getRanks(0, request.place());
+        // check if top10 even exists
+        if (ranks.isEmpty()) {
+            return "unknown";
+        }
+        if (ranks.size() < request.place()) {
+            return "place does not exist";
+        }
+        IslandLevel isLevel = ranks.get(request.place() - 1);
+        return switch (request.field()) {
+            case LEADERNAME -> isLevel.getLeaderName();
+            case COORDINATES -> isLevel.getIslandName();
+            case LEVEL -> String.valueOf(isLevel.getScore());
+            default -> null;
+        };
+    }
+
+    private String getSelfValue(OfflinePlayer player, Field field) {
+        if (player == null) {
             return null;
         }
+        PlayerInfo playerInfo = usb.getPlayerLogic().getPlayerInfo(player.getUniqueId());
+        IslandInfo isInfo = usb.getIslandLogic().getIslandInfo(playerInfo);
+        if (isInfo == null) return "error";
+        if (field == Field.ONLINE) {
+            return String.valueOf(isInfo.getOnlineMembers().size());
+        }
+        return getSnapshot(isInfo).values().get(field);
+    }
 
-        IslandInfo isInfo = logic.getIslandInfo(new PlayerInfo(player.getName(), player.getUniqueId(), usb));
-        if(isInfo == null) return "error";
-        if(params[0].equalsIgnoreCase("self")) {
-            switch (params[1]) {
-                case "leadername": return isInfo.getLeader();
-                case "coordinates": return isInfo.getName();
-                case "level": return String.valueOf(isInfo.getLevel());
-                case "biome": return isInfo.getBiome();
-                case "hoppers": return String.valueOf(isInfo.getHopperCount());
-                case "max-animals": return String.valueOf(isInfo.getMaxAnimals());
-                case "max-monsters": return String.valueOf(isInfo.getMaxMonsters());
-                case "max-golems": return String.valueOf(isInfo.getMaxGolems());
-                case "max-villagers": return String.valueOf(isInfo.getMaxVillagers());
-                case "max-partysize": return String.valueOf(isInfo.getMaxPartySize());
-                case "partysize": return String.valueOf(isInfo.getPartySize());
-                case "online": return String.valueOf(isInfo.getOnlineMembers().size());
-                case "score-multiplier": return String.valueOf(isInfo.getScoreMultiplier());
-                case "score-offset": return String.valueOf(isInfo.getScoreOffset());
-            }
+    private IslandSnapshot getSnapshot(IslandInfo isInfo) {
+        IslandSnapshot snapshot = snapshots.getIfPresent(isInfo.getName());
+        long changes = isInfo.getChangeCount();
+        // A new IslandInfo for the same name means the island was deleted or reloaded
+        if (snapshot == null || snapshot.islandInfo().get() != isInfo || snapshot.changes() != changes) {
+            snapshot = IslandSnapshot.of(isInfo, changes);
+            snapshots.put(isInfo.getName(), snapshot);
         }
+        return snapshot;
+    }
 
-        return null; // Placeholder is unknown by the Expansion
+    /**
+     * The max-* values are resolved from the perks of the members, which change without touching the island file.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPerksChanged(IslandPerksChangedEvent event) {
+        snapshots.invalidate(event.getIslandInfo().getName());
     }
 
     @Override
@@ -83,4 +130,83 @@ public class UsbExpansion extends PlaceholderExpansion {
     public @NotNull String getVersion() {
         return "0";
     }
+
+    enum Kind {SELF, ISTOP}
+
+    enum Field {
+        LEADERNAME("leadername", IslandInfo::getLeader),
+        COORDINATES("coordinates", IslandInfo::getName),
+        LEVEL("level", is -> String.valueOf(is.getLevel())),
+        BIOME("biome", IslandInfo::getBiomeName),
+        HOPPERS("hoppers", is -> String.valueOf(is.getHopperCount())),
+        MAX_ANIMALS("max-animals", is -> String.valueOf(is.getMaxAnimals())),
+        MAX_MONSTERS("max-monsters", is -> String.valueOf(is.getMaxMonsters())),
+        MAX_GOLEMS("max-golems", is -> String.valueOf(is.getMaxGolems())),
+        MAX_VILLAGERS("max-villagers", is -> String.valueOf(is.getMaxVillagers())),
+        MAX_PARTYSIZE("max-partysize", is -> String.valueOf(is.getMaxPartySize())),
+        PARTYSIZE("partysize", is -> String.valueOf(is.getPartySize())),
+        // Changes when members log in or out, so it isn't part of the snapshot
+        ONLINE("online", null),
+        SCORE_MULTIPLIER("score-multiplier", is -> String.valueOf(is.getScoreMultiplier())),
+        SCORE_OFFSET("score-offset", is -> String.valueOf(is.getScoreOffset()));
+
+        private static final Map<String, Field> BY_KEY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(f -> f.key, Function.identity()));
+
+        private final String key;
+        private final Function<IslandInfo, String> reader;
+
+        Field(String key, Function<IslandInfo, String> reader) {
+            this.key = key;
+            this.reader = reader;
+        }
+
+        static @Nullable Field of(String key) {
+            return BY_KEY.get(key);
+        }
+    }
+
+    /**
+     * A parsed params string.
+     */
+    record Request(@NotNull Kind kind, @NotNull Field field, int place) {
+        static @Nullable Request parse(@NotNull String params) {
+            String[] parts = params.split("_");
+            String kind = parts[0].toLowerCase(Locale.ROOT);
+            if (kind.equals("istop") && parts.length >= 3) {
+                Field field = Field.of(parts[2]);
+                if (field == null) {
+                    return null;
+                }
+                int place;
+                try {
+                    place = Integer.parseInt(parts[1]);
+                } catch (NumberFormatException e) {
+                    place = -1;
+                }
+                return new Request(Kind.ISTOP, field, place);
+            } else if (kind.equals("self") && parts.length >= 2) {
+                Field field = Field.of(parts[1]);
+                return field != null ? new Request(Kind.SELF, field, 0) : null;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The placeholder values of an island, as of a given {@link IslandInfo#getChangeCount()}. The island is only
+     * referenced weakly, so a snapshot doesn't keep an island in memory after it has left the island cache.
+     */
+    record IslandSnapshot(@NotNull WeakReference<IslandInfo> islandInfo, long changes,
+                          @NotNull Map<Field, String> values) {
+        static IslandSnapshot of(IslandInfo islandInfo, long changes) {
+            Map<Field, String> values = new EnumMap<>(Field.class);
+            for (Field field : Field.values()) {
+                if (field.reader != null) {
+                    values.put(field, field.reader.apply(islandInfo));
+                }
+            }
+            return new IslandSnapshot(new WeakReference<>(islandInfo), changes, Collections.unmodifiableMap(values));
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package us.talabrek.ultimateskyblock.imports;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only journal of the files an import has completed, so an interrupted import can be resumed.
+ * <p>
+ * Each line holds the outcome and the path of one file, and is flushed once the file has been imported. A line that
+ * was only partly written when the server stopped is ignored, so that file is imported again.
+ */
+class ImportJournal implements Closeable {
+    private static final char SUCCESS = 'S';
+    private static final char FAILED = 'F';
+    private static final char SKIPPED = 'K';
+
+    private final Path path;
+    private final Map<String, Character> completed = new HashMap<>();
+    private final BufferedWriter writer;
+
+    private ImportJournal(Path path) throws IOException {
+        this.path = path;
+        boolean torn = false;
+        if (Files.exists(path)) {
+            String content = Files.readString(path, StandardCharsets.UTF_8);
+            for (String line : content.split("\n")) {
+                // Lines end with a tab, so a torn write can be told from a complete line
+                if (line.length() > 3 && line.charAt(1) == '\t' && line.endsWith("\t")) {
+                    completed.put(line.substring(2, line.length() - 1), line.charAt(0));
+                }
+            }
+            torn = !content.isEmpty() && !content.endsWith("\n");
+        } else {
+            Files.createDirectories(path.getParent());
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (torn) {
+            // Start on a fresh line, so the torn line isn't completed by the next record
+            writer.write('\n');
+        }
+    }
+
+    static ImportJournal open(@NotNull Path path) throws IOException {
+        return new ImportJournal(path);
+    }
+
+    synchronized boolean isCompleted(@NotNull File file) {
+        return completed.containsKey(file.getPath());
+    }
+
+    /**
+     * Records the outcome of importing a file.
+     *
+     * @param status The result of {@link USBImporter#importFile(File)}.
+     */
+    synchronized void record(@NotNull File file, @Nullable Boolean status) throws IOException {
+        char outcome = status == null ? SKIPPED : status ? SUCCESS : FAILED;
+        writer.write(outcome + "\t" + file.getPath() + "\t\n");
+        writer.flush();
+        completed.put(file.getPath(), outcome);
+    }
+
+    synchronized int size() {
+        return completed.size();
+    }
+
+    synchronized int getSuccess() {
+        return count(SUCCESS);
+    }
+
+    synchronized int getFailed() {
+        return count(FAILED);
+    }
+
+    synchronized int getSkipped() {
+        return count(SKIPPED);
+    }
+
+    private int count(char outcome) {
+        return (int) completed.values().stream().filter(c -> c == outcome).count();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Closes and deletes the journal, once the import has completed.
+     */
+    synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+}
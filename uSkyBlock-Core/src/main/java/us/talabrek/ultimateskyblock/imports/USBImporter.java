@@ -29,5 +29,13 @@ public interface USBImporter {
      */
     File[] getFiles();
 
+    /**
+     * Whether {@link #importFile(File)} may be called for several files at once, from different threads.
+     * @return <code>true</code> iff the importer is thread-safe.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
     void completed(int success, int failed, int skipped);
 }
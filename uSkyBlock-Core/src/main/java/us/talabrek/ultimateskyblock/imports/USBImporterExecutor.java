@@ -5,41 +5,70 @@ import com.google.inject.Singleton;
 import dk.lockfuglsang.minecraft.util.Timer;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.imports.export.YmlExporter;
 import us.talabrek.ultimateskyblock.imports.fixuuidleader.UUIDLeaderImporter;
 import us.talabrek.ultimateskyblock.imports.update.USBUpdateImporter;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import us.talabrek.ultimateskyblock.util.ProgressTracker;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static dk.lockfuglsang.minecraft.po.I18nUtil.marktr;
 import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
-import static us.talabrek.ultimateskyblock.util.LogUtil.log;
 
 /**
  * Delegates and batches the import.
+ * <p>
+ * Files are imported on a bounded pool of workers, with several workers only for importers that declare themselves
+ * thread-safe. Only a few files are handed to the workers ahead of time, so an import never floods the server with
+ * work. Completed files are written to a journal, so an interrupted import is resumed by running it again.
  */
 @Singleton
 public class USBImporterExecutor {
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
     private final uSkyBlock plugin;
+    private final Logger logger;
     private final ProgressTracker progressTracker;
+    private final Path journalDirectory;
+    private final int threads;
     private List<USBImporter> importers;
     private volatile Timer timer;
-    private volatile int countSuccess;
-    private volatile int countSkip;
-    private volatile int countFailed;
+    private final AtomicInteger countSuccess = new AtomicInteger();
+    private final AtomicInteger countSkip = new AtomicInteger();
+    private final AtomicInteger countFailed = new AtomicInteger();
+    private volatile boolean stopped;
+    private volatile ExecutorService workers;
 
     @Inject
     public USBImporterExecutor(uSkyBlock plugin) {
+        this(plugin, Bukkit.getConsoleSender(), plugin.getDataFolder().toPath().resolve("imports"));
+    }
+
+    USBImporterExecutor(uSkyBlock plugin, CommandSender console, Path journalDirectory) {
         this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.journalDirectory = journalDirectory;
+        this.threads = Math.max(1, plugin.getConfig().getInt("importer.threads",
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2))));
         double progressEveryPct = plugin.getConfig().getDouble("importer.progressEveryPct", 10);
         Duration progressInterval = Duration.ofMillis(plugin.getConfig().getLong("importer.progressEveryMs", 10000));
-        progressTracker = new ProgressTracker(Bukkit.getConsoleSender(), marktr("\u00a7eProgress: {0,number,##}% ({1}/{2} - success:{3}, failed:{4}, skipped:{5}) ~ {6}"), progressEveryPct, progressInterval);
+        progressTracker = new ProgressTracker(console, marktr("\u00a7eProgress: {0,number,##}% ({1}/{2} - success:{3}, failed:{4}, skipped:{5}) ~ {6}"), progressEveryPct, progressInterval);
     }
 
     public List<String> getImporterNames() {
@@ -55,6 +84,7 @@ public class USBImporterExecutor {
             importers = new ArrayList<>();
             importers.add(new UUIDLeaderImporter());
             importers.add(new USBUpdateImporter());
+            importers.add(new YmlExporter());
             ServiceLoader<USBImporter> serviceLoader = ServiceLoader.load(USBImporter.class, getClass().getClassLoader());
             for (USBImporter usbImporter : serviceLoader) {
                 importers.add(usbImporter);
@@ -84,50 +114,145 @@ public class USBImporterExecutor {
         Bukkit.getServer().getScheduler().runTaskAsynchronously(plugin, () -> doImport(sender, importer));
     }
 
-    private void doImport(CommandSender sender, USBImporter importer) {
+    void doImport(CommandSender sender, USBImporter importer) {
         this.timer = Timer.start();
+        stopped = false;
         importer.init(plugin);
-        countSuccess = 0;
-        countFailed = 0;
-        countSkip = 0;
         final File[] files = importer.getFiles();
-        log(Level.INFO, "Importing " + files.length + " files");
-        if (files.length > 0) {
-            doImport(sender, importer, files);
-        } else {
-            complete(sender, importer);
+        try (ImportJournal journal = ImportJournal.open(journalDirectory.resolve(importer.getName() + ".journal"))) {
+            countSuccess.set(journal.getSuccess());
+            countFailed.set(journal.getFailed());
+            countSkip.set(journal.getSkipped());
+            List<File> remaining = new ArrayList<>();
+            for (File file : files) {
+                if (!journal.isCompleted(file)) {
+                    remaining.add(file);
+                }
+            }
+            if (remaining.size() < files.length) {
+                sender.sendMessage(tr("\u00a7eResuming import, {0} of {1} files were already imported", files.length - remaining.size(), files.length));
+            }
+            logger.log(Level.INFO, "Importing " + remaining.size() + " files");
+            doImport(importer, remaining, files.length, journal);
+            if (stopped) {
+                sender.sendMessage(tr("\u00a7eImport of \u00a79{0}\u00a7e was stopped, run it again to resume", importer.getName()));
+                return;
+            }
+            journal.delete();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to access the import journal", e);
+            sender.sendMessage(tr("\u00a74Unable to access the import journal, see the server log"));
+            return;
         }
+        complete(sender, importer);
     }
 
-    private void doImport(final CommandSender sender, final USBImporter importer, final File[] files) {
+    private void doImport(USBImporter importer, List<File> files, int total, ImportJournal journal) {
+        if (files.isEmpty()) {
+            return;
+        }
+        int parallelism = importer.isThreadSafe() ? threads : 1;
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NotNull Runnable r) {
+                return new Thread(r, "uSkyBlock-import-" + count.incrementAndGet());
+            }
+        });
+        workers = pool;
+        // Backpressure, keeps the workers busy without queueing up all the files
+        Semaphore pending = new Semaphore(parallelism * 2);
         try {
             for (File file : files) {
-                try {
-                    Boolean status = importer.importFile(file);
-                    if (status == null) {
-                        countSkip++;
-                        log(Level.FINE, "Successfully skipped file " + file);
-                    } else if (status) {
-                        countSuccess++;
-                        log(Level.FINE, "Successfully imported file " + file);
-                    } else {
-                        countFailed++;
-                        log(Level.WARNING, "Could not import file " + file);
-                    }
-                } catch (Throwable t) {
-                    countFailed++;
-                    log(Level.WARNING, "Could not import file " + file, t);
+                pending.acquire();
+                if (stopped) {
+                    break;
                 }
-                progressTracker.progressUpdate(countSuccess + countFailed + countSkip, files.length, countSuccess, countFailed, countSkip, timer.elapsedAsString());
+                pool.execute(() -> {
+                    try {
+                        importFile(importer, file, total, journal);
+                    } finally {
+                        pending.release();
+                    }
+                });
             }
+        } catch (InterruptedException e) {
+            stopped = true;
+            Thread.currentThread().interrupt();
         } finally {
-            complete(sender, importer);
+            pool.shutdown();
+            try {
+                // Let the files being imported complete, so they are recorded in the journal
+                while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                    logger.log(Level.FINE, "Waiting for the import workers to complete");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            workers = null;
+        }
+    }
+
+    private void importFile(USBImporter importer, File file, int total, ImportJournal journal) {
+        Boolean status;
+        try {
+            status = importer.importFile(file);
+            if (status == null) {
+                countSkip.incrementAndGet();
+                logger.log(Level.FINE, "Successfully skipped file " + file);
+            } else if (status) {
+                countSuccess.incrementAndGet();
+                logger.log(Level.FINE, "Successfully imported file " + file);
+            } else {
+                countFailed.incrementAndGet();
+                logger.log(Level.WARNING, "Could not import file " + file);
+            }
+        } catch (Throwable t) {
+            status = false;
+            countFailed.incrementAndGet();
+            logger.log(Level.WARNING, "Could not import file " + file, t);
+        }
+        try {
+            journal.record(file, status);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not record the import of " + file, e);
+        }
+        int success = countSuccess.get();
+        int failed = countFailed.get();
+        int skipped = countSkip.get();
+        progressTracker.progressUpdate(success + failed + skipped, total, success, failed, skipped, timer.elapsedAsString());
+    }
+
+    /**
+     * Stops a running import, without waiting for the files being imported.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Stops a running import after the files being imported, which can then be resumed.
+     */
+    public void shutdown() {
+        stop();
+        ExecutorService pool = workers;
+        if (pool != null) {
+            try {
+                if (!pool.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    logger.log(Level.WARNING, "Import workers did not stop in time, the files being imported will be imported again");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
     private void complete(CommandSender sender, USBImporter importer) {
-        importer.completed(countSuccess, countFailed, countSkip);
-        sender.sendMessage(tr("\u00a7eConverted {0}/{1} files in {2}", countSuccess, (countSuccess + countFailed), timer.elapsedAsString()));
+        int success = countSuccess.get();
+        int failed = countFailed.get();
+        importer.completed(success, failed, countSkip.get());
+        sender.sendMessage(tr("\u00a7eConverted {0}/{1} files in {2}", success, (success + failed), timer.elapsedAsString()));
         plugin.getConfig().set("importer." + importer.getName() + ".imported", true);
         plugin.saveConfig();
     }
@@ -0,0 +1,87 @@
+package us.talabrek.ultimateskyblock.imports.export;
+
+import dk.lockfuglsang.minecraft.file.FileUtil;
+import org.bukkit.configuration.file.YamlConfiguration;
+import us.talabrek.ultimateskyblock.challenge.ChallengeCompletionLogic;
+import us.talabrek.ultimateskyblock.imports.USBImporter;
+import us.talabrek.ultimateskyblock.storage.DataFormat;
+import us.talabrek.ultimateskyblock.storage.SnapshotCodec;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Converts the binary player and challenge-completion files back to yml, e.g. before downgrading the plugin.
+ */
+public class YmlExporter implements USBImporter {
+    public static final String NAME = "export-yml";
+    private static final Logger log = Logger.getLogger(YmlExporter.class.getName());
+
+    private uSkyBlock plugin;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void init(uSkyBlock plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public Boolean importFile(File file) {
+        File folder = file.getParentFile();
+        String id = FileUtil.getBasename(file.getName());
+        File ymlFile = DataFormat.YML.getFile(folder, id);
+        try {
+            if (!file.equals(DataFormat.locate(folder, id))) {
+                // Saved to yml since, the binary file is outdated
+                Files.deleteIfExists(file.toPath());
+                return null;
+            }
+            YamlConfiguration config = new YamlConfiguration();
+            if (folder.getName().equals("completion")) {
+                ChallengeCompletionLogic.saveToConfiguration(config, SnapshotCodec.readCompletions(file.toPath()));
+            } else {
+                SnapshotCodec.readPlayerData(file.toPath(), config);
+            }
+            config.save(ymlFile);
+            Files.delete(file.toPath());
+            return true;
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to export " + file + " to yml", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        // Each file is converted on its own
+        return true;
+    }
+
+    @Override
+    public File[] getFiles() {
+        List<File> files = new ArrayList<>();
+        for (String folder : List.of("players", "completion")) {
+            File[] binaryFiles = new File(plugin.getDataFolder(), folder)
+                .listFiles((dir, name) -> name.endsWith(DataFormat.BINARY.getExtension()));
+            if (binaryFiles != null) {
+                files.addAll(List.of(binaryFiles));
+            }
+        }
+        return files.toArray(new File[0]);
+    }
+
+    @Override
+    public void completed(int success, int failed, int skipped) {
+        // Do nothing
+    }
+}
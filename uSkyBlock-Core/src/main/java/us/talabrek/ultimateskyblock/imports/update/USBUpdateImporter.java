@@ -33,6 +33,12 @@ public class USBUpdateImporter implements USBImporter {
         return true;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        // Each file is a separate island, and the island cache loads and evicts islands without a global lock
+        return true;
+    }
+
     @Override
     public File[] getFiles() {
         var result = plugin.getDataFolder().toPath()
@@ -66,8 +66,10 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
     private File file;
     private FileConfiguration config;
     private final String name;
+    private final IslandLog islandLog;
     private boolean dirty = false;
     private boolean toBeDeleted = false;
+    private volatile long changes = 0;
 
     public IslandInfo(@NotNull String islandName, @NotNull uSkyBlock plugin, @NotNull Path islandDirectory) {
         Validate.notNull(islandName, "IslandName cannot be null");
@@ -77,11 +79,16 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
         config = new YamlConfiguration();
         file = islandDirectory.resolve(islandName + ".yml").toFile();
         name = islandName;
+        islandLog = new IslandLog(islandDirectory.resolve(islandName + ".log"),
+            plugin.getConfig().getInt("options.island.log-size", 10));
         if (file.exists()) {
             readConfig(config, file);
             if (config.getInt("version", 0) < YML_VERSION || config.contains("maxSize")) {
                 updateConfig();
             }
+            if (config.contains("log")) {
+                migrateLog();
+            }
         } else {
             log.fine("No file for " + islandName + " found, creating a fresh island!");
         }
@@ -118,6 +125,30 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
         save();
     }
 
+    /**
+     * Moves the log from the island config to its own segment, unless a crash came between writing the segment
+     * and saving the config.
+     */
+    private void migrateLog() {
+        if (!islandLog.exists()) {
+            List<String> entries = new ArrayList<>();
+            if (config.isInt("log.logPos")) {
+                int cLog = config.getInt("log.logPos", 1);
+                for (int i = 0; i < 10; i++) {
+                    String msg = config.getString("log." + (((cLog + i) % 10) + 1), "");
+                    if (msg != null && !msg.trim().isEmpty()) {
+                        entries.add(msg);
+                    }
+                }
+            } else {
+                entries.addAll(config.getStringList("log"));
+            }
+            islandLog.importEntries(entries);
+        }
+        config.set("log", null);
+        save();
+    }
+
     public void resetIslandConfig(@NotNull final String leader) {
         Validate.notNull(leader, "Leader cannot be null");
         Validate.notEmpty(leader, "Leader cannot be empty");
@@ -253,25 +284,41 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
         if (updateRegion) {
             WorldGuardHandler.updateRegion(this);
         }
+        if (dirty || updateRegion) {
+            plugin.getEventLogic().fireIslandPerksChangedEvent(this);
+        }
     }
 
     public void save() {
         dirty = true;
+        changes++;
         if (!file.exists()) {
             saveToFile(); // We use the file-existense a lot, so we need to touch it!
         }
     }
 
+    /**
+     * Gets a counter that is bumped whenever the island is changed, for telling whether values read from it are
+     * still current.
+     */
+    public long getChangeCount() {
+        return changes;
+    }
+
     public boolean isDirty() {
-        return dirty || toBeDeleted;
+        return dirty || toBeDeleted || islandLog.isDirty();
     }
 
     public void saveToFile() {
         if (toBeDeleted) {
             log.fine("Deleting islandconfig: " + file);
             file.delete();
+            islandLog.delete();
             toBeDeleted = false;
-        } else if (dirty) {
+            return;
+        }
+        islandLog.flush();
+        if (dirty) {
             try {
                 log.fine("Saving island-config: " + file);
                 config.save(file);
@@ -408,6 +455,7 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
         Validate.notNull(biome, "Biome cannot be null");
         config.set("general.biome", biome.getKey().getKey());
         save();
+        plugin.getEventLogic().fireIslandBiomeChangedEvent(this, biome);
     }
 
     public void setWarpLocation(@Nullable Location loc) {
@@ -515,7 +563,6 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
         Validate.notNull(message, "Message cannot be null");
         Validate.notEmpty(message, "Message cannot be empty");
 
-        List<String> log = config.getStringList("log");
         StringBuilder sb = new StringBuilder();
         sb.append(System.currentTimeMillis());
         sb.append(";").append(message);
@@ -524,13 +571,7 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
                 sb.append(";").append(arg);
             }
         }
-        log.addFirst(sb.toString());
-        int logSize = plugin.getConfig().getInt("options.island.log-size", 10);
-        if (log.size() > logSize) {
-            log = log.subList(0, logSize);
-        }
-        config.set("log", log);
-        save();
+        islandLog.append(sb.toString());
     }
 
     @Override
@@ -916,18 +957,7 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
     @Override
     @NotNull
     public List<String> getLog() {
-        List<String> log = new ArrayList<>();
-        if (config.isInt("log.logPos")) {
-            int cLog = config.getInt("log.logPos", 1);
-            for (int i = 0; i < 10; i++) {
-                String msg = config.getString("log." + (((cLog + i) % 10) + 1), "");
-                if (msg != null && !msg.trim().isEmpty()) {
-                    log.add(msg);
-                }
-            }
-        } else {
-            log.addAll(config.getStringList("log"));
-        }
+        List<String> log = islandLog.getEntries();
         List<String> convertedList = new ArrayList<>();
         Instant now = Instant.now();
         for (String logEntry : log) {
@@ -1085,6 +1115,7 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
     public void setIgnore(boolean b) {
         config.set("general.ignore", b);
         dirty = true;
+        changes++;
     }
 
     public int getLeafBreaks() {
@@ -1094,6 +1125,7 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
     public void setLeafBreaks(int breaks) {
         config.set("blocks.leafBreaks", breaks);
         dirty = true;
+        changes++;
     }
 
     @Override
@@ -1104,6 +1136,7 @@ public class IslandInfo implements us.talabrek.ultimateskyblock.api.IslandInfo {
     public void setSchematicName(String schematicName) {
         config.set("general.schematicName", schematicName);
         dirty = true;
+        changes++;
     }
 
     @Override
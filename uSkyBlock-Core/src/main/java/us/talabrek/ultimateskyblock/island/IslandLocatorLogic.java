@@ -14,6 +14,7 @@ import us.talabrek.ultimateskyblock.bootstrap.PluginDataDir;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import us.talabrek.ultimateskyblock.util.LocationUtil;
 import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.util.TimingWheel;
 import us.talabrek.ultimateskyblock.world.WorldManager;
 
 import java.io.File;
@@ -35,6 +36,7 @@ public class IslandLocatorLogic {
     private final Logger logger;
     private final WorldManager worldManager;
     private final Scheduler scheduler;
+    private final TimingWheel timingWheel;
     private final OrphanLogic orphanLogic;
     private final uSkyBlock plugin;
     private final File configFile;
@@ -50,6 +52,7 @@ public class IslandLocatorLogic {
         @NotNull Logger logger,
         @NotNull WorldManager worldManager,
         @NotNull Scheduler scheduler,
+        @NotNull TimingWheel timingWheel,
         @NotNull OrphanLogic orphanLogic
     ) {
         this.plugin = plugin;
@@ -57,6 +60,7 @@ public class IslandLocatorLogic {
         this.logger = logger;
         this.worldManager = worldManager;
         this.scheduler = scheduler;
+        this.timingWheel = timingWheel;
         this.orphanLogic = orphanLogic;
         this.config = new YamlConfiguration();
         FileUtil.readConfig(config, configFile);
@@ -89,14 +93,8 @@ public class IslandLocatorLogic {
         final String islandName = LocationUtil.getIslandName(islandLocation);
         final Instant timeStamp = Instant.now();
         reservations.put(islandName, timeStamp);
-        scheduler.async(() -> {
-            synchronized (reservations) {
-                Instant tReserved = reservations.get(islandName);
-                if (tReserved != null && tReserved == timeStamp) {
-                    reservations.remove(islandName);
-                }
-            }
-        }, reservationTimeout);
+        // Only remove the reservation if it hasn't been renewed since
+        timingWheel.schedule(reservationTimeout, () -> reservations.remove(islandName, timeStamp));
     }
 
     private synchronized Location getNext(Player player) {
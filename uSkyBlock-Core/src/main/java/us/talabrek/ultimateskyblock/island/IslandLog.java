@@ -0,0 +1,211 @@
+package us.talabrek.ultimateskyblock.island;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The activity log of an island, kept as a fixed-capacity ring buffer of the latest entries.
+ * <p>
+ * Entries are appended to a segment file next to the island config, one line per entry, and the segment is
+ * rewritten with only the entries of the ring once as many entries have been appended as the ring holds. Loading
+ * reads only the tail of the segment, so it doesn't matter how long it has grown.
+ */
+public class IslandLog {
+    private static final Logger log = Logger.getLogger(IslandLog.class.getName());
+    private static final int BLOCK_SIZE = 4096;
+
+    private final Path file;
+    private final String[] ring;
+    private final List<String> pending = new ArrayList<>();
+    private int head = 0;
+    private int size = 0;
+    private boolean loaded = false;
+    // Entries in the segment beyond the ring, when this reaches the capacity the segment is compacted
+    private int appended = 0;
+    private boolean compactionDue = false;
+
+    public IslandLog(@NotNull Path file, int capacity) {
+        this.file = file;
+        this.ring = new String[Math.max(capacity, 1)];
+    }
+
+    public boolean exists() {
+        return Files.exists(file);
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Adds an entry to the log, the oldest entry is dropped if the log is full.
+     * The entry is written to the segment on the next {@link #flush()}.
+     */
+    public synchronized void append(@NotNull String entry) {
+        load();
+        String line = entry.replace('\r', ' ').replace('\n', ' ');
+        add(line);
+        pending.add(line);
+    }
+
+    /**
+     * Replaces the entries of the log, and writes them to the segment at once.
+     * @param entries The entries in inverse chronological order, as returned by {@link #getEntries()}.
+     */
+    public synchronized void importEntries(@NotNull List<String> entries) {
+        head = 0;
+        size = 0;
+        loaded = true;
+        pending.clear();
+        List<String> chronological = new ArrayList<>(entries);
+        Collections.reverse(chronological);
+        for (String entry : chronological) {
+            add(entry.replace('\r', ' ').replace('\n', ' '));
+        }
+        compact();
+    }
+
+    /**
+     * @return The latest entries, in inverse chronological order.
+     */
+    public synchronized @NotNull List<String> getEntries() {
+        load();
+        List<String> entries = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            entries.add(ring[(head - i + ring.length) % ring.length]);
+        }
+        return entries;
+    }
+
+    public synchronized boolean isDirty() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Writes the pending entries to the segment, compacting it if due.
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        appended += pending.size();
+        if (compactionDue || appended >= ring.length) {
+            compact();
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String line : pending) {
+            sb.append(line).append('\n');
+        }
+        try {
+            Files.writeString(file, sb, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            pending.clear();
+        } catch (IOException e) {
+            appended -= pending.size();
+            log.log(Level.WARNING, "Unable to append to island log " + file, e);
+        }
+    }
+
+    public synchronized void delete() {
+        head = 0;
+        size = 0;
+        loaded = true;
+        appended = 0;
+        compactionDue = false;
+        pending.clear();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to delete island log " + file, e);
+        }
+    }
+
+    private void add(String entry) {
+        ring[head] = entry;
+        head = (head + 1) % ring.length;
+        size = Math.min(size + 1, ring.length);
+    }
+
+    private void compact() {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (int i = size; i >= 1; i--) {
+                    writer.write(ring[(head - i + ring.length) % ring.length]);
+                    writer.write('\n');
+                }
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            pending.clear();
+            appended = 0;
+            compactionDue = false;
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to compact island log " + file, e);
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+            long length = in.length();
+            if (length == 0) {
+                return;
+            }
+            in.seek(length - 1);
+            // A line without a newline was torn by a crash while appending, it is dropped and the segment rewritten
+            boolean torn = in.read() != '\n';
+            long start = length;
+            int newlines = 0;
+            byte[] block = new byte[BLOCK_SIZE];
+            // Read blocks backwards, until the block holding the start of the oldest line we need
+            while (start > 0 && newlines <= ring.length) {
+                int read = (int) Math.min(BLOCK_SIZE, start);
+                start -= read;
+                in.seek(start);
+                in.readFully(block, 0, read);
+                for (int i = read - 1; i >= 0; i--) {
+                    if (block[i] == '\n' && ++newlines > ring.length) {
+                        start += i + 1;
+                        break;
+                    }
+                }
+            }
+            byte[] tail = new byte[(int) (length - start)];
+            in.seek(start);
+            in.readFully(tail);
+            List<String> lines = new ArrayList<>(List.of(new String(tail, StandardCharsets.UTF_8).split("\n", -1)));
+            // The last element is the torn line, or empty after the final newline
+            lines.remove(lines.size() - 1);
+            for (String line : lines.subList(Math.max(0, lines.size() - ring.length), lines.size())) {
+                add(line);
+            }
+            compactionDue = torn || start > 0;
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to read island log " + file, e);
+        }
+    }
+}
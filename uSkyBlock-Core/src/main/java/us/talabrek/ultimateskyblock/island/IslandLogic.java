@@ -25,11 +25,16 @@ import us.talabrek.ultimateskyblock.api.IslandLevel;
 import us.talabrek.ultimateskyblock.api.IslandRank;
 import us.talabrek.ultimateskyblock.api.event.uSkyBlockEvent;
 import us.talabrek.ultimateskyblock.bootstrap.PluginDataDir;
+import us.talabrek.ultimateskyblock.event.ObsidianIndex;
 import us.talabrek.ultimateskyblock.handler.WorldEditHandler;
 import us.talabrek.ultimateskyblock.handler.WorldGuardHandler;
 import us.talabrek.ultimateskyblock.handler.task.WorldEditClearFlatlandTask;
 import us.talabrek.ultimateskyblock.island.level.IslandScore;
+import us.talabrek.ultimateskyblock.metrics.Counter;
+import us.talabrek.ultimateskyblock.metrics.LatencyHistogram;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
 import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.player.SafeLocationCache;
 import us.talabrek.ultimateskyblock.player.TeleportLogic;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import us.talabrek.ultimateskyblock.util.IslandUtil;
@@ -72,8 +77,12 @@ public class IslandLogic {
     private final Path directoryIslands;
     private final OrphanLogic orphanLogic;
     private final PlayerDB playerDB;
+    private final SafeLocationCache safeLocationCache;
+    private final ObsidianIndex obsidianIndex;
 
     private final LoadingCache<String, IslandInfo> cache;
+    private final LatencyHistogram saveLatency;
+    private final Counter saves;
     private final boolean showMembers;
     private final boolean flatlandFix;
     private final boolean useDisplayNames;
@@ -93,7 +102,10 @@ public class IslandLogic {
         @NotNull PluginConfig config,
         @NotNull @PluginDataDir Path dataPath,
         @NotNull OrphanLogic orphanLogic,
-        @NotNull PlayerDB playerDB
+        @NotNull PlayerDB playerDB,
+        @NotNull SafeLocationCache safeLocationCache,
+        @NotNull ObsidianIndex obsidianIndex,
+        @NotNull MetricsRegistry metrics
     ) {
         this.logger = logger;
         this.plugin = plugin;
@@ -102,6 +114,8 @@ public class IslandLogic {
         this.scheduler = scheduler;
         this.config = config;
         this.playerDB = playerDB;
+        this.safeLocationCache = safeLocationCache;
+        this.obsidianIndex = obsidianIndex;
         Path islandDirectory = dataPath.resolve("islands");
         try {
             Files.createDirectories(islandDirectory);
@@ -117,6 +131,7 @@ public class IslandLogic {
         cache = CacheBuilder
             .from(config.getYamlConfig().getString("options.advanced.islandCache",
                 "maximumSize=200,expireAfterWrite=15m,expireAfterAccess=10m"))
+            .recordStats()
             .removalListener((RemovalListener<String, IslandInfo>) removal -> {
                 logger.fine("Removing island-info " + removal.getKey() + " from cache");
                 removal.getValue().saveToFile();
@@ -128,20 +143,29 @@ public class IslandLogic {
                     return new IslandInfo(islandName, plugin, directoryIslands);
                 }
             });
+        metrics.cache("island", cache);
+        saveLatency = metrics.histogram("usb_island_save_seconds", "Time spent saving the dirty islands in the cache");
+        saves = metrics.counter("usb_island_saves_total", "Islands saved to file by the periodic save");
         Duration every = Duration.ofSeconds(config.getYamlConfig().getInt("options.advanced.island.saveEvery", 30));
         saveTask = scheduler.async(this::saveDirtyToFiles, every, every);
     }
 
     private void saveDirtyToFiles() {
+        LatencyHistogram.Sample sample = saveLatency.start();
         // asMap.values() should NOT touch the cache.
         for (IslandInfo islandInfo : cache.asMap().values()) {
             if (islandInfo.isDirty()) {
                 islandInfo.saveToFile();
+                saves.increment();
             }
         }
+        sample.stop();
     }
 
-    public synchronized IslandInfo getIslandInfo(String islandName) {
+    /**
+     * Not synchronized, the cache loads each island once and lets different islands load in parallel.
+     */
+    public IslandInfo getIslandInfo(String islandName) {
         if (islandName == null || plugin.isMaintenanceMode()) {
             return null;
         }
@@ -161,6 +185,12 @@ public class IslandLogic {
 
     public void clearIsland(final Location loc, final Runnable afterDeletion) {
         logger.log(Level.FINE, "clearing island at {0}", loc);
+        invalidateBlocks(loc);
+        Runnable afterClear = () -> {
+            // Chunks may have been indexed again while WorldEdit was still clearing them
+            invalidateBlocks(loc);
+            afterDeletion.run();
+        };
         Runnable clearNether = () -> {
             Location netherIsland = getNetherLocation(loc);
             ProtectedRegion netherRegion = WorldGuardHandler.getNetherRegionAt(netherIsland);
@@ -171,9 +201,9 @@ public class IslandLogic {
                         teleportLogic.spawnTeleport(player, true);
                     }
                 }
-                WorldEditHandler.clearIsland(netherIsland.getWorld(), netherRegion, afterDeletion);
+                WorldEditHandler.clearIsland(netherIsland.getWorld(), netherRegion, afterClear);
             } else {
-                afterDeletion.run();
+                afterClear.run();
             }
         };
         World skyBlockWorld = worldManager.getWorld();
@@ -199,6 +229,22 @@ public class IslandLogic {
         return netherIsland;
     }
 
+    /**
+     * Drops what is cached about the blocks of the island at the given location. WorldEdit and schematic pastes don't
+     * fire block events, so the caches can't be trusted after the island has been cleared or generated.
+     */
+    public void invalidateBlocks(@NotNull Location loc) {
+        safeLocationCache.clear();
+        int radius = Settings.island_radius;
+        obsidianIndex.invalidate(loc.getWorld(), loc.getBlockX() - radius, loc.getBlockZ() - radius,
+            loc.getBlockX() + radius, loc.getBlockZ() + radius);
+        World netherWorld = worldManager.getNetherWorld();
+        if (netherWorld != null) {
+            obsidianIndex.invalidate(netherWorld, loc.getBlockX() - radius, loc.getBlockZ() - radius,
+                loc.getBlockX() + radius, loc.getBlockZ() + radius);
+        }
+    }
+
     public boolean clearFlatland(final CommandSender sender, final Location loc, Duration delay) {
         if (loc == null) {
             return false;
@@ -377,13 +423,18 @@ public class IslandLogic {
         return new IslandLevel(islandInfo.getName(), partyLeaderName, names, level);
     }
 
-    public synchronized IslandInfo createIslandInfo(String location, String player) {
+    public IslandInfo createIslandInfo(String location, String player) {
         IslandInfo info = getIslandInfo(location);
         info.resetIslandConfig(player);
         return info;
     }
 
-    public synchronized void deleteIslandConfig(final String location) {
+    /**
+     * Relies on the cache like {@link #getIslandInfo(String)}. Islands are only created and deleted from the main
+     * thread, so the two never overlap, and a concurrent lookup either gets the instance being deleted, whose next
+     * save removes its file instead of writing it, or loads a new empty one after the invalidate.
+     */
+    public void deleteIslandConfig(final String location) {
         try {
             IslandInfo islandInfo = cache.get(location);
             updateRank(islandInfo, new IslandScore(0, Collections.emptyList()));
@@ -397,7 +448,7 @@ public class IslandLogic {
         }
     }
 
-    public synchronized void removeIslandFromMemory(String islandName) {
+    public void removeIslandFromMemory(String islandName) {
         cache.invalidate(islandName);
     }
 
@@ -455,7 +506,7 @@ public class IslandLogic {
 
     public int getSize() {
         try (var stream = Files.list(directoryIslands)) {
-            return (int) stream.count();
+            return (int) stream.filter(file -> file.getFileName().toString().endsWith(".yml")).count();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -21,10 +21,13 @@ import org.jetbrains.annotations.NotNull;
 import us.talabrek.ultimateskyblock.handler.WorldGuardHandler;
 import us.talabrek.ultimateskyblock.world.WorldManager;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 import static dk.lockfuglsang.minecraft.po.I18nUtil.marktr;
 import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
@@ -43,6 +46,7 @@ public class LimitLogic {
 
     private final WorldManager worldManager;
     private final BlockLimitLogic blockLimitLogic;
+    private final List<BiConsumer<String, Map<CreatureType, Integer>>> censusListeners = new CopyOnWriteArrayList<>();
 
     @Inject
     public LimitLogic(@NotNull WorldManager worldManager, @NotNull BlockLimitLogic blockLimitLogic) {
@@ -72,10 +76,24 @@ public class LimitLogic {
                 }
                 mapCount.put(key, mapCount.get(key) + 1);
             }
+            Map<CreatureType, Integer> census = Collections.unmodifiableMap(mapCount);
+            for (BiConsumer<String, Map<CreatureType, Integer>> listener : censusListeners) {
+                listener.accept(islandInfo.getName(), census);
+            }
         }
         return mapCount;
     }
 
+    /**
+     * Adds a listener that is notified with the island name and creature count every time the creatures of an
+     * island have been counted, i.e. on every spawn on an island.
+     *
+     * @param listener Listener to add.
+     */
+    public void addCensusListener(@NotNull BiConsumer<String, Map<CreatureType, Integer>> listener) {
+        censusListeners.add(listener);
+    }
+
     public Map<CreatureType, Integer> getCreatureMax(us.talabrek.ultimateskyblock.api.IslandInfo islandInfo) {
         Map<CreatureType, Integer> max = new LinkedHashMap<>();
         for (CreatureType creatureType : CreatureType.values()) {
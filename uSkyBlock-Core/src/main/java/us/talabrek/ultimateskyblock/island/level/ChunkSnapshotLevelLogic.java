@@ -9,14 +9,17 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import us.talabrek.ultimateskyblock.PluginConfig;
 import us.talabrek.ultimateskyblock.api.async.Callback;
 import us.talabrek.ultimateskyblock.handler.WorldGuardHandler;
 import us.talabrek.ultimateskyblock.island.task.ChunkSnapShotTask;
+import us.talabrek.ultimateskyblock.metrics.LatencyHistogram;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.util.Scheduler.Workload;
 import us.talabrek.ultimateskyblock.world.WorldManager;
 
 import java.util.List;
@@ -33,6 +36,9 @@ public class ChunkSnapshotLevelLogic extends CommonLevelLogic {
     private final PluginConfig pluginConfig;
     private final Scheduler scheduler;
     private final Logger logger;
+    private final LatencyHistogram snapshotLatency;
+    private final LatencyHistogram queueLatency;
+    private final LatencyHistogram calculationLatency;
 
     @Inject
     public ChunkSnapshotLevelLogic(
@@ -40,13 +46,32 @@ public class ChunkSnapshotLevelLogic extends CommonLevelLogic {
         @NotNull WorldManager worldManager,
         @NotNull PluginConfig pluginConfig,
         @NotNull Scheduler scheduler,
-        @NotNull Logger logger
+        @NotNull Logger logger,
+        @NotNull MetricsRegistry metrics
     ) {
-        super(FileUtil.getYmlConfiguration("levelConfig.yml"), worldManager);
+        this(FileUtil.getYmlConfiguration("levelConfig.yml"), plugin, worldManager, pluginConfig, scheduler, logger, metrics);
+    }
+
+    public ChunkSnapshotLevelLogic(
+        @NotNull FileConfiguration levelConfig,
+        @NotNull uSkyBlock plugin,
+        @NotNull WorldManager worldManager,
+        @NotNull PluginConfig pluginConfig,
+        @NotNull Scheduler scheduler,
+        @NotNull Logger logger,
+        @NotNull MetricsRegistry metrics
+    ) {
+        super(levelConfig, worldManager);
         this.plugin = plugin;
         this.pluginConfig = pluginConfig;
         this.scheduler = scheduler;
         this.logger = logger;
+        this.snapshotLatency = metrics.histogram("usb_level_snapshot_seconds",
+            "Time spent waiting for the chunk snapshots of an island and its nether");
+        this.queueLatency = metrics.histogram("usb_level_queue_seconds",
+            "Time the score calculation waited for a scoring thread");
+        this.calculationLatency = metrics.histogram("usb_level_calculation_seconds",
+            "Time spent counting the blocks of the chunk snapshots");
     }
 
     @Override
@@ -58,6 +83,7 @@ public class ChunkSnapshotLevelLogic extends CommonLevelLogic {
         if (region == null) {
             return;
         }
+        LatencyHistogram.Sample snapshotSample = snapshotLatency.start();
         new ChunkSnapShotTask(scheduler, pluginConfig, l, region, new Callback<>() {
             @Override
             public void run() {
@@ -68,12 +94,12 @@ public class ChunkSnapshotLevelLogic extends CommonLevelLogic {
                     @Override
                     public void run() {
                         final List<ChunkSnapshot> snapshotsNether = getState();
-                        new BukkitRunnable() {
-                            @Override
-                            public void run() {
-                                calculateScoreAndCallback(region, snapshotsOverworld, netherRegion, snapshotsNether, callback);
-                            }
-                        }.runTaskAsynchronously(plugin);
+                        snapshotSample.stop();
+                        LatencyHistogram.Sample queueSample = queueLatency.start();
+                        scheduler.asyncOrFallback(Workload.SCORING, () -> {
+                            queueSample.stop();
+                            calculateScoreAndCallback(region, snapshotsOverworld, netherRegion, snapshotsNether, callback);
+                        });
                     }
                 }).runTask(plugin);
             }
@@ -81,13 +107,19 @@ public class ChunkSnapshotLevelLogic extends CommonLevelLogic {
     }
 
     private void calculateScoreAndCallback(ProtectedRegion region, List<ChunkSnapshot> snapshotsOverworld, ProtectedRegion netherRegion, List<ChunkSnapshot> snapshotsNether, Callback<IslandScore> callback) {
+        LatencyHistogram.Sample sample = calculationLatency.start();
         IslandScore islandScore = calculateScore(region, snapshotsOverworld, netherRegion, snapshotsNether);
+        sample.stop();
         callback.setState(islandScore);
         scheduler.sync(callback);
         logger.exiting(this.getClass().getName(), "calculateScoreAsync");
     }
 
-    private IslandScore calculateScore(ProtectedRegion region, List<ChunkSnapshot> snapshotsOverworld, ProtectedRegion netherRegion, List<ChunkSnapshot> snapshotsNether) {
+    /**
+     * Counts the blocks of the island region, and of the nether region once the island is at the level that activates
+     * the nether.
+     */
+    public @NotNull IslandScore calculateScore(@NotNull ProtectedRegion region, @NotNull List<ChunkSnapshot> snapshotsOverworld, @Nullable ProtectedRegion netherRegion, @Nullable List<ChunkSnapshot> snapshotsNether) {
         final BlockCountCollection counts = new BlockCountCollection(scoreMap);
         int minX = region.getMinimumPoint().getBlockX();
         int maxX = region.getMaximumPoint().getBlockX();
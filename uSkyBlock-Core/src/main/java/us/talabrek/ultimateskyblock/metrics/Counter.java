@@ -0,0 +1,61 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A count that only goes up, either counted here, or kept elsewhere and read when the metrics are written.
+ */
+public class Counter implements Metric {
+    private final String help;
+    private final LongAdder value = new LongAdder();
+    // The count kept elsewhere, or null if counted here
+    private final DoubleSupplier source;
+
+    Counter(@NotNull String help) {
+        this(help, null);
+    }
+
+    Counter(@NotNull String help, @Nullable DoubleSupplier source) {
+        this.help = help;
+        this.source = source;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long amount) {
+        if (source != null) {
+            throw new UnsupportedOperationException("The count is kept elsewhere");
+        }
+        value.add(amount);
+    }
+
+    public double get() {
+        return source != null ? source.getAsDouble() : value.sum();
+    }
+
+    @Override
+    public @NotNull String getHelp() {
+        return help;
+    }
+
+    @Override
+    public @NotNull String getType() {
+        return "counter";
+    }
+
+    @Override
+    public void writeTo(@NotNull StringBuilder out, @NotNull String name) {
+        out.append(name).append(' ').append(Metric.format(get())).append('\n');
+    }
+
+    @Override
+    public @NotNull String getSummary() {
+        return Metric.format(get());
+    }
+}
@@ -0,0 +1,42 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value read when the metrics are written, like the size of a cache.
+ */
+public class Gauge implements Metric {
+    private final String help;
+    private final DoubleSupplier value;
+
+    Gauge(@NotNull String help, @NotNull DoubleSupplier value) {
+        this.help = help;
+        this.value = value;
+    }
+
+    public double get() {
+        return value.getAsDouble();
+    }
+
+    @Override
+    public @NotNull String getHelp() {
+        return help;
+    }
+
+    @Override
+    public @NotNull String getType() {
+        return "gauge";
+    }
+
+    @Override
+    public void writeTo(@NotNull StringBuilder out, @NotNull String name) {
+        out.append(name).append(' ').append(Metric.format(get())).append('\n');
+    }
+
+    @Override
+    public @NotNull String getSummary() {
+        return Metric.format(get());
+    }
+}
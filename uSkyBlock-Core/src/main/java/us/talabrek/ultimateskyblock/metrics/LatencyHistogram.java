@@ -0,0 +1,192 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Histogram of latencies, in nanoseconds, with a bounded relative error.
+ * <p>
+ * Like an HDR histogram, values are counted in buckets that double in width for every power of two, and each power
+ * of two is split into {@value #SUB_BUCKETS} linear sub-buckets. So any latency from a nanosecond to centuries is
+ * counted in one of a few hundred fixed buckets, and quantiles are accurate to within 1/{@value #SUB_BUCKETS} of the
+ * value. Recording is lock-free.
+ */
+public class LatencyHistogram implements Metric {
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    // Bounds of the buckets of the text exposition, as powers of two nanoseconds: ~1 microsecond to ~69s
+    private static final int EXPOSED_MIN_POWER = 10;
+    private static final int EXPOSED_MAX_POWER = 36;
+
+    private final String help;
+    private final LongSupplier nanoTime;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram(@NotNull String help, @NotNull LongSupplier nanoTime) {
+        this.help = help;
+        this.nanoTime = nanoTime;
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return The highest value counted in the bucket.
+     */
+    static long highestIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    public void record(@NotNull Duration latency) {
+        record(latency.toNanos());
+    }
+
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        sum.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Starts timing something, using the monotonic time source of the registry.
+     *
+     * @return Sample to stop once it's done.
+     */
+    public @NotNull Sample start() {
+        return new Sample(nanoTime.getAsLong());
+    }
+
+    /**
+     * Runs the task, and records how long it took.
+     */
+    public void time(@NotNull Runnable task) {
+        Sample sample = start();
+        try {
+            task.run();
+        } finally {
+            sample.stop();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public @NotNull Duration getSum() {
+        return Duration.ofNanos(sum.sum());
+    }
+
+    public @NotNull Duration getMax() {
+        return Duration.ofNanos(max.get());
+    }
+
+    /**
+     * @param quantile Quantile between 0 and 1, e.g. 0.99.
+     * @return The latency at the quantile, or zero if nothing has been recorded.
+     */
+    public @NotNull Duration getQuantile(double quantile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(highestIn(i), max.get()));
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public @NotNull String getHelp() {
+        return help;
+    }
+
+    @Override
+    public @NotNull String getType() {
+        return "histogram";
+    }
+
+    /**
+     * Writes the histogram in seconds, with a bucket for every power of two nanoseconds from ~1 microsecond to ~69s.
+     */
+    @Override
+    public void writeTo(@NotNull StringBuilder out, @NotNull String name) {
+        long cumulative = 0;
+        int bucket = 0;
+        for (int power = EXPOSED_MIN_POWER; power <= EXPOSED_MAX_POWER; power++) {
+            // The buckets of smaller values than the power of two
+            int end = bucketOf(1L << power);
+            for (; bucket < end; bucket++) {
+                cumulative += counts.get(bucket);
+            }
+            out.append(name).append("_bucket{le=\"").append(Metric.format((1L << power) / 1e9)).append("\"} ")
+                .append(cumulative).append('\n');
+        }
+        long total = cumulative;
+        for (; bucket < BUCKETS; bucket++) {
+            total += counts.get(bucket);
+        }
+        out.append(name).append("_bucket{le=\"+Inf\"} ").append(total).append('\n');
+        out.append(name).append("_sum ").append(Metric.format(sum.sum() / 1e9)).append('\n');
+        out.append(name).append("_count ").append(total).append('\n');
+    }
+
+    @Override
+    public @NotNull String getSummary() {
+        return String.format("n=%d p50=%s p99=%s max=%s", getCount(), Metric.formatDuration(getQuantile(0.5)),
+            Metric.formatDuration(getQuantile(0.99)), Metric.formatDuration(getMax()));
+    }
+
+    /**
+     * A latency being timed.
+     */
+    public final class Sample {
+        private final long start;
+
+        private Sample(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Records the time since the sample was started.
+         *
+         * @return The recorded latency.
+         */
+        public @NotNull Duration stop() {
+            Duration latency = Duration.ofNanos(nanoTime.getAsLong() - start);
+            record(latency);
+            return latency;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.PluginConfig;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures the time spent in each event handler of the plugin's listeners.
+ * <p>
+ * When enabled ({@code options.advanced.profileListeners}), listeners are registered with an {@link EventExecutor}
+ * per handler method, which times the handler. Otherwise listeners are registered as usual, without any overhead.
+ */
+@Singleton
+public class ListenerProfiler {
+    // The number of latest invocations of a handler the p99 is calculated from
+    static final int WINDOW = 1024;
+
+    private final boolean enabled;
+    private final LongSupplier nanoTime;
+    private final Map<String, HandlerStats> handlers = new ConcurrentHashMap<>();
+
+    @Inject
+    public ListenerProfiler(@NotNull PluginConfig config) {
+        this(config.getYamlConfig().getBoolean("options.advanced.profileListeners", false), System::nanoTime);
+    }
+
+    ListenerProfiler(boolean enabled, @NotNull LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.nanoTime = nanoTime;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers the event handlers of the listener, timed if profiling is enabled.
+     */
+    public void registerEvents(@NotNull PluginManager manager, @NotNull Listener listener, @NotNull Plugin plugin) {
+        if (!enabled) {
+            manager.registerEvents(listener, plugin);
+            return;
+        }
+        for (Method method : getHandlerMethods(listener.getClass())) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+            method.setAccessible(true);
+            String name = listener.getClass().getSimpleName() + "#" + method.getName() + "(" + eventClass.getSimpleName() + ")";
+            HandlerStats stats = handlers.computeIfAbsent(name, k -> new HandlerStats());
+            manager.registerEvent(eventClass, listener, handler.priority(), new TimedExecutor(eventClass, method, stats),
+                plugin, handler.ignoreCancelled());
+        }
+    }
+
+    /**
+     * The methods annotated with {@link EventHandler}, like Bukkit finds them.
+     */
+    private static Set<Method> getHandlerMethods(Class<?> listenerClass) {
+        Set<Method> methods = new LinkedHashSet<>(Arrays.asList(listenerClass.getMethods()));
+        methods.addAll(Arrays.asList(listenerClass.getDeclaredMethods()));
+        methods.removeIf(method -> method.getAnnotation(EventHandler.class) == null
+            || method.isBridge() || method.isSynthetic()
+            || method.getParameterCount() != 1
+            || !Event.class.isAssignableFrom(method.getParameterTypes()[0]));
+        return methods;
+    }
+
+    /**
+     * @return The statistics of the handlers that have been invoked since the last reset, the most expensive first.
+     */
+    public @NotNull List<Snapshot> getSnapshots() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, HandlerStats> entry : handlers.entrySet()) {
+            Snapshot snapshot = entry.getValue().snapshot(entry.getKey());
+            if (snapshot.getCount() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        snapshots.sort(Comparator.comparing(Snapshot::getTotal).reversed());
+        return snapshots;
+    }
+
+    /**
+     * @return The statistics of the handlers since the last reset, after which they are reset.
+     */
+    public @NotNull List<Snapshot> getSnapshotsAndReset() {
+        List<Snapshot> snapshots = getSnapshots();
+        handlers.values().forEach(HandlerStats::reset);
+        return snapshots;
+    }
+
+    private class TimedExecutor implements EventExecutor {
+        private final Class<? extends Event> eventClass;
+        private final Method method;
+        private final HandlerStats stats;
+
+        private TimedExecutor(Class<? extends Event> eventClass, Method method, HandlerStats stats) {
+            this.eventClass = eventClass;
+            this.method = method;
+            this.stats = stats;
+        }
+
+        @Override
+        public void execute(@NotNull Listener listener, @NotNull Event event) throws EventException {
+            if (!eventClass.isInstance(event)) {
+                return;
+            }
+            long start = nanoTime.getAsLong();
+            try {
+                method.invoke(listener, event);
+            } catch (InvocationTargetException e) {
+                throw new EventException(e.getCause());
+            } catch (Throwable t) {
+                throw new EventException(t);
+            } finally {
+                stats.record(nanoTime.getAsLong() - start);
+            }
+        }
+    }
+
+    private static class HandlerStats {
+        private final long[] window = new long[WINDOW];
+        private long count;
+        private long total;
+        private long max;
+
+        synchronized void record(long nanos) {
+            window[(int) (count % WINDOW)] = nanos;
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+
+        synchronized void reset() {
+            count = 0;
+            total = 0;
+            max = 0;
+        }
+
+        synchronized Snapshot snapshot(String name) {
+            long[] latest = Arrays.copyOf(window, (int) Math.min(count, WINDOW));
+            Arrays.sort(latest);
+            long p99 = latest.length > 0 ? latest[(int) Math.ceil(latest.length * 0.99) - 1] : 0;
+            return new Snapshot(name, count, Duration.ofNanos(total), Duration.ofNanos(max), Duration.ofNanos(p99));
+        }
+    }
+
+    /**
+     * Statistics of an event handler.
+     */
+    public static class Snapshot {
+        private final String handler;
+        private final long count;
+        private final Duration total;
+        private final Duration max;
+        private final Duration p99;
+
+        Snapshot(String handler, long count, Duration total, Duration max, Duration p99) {
+            this.handler = handler;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+            this.p99 = p99;
+        }
+
+        /**
+         * @return The handler, as {@code Listener#method(Event)}.
+         */
+        public @NotNull String getHandler() {
+            return handler;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public @NotNull Duration getTotal() {
+            return total;
+        }
+
+        public @NotNull Duration getMax() {
+            return max;
+        }
+
+        /**
+         * @return The 99th percentile of the latest {@value ListenerProfiler#WINDOW} invocations.
+         */
+        public @NotNull Duration getP99() {
+            return p99;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: n=%d total=%s max=%s p99=%s", handler, count, Metric.formatDuration(total),
+                Metric.formatDuration(max), Metric.formatDuration(p99));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * A metric in the {@link MetricsRegistry}.
+ */
+public interface Metric {
+    @NotNull String getHelp();
+
+    /**
+     * @return The Prometheus type of the metric: counter, gauge or histogram.
+     */
+    @NotNull String getType();
+
+    /**
+     * Writes the samples of the metric in the Prometheus text format.
+     *
+     * @param out  Where to write the samples.
+     * @param name Name of the metric.
+     */
+    void writeTo(@NotNull StringBuilder out, @NotNull String name);
+
+    /**
+     * @return A short, human-readable summary of the current value.
+     */
+    @NotNull String getSummary();
+
+    static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+
+    static String formatDuration(Duration duration) {
+        long nanos = duration.toNanos();
+        if (nanos < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1f\u00b5s", nanos / 1e3);
+        } else if (nanos < 1_000_000_000) {
+            return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+    }
+}
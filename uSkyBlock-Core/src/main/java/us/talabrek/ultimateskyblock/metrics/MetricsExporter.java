@@ -0,0 +1,89 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.PluginConfig;
+import us.talabrek.ultimateskyblock.bootstrap.PluginDataDir;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodically writes the {@link MetricsRegistry} to {@code metrics.prom} in the plugin data folder, in the Prometheus
+ * text format, e.g. for the textfile collector of the node exporter.
+ */
+@Singleton
+public class MetricsExporter {
+    static final String FILE_NAME = "metrics.prom";
+
+    private final MetricsRegistry registry;
+    private final Scheduler scheduler;
+    private final Logger logger;
+    private final Path file;
+    private final Duration interval;
+    private BukkitTask exportTask;
+
+    @Inject
+    public MetricsExporter(
+        @NotNull MetricsRegistry registry,
+        @NotNull Scheduler scheduler,
+        @NotNull PluginConfig config,
+        @NotNull Logger logger,
+        @NotNull @PluginDataDir Path dataPath
+    ) {
+        this.registry = registry;
+        this.scheduler = scheduler;
+        this.logger = logger;
+        this.file = dataPath.resolve(FILE_NAME);
+        this.interval = Duration.ofSeconds(config.getYamlConfig().getInt("options.advanced.metrics.exportInterval", 60));
+    }
+
+    public void startup() {
+        if (isEnabled()) {
+            exportTask = scheduler.async(this::export, interval, interval);
+        }
+    }
+
+    public void shutdown() {
+        if (exportTask != null) {
+            exportTask.cancel();
+            exportTask = null;
+            export();
+        }
+    }
+
+    /**
+     * Writes the metrics to the file. The file is replaced at once, so a reader never sees it half written.
+     */
+    public void export() {
+        Path tmp = file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.writeString(tmp, registry.toPrometheusText(), StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to write metrics to " + file, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return interval.isPositive();
+    }
+
+    public @NotNull Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,114 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import com.google.common.cache.Cache;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of the plugin's internal metrics: counters, gauges and latency histograms.
+ * <p>
+ * Metrics are registered by name, following the Prometheus naming conventions (e.g. {@code usb_island_save_seconds}).
+ * Registering a name again returns the metric already registered, so components can register their metrics when
+ * created. Latencies are timed with {@link System#nanoTime()}, which can be replaced to test with a manual time source.
+ */
+@Singleton
+public class MetricsRegistry {
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private final LongSupplier nanoTime;
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    @Inject
+    public MetricsRegistry() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime Monotonic time source in nanoseconds, like {@link System#nanoTime()}.
+     */
+    public MetricsRegistry(@NotNull LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    public @NotNull Counter counter(@NotNull String name, @NotNull String help) {
+        return register(name, Counter.class, () -> new Counter(help));
+    }
+
+    public @NotNull LatencyHistogram histogram(@NotNull String name, @NotNull String help) {
+        return register(name, LatencyHistogram.class, () -> new LatencyHistogram(help, nanoTime));
+    }
+
+    /**
+     * Registers a value that is read when the metrics are written.
+     */
+    public @NotNull Gauge gauge(@NotNull String name, @NotNull String help, @NotNull DoubleSupplier value) {
+        return register(name, Gauge.class, () -> new Gauge(help, value));
+    }
+
+    /**
+     * Registers a count kept elsewhere, which only goes up. It is read when the metrics are written, and can't be
+     * incremented through the returned counter.
+     */
+    public @NotNull Counter counter(@NotNull String name, @NotNull String help, @NotNull DoubleSupplier value) {
+        return register(name, Counter.class, () -> new Counter(help, value));
+    }
+
+    /**
+     * Registers the size, hits, misses and evictions of a cache built with {@code recordStats()}.
+     *
+     * @param name  Name of the cache, e.g. {@code island}.
+     * @param cache The cache.
+     */
+    public void cache(@NotNull String name, @NotNull Cache<?, ?> cache) {
+        String prefix = "usb_" + name + "_cache_";
+        gauge(prefix + "size", "Number of entries in the " + name + " cache", cache::size);
+        counter(prefix + "hits_total", "Lookups served by the " + name + " cache", () -> cache.stats().hitCount());
+        counter(prefix + "misses_total", "Lookups that loaded into the " + name + " cache", () -> cache.stats().missCount());
+        counter(prefix + "evictions_total", "Entries evicted from the " + name + " cache", () -> cache.stats().evictionCount());
+        counter(prefix + "load_seconds_total", "Time spent loading into the " + name + " cache",
+            () -> cache.stats().totalLoadTime() / 1e9);
+    }
+
+    private <T extends Metric> T register(String name, Class<T> type, Supplier<T> factory) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        Metric metric = metrics.computeIfAbsent(name, n -> factory.get());
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + metric.getType());
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * @return The metrics by name, sorted by name.
+     */
+    public @NotNull Map<String, Metric> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * @return All metrics in the Prometheus text exposition format.
+     */
+    public @NotNull String toPrometheusText() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+            String name = entry.getKey();
+            Metric metric = entry.getValue();
+            out.append("# HELP ").append(name).append(' ')
+                .append(metric.getHelp().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(metric.getType()).append('\n');
+            metric.writeTo(out, name);
+        }
+        return out.toString();
+    }
+}
@@ -6,33 +6,50 @@ import dk.lockfuglsang.minecraft.util.ItemStackUtil;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import us.talabrek.ultimateskyblock.PluginConfig;
 import us.talabrek.ultimateskyblock.Settings;
 import us.talabrek.ultimateskyblock.island.IslandGenerator;
+import us.talabrek.ultimateskyblock.util.Scheduler;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Responsible for calculating player specific perks based on permissions.
+ * <p>
+ * The resolved perk of a player is cached, since it is needed in hot listeners. The cache is invalidated on join,
+ * on world change, when permissions are changed through a permissions hook, and periodically to pick up changes made
+ * without notice.
  */
 @Singleton
-public class PerkLogic {
+public class PerkLogic implements Listener {
     private final Perk defaultPerk;
     private final Map<String, Perk> donorPerks;
     private final Map<String, IslandPerk> islandPerks;
+    private final Map<UUID, Perk> perkCache = new ConcurrentHashMap<>();
+    private final BukkitTask refreshTask;
 
     @Inject
     public PerkLogic(
         @NotNull IslandGenerator islandGenerator,
-        @NotNull PluginConfig config
+        @NotNull PluginConfig config,
+        @NotNull Scheduler scheduler
     ) {
         defaultPerk = new Perk(Collections.emptyList(), Settings.general_maxPartySize,
             config.getYamlConfig().getInt("options.island.spawn-limits.animals", 30),
@@ -86,6 +103,9 @@ public class PerkLogic {
                     1d, 0d));
             }
         }
+
+        Duration every = Duration.ofSeconds(config.getYamlConfig().getInt("options.advanced.perkRefreshInterval", 15 * 60));
+        refreshTask = every.isPositive() ? scheduler.async(this::invalidateAll, every, every) : null;
     }
 
     public Perk getDefaultPerk() {
@@ -93,7 +113,46 @@ public class PerkLogic {
     }
 
     public Perk getPerk(Player player) {
-        return createPerk(player);
+        return perkCache.computeIfAbsent(player.getUniqueId(), uuid -> createPerk(player));
+    }
+
+    /**
+     * Forgets the resolved perk of the given player, so it is resolved from permissions again on next use.
+     *
+     * @param uuid Unique id of the player.
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        perkCache.remove(uuid);
+    }
+
+    /**
+     * Forgets the resolved perks of all players.
+     */
+    public void invalidateAll() {
+        perkCache.clear();
+    }
+
+    public void shutdown() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+        }
+        invalidateAll();
+    }
+
+    // Runs before the other join listeners, so they see the current permissions
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
     }
 
     public Set<String> getSchemes(Player player) {
@@ -17,6 +17,8 @@ import us.talabrek.ultimateskyblock.challenge.Challenge;
 import us.talabrek.ultimateskyblock.challenge.ChallengeCompletion;
 import us.talabrek.ultimateskyblock.hook.permissions.PermissionsHook;
 import us.talabrek.ultimateskyblock.island.IslandInfo;
+import us.talabrek.ultimateskyblock.storage.DataFormat;
+import us.talabrek.ultimateskyblock.storage.SnapshotCodec;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import us.talabrek.ultimateskyblock.util.LocationUtil;
 import us.talabrek.ultimateskyblock.util.LogUtil;
@@ -28,6 +30,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -57,6 +60,8 @@ public class PlayerInfo implements Serializable, us.talabrek.ultimateskyblock.ap
 
     private final FileConfiguration playerData;
     private final File playerConfigFile;
+    private final File playerDataFile;
+    private final DataFormat dataFormat;
 
     private boolean islandGenerating = false;
     private boolean dirty = false;
@@ -69,16 +74,37 @@ public class PlayerInfo implements Serializable, us.talabrek.ultimateskyblock.ap
         // Prefer UUID over Name
         // TODO: decouple serialization from player data.
         // TODO: remove legacy player name support - all data should be converted by now.
-        playerConfigFile = playerDataDirectory.resolve(UUIDUtil.asString(playerUUID) + ".yml").toFile();
+        dataFormat = DataFormat.fromConfig(plugin.getConfig());
+        playerConfigFile = DataFormat.YML.getFile(playerDataDirectory.toFile(), UUIDUtil.asString(playerUUID));
+        playerDataFile = DataFormat.BINARY.getFile(playerDataDirectory.toFile(), UUIDUtil.asString(playerUUID));
         File nameFile = playerDataDirectory.resolve(playerName + ".yml").toFile();
         if (!playerConfigFile.exists() && nameFile.exists() && !currentPlayerName.equals(PlayerDB.UNKNOWN_PLAYER_NAME)) {
             nameFile.renameTo(playerConfigFile);
         }
-        playerData = new YamlConfiguration();
+        playerData = readPlayerData();
+        loadPlayer();
+    }
+
+    /**
+     * Decodes the binary file into a config of its own, so a file that fails halfway leaves nothing behind
+     * before falling back to the yml file.
+     */
+    private FileConfiguration readPlayerData() {
+        if (getSavedFile() == playerDataFile) {
+            YamlConfiguration decoded = new YamlConfiguration();
+            try {
+                SnapshotCodec.readPlayerData(playerDataFile.toPath(), decoded);
+                return decoded;
+            } catch (IOException e) {
+                log.log(Level.SEVERE, "Unable to read player data " + playerDataFile, e);
+                SnapshotCodec.keepUnreadable(playerDataFile.toPath());
+            }
+        }
+        YamlConfiguration config = new YamlConfiguration();
         if (playerConfigFile.exists()) {
-            FileUtil.readConfig(playerData, playerConfigFile);
+            FileUtil.readConfig(config, playerConfigFile);
         }
-        loadPlayer();
+        return config;
     }
 
     public void startNewIsland(final Location l) {
@@ -252,9 +278,20 @@ public class PlayerInfo implements Serializable, us.talabrek.ultimateskyblock.ap
         return playerData;
     }
 
+    /**
+     * @return The file the player was last saved to, either yml or binary, or <code>null</code> if never saved.
+     */
+    private File getSavedFile() {
+        if (!playerDataFile.exists()) {
+            return playerConfigFile.exists() ? playerConfigFile : null;
+        }
+        return playerConfigFile.exists() && playerConfigFile.lastModified() > playerDataFile.lastModified()
+            ? playerConfigFile : playerDataFile;
+    }
+
     public void save() {
         dirty = true;
-        if (!playerConfigFile.exists()) {
+        if (getSavedFile() == null) {
             saveToFile();
         }
     }
@@ -300,11 +337,19 @@ public class PlayerInfo implements Serializable, us.talabrek.ultimateskyblock.ap
             playerConfig.set("player.homeYaw", 0);
             playerConfig.set("player.homePitch", 0);
         }
+        // Written in the configured format, the file in the other format is removed so it isn't read again
+        File file = dataFormat == DataFormat.BINARY ? playerDataFile : playerConfigFile;
         try {
-            playerConfig.save(playerConfigFile);
+            if (dataFormat == DataFormat.BINARY) {
+                SnapshotCodec.writePlayerData(playerConfig, playerDataFile.toPath());
+                Files.deleteIfExists(playerConfigFile.toPath());
+            } else {
+                playerConfig.save(playerConfigFile);
+                Files.deleteIfExists(playerDataFile.toPath());
+            }
             LogUtil.log(Level.FINEST, "Player data saved!");
         } catch (IOException ex) {
-            uSkyBlock.getInstance().getLogger().log(Level.SEVERE, "Could not save config to " + playerConfigFile, ex);
+            uSkyBlock.getInstance().getLogger().log(Level.SEVERE, "Could not save config to " + file, ex);
         }
         log.exiting(CN, "save");
         dirty = false;
@@ -359,7 +404,8 @@ public class PlayerInfo implements Serializable, us.talabrek.ultimateskyblock.ap
     }
 
     public long getLastSaved() {
-        return playerConfigFile.lastModified();
+        File file = getSavedFile();
+        return file != null ? file.lastModified() : 0;
     }
 
     public void addTrust(String name) {
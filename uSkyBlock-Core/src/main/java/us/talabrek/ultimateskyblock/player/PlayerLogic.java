@@ -14,8 +14,13 @@ import us.talabrek.ultimateskyblock.bootstrap.PluginDataDir;
 import us.talabrek.ultimateskyblock.handler.WorldGuardHandler;
 import us.talabrek.ultimateskyblock.island.IslandInfo;
 import us.talabrek.ultimateskyblock.island.IslandLogic;
+import us.talabrek.ultimateskyblock.metrics.Counter;
+import us.talabrek.ultimateskyblock.metrics.LatencyHistogram;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
+import us.talabrek.ultimateskyblock.storage.DataFormat;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.util.Scheduler.Workload;
 import us.talabrek.ultimateskyblock.uuid.PlayerDB;
 import us.talabrek.ultimateskyblock.world.WorldManager;
 
@@ -36,6 +41,8 @@ import static dk.lockfuglsang.minecraft.po.I18nUtil.tr;
 @Singleton
 public class PlayerLogic {
     private final LoadingCache<UUID, PlayerInfo> playerCache;
+    private final LatencyHistogram saveLatency;
+    private final Counter saves;
     private final uSkyBlock plugin;
     private final BukkitTask saveTask;
     private final PlayerDB playerDB;
@@ -60,7 +67,8 @@ public class PlayerLogic {
         @NotNull TeleportLogic teleportLogic,
         @NotNull Scheduler scheduler,
         @NotNull NotificationManager notificationManager,
-        @NotNull @PluginDataDir Path pluginDataDir
+        @NotNull @PluginDataDir Path pluginDataDir,
+        @NotNull MetricsRegistry metrics
     ) {
         this.plugin = plugin;
         this.playerDB = playerDB;
@@ -80,6 +88,7 @@ public class PlayerLogic {
 
         this.playerCache = CacheBuilder
             .from(config.getYamlConfig().getString("options.advanced.playerCache", "maximumSize=200,expireAfterWrite=15m,expireAfterAccess=10m"))
+            .recordStats()
             .removalListener((RemovalListener<UUID, PlayerInfo>) removal -> {
                 logger.fine("Removing player-info for " + removal.getKey() + " from cache");
                 PlayerInfo playerInfo = removal.getValue();
@@ -95,17 +104,23 @@ public class PlayerLogic {
                        }
                    }
             );
+        metrics.cache("player", playerCache);
+        this.saveLatency = metrics.histogram("usb_player_save_seconds", "Time spent saving the dirty players in the cache");
+        this.saves = metrics.counter("usb_player_saves_total", "Players saved to file by the periodic save");
         Duration every = Duration.ofSeconds(plugin.getConfig().getInt("options.advanced.player.saveEvery", 2 * 60));
         this.saveTask = scheduler.async(this::saveDirtyToFiles, every, every);
     }
 
     private void saveDirtyToFiles() {
+        LatencyHistogram.Sample sample = saveLatency.start();
         // asMap.values() should NOT touch the cache.
         for (PlayerInfo pi : playerCache.asMap().values()) {
             if (pi.isDirty()) {
                 pi.saveToFile();
+                saves.increment();
             }
         }
+        sample.stop();
     }
 
     private PlayerInfo loadPlayerData(UUID uuid) {
@@ -186,7 +201,7 @@ public class PlayerLogic {
     }
 
     public void loadPlayerDataAsync(final Player player) {
-        scheduler.async(() -> playerCache.refresh(player.getUniqueId()));
+        scheduler.asyncOrFallback(Workload.IO, () -> playerCache.refresh(player.getUniqueId()));
     }
 
     public void removeActivePlayer(PlayerInfo pi) {
@@ -207,7 +222,11 @@ public class PlayerLogic {
 
     public int getSize() {
         try (var stream = Files.list(playerDataDirectory)) {
-            return (int) stream.count();
+            return (int) stream.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(DataFormat.YML.getExtension()) || name.endsWith(DataFormat.BINARY.getExtension()))
+                .map(name -> name.substring(0, name.lastIndexOf('.')))
+                .distinct()
+                .count();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,231 @@
+package us.talabrek.ultimateskyblock.player;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import us.talabrek.ultimateskyblock.PluginConfig;
+import us.talabrek.ultimateskyblock.util.LocationUtil;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caches the result of the safe-location scan for home and warp locations, so repeated teleports to an unchanged
+ * location don't have to scan for a safe spot again. A verdict is dropped as soon as a block in the region the scan
+ * covered changes, since that could make a nearer spot safe or the cached one unsafe, or when it expires.
+ */
+@Singleton
+public class SafeLocationCache implements Listener {
+    // Horizontal reach of LocationUtil.findNearestSafeLocation
+    private static final int SCAN_RADIUS = 15;
+
+    private final Clock clock;
+    private final Duration ttl;
+
+    // requested location -> verdict
+    private final Map<BlockPos, Verdict> verdicts = new HashMap<>();
+    // chunk -> requested locations whose scanned region overlaps it
+    private final Map<Long, Set<BlockPos>> regionChunks = new HashMap<>();
+
+    private record BlockPos(@NotNull String world, int x, int y, int z) {
+        static BlockPos of(Location location) {
+            return new BlockPos(location.getWorld().getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        }
+    }
+
+    /**
+     * The blocks the scan looked at before it settled on the safe location: every column within
+     * {@link #SCAN_RADIUS} of the requested location, on the layers up to the one of the safe location, including the
+     * ground below and the headroom above them.
+     */
+    private record Region(@NotNull String world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        static Region of(BlockPos requested, BlockPos target) {
+            int dy = Math.abs(target.y() - requested.y()) + 1;
+            return new Region(requested.world(),
+                requested.x() - SCAN_RADIUS, requested.y() - dy, requested.z() - SCAN_RADIUS,
+                requested.x() + SCAN_RADIUS, requested.y() + dy, requested.z() + SCAN_RADIUS);
+        }
+
+        boolean contains(String worldName, int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ && world.equals(worldName);
+        }
+    }
+
+    private record Verdict(@NotNull Location safeLocation, @NotNull Region region, @NotNull Instant expires) {
+    }
+
+    @Inject
+    public SafeLocationCache(@NotNull PluginConfig config, @NotNull Clock clock) {
+        this.clock = clock;
+        this.ttl = Duration.ofSeconds(config.getYamlConfig().getInt("options.advanced.safeLocationCacheTtl", 300));
+    }
+
+    /**
+     * Finds the nearest safe location to the given {@link Location}, using a cached verdict if one is available.
+     *
+     * @param location Location to find a safe location near.
+     * @return The nearest safe location, or null if none was found.
+     */
+    public @Nullable Location findNearestSafeLocation(@Nullable Location location) {
+        if (location == null || location.getWorld() == null || !isEnabled()) {
+            return LocationUtil.findNearestSafeLocation(location, null);
+        }
+        Location cached = getCached(location);
+        if (cached != null) {
+            return cached;
+        }
+        Location safeLocation = LocationUtil.findNearestSafeLocation(location, null);
+        if (safeLocation != null) {
+            put(location, safeLocation);
+        }
+        return safeLocation;
+    }
+
+    public boolean isEnabled() {
+        return ttl.isPositive();
+    }
+
+    @Nullable
+    Location getCached(@NotNull Location location) {
+        BlockPos key = BlockPos.of(location);
+        Verdict verdict = verdicts.get(key);
+        if (verdict == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(verdict.expires())) {
+            remove(key);
+            return null;
+        }
+        return verdict.safeLocation().clone();
+    }
+
+    void put(@NotNull Location location, @NotNull Location safeLocation) {
+        BlockPos key = BlockPos.of(location);
+        remove(key);
+        Region region = Region.of(key, BlockPos.of(safeLocation));
+        verdicts.put(key, new Verdict(safeLocation.clone(), region, clock.instant().plus(ttl)));
+        for (int cx = region.minX() >> 4; cx <= region.maxX() >> 4; cx++) {
+            for (int cz = region.minZ() >> 4; cz <= region.maxZ() >> 4; cz++) {
+                regionChunks.computeIfAbsent(chunkKey(cx, cz), k -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    private void remove(BlockPos key) {
+        Verdict verdict = verdicts.remove(key);
+        if (verdict == null) {
+            return;
+        }
+        Region region = verdict.region();
+        for (int cx = region.minX() >> 4; cx <= region.maxX() >> 4; cx++) {
+            for (int cz = region.minZ() >> 4; cz <= region.maxZ() >> 4; cz++) {
+                long chunk = chunkKey(cx, cz);
+                Set<BlockPos> keys = regionChunks.get(chunk);
+                if (keys != null) {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        regionChunks.remove(chunk);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all verdicts whose scanned region contains the given block.
+     *
+     * @param block The changed block.
+     * @return The number of verdicts dropped.
+     */
+    public int invalidate(@NotNull Block block) {
+        return invalidate(block.getWorld(), block.getX(), block.getY(), block.getZ());
+    }
+
+    int invalidate(@NotNull World world, int x, int y, int z) {
+        if (verdicts.isEmpty()) {
+            return 0;
+        }
+        Set<BlockPos> keys = regionChunks.get(chunkKey(x >> 4, z >> 4));
+        if (keys == null) {
+            return 0;
+        }
+        String worldName = world.getName();
+        int dropped = 0;
+        for (BlockPos key : List.copyOf(keys)) {
+            if (verdicts.get(key).region().contains(worldName, x, y, z)) {
+                remove(key);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Drops all verdicts, i.e. when blocks are changed without firing events (WorldEdit, island regeneration).
+     */
+    public void clear() {
+        verdicts.clear();
+        regionChunks.clear();
+    }
+
+    public int size() {
+        return verdicts.size();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPhysics(BlockPhysicsEvent event) {
+        invalidate(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        invalidate(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            invalidate(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            invalidate(block);
+        }
+    }
+}
@@ -14,6 +14,9 @@ import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import us.talabrek.ultimateskyblock.Settings;
+import us.talabrek.ultimateskyblock.metrics.Counter;
+import us.talabrek.ultimateskyblock.metrics.LatencyHistogram;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
 import us.talabrek.ultimateskyblock.uSkyBlock;
 import us.talabrek.ultimateskyblock.util.LocationUtil;
 import us.talabrek.ultimateskyblock.util.Scheduler;
@@ -40,13 +43,16 @@ public class TeleportLogic implements Listener {
     private final Duration teleportDelay;
     private final Map<UUID, PendingTeleport> pendingTeleports = new ConcurrentHashMap<>();
     private final double cancelDistance;
+    private final LatencyHistogram teleportLatency;
+    private final Counter failedTeleports;
 
     @Inject
     public TeleportLogic(
         @NotNull Logger logger,
         @NotNull uSkyBlock plugin,
         @NotNull WorldManager worldManager,
-        @NotNull Scheduler scheduler
+        @NotNull Scheduler scheduler,
+        @NotNull MetricsRegistry metrics
     ) {
         this.logger = logger;
         this.plugin = plugin;
@@ -54,6 +60,9 @@ public class TeleportLogic implements Listener {
         cancelDistance = plugin.getConfig().getDouble("options.island.teleportCancelDistance", 0.2);
         this.worldManager = worldManager;
         this.scheduler = scheduler;
+        this.teleportLatency = metrics.histogram("usb_teleport_seconds",
+            "Time from starting a teleport, until the target chunk is loaded and the player has arrived");
+        this.failedTeleports = metrics.counter("usb_teleport_failures_total", "Teleports that did not complete");
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
 
@@ -102,12 +111,12 @@ public class TeleportLogic implements Listener {
         logger.log(Level.FINER, "safeTeleport " + player + " to " + targetLocation + (force ? " with force" : ""));
         final Location targetLoc = LocationUtil.centerOnBlock(targetLocation.clone());
         if (player.hasPermission("usb.mod.bypassteleport") || teleportDelay.isZero() || force) {
-            PaperLib.teleportAsync(player, targetLoc);
+            teleport(player, targetLoc);
         } else {
             player.sendMessage(tr("\u00a7aYou will be teleported in {0} seconds.", teleportDelay));
             BukkitTask tpTask = scheduler.sync(() -> {
                 pendingTeleports.remove(player.getUniqueId());
-                PaperLib.teleportAsync(player, targetLoc);
+                teleport(player, targetLoc);
             }, teleportDelay);
             pendingTeleports.put(player.getUniqueId(), new PendingTeleport(player.getLocation(), tpTask));
         }
@@ -128,7 +137,7 @@ public class TeleportLogic implements Listener {
             if (Settings.extras_sendToSpawn) {
                 plugin.execCommand(player, "op:spawn", false);
             } else {
-                PaperLib.teleportAsync(player, spawnLocation);
+                teleport(player, spawnLocation);
             }
         } else {
             player.sendMessage(tr("\u00a7aYou will be teleported in {0} seconds.", teleportDelay));
@@ -137,7 +146,7 @@ public class TeleportLogic implements Listener {
                 if (Settings.extras_sendToSpawn) {
                     plugin.execCommand(player, "op:spawn", false);
                 } else {
-                    PaperLib.teleportAsync(player, spawnLocation);
+                    teleport(player, spawnLocation);
                 }
             }, teleportDelay);
             pendingTeleports.put(player.getUniqueId(), new PendingTeleport(player.getLocation(), tpTask));
@@ -169,6 +178,16 @@ public class TeleportLogic implements Listener {
         safeTeleport(player, warpLocation, force);
     }
 
+    private void teleport(Player player, Location location) {
+        LatencyHistogram.Sample sample = teleportLatency.start();
+        PaperLib.teleportAsync(player, location).whenComplete((success, e) -> {
+            sample.stop();
+            if (e != null || !Boolean.TRUE.equals(success)) {
+                failedTeleports.increment();
+            }
+        });
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     @SuppressWarnings("unused")
     public void onPlayerMove(PlayerMoveEvent e) {
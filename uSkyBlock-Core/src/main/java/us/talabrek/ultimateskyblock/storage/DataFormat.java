@@ -0,0 +1,56 @@
+package us.talabrek.ultimateskyblock.storage;
+
+import org.bukkit.configuration.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+
+/**
+ * The formats the player and challenge-completion files are written in.
+ */
+public enum DataFormat {
+    YML(".yml"),
+    BINARY(".dat");
+
+    private final String extension;
+
+    DataFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public @NotNull String getExtension() {
+        return extension;
+    }
+
+    public @NotNull File getFile(@NotNull File folder, @NotNull String id) {
+        return new File(folder, id + extension);
+    }
+
+    /**
+     * @return The format configured in {@code options.advanced.dataFormat}, {@link #YML} if unknown.
+     */
+    public static @NotNull DataFormat fromConfig(@NotNull Configuration config) {
+        return "binary".equalsIgnoreCase(config.getString("options.advanced.dataFormat", "yml")) ? BINARY : YML;
+    }
+
+    /**
+     * Finds the file a record was last saved to. Saving removes the file in the other format, so both only exist
+     * if the server stopped in between, in which case the newest is the one to read, binary if equally old.
+     * @return The file of the record, or <code>null</code> if it has never been saved.
+     */
+    public static @Nullable File locate(@NotNull File folder, @NotNull String id) {
+        File found = null;
+        for (DataFormat format : values()) {
+            File file = format.getFile(folder, id);
+            if (file.exists() && (found == null || file.lastModified() >= found.lastModified())) {
+                found = file;
+            }
+        }
+        return found;
+    }
+
+    public static @NotNull DataFormat of(@NotNull File file) {
+        return file.getName().endsWith(BINARY.extension) ? BINARY : YML;
+    }
+}
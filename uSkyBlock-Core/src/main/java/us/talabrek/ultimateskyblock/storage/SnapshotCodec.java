@@ -0,0 +1,341 @@
+package us.talabrek.ultimateskyblock.storage;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.challenge.ChallengeCompletion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of the player and challenge-completion files, which is a lot cheaper to parse and write than yml.
+ * <p>
+ * A file starts with the magic {@code USB}, the kind of record and the version of the format, followed by a
+ * dictionary of the keys (or challenge names) used in the record, which are referred to by their index.
+ * Strings are length-prefixed UTF-8, and counts, indexes and timestamps are varints.
+ * <ul>
+ *     <li>Player data is the tree of the player config, each value tagged with its type.</li>
+ *     <li>Completions are the cooldown (relative to the earliest in the file) and counts per challenge.</li>
+ * </ul>
+ */
+public enum SnapshotCodec { ;
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'U', 'S', 'B'};
+    private static final byte PLAYER = 'P';
+    private static final byte COMPLETIONS = 'C';
+
+    private static final int SECTION = 0;
+    private static final int STRING = 1;
+    private static final int INT = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int FLOAT = 5;
+    private static final int BOOLEAN = 6;
+    private static final int STRING_LIST = 7;
+    // Anything else is kept as a yml snippet, so no value is lost
+    private static final int YML = 8;
+
+    // Challenge names and keys are shared by all the records in the caches
+    private static final Interner<String> NAMES = Interners.newWeakInterner();
+
+    public static void writePlayerData(@NotNull ConfigurationSection root, @NotNull Path file) throws IOException {
+        write(encodePlayerData(root), file);
+    }
+
+    /**
+     * Reads the player data in the file into the given section.
+     */
+    public static void readPlayerData(@NotNull Path file, @NotNull ConfigurationSection into) throws IOException {
+        decodePlayerData(Files.readAllBytes(file), into);
+    }
+
+    /**
+     * Keeps a copy of a file that couldn't be read as {@code <file>.err}, as the next save overwrites it.
+     */
+    public static void keepUnreadable(@NotNull Path file) {
+        try {
+            Files.copy(file, file.resolveSibling(file.getFileName() + ".err"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Ignore - we tried...
+        }
+    }
+
+    public static void writeCompletions(@NotNull Collection<ChallengeCompletion> completions, @NotNull Path file) throws IOException {
+        write(encodeCompletions(completions), file);
+    }
+
+    /**
+     * @return The completions in the file, by challenge name.
+     */
+    public static @NotNull Map<String, ChallengeCompletion> readCompletions(@NotNull Path file) throws IOException {
+        return decodeCompletions(Files.readAllBytes(file));
+    }
+
+    public static byte[] encodePlayerData(@NotNull ConfigurationSection root) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        collectKeys(root, dictionary);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeHeader(out, PLAYER, dictionary.keySet());
+        writeSection(out, root, dictionary);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static void decodePlayerData(byte[] data, @NotNull ConfigurationSection into) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        String[] dictionary = readHeader(in, PLAYER);
+        if (in.readUnsignedByte() != SECTION) {
+            throw new IOException("Player data doesn't start with a section");
+        }
+        readSection(in, into, dictionary);
+    }
+
+    public static byte[] encodeCompletions(@NotNull Collection<ChallengeCompletion> completions) throws IOException {
+        List<String> names = new ArrayList<>(completions.size());
+        long base = Long.MAX_VALUE;
+        for (ChallengeCompletion completion : completions) {
+            names.add(completion.getName());
+            Instant cooldownUntil = completion.cooldownUntil();
+            if (cooldownUntil != null) {
+                base = Math.min(base, cooldownUntil.toEpochMilli());
+            }
+        }
+        base = base == Long.MAX_VALUE ? 0 : base;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + completions.size() * 24);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeHeader(out, COMPLETIONS, names);
+        writeVarLong(out, zigzag(base));
+        for (ChallengeCompletion completion : completions) {
+            Instant cooldownUntil = completion.cooldownUntil();
+            // Cooldowns are close to each other, so the offset from the earliest is a short varint. 0 is no cooldown.
+            writeVarLong(out, cooldownUntil != null ? cooldownUntil.toEpochMilli() - base + 1 : 0);
+            writeVarLong(out, zigzag(completion.getTimesCompleted()));
+            writeVarLong(out, zigzag(completion.getTimesCompletedInCooldown()));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static @NotNull Map<String, ChallengeCompletion> decodeCompletions(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        String[] names = readHeader(in, COMPLETIONS);
+        long base = unzigzag(readVarLong(in));
+        Map<String, ChallengeCompletion> completions = new HashMap<>(names.length * 2);
+        for (String name : names) {
+            long cooldown = readVarLong(in);
+            Instant cooldownUntil = cooldown != 0 ? Instant.ofEpochMilli(base + cooldown - 1) : null;
+            int timesCompleted = (int) unzigzag(readVarLong(in));
+            int timesCompletedInCooldown = (int) unzigzag(readVarLong(in));
+            completions.put(name, new ChallengeCompletion(name, cooldownUntil, timesCompleted, timesCompletedInCooldown));
+        }
+        return completions;
+    }
+
+    private static void write(byte[] data, Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, data);
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, byte kind, Collection<String> dictionary) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(kind);
+        writeVarLong(out, VERSION);
+        writeVarLong(out, dictionary.size());
+        for (String name : dictionary) {
+            writeString(out, name);
+        }
+    }
+
+    private static String[] readHeader(DataInputStream in, byte kind) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        byte actualKind = in.readByte();
+        if (magic[0] != MAGIC[0] || magic[1] != MAGIC[1] || magic[2] != MAGIC[2] || actualKind != kind) {
+            throw new IOException("Not a " + (char) kind + " snapshot");
+        }
+        long version = readVarLong(in);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        String[] dictionary = new String[readCount(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = NAMES.intern(readString(in));
+        }
+        return dictionary;
+    }
+
+    private static void collectKeys(ConfigurationSection section, Map<String, Integer> dictionary) {
+        for (String key : section.getKeys(false)) {
+            dictionary.putIfAbsent(key, dictionary.size());
+            ConfigurationSection child = section.getConfigurationSection(key);
+            if (child != null) {
+                collectKeys(child, dictionary);
+            }
+        }
+    }
+
+    private static void writeSection(DataOutputStream out, ConfigurationSection section, Map<String, Integer> dictionary) throws IOException {
+        out.writeByte(SECTION);
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String key : section.getKeys(false)) {
+            Object value = section.get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        writeVarLong(out, values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            writeVarLong(out, dictionary.get(entry.getKey()));
+            writeValue(out, entry.getValue(), dictionary);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value, Map<String, Integer> dictionary) throws IOException {
+        if (value instanceof ConfigurationSection section) {
+            writeSection(out, section, dictionary);
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            writeString(out, s);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            writeVarLong(out, zigzag(i));
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            writeVarLong(out, zigzag(l));
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Float f) {
+            out.writeByte(FLOAT);
+            out.writeFloat(f);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof List<?> list && list.stream().allMatch(String.class::isInstance)) {
+            out.writeByte(STRING_LIST);
+            writeVarLong(out, list.size());
+            for (Object element : list) {
+                writeString(out, (String) element);
+            }
+        } else {
+            YamlConfiguration yml = new YamlConfiguration();
+            yml.set("v", value);
+            out.writeByte(YML);
+            writeString(out, yml.saveToString());
+        }
+    }
+
+    private static void readSection(DataInputStream in, ConfigurationSection section, String[] dictionary) throws IOException {
+        int count = readCount(in);
+        for (int i = 0; i < count; i++) {
+            long index = readVarLong(in);
+            if (index < 0 || index >= dictionary.length) {
+                throw new IOException("Key " + index + " is not in the dictionary");
+            }
+            String key = dictionary[(int) index];
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case SECTION -> readSection(in, section.createSection(key), dictionary);
+                case STRING -> section.set(key, readString(in));
+                case INT -> section.set(key, (int) unzigzag(readVarLong(in)));
+                case LONG -> section.set(key, unzigzag(readVarLong(in)));
+                case DOUBLE -> section.set(key, in.readDouble());
+                case FLOAT -> section.set(key, in.readFloat());
+                case BOOLEAN -> section.set(key, in.readBoolean());
+                case STRING_LIST -> {
+                    int size = readCount(in);
+                    List<String> list = new ArrayList<>(size);
+                    for (int j = 0; j < size; j++) {
+                        list.add(readString(in));
+                    }
+                    section.set(key, list);
+                }
+                case YML -> {
+                    YamlConfiguration yml = new YamlConfiguration();
+                    try {
+                        yml.loadFromString(readString(in));
+                    } catch (InvalidConfigurationException e) {
+                        throw new IOException("Invalid value of " + key, e);
+                    }
+                    section.set(key, yml.get("v"));
+                }
+                default -> throw new IOException("Unknown type " + tag + " of " + key);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readCount(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        long count = readVarLong(in);
+        if (count < 0 || count > in.available()) {
+            // Every element takes at least a byte, so a larger count means the file is corrupt
+            throw new IOException("Invalid length " + count);
+        }
+        return (int) count;
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint is too long");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -68,6 +68,7 @@ import us.talabrek.ultimateskyblock.player.PlayerInfo;
 import us.talabrek.ultimateskyblock.player.PlayerLogic;
 import us.talabrek.ultimateskyblock.player.PlayerNotifier;
 import us.talabrek.ultimateskyblock.player.PlayerPerk;
+import us.talabrek.ultimateskyblock.player.SafeLocationCache;
 import us.talabrek.ultimateskyblock.player.TeleportLogic;
 import us.talabrek.ultimateskyblock.util.IslandUtil;
 import us.talabrek.ultimateskyblock.util.LocationUtil;
@@ -145,6 +146,8 @@ public class uSkyBlock extends JavaPlugin implements uSkyBlockAPI, CommandManage
     private CooldownHandler cooldownHandler;
     @Inject
     private PlayerLogic playerLogic;
+    @Inject
+    private SafeLocationCache safeLocationCache;
     // TODO: don't assign value directly, but use injection instead. Currently, legacy code in PlaceholderHandler accesses it too early for injection to work.
     @Inject
     private PluginConfig config = new PluginConfig();
@@ -263,9 +266,9 @@ public class uSkyBlock extends JavaPlugin implements uSkyBlockAPI, CommandManage
     }
 
     public Location getSafeHomeLocation(final PlayerInfo p) {
-        Location home = LocationUtil.findNearestSafeLocation(p.getHomeLocation(), null);
+        Location home = safeLocationCache.findNearestSafeLocation(p.getHomeLocation());
         if (home == null) {
-            home = LocationUtil.findNearestSafeLocation(p.getIslandLocation(), null);
+            home = safeLocationCache.findNearestSafeLocation(p.getIslandLocation());
         }
         return home;
     }
@@ -273,9 +276,9 @@ public class uSkyBlock extends JavaPlugin implements uSkyBlockAPI, CommandManage
     public Location getSafeWarpLocation(final PlayerInfo p) {
         us.talabrek.ultimateskyblock.api.IslandInfo islandInfo = getIslandInfo(p);
         if (islandInfo != null) {
-            Location warp = LocationUtil.findNearestSafeLocation(islandInfo.getWarpLocation(), null);
+            Location warp = safeLocationCache.findNearestSafeLocation(islandInfo.getWarpLocation());
             if (warp == null) {
-                warp = LocationUtil.findNearestSafeLocation(islandInfo.getIslandLocation(), null);
+                warp = safeLocationCache.findNearestSafeLocation(islandInfo.getIslandLocation());
             }
             return warp;
         }
@@ -548,6 +551,8 @@ public class uSkyBlock extends JavaPlugin implements uSkyBlockAPI, CommandManage
     }
 
     public IslandInfo setNewPlayerIsland(final PlayerInfo playerInfo, final Location loc) {
+        // The schematic was pasted without block events
+        islandLogic.invalidateBlocks(loc);
         playerInfo.startNewIsland(loc);
 
         Location chestLocation = LocationUtil.findChestLocation(loc);
@@ -627,6 +632,9 @@ public class uSkyBlock extends JavaPlugin implements uSkyBlockAPI, CommandManage
     }
 
     private void shutdown() {
+        if (importer != null) {
+            importer.shutdown();
+        }
         if (this.skyBlock != null) {
             this.skyBlock.shutdown(this);
             this.skyBlock = null;
@@ -828,9 +836,17 @@ public class uSkyBlock extends JavaPlugin implements uSkyBlockAPI, CommandManage
     }
 
     public void fireAsyncEvent(final Event event) {
-        getServer().getScheduler().runTaskAsynchronously(this,
-            () -> getServer().getPluginManager().callEvent(event)
-        );
+        fireAsyncEvent(null, event);
+    }
+
+    /**
+     * Fires an async event, after the events already fired for the same island.
+     *
+     * @param islandName Name of the island the event is about, or null if it isn't about a single island.
+     * @param event      Async event to fire.
+     */
+    public void fireAsyncEvent(@Nullable String islandName, final Event event) {
+        eventLogic.fireAsyncEvent(islandName, event);
     }
 
     public PlayerDB getPlayerDB() {
@@ -853,7 +869,7 @@ public class uSkyBlock extends JavaPlugin implements uSkyBlockAPI, CommandManage
                 callback.setState(score);
                 islandInfo.setLevel(score.getScore());
                 getIslandLogic().updateRank(islandInfo, score);
-                fireAsyncEvent(new uSkyBlockScoreChangedEvent(player, getInstance(), score, islandInfo.getIslandLocation()));
+                fireAsyncEvent(islandName, new uSkyBlockScoreChangedEvent(player, getInstance(), score, islandInfo.getIslandLocation()));
                 callback.run();
             }
         });
@@ -958,6 +974,7 @@ public class uSkyBlock extends JavaPlugin implements uSkyBlockAPI, CommandManage
     }
 
     public Scheduler getScheduler() {
-        return new Scheduler(this);
+        // Before injection, only the Bukkit scheduler is used
+        return scheduler != null ? scheduler : new Scheduler(this);
     }
 }
@@ -0,0 +1,204 @@
+package us.talabrek.ultimateskyblock.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named executor with a bounded number of running and waiting tasks.
+ * <p>
+ * With platform threads, tasks run on a fixed pool with a bounded queue. With virtual threads (when running on Java
+ * 21 or later), every task gets its own thread, and permits bound the number of tasks that run at once and the number that are accepted at all. Either
+ * way, a task submitted while the executor is saturated or shut down is rejected instead of piling up.
+ */
+public class BoundedExecutor {
+    private final String name;
+    private final int threads;
+    private final int queueSize;
+    private final boolean virtual;
+    private final ExecutorService executor;
+    // Only used for virtual threads: tasks accepted, and tasks running
+    private final Semaphore admitted;
+    private final Semaphore running;
+
+    public BoundedExecutor(@NotNull String name, int threads, int queueSize, boolean virtual) {
+        if (threads <= 0 || queueSize < 0) {
+            throw new IllegalArgumentException("The number of threads must be positive, and the queue size not negative");
+        }
+        this.name = name;
+        this.threads = threads;
+        this.queueSize = queueSize;
+        ExecutorService virtualExecutor = virtual ? newVirtualExecutor(name) : null;
+        this.virtual = virtualExecutor != null;
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+            this.admitted = new Semaphore(threads + queueSize);
+            this.running = new Semaphore(threads);
+        } else {
+            // The pool only grows to the core size, so the queue absorbs the rest until it is full
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                queueSize > 0 ? new LinkedBlockingQueue<>(queueSize) : new SynchronousQueue<>(),
+                newPlatformThreadFactory(name), new ThreadPoolExecutor.AbortPolicy());
+            this.admitted = null;
+            this.running = null;
+        }
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, if the runtime supports it. The plugin is compiled for
+     * Java 17, so the Java 21 API is looked up reflectively.
+     */
+    private static ExecutorService newVirtualExecutor(String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "uSkyBlock-" + name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory newPlatformThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "uSkyBlock-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Submits the task.
+     *
+     * @param task Task to run.
+     * @return Future completing with the task, or exceptionally with a {@link RejectedExecutionException} if the
+     * executor is saturated or shut down.
+     */
+    public @NotNull CompletableFuture<Void> submit(@NotNull Runnable task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (virtual && !admitted.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException(name + " is saturated"));
+            return future;
+        }
+        try {
+            executor.execute(new Task(task, future));
+        } catch (RejectedExecutionException e) {
+            if (virtual) {
+                admitted.release();
+            }
+            future.completeExceptionally(executor.isShutdown()
+                ? new RejectedExecutionException(name + " is shut down", e)
+                : new RejectedExecutionException(name + " is saturated", e));
+        }
+        return future;
+    }
+
+    private final class Task implements Runnable {
+        private final Runnable task;
+        private final CompletableFuture<Void> future;
+
+        private Task(Runnable task, CompletableFuture<Void> future) {
+            this.task = task;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            Throwable failure = null;
+            try {
+                if (virtual) {
+                    running.acquire();
+                }
+                try {
+                    task.run();
+                } finally {
+                    if (virtual) {
+                        running.release();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                if (virtual) {
+                    admitted.release();
+                }
+            }
+            // Complete after releasing the permits, so the capacity is available to whoever waits for the task
+            if (failure == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting tasks, and waits for the accepted tasks to complete. Tasks still running once the timeout has
+     * passed are interrupted, and tasks that haven't started yet are dropped.
+     *
+     * @param timeout How long to wait for the accepted tasks.
+     * @return True if all accepted tasks completed in time.
+     */
+    public boolean shutdown(@NotNull Duration timeout) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Runnable dropped : executor.shutdownNow()) {
+            if (dropped instanceof Task task) {
+                task.future.cancel(false);
+            }
+        }
+        return false;
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * @return The number of tasks accepted but not yet started.
+     */
+    public int getQueueDepth() {
+        if (virtual) {
+            return Math.max(0, threads + queueSize - admitted.availablePermits() - (threads - running.availablePermits()));
+        }
+        return ((ThreadPoolExecutor) executor).getQueue().size();
+    }
+
+    public @NotNull String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+}
@@ -16,7 +16,7 @@ public class ProgressTracker {
     private final String format;
     private final CommandSender sender;
 
-    private Instant lastProgressTime;
+    private Instant lastProgressTime = Instant.now();
     private float lastProgressPct;
 
     public ProgressTracker(CommandSender sender, String format, double progressEveryPct, Duration progressEvery) {
@@ -26,7 +26,7 @@ public class ProgressTracker {
         this.sender = sender;
     }
 
-    public void progressUpdate(long progress, long total, Object... args) {
+    public synchronized void progressUpdate(long progress, long total, Object... args) {
         Instant now = Instant.now();
         float pct = 100f * progress / (total > 0 ? total : 1f);
         if (now.isAfter(lastProgressTime.plus(progressEvery)) || pct > (lastProgressPct + progressEveryPct)) {
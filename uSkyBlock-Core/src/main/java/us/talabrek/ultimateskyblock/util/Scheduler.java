@@ -1,18 +1,40 @@
 package us.talabrek.ultimateskyblock.util;
 
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 
 import static dk.lockfuglsang.minecraft.util.TimeUtil.durationAsTicks;
 
+/**
+ * Schedules tasks on the main thread and in the background.
+ * <p>
+ * Besides the Bukkit scheduler, background work can be submitted to a bounded executor per {@link Workload}, so
+ * blocking file access, score calculations and event dispatching don't compete for the same threads, and a burst of
+ * one kind of work is rejected instead of queueing up without limit. The executors are created on first use, and
+ * are shut down with the plugin.
+ */
+@Singleton
 public class Scheduler {
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
 
     private final Plugin plugin;
+    private final Map<Workload, BoundedExecutor> executors = new EnumMap<>(Workload.class);
+    private final AtomicLong rejected = new AtomicLong();
+    private boolean shutdown = false;
 
     @Inject
     public Scheduler(@NotNull Plugin plugin) {
@@ -42,4 +64,129 @@ public class Scheduler {
     public BukkitTask sync(Runnable runnable, Duration delay, Duration every) {
         return Bukkit.getScheduler().runTaskTimer(plugin, runnable, durationAsTicks(delay), durationAsTicks(every));
     }
+
+    /**
+     * Runs the task on the executor of the workload.
+     *
+     * @param workload Kind of work the task does.
+     * @param runnable Task to run.
+     * @return Future completing with the task, or exceptionally with a {@link RejectedExecutionException} if the
+     * executor is saturated or shut down.
+     */
+    public CompletableFuture<Void> async(@NotNull Workload workload, @NotNull Runnable runnable) {
+        BoundedExecutor executor = getExecutor(workload);
+        if (executor == null) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(workload.key + " is shut down"));
+        }
+        CompletableFuture<Void> future = executor.submit(runnable);
+        future.whenComplete((ignored, e) -> {
+            if (e instanceof RejectedExecutionException && !executor.isShutdown() && rejected.getAndIncrement() % 1000 == 0) {
+                plugin.getLogger().warning("Rejected " + rejected.get() + " background task(s), the " + workload.key
+                    + " executor is saturated. Consider raising options.advanced.executors." + workload.key + ".queue");
+            } else if (e != null && !(e instanceof RejectedExecutionException) && !(e instanceof InterruptedException)
+                && !(e instanceof CancellationException)) {
+                plugin.getLogger().log(Level.WARNING, "Error in " + workload.key + " task", e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs the task on the executor of the workload, or with the Bukkit scheduler if the executor is saturated. For
+     * tasks that must not be lost, like those completing a callback.
+     *
+     * @param workload Kind of work the task does.
+     * @param runnable Task to run.
+     * @return Future completing with the task, or exceptionally with a {@link RejectedExecutionException} only if
+     * the scheduler has been shut down.
+     */
+    public CompletableFuture<Void> asyncOrFallback(@NotNull Workload workload, @NotNull Runnable runnable) {
+        return async(workload, runnable).exceptionallyCompose(e -> {
+            if (!(e instanceof RejectedExecutionException) || isShutdown()) {
+                return CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<Void> fallback = new CompletableFuture<>();
+            async(() -> {
+                try {
+                    runnable.run();
+                    fallback.complete(null);
+                } catch (RuntimeException ex) {
+                    fallback.completeExceptionally(ex);
+                }
+            });
+            return fallback;
+        });
+    }
+
+    /**
+     * @return The executor of the workload, or null once the scheduler has been shut down.
+     */
+    public synchronized BoundedExecutor getExecutor(@NotNull Workload workload) {
+        if (shutdown) {
+            return null;
+        }
+        return executors.computeIfAbsent(workload, this::createExecutor);
+    }
+
+    private synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    private BoundedExecutor createExecutor(Workload workload) {
+        ConfigurationSection config = plugin.getConfig().getConfigurationSection("options.advanced.executors." + workload.key);
+        int threads = config != null ? config.getInt("threads", workload.threads) : workload.threads;
+        int queue = config != null ? config.getInt("queue", workload.queue) : workload.queue;
+        boolean virtual = config != null ? config.getBoolean("virtual", workload.virtual) : workload.virtual;
+        return new BoundedExecutor(workload.key, Math.max(1, threads), Math.max(0, queue), virtual);
+    }
+
+    /**
+     * Shuts down the executors, after waiting for the tasks already accepted. Tasks submitted afterwards are
+     * rejected. Tasks scheduled with the Bukkit scheduler are cancelled by Bukkit.
+     */
+    public void shutdown() {
+        Map<Workload, BoundedExecutor> running;
+        synchronized (this) {
+            shutdown = true;
+            running = new EnumMap<>(executors);
+            executors.clear();
+        }
+        for (Map.Entry<Workload, BoundedExecutor> entry : running.entrySet()) {
+            if (!entry.getValue().shutdown(SHUTDOWN_TIMEOUT)) {
+                plugin.getLogger().warning("Interrupted " + entry.getKey().key + " tasks still running after "
+                    + SHUTDOWN_TIMEOUT.toSeconds() + " seconds");
+            }
+        }
+    }
+
+    /**
+     * Kinds of background work, each with its own executor. The defaults can be changed in
+     * {@code options.advanced.executors.<key>}.
+     */
+    public enum Workload {
+        /**
+         * Blocking file access, like loading and saving players and islands.
+         */
+        IO("io", 16, 1024, true),
+        /**
+         * CPU bound work, like calculating island scores.
+         */
+        SCORING("scoring", Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 256, false),
+        /**
+         * Dispatching API events to other plugins.
+         */
+        EVENTS("events", 2, 4096, false);
+
+        private final String key;
+        private final int threads;
+        private final int queue;
+        private final boolean virtual;
+
+        Workload(String key, int threads, int queue, boolean virtual) {
+            this.key = key;
+            this.threads = threads;
+            this.queue = queue;
+            this.virtual = virtual;
+        }
+    }
 }
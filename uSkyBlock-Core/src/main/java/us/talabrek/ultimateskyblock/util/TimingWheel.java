@@ -0,0 +1,223 @@
+package us.talabrek.ultimateskyblock.util;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel for expiring things like cooldowns, invites and reservations, driven by a single repeating
+ * task instead of one scheduled task per expiration.
+ * <p>
+ * Expirations are hashed into a fixed number of slots by their deadline tick, and kept in a doubly linked list per
+ * slot, so scheduling and cancelling are O(1). On each tick, only the slot of that tick is visited. Expirations
+ * further ahead than one revolution of the wheel simply stay in their slot until their deadline is reached.
+ * <p>
+ * The wheel follows the {@link Clock}, so expired tasks run on the first {@link #advance()} at or after their
+ * deadline (within the tick resolution), and never before it. Tasks are run on the main thread.
+ */
+@Singleton
+public class TimingWheel {
+    private static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    private static final int DEFAULT_SLOTS = 512;
+
+    private final Clock clock;
+    private final Logger logger;
+    private final long tickMillis;
+    private final long startMillis;
+    private final Slot[] slots;
+    private final int mask;
+    private final BukkitTask tickTask;
+    // The last tick that has been processed
+    private long tick = 0;
+    private int size = 0;
+
+    @Inject
+    public TimingWheel(@NotNull Clock clock, @NotNull Scheduler scheduler, @NotNull Logger logger) {
+        this(clock, scheduler, logger, DEFAULT_TICK, DEFAULT_SLOTS);
+    }
+
+    TimingWheel(@NotNull Clock clock, @NotNull Scheduler scheduler, @NotNull Logger logger, @NotNull Duration tickDuration, int slotCount) {
+        if (tickDuration.toMillis() <= 0 || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("The tick must be positive, and the number of slots a power of two");
+        }
+        this.clock = clock;
+        this.logger = logger;
+        this.tickMillis = tickDuration.toMillis();
+        this.startMillis = clock.millis();
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = slotCount - 1;
+        this.tickTask = scheduler.sync(this::advance, tickDuration, tickDuration);
+    }
+
+    /**
+     * Schedules the task to run once the delay has passed.
+     *
+     * @param delay Delay before the task runs.
+     * @param task  Task to run.
+     * @return Handle for cancelling the task.
+     */
+    public @NotNull Timeout schedule(@NotNull Duration delay, @NotNull Runnable task) {
+        long deadlineMillis = clock.millis() + Math.max(0, delay.toMillis()) - startMillis;
+        // Round up, so the task never runs early
+        long deadline = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Timeout timeout = new Timeout(this, task);
+        synchronized (this) {
+            timeout.deadline = Math.max(deadline, tick + 1);
+            slots[(int) (timeout.deadline & mask)].add(timeout);
+            size++;
+        }
+        return timeout;
+    }
+
+    /**
+     * Runs the tasks that have expired since the last call. Called every tick by the wheel's own task.
+     */
+    public void advance() {
+        List<Timeout> expired = new ArrayList<>();
+        synchronized (this) {
+            long target = Math.floorDiv(clock.millis() - startMillis, tickMillis);
+            if (target - tick >= slots.length) {
+                // More than a full revolution behind, visit every slot once
+                for (Slot slot : slots) {
+                    expire(slot, target, expired);
+                }
+                tick = target;
+            }
+            while (tick < target) {
+                tick++;
+                expire(slots[(int) (tick & mask)], tick, expired);
+            }
+        }
+        for (Timeout timeout : expired) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Error running expired task", e);
+            }
+        }
+    }
+
+    private void expire(Slot slot, long now, List<Timeout> expired) {
+        Timeout timeout = slot.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadline <= now) {
+                slot.remove(timeout);
+                size--;
+                timeout.state = Timeout.EXPIRED;
+                expired.add(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Gets the number of scheduled tasks that have neither run nor been cancelled.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+        }
+        synchronized (this) {
+            for (Slot slot : slots) {
+                while (slot.head != null) {
+                    slot.head.state = Timeout.CANCELLED;
+                    slot.remove(slot.head);
+                }
+            }
+            size = 0;
+        }
+    }
+
+    private synchronized boolean cancel(Timeout timeout) {
+        if (timeout.state != Timeout.PENDING) {
+            return false;
+        }
+        slots[(int) (timeout.deadline & mask)].remove(timeout);
+        size--;
+        timeout.state = Timeout.CANCELLED;
+        return true;
+    }
+
+    /**
+     * A task scheduled on the wheel.
+     */
+    public static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private long deadline;
+        private int state = PENDING;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Runnable task) {
+            this.wheel = wheel;
+            this.task = task;
+        }
+
+        /**
+         * Cancels the task, unless it has already run.
+         *
+         * @return True if the task was cancelled by this call.
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        public boolean isExpired() {
+            synchronized (wheel) {
+                return state == EXPIRED;
+            }
+        }
+
+        public boolean isCancelled() {
+            synchronized (wheel) {
+                return state == CANCELLED;
+            }
+        }
+    }
+
+    private static final class Slot {
+        private Timeout head;
+
+        void add(Timeout timeout) {
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
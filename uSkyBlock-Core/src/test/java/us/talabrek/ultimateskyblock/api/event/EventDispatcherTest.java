@@ -0,0 +1,263 @@
+package us.talabrek.ultimateskyblock.api.event;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Test;
+import us.talabrek.ultimateskyblock.api.async.Callback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class EventDispatcherTest {
+    private static final Logger LOGGER = Logger.getLogger(EventDispatcherTest.class.getName());
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFifoPerIsland() throws Exception {
+        Map<String, List<Integer>> fired = new ConcurrentHashMap<>();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        EventDispatcher dispatcher = new EventDispatcher(executor, 4, 100_000, event -> {
+            TestEvent e = (TestEvent) event;
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            fired.computeIfAbsent(e.island, k -> new CopyOnWriteArrayList<>()).add(e.sequence);
+            concurrent.decrementAndGet();
+        }, LOGGER);
+
+        // Each island has its own producer thread, and the producers run concurrently
+        int islands = 20;
+        int events = 2000;
+        ExecutorService producers = Executors.newFixedThreadPool(islands);
+        CountDownLatch done = new CountDownLatch(islands);
+        for (int i = 0; i < islands; i++) {
+            String island = i + ",0";
+            producers.execute(() -> {
+                for (int seq = 0; seq < events; seq++) {
+                    dispatcher.dispatch(island, new TestEvent(island, seq));
+                }
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        producers.shutdown();
+        awaitIdle(dispatcher);
+
+        assertThat(fired.size(), is(islands));
+        for (Map.Entry<String, List<Integer>> entry : fired.entrySet()) {
+            List<Integer> sequence = entry.getValue();
+            assertThat(entry.getKey(), sequence.size(), is(events));
+            for (int seq = 0; seq < events; seq++) {
+                assertThat(entry.getKey(), sequence.get(seq), is(seq));
+            }
+        }
+        assertThat(maxConcurrent.get(), lessThanOrEqualTo(4));
+        assertThat(dispatcher.getFired(), is((long) islands * events));
+        assertThat(dispatcher.getDropped(), is(0L));
+        assertThat(dispatcher.getQueuedIslands(), is(0));
+    }
+
+    @Test
+    public void testBoundedUnderFlood() throws Exception {
+        int capacity = 1000;
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger firedCount = new AtomicInteger();
+        EventDispatcher dispatcher = new EventDispatcher(executor, 2, capacity, event -> {
+            await(release);
+            firedCount.incrementAndGet();
+        }, LOGGER);
+
+        int maxQueued = 0;
+        int maxIslands = 0;
+        for (int i = 0; i < 100_000; i++) {
+            String island = (i % 100) + ",0";
+            Event event = i % 3 == 0 ? scoreEvent() : new TestEvent(island, i);
+            dispatcher.dispatch(island, event);
+            maxQueued = Math.max(maxQueued, dispatcher.getQueued());
+            maxIslands = Math.max(maxIslands, dispatcher.getQueuedIslands());
+        }
+        assertThat(maxQueued, lessThanOrEqualTo(capacity));
+        assertThat(maxIslands, lessThanOrEqualTo(100));
+        assertThat(dispatcher.getDropped(), greaterThan(0L));
+        assertThat(dispatcher.getCoalesced(), greaterThan(0L));
+
+        release.countDown();
+        awaitIdle(dispatcher);
+        assertThat(dispatcher.getDispatched(), is(100_000L));
+        assertThat(dispatcher.getFired() + dispatcher.getCoalesced() + dispatcher.getDropped(), is(100_000L));
+        assertThat((long) firedCount.get(), is(dispatcher.getFired()));
+    }
+
+    @Test
+    public void testSupersededScoreEventsAreCoalesced() throws Exception {
+        List<Event> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        TestEvent gate = new TestEvent("gate", 0);
+        // A single worker, held up by the gate until all events are queued
+        EventDispatcher dispatcher = new EventDispatcher(executor, 1, 100, blockOn(gate, release, fired::add), LOGGER);
+        dispatcher.dispatch("gate", gate);
+
+        Event score1 = scoreEvent();
+        Event joined = new TestEvent("0,0", 1);
+        Event score2 = scoreEvent();
+        Event score3 = scoreEvent();
+        Event other = scoreEvent();
+        dispatcher.dispatch("0,0", score1);
+        dispatcher.dispatch("0,0", joined);
+        dispatcher.dispatch("0,0", score2);
+        dispatcher.dispatch("0,0", score3);
+        dispatcher.dispatch("128,0", other);
+        assertThat(dispatcher.getCoalesced(), is(2L));
+
+        release.countDown();
+        awaitIdle(dispatcher);
+        // The newest score comes after the events that happened before it
+        assertThat(fired, contains(gate, joined, score3, other));
+        assertThat(dispatcher.getFired(), is(4L));
+    }
+
+    @Test
+    public void testShutdownDropsNewEventsAndFiresQueued() throws Exception {
+        List<Event> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        TestEvent gate = new TestEvent("gate", 0);
+        EventDispatcher dispatcher = new EventDispatcher(executor, 1, 100, blockOn(gate, release, fired::add), LOGGER);
+        dispatcher.dispatch("gate", gate);
+        TestEvent queued = new TestEvent("0,0", 1);
+        dispatcher.dispatch("0,0", queued);
+
+        dispatcher.shutdown();
+        assertThat(dispatcher.dispatch("0,0", new TestEvent("0,0", 2)), is(false));
+        release.countDown();
+        awaitIdle(dispatcher);
+        assertThat(fired, contains(gate, queued));
+        assertThat(dispatcher.getDropped(), is(1L));
+    }
+
+    @Test
+    public void testCallbackEventsAreNeverDropped() throws Exception {
+        List<Event> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        TestEvent gate = new TestEvent("gate", 0);
+        EventDispatcher dispatcher = new EventDispatcher(executor, 1, 2, blockOn(gate, release, fired::add), LOGGER);
+        dispatcher.dispatch("gate", gate);
+        // Wait for the worker to take the gate, so it no longer counts as queued
+        while (dispatcher.getQueued() > 0) {
+            Thread.sleep(5);
+        }
+        assertThat(dispatcher.dispatch("0,0", new TestEvent("0,0", 1)), is(true));
+        assertThat(dispatcher.dispatch("0,0", new TestEvent("0,0", 2)), is(true));
+        assertThat(dispatcher.dispatch("0,0", new TestEvent("0,0", 3)), is(false));
+
+        // The queue is full, but the info event is queued anyway
+        IslandInfoEvent info = new IslandInfoEvent(null, null, null);
+        assertThat(dispatcher.dispatch("0,0", info), is(true));
+        assertThat(dispatcher.getQueued(), is(3));
+
+        release.countDown();
+        awaitIdle(dispatcher);
+        assertThat(fired.contains(info), is(true));
+        assertThat(dispatcher.getDropped(), is(1L));
+    }
+
+    @Test
+    public void testCallbackIsCompletedAfterShutdown() throws Exception {
+        List<Event> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        TestEvent gate = new TestEvent("gate", 0);
+        EventDispatcher dispatcher = new EventDispatcher(executor, 1, 100, blockOn(gate, release, fired::add), LOGGER);
+        dispatcher.dispatch("gate", gate);
+        dispatcher.shutdown();
+
+        AtomicInteger completed = new AtomicInteger();
+        IslandInfoEvent info = new IslandInfoEvent(null, null, new Callback<>() {
+            @Override
+            public void run() {
+                completed.incrementAndGet();
+            }
+        });
+        assertThat(dispatcher.dispatch("0,0", info), is(false));
+        assertThat(completed.get(), is(1));
+
+        release.countDown();
+        awaitIdle(dispatcher);
+        assertThat(fired, contains(gate));
+    }
+
+    private static Consumer<Event> blockOn(Event gate, CountDownLatch release, Consumer<Event> next) {
+        return event -> {
+            if (event == gate) {
+                await(release);
+            }
+            next.accept(event);
+        };
+    }
+
+    private static uSkyBlockScoreChangedEvent scoreEvent() {
+        return new uSkyBlockScoreChangedEvent(null, null, null, null);
+    }
+
+    private static void awaitIdle(EventDispatcher dispatcher) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!dispatcher.isIdle()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Events were not fired in time, " + dispatcher.getQueued() + " still queued");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class TestEvent extends Event {
+        private static final HandlerList handlers = new HandlerList();
+
+        private final String island;
+        private final int sequence;
+
+        TestEvent(String island, int sequence) {
+            super(true);
+            this.island = island;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public @NotNull HandlerList getHandlers() {
+            return handlers;
+        }
+
+        @Override
+        public String toString() {
+            return "TestEvent{" + island + "#" + sequence + "}";
+        }
+    }
+}
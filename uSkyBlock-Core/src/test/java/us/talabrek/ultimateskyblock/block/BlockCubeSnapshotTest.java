@@ -0,0 +1,101 @@
+package us.talabrek.ultimateskyblock.block;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BlockCubeSnapshotTest {
+    private static final Material[] PALETTE = {
+        Material.AIR, Material.AIR, Material.AIR, Material.STONE, Material.DIRT,
+        Material.GRASS_BLOCK, Material.COBBLESTONE, Material.WATER, Material.OAK_LOG, Material.MELON
+    };
+
+    // Synthetic, deterministic world content
+    private static Material typeAt(int x, int y, int z) {
+        int hash = (x * 73856093) ^ (y * 19349663) ^ (z * 83492791);
+        return PALETTE[Math.floorMod(hash, PALETTE.length)];
+    }
+
+    @Test
+    public void testCountMatchesSynchronousScan() {
+        Set<Material> required = EnumSet.of(Material.STONE, Material.COBBLESTONE, Material.MELON, Material.OAK_LOG);
+        int[][] centers = {{0, 100, 0}, {7, 64, -9}, {-16, 70, 15}, {31, 5, 32}, {-1, 200, -1}};
+        for (int radius : new int[]{0, 1, 5, 10, 17}) {
+            for (int[] center : centers) {
+                int px = center[0];
+                int py = center[1];
+                int pz = center[2];
+                BlockCollection expected = scanSynchronously(px, py, pz, radius);
+                BlockCollection actual = snapshotOf(px, py, pz, radius).count(required);
+                for (Material material : required) {
+                    assertThat(material + " at " + px + "," + py + "," + pz + " r=" + radius,
+                        actual.getCount(material), is(expected.getCount(material)));
+                }
+                assertThat(actual.getCount(Material.DIRT), is(0));
+            }
+        }
+    }
+
+    @Test
+    public void testCountWithoutMaterials() {
+        BlockCollection actual = snapshotOf(0, 100, 0, 3).count(EnumSet.noneOf(Material.class));
+        assertThat(actual.getCount(Material.STONE), is(0));
+    }
+
+    @Test
+    public void testMissingChunkIsSkipped() {
+        BlockCubeSnapshot snapshot = new BlockCubeSnapshot(new HashMap<>(), -5, 95, -5, 5, 105, 5);
+        assertThat(snapshot.count(EnumSet.of(Material.STONE)).getCount(Material.STONE), is(0));
+    }
+
+    // The synchronous getBlockAt scan previously used by ChallengeLogic.islandContains
+    private static BlockCollection scanSynchronously(int px, int py, int pz, int radius) {
+        int[] current = new int[3];
+        Block block = mock(Block.class);
+        when(block.getType()).thenAnswer(i -> typeAt(current[0], current[1], current[2]));
+        World world = mock(World.class);
+        when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenAnswer(i -> {
+            current[0] = i.getArgument(0);
+            current[1] = i.getArgument(1);
+            current[2] = i.getArgument(2);
+            return block;
+        });
+        BlockCollection blockCollection = new BlockCollection();
+        for (int x = px - radius; x <= px + radius; x++) {
+            for (int y = py - radius; y <= py + radius; y++) {
+                for (int z = pz - radius; z <= pz + radius; z++) {
+                    blockCollection.add(world.getBlockAt(x, y, z));
+                }
+            }
+        }
+        return blockCollection;
+    }
+
+    private static BlockCubeSnapshot snapshotOf(int px, int py, int pz, int radius) {
+        Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+        for (int cx = (px - radius) >> 4; cx <= (px + radius) >> 4; cx++) {
+            for (int cz = (pz - radius) >> 4; cz <= (pz + radius) >> 4; cz++) {
+                final int baseX = cx << 4;
+                final int baseZ = cz << 4;
+                ChunkSnapshot snapshot = mock(ChunkSnapshot.class);
+                when(snapshot.getBlockType(anyInt(), anyInt(), anyInt())).thenAnswer(i ->
+                    typeAt(baseX + (int) i.getArgument(0), i.getArgument(1), baseZ + (int) i.getArgument(2)));
+                snapshots.put(BlockCubeSnapshot.chunkKey(cx, cz), snapshot);
+            }
+        }
+        return new BlockCubeSnapshot(snapshots, px - radius, py - radius, pz - radius, px + radius, py + radius, pz + radius);
+    }
+}
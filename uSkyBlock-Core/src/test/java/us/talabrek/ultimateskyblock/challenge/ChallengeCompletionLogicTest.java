@@ -0,0 +1,122 @@
+package us.talabrek.ultimateskyblock.challenge;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChallengeCompletionLogicTest {
+    private static final Instant COOLDOWN = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File dataFolder;
+    private File completionFolder;
+
+    @Before
+    public void setUp() throws Exception {
+        dataFolder = tempFolder.newFolder();
+        completionFolder = new File(dataFolder, "completion");
+        completionFolder.mkdirs();
+        YamlConfiguration yml = new YamlConfiguration();
+        yml.set("cobblestonegenerator.firstCompleted", COOLDOWN.toEpochMilli());
+        yml.set("cobblestonegenerator.timesCompleted", 3);
+        yml.set("cobblestonegenerator.timesCompletedSinceTimer", 2);
+        yml.set("removedchallenge.timesCompleted", 1);
+        yml.save(new File(completionFolder, "0,0.yml"));
+    }
+
+    @Test
+    public void testYmlIsRewrittenAsBinaryOnSave() {
+        ChallengeCompletionLogic logic = createLogic("binary");
+        assertCompletions(logic.getIslandChallenges("0,0"));
+        assertThat(new File(completionFolder, "0,0.dat").exists(), is(false));
+
+        logic.flushCache();
+
+        assertThat(new File(completionFolder, "0,0.dat").exists(), is(true));
+        assertThat(new File(completionFolder, "0,0.yml").exists(), is(false));
+        assertCompletions(createLogic("binary").getIslandChallenges("0,0"));
+    }
+
+    @Test
+    public void testBinaryIsReadWhenBackOnYml() {
+        ChallengeCompletionLogic logic = createLogic("binary");
+        logic.getIslandChallenges("0,0");
+        logic.flushCache();
+
+        logic = createLogic("yml");
+        assertCompletions(logic.getIslandChallenges("0,0"));
+        logic.flushCache();
+
+        assertThat(new File(completionFolder, "0,0.dat").exists(), is(false));
+        assertThat(new File(completionFolder, "0,0.yml").exists(), is(true));
+        assertCompletions(createLogic("yml").getIslandChallenges("0,0"));
+    }
+
+    @Test
+    public void testUnreadableBinaryIsKeptAndYmlIsRead() throws Exception {
+        File binary = new File(completionFolder, "0,0.dat");
+        byte[] garbage = {'U', 'S', 'B', 'C', 99, 1, 2, 3};
+        Files.write(binary.toPath(), garbage);
+        binary.setLastModified(new File(completionFolder, "0,0.yml").lastModified() + 1000);
+
+        ChallengeCompletionLogic logic = createLogic("binary");
+        assertCompletions(logic.getIslandChallenges("0,0"));
+
+        File kept = new File(completionFolder, "0,0.dat.err");
+        assertThat(kept.exists(), is(true));
+        assertThat(Files.readAllBytes(kept.toPath()), is(garbage));
+    }
+
+    private static void assertCompletions(Map<String, ChallengeCompletion> completions) {
+        assertThat(completions.keySet(), is(Set.of("cobblestonegenerator", "builder")));
+        ChallengeCompletion completion = completions.get("cobblestonegenerator");
+        assertThat(completion.cooldownUntil(), is(COOLDOWN));
+        assertThat(completion.getTimesCompleted(), is(3));
+        assertThat(completion.getTimesCompletedInCooldown(), is(2));
+        assertThat(completions.get("builder").cooldownUntil(), nullValue());
+        assertThat(completions.get("builder").getTimesCompleted(), is(0));
+    }
+
+    private ChallengeCompletionLogic createLogic(String dataFormat) {
+        uSkyBlock plugin = mock(uSkyBlock.class);
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("options.advanced.dataFormat", dataFormat);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger(ChallengeCompletionLogicTest.class.getName()));
+        ChallengeLogic challengeLogic = mock(ChallengeLogic.class);
+        doAnswer(invocation -> {
+            Map<String, ChallengeCompletion> challengeMap = invocation.getArgument(0);
+            for (String name : List.of("cobblestonegenerator", "builder")) {
+                challengeMap.putIfAbsent(name, new ChallengeCompletion(name, null, 0, 0));
+            }
+            return null;
+        }).when(challengeLogic).populateChallenges(any());
+        when(plugin.getChallengeLogic()).thenReturn(challengeLogic);
+
+        YamlConfiguration challengesConfig = new YamlConfiguration();
+        challengesConfig.set("challengeSharing", "island");
+        return new ChallengeCompletionLogic(plugin, challengesConfig, new ChallengeMenuCache());
+    }
+}
@@ -0,0 +1,195 @@
+package us.talabrek.ultimateskyblock.challenge;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static dk.lockfuglsang.minecraft.util.FormatUtil.stripFormatting;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChallengeIndexTest {
+    // 100 ranks of varying size, 5000 challenges in total
+    private static final int[] RANK_SIZES = {5, 15, 30, 50, 150};
+    private static final int RANKS = 100;
+
+    private static List<Rank> ranks;
+    private static List<Challenge> challenges;
+    private static ChallengeIndex index;
+
+    @BeforeClass
+    public static void beforeAll() {
+        Random rnd = new Random(42);
+        ranks = new ArrayList<>();
+        challenges = new ArrayList<>();
+        for (int r = 0; r < RANKS; r++) {
+            int size = RANK_SIZES[r % RANK_SIZES.length];
+            List<Challenge> rankChallenges = new ArrayList<>();
+            for (int c = 0; c < size; c++) {
+                String name = "rank" + r + "challenge" + c;
+                Challenge challenge = mock(Challenge.class);
+                when(challenge.getName()).thenReturn(name);
+                when(challenge.getDisplayName()).thenReturn("§9Rank " + r + " §aChallenge " + c);
+                when(challenge.getOffset()).thenReturn(rnd.nextInt(10) == 0 ? rnd.nextInt(3) : 0);
+                rankChallenges.add(challenge);
+            }
+            Rank rank = mock(Rank.class);
+            when(rank.getChallenges()).thenReturn(rankChallenges);
+            ranks.add(rank);
+            challenges.addAll(rankChallenges);
+        }
+        index = new ChallengeIndex(ranks);
+        assertThat(challenges.size(), is(5000));
+    }
+
+    @Test
+    public void testLookupMatchesLinearScan() {
+        List<String> terms = new ArrayList<>();
+        for (Challenge challenge : challenges) {
+            terms.add(challenge.getName());
+            terms.add(challenge.getName().toUpperCase());
+            terms.add(stripFormatting(challenge.getDisplayName()));
+        }
+        terms.add("rank99challenge1");
+        terms.add("rank7challenge");
+        terms.add("rank0challenge10");
+        terms.add("rank1");
+        terms.add("nosuchchallenge");
+        terms.add("");
+        for (String term : terms) {
+            assertThat(term, index.getChallenge(term), sameInstance(getChallengeLinear(term)));
+        }
+    }
+
+    @Test
+    public void testLookupDoesNotScanChallenges() {
+        Mockito.clearInvocations(challenges.toArray());
+        for (int i = 0; i < 10_000; i++) {
+            Challenge challenge = index.getChallenge("rank" + (i % RANKS) + "challenge0");
+            assertThat(challenge, sameInstance(challenges.get(indexOf(i % RANKS))));
+        }
+        Mockito.verifyNoInteractions(challenges.toArray());
+    }
+
+    @Test
+    public void testPartialMatch() {
+        assertThat(index.getChallenge("rank12challenge0"), sameInstance(ranks.get(12).getChallenges().get(0)));
+        assertThat(index.getChallenge("rank12challeng"), nullValue());
+        assertThat(index.getChallenge(null), nullValue());
+    }
+
+    @Test
+    public void testComplete() {
+        assertThat(index.complete("RANK42CHALLENGE1"), is(expectedCompletions("rank42challenge1")));
+        assertThat(index.complete("rank3"), is(expectedCompletions("rank3")));
+        assertThat(index.complete("x"), is(empty()));
+        assertThat(index.complete("").size(), is(challenges.size()));
+    }
+
+    @Test
+    public void testPagingMatchesLegacy() {
+        int totalPages = (int) Math.ceil(1f * calculateRowsLegacy(ranks) / ChallengeLogic.ROWS_OF_RANKS);
+        assertThat(index.getTotalPages(), is(totalPages));
+        for (int page = 1; page <= totalPages + 2; page++) {
+            assertThat("page " + page, index.getRanksForPage(page), is(getRanksForPageLegacy(page, new ArrayList<>(ranks))));
+        }
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        ChallengeIndex empty = new ChallengeIndex(List.of());
+        assertThat(empty.getTotalPages(), is(0));
+        assertThat(empty.getRanksForPage(1), is(empty()));
+        assertThat(empty.getChallenge("any"), nullValue());
+        assertThat(empty.complete(""), is(empty()));
+    }
+
+    private static int indexOf(int rank) {
+        int offset = 0;
+        for (int r = 0; r < rank; r++) {
+            offset += ranks.get(r).getChallenges().size();
+        }
+        return offset;
+    }
+
+    private static List<String> expectedCompletions(String prefix) {
+        List<String> expected = new ArrayList<>();
+        for (Challenge challenge : challenges) {
+            if (challenge.getName().startsWith(prefix)) {
+                expected.add(challenge.getName());
+            }
+        }
+        expected.sort(null);
+        return expected;
+    }
+
+    // The linear scan previously used by ChallengeLogic.getChallenge
+    private static Challenge getChallengeLinear(String challengeName) {
+        List<Challenge> partialMatch = new ArrayList<>();
+        for (Rank rank : ranks) {
+            for (Challenge challenge : rank.getChallenges()) {
+                if (challenge.getName().equalsIgnoreCase(challengeName)) {
+                    return challenge;
+                } else if (stripFormatting(challenge.getDisplayName()).equalsIgnoreCase(challengeName)) {
+                    return challenge;
+                } else if (challenge.getName().startsWith(challengeName)) {
+                    partialMatch.add(challenge);
+                }
+            }
+        }
+        if (partialMatch.size() == 1) {
+            return partialMatch.get(0);
+        }
+        return null;
+    }
+
+    // The paging previously used by ChallengeLogic.populateChallengeRank
+    private static List<Rank> getRanksForPageLegacy(int page, List<Rank> ranksOnPage) {
+        int rowsToSkip = (page - 1) * ChallengeLogic.ROWS_OF_RANKS;
+        List<Rank> allRanks = new ArrayList<>(ranksOnPage);
+
+        int i = 1;
+        for (Iterator<Rank> it = ranksOnPage.iterator(); it.hasNext(); i++) {
+            it.next();
+            int rowsInRanks = calculateRowsLegacy(allRanks.subList(0, i));
+            if (rowsToSkip <= 0 || ((rowsToSkip - rowsInRanks) < 0)) {
+                return ranksOnPage;
+            }
+            it.remove();
+        }
+        return ranksOnPage;
+    }
+
+    private static int calculateRowsLegacy(List<Rank> ranksOnPage) {
+        int totalRows = 0;
+        int previousRowsOnPage = 0;
+        int currentRows;
+
+        for (Rank rank : ranksOnPage) {
+            int rankSize = 0;
+            for (Challenge challenge : rank.getChallenges()) {
+                rankSize += challenge.getOffset() + 1;
+            }
+            currentRows = (int) Math.ceil(rankSize / 8f);
+            totalRows += currentRows;
+
+            if (previousRowsOnPage < 5 && (currentRows + previousRowsOnPage) > 5) {
+                totalRows = totalRows + (5 - previousRowsOnPage);
+                previousRowsOnPage = currentRows;
+            } else {
+                previousRowsOnPage = previousRowsOnPage + currentRows;
+            }
+        }
+        return totalRows;
+    }
+}
@@ -0,0 +1,207 @@
+package us.talabrek.ultimateskyblock.challenge;
+
+import dk.lockfuglsang.minecraft.file.FileUtil;
+import dk.lockfuglsang.minecraft.po.I18nUtil;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import us.talabrek.ultimateskyblock.hook.HookManager;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
+import us.talabrek.ultimateskyblock.player.PerkLogic;
+import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChallengeMenuCacheTest {
+    private static final String CHALLENGE = "cobblestonegenerator";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private ChallengeMenuCache menuCache;
+    private ChallengeLogic challengeLogic;
+    private ChallengeCompletionLogic completionLogic;
+    private PlayerInfo playerInfo;
+    private Rank rank;
+    private Map<Integer, ItemStack> menuItems;
+    private AtomicInteger rendered;
+    private AtomicInteger requirementsComputed;
+
+    @Before
+    public void setUp() throws Exception {
+        menuCache = new ChallengeMenuCache();
+        rendered = new AtomicInteger();
+        requirementsComputed = new AtomicInteger();
+        menuItems = new HashMap<>();
+
+        File dataFolder = tempFolder.newFolder();
+        Files.writeString(dataFolder.toPath().resolve("challenges.yml"), """
+            version: 9999
+            challengeSharing: player
+            ranks: {}
+            """);
+        FileUtil.setDataFolder(dataFolder);
+
+        // Fills in the completions when the completion logic loads them
+        ChallengeLogic completions = mock(ChallengeLogic.class);
+        doAnswer(invocation -> {
+            Map<String, ChallengeCompletion> map = invocation.getArgument(0);
+            map.putIfAbsent(CHALLENGE, new ChallengeCompletion(CHALLENGE, null, 0, 0));
+            return null;
+        }).when(completions).populateChallenges(any());
+        when(completions.getResetDuration(anyString())).thenReturn(Duration.ZERO);
+
+        uSkyBlock plugin = mock(uSkyBlock.class);
+        when(plugin.getConfig()).thenReturn(new YamlConfiguration());
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getChallengeLogic()).thenReturn(completions);
+
+        challengeLogic = new ChallengeLogic(Logger.getLogger(ChallengeMenuCacheTest.class.getName()), plugin,
+            mock(PerkLogic.class), mock(HookManager.class), mock(Scheduler.class), new MetricsRegistry());
+        completionLogic = challengeLogic.completionLogic;
+
+        playerInfo = mock(PlayerInfo.class);
+        when(playerInfo.getHasIsland()).thenReturn(true);
+        when(playerInfo.locationForParty()).thenReturn("0,0");
+        when(playerInfo.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(playerInfo.getConfig()).thenReturn(new YamlConfiguration());
+        when(playerInfo.getChallenge(anyString())).thenAnswer(a -> completionLogic.getChallenge(playerInfo, a.getArgument(0)));
+
+        Challenge challenge = mock(Challenge.class);
+        when(challenge.getName()).thenReturn(CHALLENGE);
+        when(challenge.getMissingRequirements(playerInfo)).thenAnswer(a -> {
+            requirementsComputed.incrementAndGet();
+            return List.of();
+        });
+        when(challenge.getDisplayItem(any(ChallengeCompletion.class), anyBoolean())).thenAnswer(a -> {
+            rendered.incrementAndGet();
+            return createItem();
+        });
+        rank = mock(Rank.class);
+        when(rank.getChallenges()).thenReturn(List.of(challenge));
+        when(rank.getDisplayItem()).thenAnswer(a -> createItem());
+        when(rank.getMissingRequirements(playerInfo)).thenReturn(List.of());
+    }
+
+    @After
+    public void tearDown() {
+        I18nUtil.setLocale(null);
+        FileUtil.setDataFolder(null);
+    }
+
+    @Test
+    public void testItemRenderedOnlyWhenCompletionsChange() {
+        ItemStack first = openMenu();
+        for (int i = 0; i < 100; i++) {
+            assertThat(openMenu(), sameInstance(first));
+        }
+        assertThat(rendered.get(), is(1));
+
+        completionLogic.completeChallenge(playerInfo, CHALLENGE);
+        ItemStack second = openMenu();
+        for (int i = 0; i < 100; i++) {
+            assertThat(openMenu(), sameInstance(second));
+        }
+        assertThat(rendered.get(), is(2));
+
+        completionLogic.resetChallenge(playerInfo, CHALLENGE);
+        openMenu();
+        assertThat(rendered.get(), is(3));
+
+        completionLogic.flushCache();
+        openMenu();
+        assertThat(rendered.get(), is(4));
+    }
+
+    @Test
+    public void testLocaleChangeRendersAgain() {
+        ItemStack english = openMenu();
+        openMenu();
+        assertThat(rendered.get(), is(1));
+        assertThat(requirementsComputed.get(), is(1));
+
+        I18nUtil.setLocale(Locale.GERMAN);
+        ItemStack german = openMenu();
+        assertThat(german, not(sameInstance(english)));
+        assertThat(rendered.get(), is(2));
+        assertThat(requirementsComputed.get(), is(2));
+
+        I18nUtil.setLocale(Locale.ENGLISH);
+        assertThat(openMenu(), sameInstance(english));
+        assertThat(requirementsComputed.get(), is(2));
+    }
+
+    @Test
+    public void testInvalidateOnlyAffectsOwner() {
+        ChallengeMenuCache.ItemKey key = new ChallengeMenuCache.ItemKey(CHALLENGE, 0, 0, 0, false, false, Locale.ENGLISH);
+        menuCache.getItem("a", key, this::render);
+        menuCache.getItem("b", key, this::render);
+        menuCache.invalidate("a");
+        menuCache.getItem("a", key, this::render);
+        menuCache.getItem("b", key, this::render);
+        assertThat(rendered.get(), is(3));
+        assertThat(menuCache.size(), is(2));
+    }
+
+    @Test
+    public void testMissingRequirementsCachedUntilInvalidated() {
+        AtomicInteger computed = new AtomicInteger();
+        Object subject = new Object();
+        for (int i = 0; i < 10; i++) {
+            assertThat(menuCache.getMissingRequirements("a", subject, Locale.ENGLISH, () -> List.of("req" + computed.incrementAndGet())), is(List.of("req1")));
+        }
+        assertThat(menuCache.getMissingRequirements("a", subject, Locale.GERMAN, () -> List.of("req" + computed.incrementAndGet())), is(List.of("req2")));
+        menuCache.invalidate("a");
+        assertThat(menuCache.getMissingRequirements("a", subject, Locale.ENGLISH, () -> List.of("req" + computed.incrementAndGet())), is(List.of("req3")));
+    }
+
+    private ItemStack openMenu() {
+        Inventory menu = mock(Inventory.class);
+        doAnswer(a -> menuItems.put(a.getArgument(0), a.getArgument(1))).when(menu).setItem(anyInt(), any());
+        challengeLogic.populateChallengeRank(menu, rank, 0, playerInfo, false);
+        return menuItems.get(1);
+    }
+
+    private ItemStack render() {
+        rendered.incrementAndGet();
+        return createItem();
+    }
+
+    private static ItemStack createItem() {
+        ItemMeta meta = mock(ItemMeta.class);
+        when(meta.getLore()).thenAnswer(a -> new ArrayList<>());
+        ItemStack item = mock(ItemStack.class);
+        when(item.getItemMeta()).thenReturn(meta);
+        return item;
+    }
+}
@@ -0,0 +1,238 @@
+package us.talabrek.ultimateskyblock.chat;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import us.talabrek.ultimateskyblock.PluginConfig;
+import us.talabrek.ultimateskyblock.Settings;
+import us.talabrek.ultimateskyblock.api.event.MemberJoinedEvent;
+import us.talabrek.ultimateskyblock.api.event.MemberLeftEvent;
+import us.talabrek.ultimateskyblock.handler.placeholder.PlaceholderHandler;
+import us.talabrek.ultimateskyblock.island.IslandInfo;
+import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.uuid.PlayerDB;
+import us.talabrek.ultimateskyblock.world.WorldManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static us.talabrek.ultimateskyblock.api.event.IslandChatEvent.Type;
+
+public class ChatLogicTest {
+    private static final int PLAYERS = 1000;
+    private static final int ISLANDS = 50;
+    private static final int DISTANCE = 128;
+
+    private World world;
+    private uSkyBlock plugin;
+    private ChatRecipients recipients;
+    private ChatLogic chatLogic;
+    private List<Player> players;
+    private List<Runnable> scheduled;
+
+    @Before
+    public void setUp() {
+        Settings.island_distance = DISTANCE;
+        Settings.island_radius = DISTANCE / 2;
+        world = mock(World.class);
+        WorldManager worldManager = mock(WorldManager.class);
+        when(worldManager.isSkyWorld(world)).thenReturn(true);
+
+        plugin = mock(uSkyBlock.class);
+        when(plugin.getIslandInfo(anyString())).thenReturn(mock(IslandInfo.class));
+        PlayerDB playerDB = mock(PlayerDB.class);
+        when(plugin.getPlayerDB()).thenReturn(playerDB);
+
+        players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            Player player = mock(Player.class);
+            when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+            when(player.getDisplayName()).thenReturn("player" + i);
+            when(player.isOnline()).thenReturn(true);
+            when(player.getLocation()).thenReturn(onIsland(i % ISLANDS));
+            PlayerInfo playerInfo = mock(PlayerInfo.class);
+            when(playerInfo.getHasIsland()).thenReturn(true);
+            when(playerInfo.locationForParty()).thenReturn(islandName(i % ISLANDS));
+            when(plugin.getPlayerInfo(player)).thenReturn(playerInfo);
+            when(playerDB.getPlayer(player.getUniqueId())).thenReturn(player);
+            players.add(player);
+        }
+
+        PluginConfig config = mock(PluginConfig.class);
+        when(config.getYamlConfig()).thenReturn(new YamlConfiguration());
+        PlaceholderHandler placeholderHandler = mock(PlaceholderHandler.class);
+        when(placeholderHandler.replacePlaceholders(any(), anyString())).thenAnswer(invocation -> invocation.getArgument(1));
+        scheduled = new ArrayList<>();
+        Scheduler scheduler = mock(Scheduler.class);
+        doAnswer(invocation -> scheduled.add(invocation.getArgument(0))).when(scheduler).sync(any(Runnable.class));
+
+        recipients = new ChatRecipients(plugin, worldManager);
+        chatLogic = new ChatLogic(config, recipients, placeholderHandler, scheduler);
+        recipients.indexOnlinePlayers(players);
+        clearInvocations(players.toArray());
+    }
+
+    @Test
+    public void testIslandChatOnlyTouchesRecipients() {
+        Player sender = players.get(0);
+        for (int i = 0; i < 100; i++) {
+            chatLogic.sendMessage(sender, Type.ISLAND, "message " + i);
+        }
+        assertThat(scheduled.size(), is(1));
+        runScheduled();
+
+        for (int i = 0; i < PLAYERS; i++) {
+            Player player = players.get(i);
+            if (i % ISLANDS == 0) {
+                ArgumentCaptor<String[]> messages = ArgumentCaptor.forClass(String[].class);
+                verify(player).sendMessage(messages.capture());
+                assertThat(messages.getValue().length, is(100));
+                assertThat(messages.getValue()[99], is("§9SKY §rplayer0 §f>§b message 99"));
+            } else {
+                verifyNoInteractions(player);
+            }
+        }
+        verify(world, never()).getPlayers();
+    }
+
+    @Test
+    public void testPlaceholdersOnlyReplacedInFormat() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("options.island.chat-format", "&9SKY [{usb_island_level}] {DISPLAYNAME} &f>&b {MESSAGE}");
+        PluginConfig config = mock(PluginConfig.class);
+        when(config.getYamlConfig()).thenReturn(yaml);
+        PlaceholderHandler placeholderHandler = mock(PlaceholderHandler.class);
+        when(placeholderHandler.replacePlaceholders(any(), anyString())).thenAnswer(invocation ->
+            invocation.getArgument(1).equals("{usb_island_level}") ? "42" : invocation.getArgument(1));
+        Scheduler scheduler = mock(Scheduler.class);
+        doAnswer(invocation -> scheduled.add(invocation.getArgument(0))).when(scheduler).sync(any(Runnable.class));
+        chatLogic = new ChatLogic(config, recipients, placeholderHandler, scheduler);
+
+        chatLogic.sendMessage(players.get(0), Type.ISLAND, "my level is {usb_island_level} {x}");
+        runScheduled();
+
+        ArgumentCaptor<String[]> messages = ArgumentCaptor.forClass(String[].class);
+        verify(players.get(ISLANDS)).sendMessage(messages.capture());
+        assertThat(messages.getValue()[0], is("§9SKY [42] player0 §f>§b my level is {usb_island_level} {x}"));
+        verify(placeholderHandler, never()).replacePlaceholders(any(), argThat(message -> message.contains("my level")));
+    }
+
+    @Test
+    public void testPartyChatOnlyTouchesRecipients() {
+        Player sender = players.get(7);
+        chatLogic.sendMessage(sender, Type.PARTY, "hello");
+        chatLogic.sendMessage(players.get(8), Type.PARTY, "hi");
+        runScheduled();
+
+        for (int i = 0; i < PLAYERS; i++) {
+            Player player = players.get(i);
+            if (i % ISLANDS == 7 || i % ISLANDS == 8) {
+                verify(player).sendMessage(any(String[].class));
+            } else {
+                verifyNoInteractions(player);
+            }
+        }
+    }
+
+    @Test
+    public void testNextTickStartsNewBatch() {
+        chatLogic.sendMessage(players.get(0), Type.ISLAND, "first");
+        runScheduled();
+        chatLogic.sendMessage(players.get(0), Type.ISLAND, "second");
+        assertThat(scheduled.size(), is(1));
+        runScheduled();
+        verify(players.get(ISLANDS), times(2)).sendMessage(any(String[].class));
+    }
+
+    @Test
+    public void testMovementUpdatesIslandRecipients() {
+        Player mover = players.get(1);
+        recipients.onMove(new PlayerMoveEvent(mover, onIsland(1), onIsland(0)));
+        assertThat(recipients.getPlayersOnIsland(players.get(0)).contains(mover), is(true));
+        assertThat(recipients.getPlayersOnIsland(players.get(ISLANDS + 1)).contains(mover), is(false));
+
+        // Into another world
+        recipients.onMove(new PlayerMoveEvent(mover, onIsland(0), new Location(mock(World.class), 5, 70, 5)));
+        assertThat(recipients.getPlayersOnIsland(players.get(0)).contains(mover), is(false));
+    }
+
+    @Test
+    public void testMembershipAndQuitUpdatePartyRecipients() {
+        Player member = players.get(1);
+        IslandInfo island0 = mock(IslandInfo.class);
+        when(island0.getName()).thenReturn(islandName(0));
+        UUID memberId = member.getUniqueId();
+        PlayerInfo memberInfo = mock(PlayerInfo.class);
+        when(memberInfo.getUniqueId()).thenReturn(memberId);
+
+        recipients.onMemberJoined(new MemberJoinedEvent(island0, memberInfo));
+        List<Player> party = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i += ISLANDS) {
+            party.add(players.get(i));
+        }
+        party.add(member);
+        assertThat(recipients.getPartyMembers(players.get(0)), containsInAnyOrder(party.toArray()));
+
+        recipients.onMemberLeft(new MemberLeftEvent(island0, memberInfo));
+        recipients.onQuit(new PlayerQuitEvent(players.get(ISLANDS), "bye"));
+        party.remove(member);
+        party.remove(players.get(ISLANDS));
+        assertThat(recipients.getPartyMembers(players.get(0)), containsInAnyOrder(party.toArray()));
+    }
+
+    @Test
+    public void testPlayerWithoutIslandChatsAlone() {
+        Player loner = mock(Player.class);
+        when(loner.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(loner.getLocation()).thenReturn(new Location(mock(World.class), 5, 70, 5));
+        assertThat(recipients.getPartyMembers(loner), contains(loner));
+        assertThat(recipients.getPlayersOnIsland(loner).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testGetIslandNameAtMatchesRegions() {
+        assertThat(ChatRecipients.getIslandNameAt(new Location(world, 0, 0, 0), 128, 64), is("0,0"));
+        assertThat(ChatRecipients.getIslandNameAt(new Location(world, -64, 0, 63), 128, 64), is("0,0"));
+        assertThat(ChatRecipients.getIslandNameAt(new Location(world, 64, 0, 0), 128, 64), is("128,0"));
+        assertThat(ChatRecipients.getIslandNameAt(new Location(world, -300, 0, 250), 128, 64), is("-256,256"));
+        assertThat(ChatRecipients.getIslandNameAt(new Location(world, 60, 0, 0), 128, 50), is(""));
+    }
+
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private Location onIsland(int island) {
+        return new Location(world, island * DISTANCE + 5, 70, 5);
+    }
+
+    private static String islandName(int island) {
+        return island * DISTANCE + ",0";
+    }
+}
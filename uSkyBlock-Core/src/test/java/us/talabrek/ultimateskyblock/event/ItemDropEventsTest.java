@@ -0,0 +1,191 @@
+package us.talabrek.ultimateskyblock.event;
+
+import dk.lockfuglsang.minecraft.po.I18nUtil;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.uuid.PlayerDB;
+import us.talabrek.ultimateskyblock.world.WorldManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ItemDropEventsTest {
+    private uSkyBlock plugin;
+    private ItemDropEvents itemDropEvents;
+    private Player bob;
+    private Player visitor;
+
+    @BeforeClass
+    public static void setUpClass() {
+        I18nUtil.initialize(new File("."), Locale.ENGLISH);
+    }
+
+    @Before
+    public void setUp() {
+        plugin = mock(uSkyBlock.class);
+        when(plugin.getName()).thenReturn("uSkyBlock");
+        when(plugin.getConfig()).thenReturn(new YamlConfiguration());
+        WorldManager worldManager = mock(WorldManager.class);
+        when(worldManager.isSkyWorld(any())).thenReturn(true);
+        when(plugin.getWorldManager()).thenReturn(worldManager);
+        PlayerDB playerDB = mock(PlayerDB.class);
+        when(plugin.getPlayerDB()).thenReturn(playerDB);
+
+        bob = mockPlayer("bob");
+        visitor = mockPlayer("visitor");
+        when(playerDB.getUUIDFromName("bob", false)).thenReturn(bob.getUniqueId());
+        itemDropEvents = new ItemDropEvents(plugin);
+    }
+
+    @Test
+    public void testOwnershipRoundTrips() {
+        ItemMeta meta = mockMeta(null);
+        Item item = mockItem(meta);
+        assertThat(itemDropEvents.getOwner(item), nullValue());
+
+        itemDropEvents.addDropInfo(bob, item.getItemStack());
+        assertThat(itemDropEvents.getOwner(item), is(bob.getUniqueId()));
+        verify(meta, never()).setLore(anyList());
+
+        itemDropEvents.clearDropInfo(item);
+        assertThat(itemDropEvents.getOwner(item), nullValue());
+        assertThat(meta.getPersistentDataContainer().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testLegacyLoreIsConverted() {
+        ItemMeta meta = mockMeta(List.of("Sharp", "Owner: bob"));
+        Item item = mockItem(meta);
+        ItemStack stack = item.getItemStack();
+
+        assertThat(itemDropEvents.getOwner(item), is(bob.getUniqueId()));
+        assertThat(meta.getLore(), contains("Sharp"));
+        verify(item).setItemStack(stack);
+        // Read from the persistent data from now on
+        assertThat(itemDropEvents.getOwner(item), is(bob.getUniqueId()));
+        verify(plugin.getPlayerDB()).getUUIDFromName("bob", false);
+    }
+
+    @Test
+    public void testDropStripsLegacyLore() {
+        ItemMeta meta = mockMeta(List.of("Owner: someone"));
+        Item item = mockItem(meta);
+
+        itemDropEvents.addDropInfo(bob, item.getItemStack());
+        assertThat(meta.hasLore(), is(false));
+        assertThat(itemDropEvents.getOwner(item), is(bob.getUniqueId()));
+    }
+
+    @Test
+    public void testOwnerMayPickUpLegacyItemOnOtherIsland() {
+        ItemMeta meta = mockMeta(List.of("Owner: bob"));
+        Item item = mockItem(meta);
+
+        EntityPickupItemEvent event = new EntityPickupItemEvent(bob, item, 0);
+        itemDropEvents.onPickupEvent(event);
+        assertThat(event.isCancelled(), is(false));
+        assertThat(meta.hasLore(), is(false));
+        assertThat(meta.getPersistentDataContainer().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testVisitorMayNotPickUpOthersItems() {
+        ItemMeta meta = mockMeta(null);
+        Item item = mockItem(meta);
+        itemDropEvents.addDropInfo(bob, item.getItemStack());
+
+        EntityPickupItemEvent event = new EntityPickupItemEvent(visitor, item, 0);
+        itemDropEvents.onPickupEvent(event);
+        assertThat(event.isCancelled(), is(true));
+        assertThat(itemDropEvents.getOwner(item), is(bob.getUniqueId()));
+    }
+
+    @Test
+    public void testItemsWithoutMetaAreNotTouched() {
+        ItemStack stack = mock(ItemStack.class);
+        Item item = mock(Item.class);
+        when(item.getItemStack()).thenReturn(stack);
+
+        assertThat(itemDropEvents.getOwner(item), nullValue());
+        itemDropEvents.clearDropInfo(item);
+        verify(stack, never()).getItemMeta();
+        verify(item, never()).setItemStack(any());
+    }
+
+    private static Player mockPlayer(String name) {
+        Player player = mock(Player.class);
+        when(player.getName()).thenReturn(name);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(player.getWorld()).thenReturn(mock(World.class));
+        return player;
+    }
+
+    private static Item mockItem(ItemMeta meta) {
+        ItemStack stack = mock(ItemStack.class);
+        when(stack.hasItemMeta()).thenReturn(true);
+        when(stack.getItemMeta()).thenReturn(meta);
+        Item item = mock(Item.class);
+        when(item.getItemStack()).thenReturn(stack);
+        when(item.getWorld()).thenReturn(mock(World.class));
+        return item;
+    }
+
+    /**
+     * Mocks {@link ItemMeta} with working lore and persistent data.
+     */
+    @SuppressWarnings("unchecked")
+    private static ItemMeta mockMeta(List<String> initialLore) {
+        ItemMeta meta = mock(ItemMeta.class);
+        List<String>[] lore = new List[]{initialLore != null ? new ArrayList<>(initialLore) : null};
+        when(meta.hasLore()).thenAnswer(invocation -> lore[0] != null && !lore[0].isEmpty());
+        when(meta.getLore()).thenAnswer(invocation -> lore[0] != null ? new ArrayList<>(lore[0]) : null);
+        doAnswer(invocation -> {
+            List<String> newLore = invocation.getArgument(0);
+            lore[0] = newLore != null ? new ArrayList<>(newLore) : null;
+            return null;
+        }).when(meta).setLore(any());
+
+        Map<NamespacedKey, Object> data = new HashMap<>();
+        PersistentDataContainer container = mock(PersistentDataContainer.class);
+        doAnswer(invocation -> data.put(invocation.getArgument(0), invocation.getArgument(2)))
+            .when(container).set(any(NamespacedKey.class), any(PersistentDataType.class), any());
+        when(container.get(any(NamespacedKey.class), any(PersistentDataType.class)))
+            .thenAnswer(invocation -> data.get(invocation.<NamespacedKey>getArgument(0)));
+        when(container.has(any(NamespacedKey.class), any(PersistentDataType.class)))
+            .thenAnswer(invocation -> data.containsKey(invocation.<NamespacedKey>getArgument(0)));
+        doAnswer(invocation -> data.remove(invocation.<NamespacedKey>getArgument(0)))
+            .when(container).remove(any(NamespacedKey.class));
+        when(container.isEmpty()).thenAnswer(invocation -> data.isEmpty());
+        when(meta.getPersistentDataContainer()).thenReturn(container);
+        return meta;
+    }
+}
@@ -0,0 +1,240 @@
+package us.talabrek.ultimateskyblock.event;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.junit.Before;
+import org.junit.Test;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ObsidianIndexTest {
+    private static final int SIZE = 48;
+    private static final int HEIGHT = 16;
+
+    private final Map<Long, Material> blocks = new HashMap<>();
+    private World world;
+    private Player player;
+    private PlayerEvents playerEvents;
+
+    @Before
+    public void setUp() {
+        uSkyBlock plugin = mock(uSkyBlock.class);
+        when(plugin.getConfig()).thenReturn(new YamlConfiguration());
+        playerEvents = new PlayerEvents(plugin, new ObsidianIndex());
+        player = mock(Player.class);
+
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        when(world.getMinHeight()).thenReturn(0);
+        when(world.getMaxHeight()).thenReturn(HEIGHT);
+        when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenAnswer(invocation ->
+            block(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(world.getChunkAt(anyInt(), anyInt())).thenAnswer(invocation ->
+            chunk(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @Test
+    public void testMatchesBruteForceScan() {
+        Random rnd = new Random(1337);
+        // Some obsidian before anything is indexed
+        for (int i = 0; i < 40; i++) {
+            set(rnd.nextInt(SIZE), rnd.nextInt(HEIGHT), rnd.nextInt(SIZE), Material.OBSIDIAN);
+        }
+        for (int i = 0; i < 1500; i++) {
+            int x = rnd.nextInt(SIZE);
+            int y = 1 + rnd.nextInt(HEIGHT - 2);
+            int z = rnd.nextInt(SIZE);
+            switch (rnd.nextInt(6)) {
+                case 0 -> place(x, y, z, Material.OBSIDIAN);
+                case 1 -> place(x, y, z, Material.STONE);
+                case 2 -> breakBlock(x, y, z);
+                case 3 -> form(x, y, z);
+                case 4 -> explode(x, y, z);
+                default -> playerEvents.onChunkUnload(new ChunkUnloadEvent(chunk(x >> 4, z >> 4)));
+            }
+            x = rnd.nextInt(SIZE);
+            y = rnd.nextInt(HEIGHT);
+            z = rnd.nextInt(SIZE);
+            Block block = block(x, y, z);
+            assertThat("obsidian near " + x + "," + y + "," + z, playerEvents.testForObsidian(block), is(bruteForce(block)));
+        }
+        ObsidianIndex index = playerEvents.getObsidianIndex();
+        for (int cx = 0; cx < SIZE / 16; cx++) {
+            for (int cz = 0; cz < SIZE / 16; cz++) {
+                assertThat(index.getCount(world, cx, cz), is(bruteForceCount(cx, cz)));
+            }
+        }
+    }
+
+    @Test
+    public void testLookupDoesNotReadBlocks() {
+        set(20, 10, 20, Material.OBSIDIAN);
+        Block block = block(20, 10, 20);
+        assertThat(playerEvents.testForObsidian(block), is(false));
+
+        place(22, 12, 17, Material.OBSIDIAN);
+        clearInvocations(world);
+        assertThat(playerEvents.testForObsidian(block), is(true));
+        breakBlock(22, 12, 17);
+        assertThat(playerEvents.testForObsidian(block), is(false));
+        // Chunks are only scanned once, and the blocks around are never read
+        verify(world, never()).getChunkAt(anyInt(), anyInt());
+        verify(world, never()).getBlockAt(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testChangesInUnindexedChunksAreSeenWhenIndexed() {
+        Block block = block(1, 10, 1);
+        set(1, 10, 1, Material.OBSIDIAN);
+        assertThat(playerEvents.testForObsidian(block), is(false));
+
+        // Chunk 5,5 isn't indexed, so the event is ignored
+        place(5 * 16 + 2, 10, 5 * 16 + 2, Material.OBSIDIAN);
+        place(-1, 11, 0, Material.OBSIDIAN);
+        assertThat(playerEvents.testForObsidian(block), is(true));
+        assertThat(playerEvents.getObsidianIndex().getCount(world, 5, 5), is(1));
+    }
+
+    @Test
+    public void testInvalidatedChunksAreIndexedAgain() {
+        Block block = block(1, 10, 1);
+        set(1, 10, 1, Material.OBSIDIAN);
+        ObsidianIndex index = playerEvents.getObsidianIndex();
+        assertThat(playerEvents.testForObsidian(block), is(false));
+        assertThat(index.getCount(world, 2, 2), is(0));
+
+        // Pasted without block events
+        set(2, 10, 2, Material.OBSIDIAN);
+        set(40, 10, 40, Material.OBSIDIAN);
+        assertThat(playerEvents.testForObsidian(block), is(false));
+
+        index.invalidate(world, -5, -5, 5, 5);
+        assertThat(playerEvents.testForObsidian(block), is(true));
+        clearInvocations(world);
+        assertThat(index.getCount(world, 2, 2), is(0));
+        // Chunks outside the area stay indexed
+        verify(world, never()).getChunkAt(anyInt(), anyInt());
+    }
+
+    private void place(int x, int y, int z, Material type) {
+        set(x, y, z, type);
+        Block block = block(x, y, z);
+        playerEvents.onObsidianPlace(new BlockPlaceEvent(block, mock(BlockState.class), block(x, y - 1, z), null, player, true, EquipmentSlot.HAND));
+    }
+
+    private void breakBlock(int x, int y, int z) {
+        playerEvents.onObsidianBreak(new BlockBreakEvent(block(x, y, z), player));
+        set(x, y, z, Material.AIR);
+    }
+
+    private void form(int x, int y, int z) {
+        BlockState newState = mock(BlockState.class);
+        when(newState.getType()).thenReturn(Material.OBSIDIAN);
+        playerEvents.onObsidianForm(new BlockFormEvent(block(x, y, z), newState));
+        set(x, y, z, Material.OBSIDIAN);
+    }
+
+    private void explode(int x, int y, int z) {
+        List<Block> exploded = new ArrayList<>();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                exploded.add(block(x + dx, y, z + dz));
+            }
+        }
+        playerEvents.onObsidianExplode(new EntityExplodeEvent(mock(Entity.class), new Location(world, x, y, z), exploded, 1f));
+        for (Block block : exploded) {
+            set(block.getX(), block.getY(), block.getZ(), Material.AIR);
+        }
+    }
+
+    private boolean bruteForce(Block block) {
+        for (int x = -3; x <= 3; ++x) {
+            for (int y = -3; y <= 3; ++y) {
+                for (int z = -3; z <= 3; ++z) {
+                    if ((x != 0 || y != 0 || z != 0) && get(block.getX() + x, block.getY() + y, block.getZ() + z) == Material.OBSIDIAN) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private int bruteForceCount(int cx, int cz) {
+        int count = 0;
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y < HEIGHT; y++) {
+                    if (get((cx << 4) + x, y, (cz << 4) + z) == Material.OBSIDIAN) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private Block block(int x, int y, int z) {
+        Block block = mock(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        when(block.getType()).thenAnswer(invocation -> get(x, y, z));
+        return block;
+    }
+
+    private Chunk chunk(int cx, int cz) {
+        ChunkSnapshot snapshot = mock(ChunkSnapshot.class);
+        when(snapshot.getBlockType(anyInt(), anyInt(), anyInt())).thenAnswer(invocation ->
+            get((cx << 4) + invocation.<Integer>getArgument(0), invocation.getArgument(1), (cz << 4) + invocation.<Integer>getArgument(2)));
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getX()).thenReturn(cx);
+        when(chunk.getZ()).thenReturn(cz);
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(snapshot);
+        return chunk;
+    }
+
+    private Material get(int x, int y, int z) {
+        return blocks.getOrDefault(key(x, y, z), Material.AIR);
+    }
+
+    private void set(int x, int y, int z, Material type) {
+        blocks.put(key(x, y, z), type);
+    }
+
+    private static long key(int x, int y, int z) {
+        return (((long) x + 100000) << 40) | (((long) z + 100000) << 20) | (y + 1000);
+    }
+}
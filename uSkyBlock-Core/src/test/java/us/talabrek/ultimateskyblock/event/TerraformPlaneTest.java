@@ -0,0 +1,142 @@
+package us.talabrek.ultimateskyblock.event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class TerraformPlaneTest {
+    private static final int TRIALS = 40000;
+    private static final String NONE = "none";
+
+    @Test
+    public void testOffsetsMatchLegacyPlane() {
+        TerraformPlane plane = new TerraformPlane(7);
+        for (int radius = 0; radius <= 7; radius++) {
+            List<int[]> legacy = legacyOffsets(radius);
+            assertThat(plane.size(radius), is(legacy.size()));
+            for (int i = 0; i < legacy.size(); i++) {
+                assertThat(plane.getDy(radius, i), is(legacy.get(i)[0]));
+                assertThat(plane.getDxz(radius, i), is(legacy.get(i)[1]));
+            }
+        }
+    }
+
+    @Test
+    public void testVisitsHalfOfTheCandidatesOnce() {
+        TerraformPlane plane = new TerraformPlane(4);
+        Random rnd = new Random(42);
+        for (int radius = 1; radius <= 4; radius++) {
+            for (int i = 0; i < 20; i++) {
+                // Candidates are duplicated across rings, so count the visits per block position
+                Map<String, Integer> visits = new HashMap<>();
+                int[] total = {0};
+                int found = plane.find(radius, true, 100, 64, -100, rnd, (x, y, z) -> {
+                    assertThat(x, is(100));
+                    visits.merge(y + ":" + z, 1, Integer::sum);
+                    total[0]++;
+                    return false;
+                });
+                assertThat(found, is(-1));
+                assertThat(total[0], is(plane.size(radius) / 2));
+                for (Map.Entry<String, Integer> e : visits.entrySet()) {
+                    String[] yz = e.getKey().split(":");
+                    int ring = Math.max(Math.abs(Integer.parseInt(yz[0]) - 64), Math.abs(Integer.parseInt(yz[1]) + 100));
+                    assertThat(e.getValue() <= radius - Math.max(ring, 1) + 1, is(true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOrientation() {
+        TerraformPlane plane = new TerraformPlane(2);
+        Random rnd = new Random(7);
+        Set<Integer> xs = new HashSet<>();
+        plane.find(2, false, 10, 20, 30, rnd, (x, y, z) -> {
+            assertThat(z, is(30));
+            xs.add(x);
+            return false;
+        });
+        assertThat(xs.size() > 1, is(true));
+    }
+
+    @Test
+    public void testDistributionMatchesLegacyShuffle() {
+        int[][] cases = {
+            // radius, predicate
+            {1, 0}, {3, 0}, {6, 0}, {3, 1}, {6, 1}
+        };
+        TerraformPlane plane = new TerraformPlane(7);
+        for (int[] c : cases) {
+            int radius = c[0];
+            OffsetPredicate predicate = c[1] == 0
+                ? (dy, dxz) -> dy > 0 && (dy + 2 * dxz) % 3 == 0
+                : (dy, dxz) -> dy == radius && dxz == -radius;
+            Map<String, Integer> legacy = new HashMap<>();
+            Random legacyRnd = new Random(1234);
+            for (int i = 0; i < TRIALS; i++) {
+                legacy.merge(legacyFind(radius, legacyRnd, predicate), 1, Integer::sum);
+            }
+            Map<String, Integer> sampled = new HashMap<>();
+            Random sampledRnd = new Random(1234);
+            for (int i = 0; i < TRIALS; i++) {
+                int candidate = plane.find(radius, true, 0, 0, 0, sampledRnd, (x, y, z) -> predicate.test(y, z));
+                String key = candidate == -1 ? NONE : plane.getDy(radius, candidate) + "," + plane.getDxz(radius, candidate);
+                sampled.merge(key, 1, Integer::sum);
+            }
+            assertThat("total variation distance for radius " + radius, totalVariation(legacy, sampled), lessThan(0.02));
+        }
+    }
+
+    private static double totalVariation(Map<String, Integer> a, Map<String, Integer> b) {
+        Set<String> keys = new HashSet<>(a.keySet());
+        keys.addAll(b.keySet());
+        double sum = 0;
+        for (String key : keys) {
+            sum += Math.abs(a.getOrDefault(key, 0) - b.getOrDefault(key, 0)) / (double) TRIALS;
+        }
+        return sum / 2;
+    }
+
+    @FunctionalInterface
+    private interface OffsetPredicate {
+        boolean test(int dy, int dxz);
+    }
+
+    /**
+     * The sampling as done before the offsets were precomputed.
+     */
+    private static String legacyFind(int radius, Random rnd, OffsetPredicate predicate) {
+        List<int[]> locs = legacyOffsets(radius);
+        Collections.shuffle(locs, rnd);
+        for (int[] loc : locs.subList(0, locs.size() / 2)) {
+            if (predicate.test(loc[0], loc[1])) {
+                return loc[0] + "," + loc[1];
+            }
+        }
+        return NONE;
+    }
+
+    private static List<int[]> legacyOffsets(int radius) {
+        List<int[]> locs = new ArrayList<>();
+        for (int r = 1; r <= radius; r++) {
+            for (int dy = -r; dy <= r; dy++) {
+                for (int dxz = -r; dxz <= r; dxz++) {
+                    locs.add(new int[]{dy, dxz});
+                }
+            }
+        }
+        return locs;
+    }
+}
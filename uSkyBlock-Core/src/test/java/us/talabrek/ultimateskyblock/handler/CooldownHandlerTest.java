@@ -1,28 +1,40 @@
 package us.talabrek.ultimateskyblock.handler;
 
 import org.bukkit.entity.Player;
+import org.junit.Before;
 import org.junit.Test;
 import us.talabrek.ultimateskyblock.test.MutableClock;
+import us.talabrek.ultimateskyblock.util.TimingWheel;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
+import java.util.logging.Logger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class CooldownHandlerTest {
+    private MutableClock testClock;
+    private TimingWheel timingWheel;
+    private CooldownHandler cooldownHandler;
+    private Player mockPlayer;
+
+    @Before
+    public void setUp() {
+        testClock = new MutableClock(Instant.parse("2025-02-10T12:00:00Z"));
+        timingWheel = new TimingWheel(testClock, mock(), mock(Logger.class));
+        cooldownHandler = new CooldownHandler(testClock, timingWheel);
+        mockPlayer = mock();
+        when(mockPlayer.getUniqueId()).thenReturn(new UUID(1, 2));
+    }
 
     @Test
     public void testCommandCooldown() {
-        Instant fixedInstant = Instant.parse("2025-02-10T12:00:00Z");
-        MutableClock testClock = new MutableClock(fixedInstant);
-        var cooldownHandler = new CooldownHandler(testClock, mock());
-        UUID testId = new UUID(1, 2);
-        Player mockPlayer = mock();
-        when(mockPlayer.getUniqueId()).thenReturn(testId);
-
         assertEquals(Duration.ZERO, cooldownHandler.getCooldown(mockPlayer, "test"));
 
         cooldownHandler.resetCooldown(mockPlayer, "test", Duration.ofSeconds(1));
@@ -34,4 +46,35 @@ public class CooldownHandlerTest {
         testClock.advance(Duration.ofSeconds(1));
         assertEquals(Duration.ZERO, cooldownHandler.getCooldown(mockPlayer, "test"));
     }
+
+    @Test
+    public void testExpiredCooldownIsRemoved() {
+        cooldownHandler.resetCooldown(mockPlayer, "test", Duration.ofSeconds(30));
+        assertEquals(1, cooldownHandler.getCooldowns(mockPlayer.getUniqueId()).size());
+
+        testClock.advance(Duration.ofSeconds(29));
+        timingWheel.advance();
+        assertEquals(1, cooldownHandler.getCooldowns(mockPlayer.getUniqueId()).size());
+
+        testClock.advance(Duration.ofSeconds(1));
+        timingWheel.advance();
+        assertEquals(Map.of(), cooldownHandler.getCooldowns(mockPlayer.getUniqueId()));
+        assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    public void testResetAndClearCancelExpiration() {
+        cooldownHandler.resetCooldown(mockPlayer, "test", Duration.ofSeconds(10));
+        cooldownHandler.resetCooldown(mockPlayer, "test", Duration.ofSeconds(60));
+        assertEquals(1, timingWheel.size());
+
+        // The first expiration must not remove the renewed cooldown
+        testClock.advance(Duration.ofSeconds(10));
+        timingWheel.advance();
+        assertEquals(Duration.ofSeconds(50), cooldownHandler.getCooldown(mockPlayer, "test"));
+
+        assertTrue(cooldownHandler.clearCooldown(mockPlayer, "test"));
+        assertFalse(cooldownHandler.clearCooldown(mockPlayer, "test"));
+        assertEquals(0, timingWheel.size());
+    }
 }
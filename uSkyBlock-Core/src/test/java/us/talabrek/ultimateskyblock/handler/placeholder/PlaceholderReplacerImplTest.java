@@ -0,0 +1,276 @@
+package us.talabrek.ultimateskyblock.handler.placeholder;
+
+import org.bukkit.Location;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.Invocation;
+import us.talabrek.ultimateskyblock.api.event.MemberJoinedEvent;
+import us.talabrek.ultimateskyblock.api.event.uSkyBlockEvent;
+import us.talabrek.ultimateskyblock.api.event.uSkyBlockScoreChangedEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandBanPlayerEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandBiomeChangedEvent;
+import us.talabrek.ultimateskyblock.api.event.island.IslandTrustPlayerEvent;
+import us.talabrek.ultimateskyblock.api.model.IslandScore;
+import us.talabrek.ultimateskyblock.island.IslandInfo;
+import us.talabrek.ultimateskyblock.island.IslandLogic;
+import us.talabrek.ultimateskyblock.island.LimitLogic;
+import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.player.PlayerLogic;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.world.WorldManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PlaceholderReplacerImplTest {
+    // The method each placeholder is computed from
+    private static final Map<String, String> LOOKUPS = Map.ofEntries(
+        Map.entry("usb_island_level", "getLevel"),
+        Map.entry("usb_island_rank", "getRank"),
+        Map.entry("usb_island_leader", "getLeader"),
+        Map.entry("usb_island_golems_max", "getMaxGolems"),
+        Map.entry("usb_island_monsters_max", "getMaxMonsters"),
+        Map.entry("usb_island_animals_max", "getMaxAnimals"),
+        Map.entry("usb_island_villagers_max", "getMaxVillagers"),
+        Map.entry("usb_island_partysize_max", "getMaxPartySize"),
+        Map.entry("usb_island_golems", "getCreatureCount"),
+        Map.entry("usb_island_partysize", "getPartySize"),
+        Map.entry("usb_island_biome", "getBiomeName"),
+        Map.entry("usb_island_bans", "getBans"),
+        Map.entry("usb_island_members", "getMembers"),
+        Map.entry("usb_island_trustees", "getTrustees"),
+        Map.entry("usb_island_schematic", "getSchematicName")
+    );
+
+    private PlaceholderReplacerImpl replacer;
+    private IslandLogic islandLogic;
+    private LimitLogic limitLogic;
+    private uSkyBlock plugin;
+    private IslandInfo islandInfo;
+    private Player player;
+    private String islandAtEntity;
+    private BiConsumer<String, Map<LimitLogic.CreatureType, Integer>> censusListener;
+    // Number of calls per lookup method at the last assertRecomputed
+    private final Map<String, Long> seen = new HashMap<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        plugin = mock(uSkyBlock.class);
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("options.advanced.placeholderCache", "maximumSize=1");
+        when(plugin.getConfig()).thenReturn(config);
+        WorldManager worldManager = mock(WorldManager.class);
+        when(worldManager.isSkyAssociatedWorld(any())).thenReturn(true);
+        when(plugin.getWorldManager()).thenReturn(worldManager);
+
+        PlayerLogic playerLogic = mock(PlayerLogic.class);
+        islandLogic = mock(IslandLogic.class);
+        limitLogic = mock(LimitLogic.class);
+        when(limitLogic.getCreatureCount(any())).thenReturn(creatures(1));
+
+        Scheduler scheduler = mock(Scheduler.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(scheduler).sync(any(Runnable.class));
+
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        PlayerInfo playerInfo = mock(PlayerInfo.class);
+        when(playerLogic.getPlayerInfo(player.getUniqueId())).thenReturn(playerInfo);
+        islandInfo = mockIsland("0,0");
+        when(islandLogic.getIslandInfo(playerInfo)).thenReturn(islandInfo);
+
+        replacer = new PlaceholderReplacerImpl(plugin, playerLogic, islandLogic, limitLogic, scheduler) {
+            @Override
+            String getIslandNameAt(@NotNull Entity entity) {
+                return islandAtEntity;
+            }
+        };
+        ArgumentCaptor<BiConsumer<String, Map<LimitLogic.CreatureType, Integer>>> captor = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(limitLogic).addCensusListener(captor.capture());
+        censusListener = captor.getValue();
+    }
+
+    @Test
+    public void testValuesKeptUntilStateChanges() {
+        assertRecomputed(LOOKUPS.keySet());
+        assertRecomputed(Set.of());
+        assertRecomputed(Set.of());
+        assertThat(replacer.replace(null, player, "usb_island_leader"), is("leader"));
+        assertThat(replacer.replace(null, player, "usb_island_golems"), is("1"));
+    }
+
+    @Test
+    public void testScoreChangeRecomputesScoreAndRank() {
+        assertRecomputed(LOOKUPS.keySet());
+        replacer.onScoreChanged(new uSkyBlockScoreChangedEvent(player, plugin, mock(IslandScore.class), new Location(null, 0, 150, 0)));
+        assertRecomputed(Set.of("usb_island_level", "usb_island_rank"));
+    }
+
+    @Test
+    public void testRankUpdateRecomputesRankOfAllIslands() {
+        assertRecomputed(LOOKUPS.keySet());
+        replacer.onRankUpdated(new uSkyBlockEvent(null, plugin, uSkyBlockEvent.Cause.RANK_UPDATED));
+        assertRecomputed(Set.of("usb_island_rank"));
+        replacer.onRankUpdated(new uSkyBlockEvent(null, plugin, uSkyBlockEvent.Cause.SCORE_CHANGED));
+        assertRecomputed(Set.of());
+    }
+
+    @Test
+    public void testMemberChangeRecomputesPartyAndLimits() {
+        assertRecomputed(LOOKUPS.keySet());
+        replacer.onMemberJoined(new MemberJoinedEvent(islandInfo, mock(PlayerInfo.class)));
+        assertRecomputed(Set.of("usb_island_leader", "usb_island_partysize", "usb_island_members",
+            "usb_island_golems_max", "usb_island_monsters_max", "usb_island_animals_max",
+            "usb_island_villagers_max", "usb_island_partysize_max"));
+    }
+
+    @Test
+    public void testMemberChangeOnOtherIslandRecomputesNothing() {
+        assertRecomputed(LOOKUPS.keySet());
+        replacer.onMemberJoined(new MemberJoinedEvent(mockIsland("128,128"), mock(PlayerInfo.class)));
+        assertRecomputed(Set.of());
+    }
+
+    @Test
+    public void testBiomeChangeRecomputesBiome() {
+        assertRecomputed(LOOKUPS.keySet());
+        replacer.onBiomeChanged(new IslandBiomeChangedEvent(islandInfo, Biome.JUNGLE));
+        assertRecomputed(Set.of("usb_island_biome"));
+    }
+
+    @Test
+    public void testBanAndTrustRecomputeBansAndTrustees() {
+        assertRecomputed(LOOKUPS.keySet());
+        replacer.onBan(new IslandBanPlayerEvent(islandInfo, mock(OfflinePlayer.class), null));
+        assertRecomputed(Set.of("usb_island_bans"));
+        replacer.onTrust(new IslandTrustPlayerEvent(islandInfo, mock(OfflinePlayer.class), null));
+        assertRecomputed(Set.of("usb_island_trustees"));
+    }
+
+    @Test
+    public void testCreatureSpawnRecomputesCreatures() {
+        assertRecomputed(LOOKUPS.keySet());
+        LivingEntity entity = mock(LivingEntity.class);
+        when(entity.getWorld()).thenReturn(mock(World.class));
+        islandAtEntity = "0,0";
+        replacer.onCreatureSpawn(new CreatureSpawnEvent(entity, CreatureSpawnEvent.SpawnReason.NATURAL));
+        assertRecomputed(Set.of("usb_island_golems"));
+        islandAtEntity = null;
+        replacer.onCreatureSpawn(new CreatureSpawnEvent(entity, CreatureSpawnEvent.SpawnReason.NATURAL));
+        assertRecomputed(Set.of());
+    }
+
+    @Test
+    public void testCreatureCensusReplacesCreatureCounts() {
+        assertRecomputed(LOOKUPS.keySet());
+        censusListener.accept("0,0", creatures(7));
+        assertRecomputed(Set.of());
+        assertThat(replacer.replace(null, player, "usb_island_golems"), is("7"));
+        assertThat(replacer.replace(null, player, "usb_island_villagers"), is("7"));
+    }
+
+    @Test
+    public void testNewIslandInfoRecomputesEverything() {
+        assertRecomputed(LOOKUPS.keySet());
+        IslandInfo reloaded = mockIsland("0,0");
+        when(islandLogic.getIslandInfo(any(PlayerInfo.class))).thenReturn(reloaded);
+        islandInfo = reloaded;
+        seen.clear();
+        assertRecomputed(LOOKUPS.keySet());
+    }
+
+    @Test
+    public void testEvictedIslandRecomputesEverything() {
+        assertRecomputed(LOOKUPS.keySet());
+        IslandInfo original = islandInfo;
+        Map<String, Long> originalSeen = new HashMap<>(seen);
+
+        IslandInfo other = mockIsland("128,128");
+        when(islandLogic.getIslandInfo(any(PlayerInfo.class))).thenReturn(other);
+        islandInfo = other;
+        seen.clear();
+        assertRecomputed(LOOKUPS.keySet());
+
+        when(islandLogic.getIslandInfo(any(PlayerInfo.class))).thenReturn(original);
+        islandInfo = original;
+        seen.clear();
+        seen.putAll(originalSeen);
+        assertRecomputed(LOOKUPS.keySet());
+    }
+
+    private IslandInfo mockIsland(String name) {
+        IslandInfo island = mock(IslandInfo.class);
+        when(island.getName()).thenReturn(name);
+        when(island.getLeader()).thenReturn("leader");
+        when(island.getBiomeName()).thenReturn("ocean");
+        when(island.getMembers()).thenReturn(Set.of("leader"));
+        when(island.getBans()).thenReturn(List.of());
+        when(island.getTrustees()).thenReturn(List.of());
+        when(island.getSchematicName()).thenReturn("default");
+        when(island.getIslandLocation()).thenReturn(new Location(null, 0, 150, 0));
+        return island;
+    }
+
+    private static Map<LimitLogic.CreatureType, Integer> creatures(int count) {
+        Map<LimitLogic.CreatureType, Integer> creatures = new HashMap<>();
+        for (LimitLogic.CreatureType type : LimitLogic.CreatureType.values()) {
+            creatures.put(type, count);
+        }
+        return creatures;
+    }
+
+    private void readAll() {
+        for (String placeholder : replacer.getPlaceholders()) {
+            if (!placeholder.equals("usb_version")) {
+                replacer.replace(null, player, placeholder);
+            }
+        }
+    }
+
+    /**
+     * Reads all placeholders, and asserts that exactly the given ones were computed since the last call.
+     */
+    private void assertRecomputed(Set<String> expected) {
+        readAll();
+        Map<String, Long> calls = new HashMap<>();
+        for (Object mock : List.of(islandInfo, islandLogic, limitLogic)) {
+            for (Invocation invocation : mockingDetails(mock).getInvocations()) {
+                calls.merge(invocation.getMethod().getName(), 1L, Long::sum);
+            }
+        }
+        for (Map.Entry<String, String> entry : LOOKUPS.entrySet()) {
+            String method = entry.getValue();
+            long before = seen.getOrDefault(method, 0L);
+            long now = calls.getOrDefault(method, 0L);
+            assertThat(entry.getKey() + " recomputed", now > before, is(expected.contains(entry.getKey())));
+            seen.put(method, now);
+        }
+    }
+}
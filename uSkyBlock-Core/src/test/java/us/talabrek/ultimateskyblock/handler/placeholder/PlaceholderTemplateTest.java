@@ -0,0 +1,123 @@
+package us.talabrek.ultimateskyblock.handler.placeholder;
+
+import dk.lockfuglsang.minecraft.util.FormatUtil;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PlaceholderTemplateTest {
+    // The chat formats of the default config.yml, and one with an island placeholder
+    private static final String[] FORMATS = {
+        "&9SKY &r{DISPLAYNAME} &f>&d {MESSAGE}",
+        "&9PARTY &r{DISPLAYNAME} &f>&b {MESSAGE}",
+        "&9SKY &r{DISPLAYNAME} &7[{usb_island_level}] &f>&d {MESSAGE}",
+    };
+    private static final Pattern LEGACY_PATTERN = Pattern.compile("\\{(?<placeholder>usb_[^}]*)\\}");
+
+    private final PlaceholderAPI.PlaceholderReplacer replacer = new PlaceholderAPI.PlaceholderReplacer() {
+        @Override
+        public @NotNull Collection<String> getPlaceholders() {
+            return Set.of("usb_island_level", "usb_island_rank", "usb_null");
+        }
+
+        @Override
+        public String replace(OfflinePlayer offlinePlayer, Player player, String placeholder) {
+            return placeholder.equals("usb_null") ? null : "<" + placeholder + ">";
+        }
+    };
+
+    @Test
+    public void testMatchesLegacyReplacement() {
+        TextPlaceholder textPlaceholder = new TextPlaceholder(replacer);
+        String[] messages = {
+            "", "plain", "{usb_island_level}", "Hi {usb_island_level} and {usb_island_rank}!",
+            "{usb_unknown} {usb_island_level}", "{{usb_island_level}}", "{usb_island_level", "usb_island_level}",
+            "{usb_null} stays", "{} {usb_} {usb_island_rank}{usb_island_rank}",
+            "$1 \\ {usb_island_level} $0"
+        };
+        for (String message : messages) {
+            assertThat(message, textPlaceholder.replacePlaceholders(null, message), is(replaceLegacy(message)));
+        }
+    }
+
+    @Test
+    public void testChatFormat() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("&9SKY &r{DISPLAYNAME} &f>&d {MESSAGE} {OTHER}", Set.of("DISPLAYNAME", "MESSAGE")::contains);
+        assertThat(template.render(name -> name.equals("DISPLAYNAME") ? "$Steve\\" : "{MESSAGE}"), is("&9SKY &r$Steve\\ &f>&d {MESSAGE} {OTHER}"));
+    }
+
+    @Test
+    public void testNoPlaceholders() {
+        PlaceholderTemplate template = PlaceholderTemplate.compile("no {placeholders} here", name -> false);
+        assertThat(template.hasPlaceholders(), is(false));
+        assertThat(template.render(name -> "x"), sameInstance(template.getFormat()));
+    }
+
+    @Test
+    public void testTemplatesAreCached() {
+        TextPlaceholder textPlaceholder = new TextPlaceholder(replacer);
+        assertThat(textPlaceholder.getTemplate(FORMATS[2]), sameInstance(textPlaceholder.getTemplate(FORMATS[2])));
+    }
+
+    /**
+     * Compares the compiled templates with the regex replacement previously done by ChatLogic and TextPlaceholder,
+     * using the chat formats of the default config.yml.
+     */
+    @Test
+    public void testMatchesRegexChain() {
+        TextPlaceholder textPlaceholder = new TextPlaceholder(replacer);
+        for (int i = 0; i < FORMATS.length; i++) {
+            PlaceholderTemplate template = PlaceholderTemplate.compile(FormatUtil.normalize(FORMATS[i]), Set.of("DISPLAYNAME", "MESSAGE")::contains);
+            assertThat(renderCompiled(textPlaceholder, template, i), is(renderRegex(FORMATS[i], i)));
+        }
+    }
+
+    private static String message(int i) {
+        return "Hello island number " + i + "!";
+    }
+
+    private String renderRegex(String format, int i) {
+        String msg = FormatUtil.normalize(format);
+        msg = msg.replaceAll("\\{DISPLAYNAME}", Matcher.quoteReplacement("Steve"));
+        msg = msg.replaceAll("\\{MESSAGE}", Matcher.quoteReplacement(message(i)));
+        return replaceLegacy(msg);
+    }
+
+    private String renderCompiled(TextPlaceholder textPlaceholder, PlaceholderTemplate template, int i) {
+        String msg = template.render(name -> name.equals("DISPLAYNAME") ? "Steve" : message(i));
+        return textPlaceholder.replacePlaceholders(null, msg);
+    }
+
+    // The regex based replacement previously done by TextPlaceholder
+    private String replaceLegacy(String message) {
+        Matcher matcher = LEGACY_PATTERN.matcher(message);
+        if (!matcher.find()) {
+            return message;
+        }
+        int ix = 0;
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append(message, ix, matcher.start());
+            String placeholderString = matcher.group("placeholder");
+            if (replacer.getPlaceholders().contains(placeholderString)) {
+                String replacement = replacer.replace(null, null, placeholderString);
+                sb.append(replacement != null ? replacement : message.substring(matcher.start(), matcher.end()));
+            } else {
+                sb.append("{").append(placeholderString).append("}");
+            }
+            ix = matcher.end();
+        } while (matcher.find());
+        sb.append(message.substring(ix));
+        return sb.toString();
+    }
+}
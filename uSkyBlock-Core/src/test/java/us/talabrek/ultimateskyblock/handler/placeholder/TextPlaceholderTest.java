@@ -10,6 +10,7 @@ import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 
 /**
@@ -34,4 +35,24 @@ public class TextPlaceholderTest {
         assertThat(placeholder.replacePlaceholders(null, "Hi {usb_island_level}"), is("Hi {usb_island_level}"));
         assertThat(placeholder.replacePlaceholders(null, "Hi {usb_replaceme} please"), is("Hi replaced string please"));
     }
+
+    @Test
+    public void recentlyUsedTemplatesStayCached() {
+        TextPlaceholder placeholder = new TextPlaceholder(new PlaceholderAPI.PlaceholderReplacer() {
+            @Override
+            public @NotNull Collection<String> getPlaceholders() {
+                return Set.of("usb_replaceme");
+            }
+
+            @Override
+            public String replace(OfflinePlayer offlinePlayer, Player player, String placeholder) {
+                return "replaced string";
+            }
+        });
+        PlaceholderTemplate format = placeholder.getTemplate("{usb_replaceme} >");
+        for (int i = 0; i < 10000; i++) {
+            placeholder.getTemplate("{usb_replaceme} one-off " + i);
+            assertThat(placeholder.getTemplate("{usb_replaceme} >"), sameInstance(format));
+        }
+    }
 }
@@ -0,0 +1,179 @@
+package us.talabrek.ultimateskyblock.hook.placeholderapi;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedConstruction;
+import us.talabrek.ultimateskyblock.api.IslandLevel;
+import us.talabrek.ultimateskyblock.api.event.island.IslandPerksChangedEvent;
+import us.talabrek.ultimateskyblock.island.IslandInfo;
+import us.talabrek.ultimateskyblock.island.IslandLogic;
+import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.player.PlayerLogic;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UsbExpansionTest {
+    private static final String[] PARAMS = {
+        "self_leadername", "self_level", "self_biome", "self_hoppers", "self_max-animals", "self_partysize",
+        "self_online", "self_score-multiplier", "istop_1_leadername", "istop_2_level"
+    };
+
+    private UsbExpansion expansion;
+    private IslandLogic islandLogic;
+    private PlayerLogic playerLogic;
+    private IslandInfo islandInfo;
+    private OfflinePlayer player;
+    private PluginManager pluginManager;
+    private uSkyBlock plugin;
+
+    @Before
+    public void setUp() {
+        plugin = mock(uSkyBlock.class);
+        islandLogic = mock(IslandLogic.class);
+        playerLogic = mock(PlayerLogic.class);
+        when(plugin.getIslandLogic()).thenReturn(islandLogic);
+        when(plugin.getPlayerLogic()).thenReturn(playerLogic);
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("options.advanced.placeholderCache", "maximumSize=1");
+        when(plugin.getConfig()).thenReturn(config);
+        Server server = mock(Server.class);
+        pluginManager = mock(PluginManager.class);
+        when(server.getPluginManager()).thenReturn(pluginManager);
+        when(plugin.getServer()).thenReturn(server);
+
+        player = mock(OfflinePlayer.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        PlayerInfo playerInfo = mock(PlayerInfo.class);
+        when(playerLogic.getPlayerInfo(player.getUniqueId())).thenReturn(playerInfo);
+
+        islandInfo = mock(IslandInfo.class);
+        when(islandInfo.getName()).thenReturn("0,0");
+        when(islandInfo.getLeader()).thenReturn("bob");
+        when(islandInfo.getLevel()).thenReturn(42.5);
+        when(islandInfo.getBiomeName()).thenReturn("ocean");
+        when(islandInfo.getHopperCount()).thenReturn(3);
+        when(islandInfo.getMaxAnimals()).thenReturn(30);
+        when(islandInfo.getPartySize()).thenReturn(2);
+        when(islandInfo.getScoreMultiplier()).thenReturn(1.5);
+        when(islandInfo.getOnlineMembers()).thenReturn(List.of(mock(Player.class)));
+        when(islandLogic.getIslandInfo(playerInfo)).thenReturn(islandInfo);
+
+        List<IslandLevel> ranks = new ArrayList<>();
+        ranks.add(new IslandLevel("0,0", "bob", List.of(), 42.5));
+        ranks.add(new IslandLevel("128,0", "alice", List.of(), 12));
+        when(islandLogic.getRanks(0, 1)).thenReturn(ranks.subList(0, 1));
+        when(islandLogic.getRanks(0, 2)).thenReturn(ranks);
+        when(islandLogic.getRanks(0, 3)).thenReturn(ranks);
+
+        expansion = new UsbExpansion(plugin);
+    }
+
+    @Test
+    public void testValues() {
+        assertThat(expansion.onRequest(player, "self_leadername"), is("bob"));
+        assertThat(expansion.onRequest(player, "self_level"), is("42.5"));
+        assertThat(expansion.onRequest(player, "self_hoppers"), is("3"));
+        assertThat(expansion.onRequest(player, "self_online"), is("1"));
+        assertThat(expansion.onRequest(player, "SELF_biome"), is("ocean"));
+        assertThat(expansion.onRequest(player, "self_nonsense"), nullValue());
+        assertThat(expansion.onRequest(player, "self"), nullValue());
+        assertThat(expansion.onRequest(player, "istop_2_leadername"), is("alice"));
+        assertThat(expansion.onRequest(player, "istop_1_coordinates"), is("0,0"));
+        assertThat(expansion.onRequest(player, "istop_3_level"), is("place does not exist"));
+        assertThat(expansion.onRequest(player, "istop_x_level"), is("error"));
+        assertThat(expansion.onRequest(player, "istop_1_biome"), nullValue());
+    }
+
+    @Test
+    public void testNoFileAccessForRepeatedRequests() {
+        // Players and islands are read from their files when constructed, so none may be constructed
+        try (MockedConstruction<PlayerInfo> players = mockConstruction(PlayerInfo.class);
+             MockedConstruction<IslandInfo> islands = mockConstruction(IslandInfo.class)) {
+            for (int i = 0; i < 10000; i++) {
+                assertThat(expansion.onRequest(player, PARAMS[i % PARAMS.length]) != null, is(true));
+            }
+            assertThat(players.constructed().size(), is(0));
+            assertThat(islands.constructed().size(), is(0));
+        }
+        // The island values are read once, and the ranks once per request
+        assertThat(reads("getLevel"), is(1L));
+        assertThat(reads("getLeader"), is(1L));
+        assertThat(mockingDetails(islandLogic).getInvocations().stream()
+            .filter(invocation -> invocation.getMethod().getName().equals("getRanks")).count(), is(2000L));
+    }
+
+    @Test
+    public void testSnapshotIsRefreshedOnIslandChange() {
+        assertThat(expansion.onRequest(player, "self_level"), is("42.5"));
+        when(islandInfo.getLevel()).thenReturn(50d);
+        assertThat(expansion.onRequest(player, "self_level"), is("42.5"));
+
+        when(islandInfo.getChangeCount()).thenReturn(1L);
+        assertThat(expansion.onRequest(player, "self_level"), is("50.0"));
+        assertThat(reads("getLevel"), is(2L));
+    }
+
+    @Test
+    public void testSnapshotIsRefreshedOnPerkChange() {
+        verify(pluginManager).registerEvents(expansion, plugin);
+        assertThat(expansion.onRequest(player, "self_max-animals"), is("30"));
+        when(islandInfo.getMaxAnimals()).thenReturn(60);
+        assertThat(expansion.onRequest(player, "self_max-animals"), is("30"));
+
+        expansion.onPerksChanged(new IslandPerksChangedEvent(islandInfo));
+        assertThat(expansion.onRequest(player, "self_max-animals"), is("60"));
+    }
+
+    @Test
+    public void testEvictedIslandIsReadAgain() {
+        assertThat(expansion.onRequest(player, "self_level"), is("42.5"));
+
+        // The cache holds a single island, so the island of another player evicts it
+        OfflinePlayer other = mock(OfflinePlayer.class);
+        when(other.getUniqueId()).thenReturn(UUID.randomUUID());
+        PlayerInfo otherInfo = mock(PlayerInfo.class);
+        when(playerLogic.getPlayerInfo(other.getUniqueId())).thenReturn(otherInfo);
+        IslandInfo otherIsland = mock(IslandInfo.class);
+        when(otherIsland.getName()).thenReturn("128,0");
+        when(otherIsland.getLevel()).thenReturn(12d);
+        when(islandLogic.getIslandInfo(otherInfo)).thenReturn(otherIsland);
+        assertThat(expansion.onRequest(other, "self_level"), is("12.0"));
+
+        assertThat(expansion.onRequest(player, "self_level"), is("42.5"));
+        assertThat(reads("getLevel"), is(2L));
+    }
+
+    @Test
+    public void testPlayersWithoutIsland() {
+        OfflinePlayer other = mock(OfflinePlayer.class);
+        when(other.getUniqueId()).thenReturn(UUID.randomUUID());
+        assertThat(expansion.onRequest(other, "self_level"), is("error"));
+
+        when(islandLogic.getRanks(anyInt(), anyInt())).thenReturn(List.of());
+        assertThat(expansion.onRequest(other, "istop_1_level"), is("unknown"));
+    }
+
+    private long reads(String method) {
+        return mockingDetails(islandInfo).getInvocations().stream()
+            .filter(invocation -> invocation.getMethod().getName().equals(method))
+            .count();
+    }
+}
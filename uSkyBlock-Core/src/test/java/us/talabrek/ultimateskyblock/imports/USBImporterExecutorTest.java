@@ -0,0 +1,206 @@
+package us.talabrek.ultimateskyblock.imports;
+
+import dk.lockfuglsang.minecraft.po.I18nUtil;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class USBImporterExecutorTest {
+    private static final int FILES = 300;
+    private static final int THREADS = 4;
+
+    @Rule
+    public TemporaryFolder testFolder = new TemporaryFolder();
+
+    private uSkyBlock plugin;
+    private CommandSender sender;
+    private Path journalDirectory;
+    private File[] files;
+    // Number of imports per file, across all runs
+    private final Map<File, AtomicInteger> imports = new ConcurrentHashMap<>();
+
+    @BeforeClass
+    public static void setUpClass() {
+        I18nUtil.initialize(new File("."), Locale.ENGLISH);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        plugin = mock(uSkyBlock.class);
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("importer.threads", THREADS);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger(USBImporterExecutorTest.class.getName()));
+        sender = mock(CommandSender.class);
+        journalDirectory = testFolder.newFolder("imports").toPath();
+        files = new File[FILES];
+        for (int i = 0; i < FILES; i++) {
+            files[i] = new File(testFolder.getRoot(), i + ",0.yml");
+        }
+    }
+
+    @Test
+    public void testResumesAfterCrashExactlyOnce() {
+        USBImporterExecutor executor = new USBImporterExecutor(plugin, sender, journalDirectory);
+        FakeImporter crashing = new FakeImporter(true);
+        crashing.onImport = count -> {
+            if (count == 100) {
+                // The server stops, the imports in progress are completed
+                executor.stop();
+            }
+        };
+        executor.doImport(sender, crashing);
+
+        assertThat(crashing.completed, is(false));
+        assertThat(Files.exists(journalDirectory.resolve("fake.journal")), is(true));
+        assertThat(imports.size(), greaterThan(99));
+        assertThat(imports.size(), lessThan(FILES));
+
+        // After a restart
+        USBImporterExecutor resumed = new USBImporterExecutor(plugin, sender, journalDirectory);
+        FakeImporter importer = new FakeImporter(true);
+        resumed.doImport(sender, importer);
+
+        assertThat(importer.completed, is(true));
+        assertThat(imports.size(), is(FILES));
+        for (File file : files) {
+            assertThat("imports of " + file, imports.get(file).get(), is(1));
+        }
+        int skipped = FILES / 10;
+        int failed = (int) IntStream.range(0, FILES).filter(i -> i % 10 != 0 && (i % 7 == 0 || i % 13 == 0)).count();
+        assertThat(importer.success + importer.failed + importer.skipped, is(FILES));
+        assertThat(importer.skipped, is(skipped));
+        assertThat(importer.failed, is(failed));
+        assertThat(Files.exists(journalDirectory.resolve("fake.journal")), is(false));
+        assertThat(plugin.getConfig().getBoolean("importer.fake.imported"), is(true));
+        verify(sender).sendMessage(argThat((String msg) -> msg.startsWith("§eResuming import")));
+    }
+
+    @Test
+    public void testTornJournalLineIsImportedAgain() throws Exception {
+        Files.writeString(journalDirectory.resolve("fake.journal"),
+            "S\t" + files[0].getPath() + "\t\nS\t" + files[1].getPath(), StandardCharsets.UTF_8);
+        FakeImporter importer = new FakeImporter(false);
+        new USBImporterExecutor(plugin, sender, journalDirectory).doImport(sender, importer);
+
+        assertThat(imports.containsKey(files[0]), is(false));
+        assertThat(imports.get(files[1]).get(), is(1));
+        assertThat(imports.size(), is(FILES - 1));
+        assertThat(importer.success + importer.failed + importer.skipped, is(FILES));
+    }
+
+    @Test
+    public void testOnlyThreadSafeImportersRunInParallel() {
+        FakeImporter serial = new FakeImporter(false);
+        new USBImporterExecutor(plugin, sender, journalDirectory).doImport(sender, serial);
+        assertThat(serial.maxConcurrent.get(), is(1));
+
+        imports.clear();
+        FakeImporter parallel = new FakeImporter(true);
+        CountDownLatch overlap = new CountDownLatch(2);
+        parallel.onImport = count -> {
+            if (count <= 2) {
+                overlap.countDown();
+                try {
+                    overlap.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        new USBImporterExecutor(plugin, sender, journalDirectory).doImport(sender, parallel);
+        assertThat(parallel.maxConcurrent.get(), greaterThan(1));
+        assertThat(parallel.maxConcurrent.get(), lessThanOrEqualTo(THREADS));
+        assertThat(imports.size(), is(FILES));
+    }
+
+    private class FakeImporter implements USBImporter {
+        private final boolean threadSafe;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private volatile IntConsumer onImport = count -> {};
+        private volatile boolean completed;
+        private int success;
+        private int failed;
+        private int skipped;
+
+        FakeImporter(boolean threadSafe) {
+            this.threadSafe = threadSafe;
+        }
+
+        @Override
+        public String getName() {
+            return "fake";
+        }
+
+        @Override
+        public void init(uSkyBlock plugin) {
+        }
+
+        @Override
+        public Boolean importFile(File file) {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                imports.computeIfAbsent(file, f -> new AtomicInteger()).incrementAndGet();
+                onImport.accept(count.incrementAndGet());
+                int i = Integer.parseInt(file.getName().substring(0, file.getName().indexOf(',')));
+                if (i % 10 == 0) {
+                    return null;
+                } else if (i % 13 == 0) {
+                    throw new IllegalStateException("Broken file " + file);
+                }
+                return i % 7 != 0;
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+
+        @Override
+        public File[] getFiles() {
+            return files;
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return threadSafe;
+        }
+
+        @Override
+        public void completed(int success, int failed, int skipped) {
+            this.completed = true;
+            this.success = success;
+            this.failed = failed;
+            this.skipped = skipped;
+        }
+    }
+}
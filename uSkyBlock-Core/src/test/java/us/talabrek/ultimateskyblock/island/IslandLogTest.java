@@ -0,0 +1,188 @@
+package us.talabrek.ultimateskyblock.island;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IslandLogTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path islandDirectory;
+    private Path segment;
+
+    @Before
+    public void setUp() throws Exception {
+        islandDirectory = tempFolder.newFolder("islands").toPath();
+        segment = islandDirectory.resolve("0,0.log");
+    }
+
+    @Test
+    public void testWraparoundKeepsLatestEntries() {
+        IslandLog log = new IslandLog(segment, 3);
+        for (int i = 1; i <= 5; i++) {
+            log.append("entry" + i);
+        }
+
+        assertThat(log.getEntries(), contains("entry5", "entry4", "entry3"));
+    }
+
+    @Test
+    public void testFlushAppendsToSegment() throws Exception {
+        IslandLog log = new IslandLog(segment, 10);
+        log.append("entry1");
+        log.append("entry2\nwith a newline");
+        assertThat(log.isDirty(), is(true));
+        log.flush();
+
+        assertThat(log.isDirty(), is(false));
+        assertThat(Files.readAllLines(segment), contains("entry1", "entry2 with a newline"));
+    }
+
+    @Test
+    public void testCompactionBoundsSegment() throws Exception {
+        IslandLog log = new IslandLog(segment, 4);
+        for (int i = 1; i <= 50; i++) {
+            log.append("entry" + i);
+            log.flush();
+            // Never more than the ring, plus as many entries appended since the last compaction
+            assertThat(Files.readAllLines(segment).size() < 8, is(true));
+        }
+        log.append("entry51");
+        log.append("entry52");
+        log.append("entry53");
+        log.flush();
+
+        assertThat(Files.readAllLines(segment), contains("entry50", "entry51", "entry52", "entry53"));
+        assertThat(Files.exists(islandDirectory.resolve("0,0.log.tmp")), is(false));
+    }
+
+    @Test
+    public void testRestartReadsTail() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            lines.add("entry" + i + ";" + "x".repeat(i % 17));
+        }
+        Files.write(segment, lines);
+
+        IslandLog log = new IslandLog(segment, 3);
+
+        assertThat(log.getEntries(), contains(lines.get(1999), lines.get(1998), lines.get(1997)));
+        // The oversized segment is compacted by the next flush
+        log.append("entry2001");
+        log.flush();
+        assertThat(Files.readAllLines(segment), contains(lines.get(1998), lines.get(1999), "entry2001"));
+    }
+
+    @Test
+    public void testRestartDropsTornLine() throws Exception {
+        IslandLog log = new IslandLog(segment, 10);
+        log.append("entry1");
+        log.append("entry2");
+        log.flush();
+        Files.writeString(segment, "entry3-torn", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        IslandLog restarted = new IslandLog(segment, 10);
+        assertThat(restarted.getEntries(), contains("entry2", "entry1"));
+        restarted.append("entry4");
+        restarted.flush();
+
+        assertThat(Files.readAllLines(segment), contains("entry1", "entry2", "entry4"));
+        assertThat(new IslandLog(segment, 10).getEntries(), contains("entry4", "entry2", "entry1"));
+    }
+
+    @Test
+    public void testRestartWithSmallerCapacity() {
+        IslandLog log = new IslandLog(segment, 10);
+        for (int i = 1; i <= 10; i++) {
+            log.append("entry" + i);
+        }
+        log.flush();
+
+        assertThat(new IslandLog(segment, 2).getEntries(), contains("entry10", "entry9"));
+    }
+
+    @Test
+    public void testDelete() {
+        IslandLog log = new IslandLog(segment, 10);
+        log.append("entry1");
+        log.flush();
+        log.delete();
+
+        assertThat(log.exists(), is(false));
+        assertThat(log.getEntries(), is(empty()));
+    }
+
+    @Test
+    public void testMigrationFromYamlLog() throws Exception {
+        long now = System.currentTimeMillis();
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("version", 3);
+        config.set("party.leader", "leader");
+        config.set("log", List.of(now + ";banned {0};player2", (now - 1000) + ";island created"));
+        config.save(islandDirectory.resolve("0,0.yml").toFile());
+
+        IslandInfo islandInfo = new IslandInfo("0,0", mockPlugin(2), islandDirectory);
+
+        assertThat(new IslandLog(segment, 10).getEntries(),
+            contains(now + ";banned {0};player2", (now - 1000) + ";island created"));
+        List<String> log = islandInfo.getLog();
+        assertThat(log, hasSize(2));
+        assertThat(log.get(0), containsString("banned player2"));
+        assertThat(log.get(1), containsString("island created"));
+
+        islandInfo.log("island locked", null);
+        islandInfo.saveToFile();
+        YamlConfiguration saved = YamlConfiguration.loadConfiguration(islandDirectory.resolve("0,0.yml").toFile());
+        assertThat(saved.contains("log"), is(false));
+
+        // Restarting with the migrated config reads the segment
+        List<String> restarted = new IslandInfo("0,0", mockPlugin(2), islandDirectory).getLog();
+        assertThat(restarted, hasSize(2));
+        assertThat(restarted.get(0), containsString("island locked"));
+        assertThat(restarted.get(1), containsString("banned player2"));
+    }
+
+    @Test
+    public void testMigrationSkippedWhenSegmentExists() throws Exception {
+        IslandLog log = new IslandLog(segment, 10);
+        log.append(System.currentTimeMillis() + ";from segment");
+        log.flush();
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("version", 3);
+        config.set("log", List.of(System.currentTimeMillis() + ";from yaml"));
+        config.save(islandDirectory.resolve("0,0.yml").toFile());
+
+        List<String> entries = new IslandInfo("0,0", mockPlugin(10), islandDirectory).getLog();
+
+        assertThat(entries, hasSize(1));
+        assertThat(entries.get(0), containsString("from segment"));
+    }
+
+    private static uSkyBlock mockPlugin(int logSize) {
+        uSkyBlock plugin = mock(uSkyBlock.class);
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("options.island.log-size", logSize);
+        when(plugin.getConfig()).thenReturn(config);
+        return plugin;
+    }
+}
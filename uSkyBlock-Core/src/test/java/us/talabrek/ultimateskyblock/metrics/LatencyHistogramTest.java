@@ -0,0 +1,90 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class LatencyHistogramTest {
+    // Like System.nanoTime(), the origin is arbitrary and may be negative
+    private final AtomicLong nanoTime = new AtomicLong(-1_000_000_000L);
+
+    @Test
+    public void testBucketsCoverAllValuesInOrder() {
+        assertThat(LatencyHistogram.bucketOf(0), is(0));
+        assertThat(LatencyHistogram.bucketOf(7), is(7));
+        assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE), is(LatencyHistogram.BUCKETS - 1));
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> random.nextInt(64);
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(value, lessThanOrEqualTo(LatencyHistogram.highestIn(bucket)));
+            if (bucket > 0) {
+                assertThat(value, greaterThanOrEqualTo(LatencyHistogram.highestIn(bucket - 1) + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testQuantilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram("test", nanoTime::get);
+        for (long ms = 1; ms <= 1000; ms++) {
+            histogram.record(Duration.ofMillis(ms));
+        }
+        assertThat(histogram.getCount(), is(1000L));
+        assertThat(histogram.getMax(), is(Duration.ofMillis(1000)));
+        assertWithin(histogram.getQuantile(0.5), Duration.ofMillis(500));
+        assertWithin(histogram.getQuantile(0.99), Duration.ofMillis(990));
+        assertThat(histogram.getQuantile(1.0), is(Duration.ofMillis(1000)));
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram("test", nanoTime::get);
+        assertThat(histogram.getQuantile(0.99), is(Duration.ZERO));
+        assertThat(histogram.getSummary(), containsString("n=0"));
+    }
+
+    @Test
+    public void testTimedWithNanoTime() {
+        LatencyHistogram histogram = new LatencyHistogram("test", nanoTime::get);
+        LatencyHistogram.Sample sample = histogram.start();
+        nanoTime.addAndGet(Duration.ofMillis(250).toNanos());
+        assertThat(sample.stop(), is(Duration.ofMillis(250)));
+
+        histogram.time(() -> nanoTime.addAndGet(Duration.ofSeconds(2).toNanos()));
+        assertThat(histogram.getCount(), is(2L));
+        assertThat(histogram.getSum(), is(Duration.ofMillis(2250)));
+        assertThat(histogram.getMax(), is(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    public void testPrometheusBucketsAreCumulative() {
+        LatencyHistogram histogram = new LatencyHistogram("test", nanoTime::get);
+        histogram.record(Duration.ofNanos(100));
+        histogram.record(Duration.ofMillis(1));
+        histogram.record(Duration.ofMinutes(5));
+        StringBuilder out = new StringBuilder();
+        histogram.writeTo(out, "usb_test_seconds");
+        String text = out.toString();
+        // 2^10 ns ~ 1 microsecond, 2^20 ns ~ 1ms, 2^36 ns ~ 69s
+        assertThat(text, containsString("usb_test_seconds_bucket{le=\"0.000001024\"} 1\n"));
+        assertThat(text, containsString("usb_test_seconds_bucket{le=\"0.001048576\"} 2\n"));
+        assertThat(text, containsString("usb_test_seconds_bucket{le=\"68.719476736\"} 2\n"));
+        assertThat(text, containsString("usb_test_seconds_bucket{le=\"+Inf\"} 3\n"));
+        assertThat(text, containsString("usb_test_seconds_count 3\n"));
+    }
+
+    private static void assertWithin(Duration actual, Duration expected) {
+        long error = expected.toNanos() / LatencyHistogram.SUB_BUCKETS;
+        assertThat(actual.toNanos(), greaterThanOrEqualTo(expected.toNanos() - error));
+        assertThat(actual.toNanos(), lessThanOrEqualTo(expected.toNanos() + error));
+    }
+}
@@ -0,0 +1,176 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ListenerProfilerTest {
+    private final AtomicLong nanoTime = new AtomicLong();
+    private PluginManager manager;
+    private Plugin plugin;
+
+    @Before
+    public void setUp() {
+        manager = mock(PluginManager.class);
+        plugin = mock(Plugin.class);
+    }
+
+    @Test
+    public void testSlowListenerIsAttributed() throws Exception {
+        ListenerProfiler profiler = new ListenerProfiler(true, nanoTime::get);
+        SlowListener slow = new SlowListener();
+        FastListener fast = new FastListener();
+        EventExecutor slowExecutor = register(profiler, slow);
+        EventExecutor fastExecutor = register(profiler, fast);
+
+        for (int i = 1; i <= 200; i++) {
+            TestEvent event = new TestEvent(i);
+            slowExecutor.execute(slow, event);
+            fastExecutor.execute(fast, event);
+        }
+
+        List<ListenerProfiler.Snapshot> snapshots = profiler.getSnapshots();
+        assertThat(snapshots, hasSize(2));
+        ListenerProfiler.Snapshot first = snapshots.get(0);
+        assertThat(first.getHandler(), is("SlowListener#onTest(TestEvent)"));
+        assertThat(first.getCount(), is(200L));
+        // Every 100th event takes 50ms, the others 1ms
+        assertThat(first.getTotal(), is(Duration.ofMillis(198 + 2 * 50)));
+        assertThat(first.getMax(), is(Duration.ofMillis(50)));
+        assertThat(first.getP99(), is(Duration.ofMillis(1)));
+        assertThat(snapshots.get(1).getHandler(), is("FastListener#onTest(TestEvent)"));
+        assertThat(snapshots.get(1).getTotal(), is(Duration.ofNanos(200 * 10_000)));
+    }
+
+    @Test
+    public void testRollingP99() throws Exception {
+        ListenerProfiler profiler = new ListenerProfiler(true, nanoTime::get);
+        SlowListener slow = new SlowListener();
+        EventExecutor executor = register(profiler, slow);
+
+        // Only the slow events are within the window
+        for (int i = 1; i <= ListenerProfiler.WINDOW; i++) {
+            executor.execute(slow, new TestEvent(1));
+        }
+        for (int i = 0; i < ListenerProfiler.WINDOW; i++) {
+            executor.execute(slow, new TestEvent(100));
+        }
+        ListenerProfiler.Snapshot snapshot = profiler.getSnapshots().get(0);
+        assertThat(snapshot.getCount(), is(2L * ListenerProfiler.WINDOW));
+        assertThat(snapshot.getP99(), is(Duration.ofMillis(50)));
+    }
+
+    @Test
+    public void testDumpResets() throws Exception {
+        ListenerProfiler profiler = new ListenerProfiler(true, nanoTime::get);
+        SlowListener slow = new SlowListener();
+        EventExecutor executor = register(profiler, slow);
+        executor.execute(slow, new TestEvent(1));
+
+        assertThat(profiler.getSnapshotsAndReset(), hasSize(1));
+        assertThat(profiler.getSnapshots(), is(empty()));
+
+        executor.execute(slow, new TestEvent(100));
+        ListenerProfiler.Snapshot snapshot = profiler.getSnapshots().get(0);
+        assertThat(snapshot.getCount(), is(1L));
+        assertThat(snapshot.getP99(), is(Duration.ofMillis(50)));
+    }
+
+    @Test
+    public void testExceptionsAreRethrownAndTimed() {
+        ListenerProfiler profiler = new ListenerProfiler(true, nanoTime::get);
+        FailingListener failing = new FailingListener();
+        EventExecutor executor = register(profiler, failing);
+        try {
+            executor.execute(failing, new TestEvent(1));
+            throw new AssertionError("Expected an EventException");
+        } catch (EventException e) {
+            assertThat(e.getCause().getMessage(), is("boom"));
+        }
+        assertThat(profiler.getSnapshots().get(0).getCount(), is(1L));
+    }
+
+    @Test
+    public void testDisabledRegistersAsUsual() {
+        ListenerProfiler profiler = new ListenerProfiler(false, nanoTime::get);
+        SlowListener slow = new SlowListener();
+        profiler.registerEvents(manager, slow, plugin);
+        verify(manager).registerEvents(slow, plugin);
+        verify(manager, never()).registerEvent(any(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    private EventExecutor register(ListenerProfiler profiler, Listener listener) {
+        profiler.registerEvents(manager, listener, plugin);
+        ArgumentCaptor<EventExecutor> executor = ArgumentCaptor.forClass(EventExecutor.class);
+        verify(manager, times(1)).registerEvent(eq(TestEvent.class), eq(listener), eq(EventPriority.MONITOR),
+            executor.capture(), eq(plugin), eq(true));
+        return executor.getValue();
+    }
+
+    public class SlowListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onTest(TestEvent event) {
+            nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(event.sequence % 100 == 0 ? 50 : 1));
+        }
+    }
+
+    public class FastListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onTest(TestEvent event) {
+            nanoTime.addAndGet(10_000);
+        }
+    }
+
+    public class FailingListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onTest(TestEvent event) {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    public static class TestEvent extends Event {
+        private static final HandlerList handlers = new HandlerList();
+
+        private final int sequence;
+
+        TestEvent(int sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        public @NotNull HandlerList getHandlers() {
+            return handlers;
+        }
+
+        public static HandlerList getHandlerList() {
+            return handlers;
+        }
+    }
+}
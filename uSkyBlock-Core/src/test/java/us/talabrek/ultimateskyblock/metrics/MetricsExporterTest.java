@@ -0,0 +1,87 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import us.talabrek.ultimateskyblock.PluginConfig;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MetricsExporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MetricsRegistry registry;
+    private Scheduler scheduler;
+    private Path dataPath;
+
+    @Before
+    public void setUp() {
+        registry = new MetricsRegistry();
+        scheduler = mock(Scheduler.class);
+        dataPath = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void testExportWritesFile() throws Exception {
+        MetricsExporter exporter = new MetricsExporter(registry, scheduler, config(60), Logger.getAnonymousLogger(), dataPath);
+        registry.counter("usb_saves_total", "Saves").increment();
+        exporter.export();
+
+        Path file = dataPath.resolve("metrics.prom");
+        assertThat(exporter.getFile(), is(file));
+        assertThat(Files.readString(file), containsString("usb_saves_total 1\n"));
+        assertThat(Files.exists(dataPath.resolve("metrics.prom.tmp")), is(false));
+
+        registry.counter("usb_saves_total", "Saves").increment();
+        exporter.export();
+        assertThat(Files.readString(file), containsString("usb_saves_total 2\n"));
+    }
+
+    @Test
+    public void testScheduledAndExportedOnShutdown() {
+        BukkitTask task = mock(BukkitTask.class);
+        when(scheduler.async(any(Runnable.class), any(Duration.class), any(Duration.class))).thenReturn(task);
+        MetricsExporter exporter = new MetricsExporter(registry, scheduler, config(30), Logger.getAnonymousLogger(), dataPath);
+        exporter.startup();
+        verify(scheduler).async(any(Runnable.class), any(Duration.class), any(Duration.class));
+
+        exporter.shutdown();
+        verify(task).cancel();
+        assertThat(Files.exists(exporter.getFile()), is(true));
+    }
+
+    @Test
+    public void testDisabled() {
+        MetricsExporter exporter = new MetricsExporter(registry, scheduler, config(0), Logger.getAnonymousLogger(), dataPath);
+        exporter.startup();
+        exporter.shutdown();
+        assertThat(exporter.isEnabled(), is(false));
+        verify(scheduler, never()).async(any(Runnable.class), any(Duration.class), any(Duration.class));
+        assertThat(Files.exists(exporter.getFile()), is(false));
+    }
+
+    private static PluginConfig config(int exportInterval) {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("options.advanced.metrics.exportInterval", exportInterval);
+        PluginConfig config = mock(PluginConfig.class);
+        when(config.getYamlConfig()).thenReturn(yaml);
+        return config;
+    }
+}
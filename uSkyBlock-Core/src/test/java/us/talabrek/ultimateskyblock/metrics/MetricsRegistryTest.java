@@ -0,0 +1,70 @@
+package us.talabrek.ultimateskyblock.metrics;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class MetricsRegistryTest {
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    public void testRegisteringAgainReturnsSameMetric() {
+        Counter counter = registry.counter("usb_test_total", "Test");
+        assertThat(registry.counter("usb_test_total", "Test"), is(sameInstance(counter)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisteringAsOtherTypeFails() {
+        registry.counter("usb_test_total", "Test");
+        registry.histogram("usb_test_total", "Test");
+    }
+
+    @Test
+    public void testCountKeptElsewhere() {
+        Counter counter = registry.counter("usb_test_total", "Test", () -> 2.5);
+        assertThat(counter.get(), is(2.5));
+        assertThat(registry.counter("usb_test_total", "Test"), is(sameInstance(counter)));
+        assertThat(registry.toPrometheusText(), containsString("# TYPE usb_test_total counter\nusb_test_total 2.5\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidName() {
+        registry.counter("usb test", "Test");
+    }
+
+    @Test
+    public void testPrometheusText() {
+        registry.counter("usb_saves_total", "Saves").add(3);
+        registry.gauge("usb_queue", "Queued\nitems", () -> 1.5);
+        String text = registry.toPrometheusText();
+        assertThat(text, is(""
+            + "# HELP usb_queue Queued\\nitems\n"
+            + "# TYPE usb_queue gauge\n"
+            + "usb_queue 1.5\n"
+            + "# HELP usb_saves_total Saves\n"
+            + "# TYPE usb_saves_total counter\n"
+            + "usb_saves_total 3\n"));
+    }
+
+    @Test
+    public void testCacheStatistics() {
+        Cache<String, String> cache = CacheBuilder.newBuilder().maximumSize(1).recordStats().build();
+        registry.cache("test", cache);
+        cache.put("a", "1");
+        cache.getIfPresent("a");
+        cache.getIfPresent("b");
+        cache.put("b", "2");
+
+        String text = registry.toPrometheusText();
+        assertThat(text, containsString("usb_test_cache_size 1\n"));
+        assertThat(text, containsString("usb_test_cache_hits_total 1\n"));
+        assertThat(text, containsString("usb_test_cache_misses_total 1\n"));
+        assertThat(text, containsString("usb_test_cache_evictions_total 1\n"));
+        assertThat(text, containsString("# TYPE usb_test_cache_hits_total counter\n"));
+    }
+}
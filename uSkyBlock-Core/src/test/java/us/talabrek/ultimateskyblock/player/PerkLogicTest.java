@@ -0,0 +1,109 @@
+package us.talabrek.ultimateskyblock.player;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import us.talabrek.ultimateskyblock.PluginConfig;
+import us.talabrek.ultimateskyblock.island.IslandGenerator;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PerkLogicTest {
+    private PerkLogic perkLogic;
+    private Scheduler scheduler;
+    private Player player;
+    private int perkCount;
+
+    @Before
+    public void setUp() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("options.advanced.perkRefreshInterval", 600);
+        PluginConfig config = mock(PluginConfig.class);
+        when(config.getYamlConfig()).thenReturn(yaml);
+        IslandGenerator islandGenerator = mock(IslandGenerator.class);
+        when(islandGenerator.getSchemeNames()).thenReturn(List.of());
+        scheduler = mock(Scheduler.class);
+
+        perkLogic = new PerkLogic(islandGenerator, config, scheduler);
+        perkCount = perkLogic.getPerkMap().size();
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+    }
+
+    @Test
+    public void testRepeatedGetPerkChecksPermissionsOnce() {
+        Perk perk = perkLogic.getPerk(player);
+        for (int i = 0; i < 100; i++) {
+            assertThat(perkLogic.getPerk(player), sameInstance(perk));
+        }
+        verify(player, times(perkCount)).hasPermission(anyString());
+    }
+
+    @Test
+    public void testPermissionChangeProducesNewPerk() {
+        assertThat(perkLogic.getPerk(player).getHungerReduction(), is(0d));
+
+        when(player.hasPermission("usb.extra.hunger")).thenReturn(true);
+        assertThat(perkLogic.getPerk(player).getHungerReduction(), is(0d));
+        perkLogic.invalidate(player.getUniqueId());
+        assertThat(perkLogic.getPerk(player).getHungerReduction(), is(0.25d));
+    }
+
+    @Test
+    public void testJoinInvalidatesOnlyThatPlayer() {
+        Player other = mock(Player.class);
+        when(other.getUniqueId()).thenReturn(UUID.randomUUID());
+        perkLogic.getPerk(player);
+        perkLogic.getPerk(other);
+        clearInvocations(player, other);
+
+        perkLogic.onJoin(new PlayerJoinEvent(player, "joined"));
+        perkLogic.getPerk(player);
+        perkLogic.getPerk(other);
+        verify(player, times(perkCount)).hasPermission(anyString());
+        verify(other, never()).hasPermission(anyString());
+    }
+
+    @Test
+    public void testPeriodicRefreshInvalidatesAll() {
+        perkLogic.getPerk(player);
+        clearInvocations(player);
+        Duration every = Duration.ofMinutes(10);
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).async(refresh.capture(), eq(every), eq(every));
+
+        refresh.getValue().run();
+        perkLogic.getPerk(player);
+        verify(player, times(perkCount)).hasPermission(anyString());
+    }
+
+    @Test
+    public void testRefreshCanBeDisabled() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("options.advanced.perkRefreshInterval", 0);
+        PluginConfig config = mock(PluginConfig.class);
+        when(config.getYamlConfig()).thenReturn(yaml);
+        Scheduler noRefresh = mock(Scheduler.class);
+        new PerkLogic(mock(IslandGenerator.class), config, noRefresh);
+        verify(noRefresh, never()).async(any(Runnable.class), any(Duration.class), any(Duration.class));
+    }
+}
@@ -0,0 +1,179 @@
+package us.talabrek.ultimateskyblock.player;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.junit.Before;
+import org.junit.Test;
+import us.talabrek.ultimateskyblock.PluginConfig;
+import us.talabrek.ultimateskyblock.test.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SafeLocationCacheTest {
+    private MutableClock clock;
+    private SafeLocationCache cache;
+    private World world;
+    private World otherWorld;
+
+    @Before
+    public void setUp() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("options.advanced.safeLocationCacheTtl", 60);
+        PluginConfig config = mock(PluginConfig.class);
+        when(config.getYamlConfig()).thenReturn(yaml);
+        clock = new MutableClock(Instant.parse("2025-02-10T12:00:00Z"));
+        cache = new SafeLocationCache(config, clock);
+        world = mockWorld("skyworld");
+        otherWorld = mockWorld("skyworld_nether");
+    }
+
+    @Test
+    public void testCachedVerdictIsReturned() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 2, 151, 3));
+
+        Location cached = cache.getCached(new Location(world, 0.7, 150.2, 0.1));
+        assertThat(cached, notNullValue());
+        assertThat(cached.getBlockX(), is(2));
+        assertThat(cached.getBlockY(), is(151));
+        assertThat(cached.getBlockZ(), is(3));
+        assertThat(cache.getCached(new Location(world, 1, 150, 0)), nullValue());
+        assertThat(cache.getCached(new Location(otherWorld, 0, 150, 0)), nullValue());
+    }
+
+    @Test
+    public void testVerdictExpires() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 0, 150, 0));
+
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(cache.getCached(new Location(world, 0, 150, 0)), notNullValue());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.getCached(new Location(world, 0, 150, 0)), nullValue());
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void testBlockBreakInScannedRegionInvalidates() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 10, 150, 10));
+        cache.put(new Location(world, 128, 150, 0), new Location(world, 130, 150, 2));
+
+        cache.onBlockBreak(new BlockBreakEvent(mockBlock(world, 11, 149, 9), mock(Player.class)));
+
+        assertThat(cache.getCached(new Location(world, 0, 150, 0)), nullValue());
+        assertThat(cache.getCached(new Location(world, 128, 150, 0)), notNullValue());
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void testBlockNearRequestedLocationInvalidates() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 10, 150, 10));
+
+        // A block placed next to the requested location could make a nearer spot safe
+        assertThat(cache.invalidate(mockBlock(world, -3, 149, 2)), is(1));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void testBlockOutsideScannedRegionDoesNotInvalidate() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 10, 152, 10));
+
+        assertThat(cache.invalidate(mockBlock(world, 16, 150, 0)), is(0));
+        assertThat(cache.invalidate(mockBlock(world, -16, 150, 0)), is(0));
+        assertThat(cache.invalidate(mockBlock(world, 0, 150, 16)), is(0));
+        assertThat(cache.invalidate(mockBlock(world, 0, 156, 0)), is(0));
+        assertThat(cache.invalidate(mockBlock(world, 0, 146, 0)), is(0));
+        assertThat(cache.invalidate(mockBlock(otherWorld, 0, 150, 0)), is(0));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void testEveryCornerOfScannedRegionInvalidates() {
+        for (int x : new int[]{-15, 15}) {
+            for (int y : new int[]{145, 155}) {
+                for (int z : new int[]{-15, 15}) {
+                    cache.put(new Location(world, 0, 150, 0), new Location(world, 10, 154, 10));
+                    assertThat(cache.invalidate(mockBlock(world, x, y, z)), is(1));
+                    assertThat(cache.size(), is(0));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOverlappingRegionsAreAllInvalidated() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 0, 150, 0));
+        cache.put(new Location(world, 0, 151, 0), new Location(world, 0, 150, 0));
+        cache.put(new Location(world, 40, 150, 40), new Location(world, 40, 150, 40));
+
+        cache.onBlockPhysics(new BlockPhysicsEvent(mockBlock(world, 0, 151, -1), null));
+
+        assertThat(cache.getCached(new Location(world, 0, 150, 0)), nullValue());
+        assertThat(cache.getCached(new Location(world, 0, 151, 0)), nullValue());
+        assertThat(cache.getCached(new Location(world, 40, 150, 40)), notNullValue());
+    }
+
+    @Test
+    public void testExplosionInvalidatesTouchedRegions() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 0, 150, 0));
+        cache.put(new Location(world, 40, 150, 0), new Location(world, 40, 150, 0));
+        cache.put(new Location(world, 80, 150, 0), new Location(world, 80, 150, 0));
+
+        List<Block> blocks = new ArrayList<>();
+        blocks.add(mockBlock(world, 1, 149, 0));
+        blocks.add(mockBlock(world, 41, 151, 1));
+        blocks.add(mockBlock(world, 60, 150, 0));
+        cache.onEntityExplode(new EntityExplodeEvent(mock(Entity.class), new Location(world, 10, 150, 0), blocks, 1f));
+
+        assertThat(cache.getCached(new Location(world, 0, 150, 0)), nullValue());
+        assertThat(cache.getCached(new Location(world, 40, 150, 0)), nullValue());
+        assertThat(cache.getCached(new Location(world, 80, 150, 0)), notNullValue());
+    }
+
+    @Test
+    public void testRegionAcrossChunkBorder() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 0, 150, 0));
+
+        assertThat(cache.invalidate(mockBlock(world, -15, 150, 15)), is(1));
+    }
+
+    @Test
+    public void testReplacingVerdictDropsOldRegion() {
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 0, 160, 0));
+        cache.put(new Location(world, 0, 150, 0), new Location(world, 0, 150, 0));
+
+        assertThat(cache.invalidate(mockBlock(world, 0, 158, 0)), is(0));
+        assertThat(cache.invalidate(mockBlock(world, 0, 150, 1)), is(1));
+    }
+
+    private static World mockWorld(String name) {
+        World world = mock(World.class);
+        when(world.getName()).thenReturn(name);
+        return world;
+    }
+
+    private static Block mockBlock(World world, int x, int y, int z) {
+        Block block = mock(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        return block;
+    }
+}
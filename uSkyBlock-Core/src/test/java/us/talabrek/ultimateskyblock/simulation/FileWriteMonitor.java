@@ -0,0 +1,68 @@
+package us.talabrek.ultimateskyblock.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps track of the files written in a folder, by comparing the modification time and size of the files between
+ * scans. A file written several times between two scans is counted once.
+ */
+class FileWriteMonitor {
+    private final Path folder;
+    private final Map<Path, Version> versions = new HashMap<>();
+    private long filesWritten;
+    private long bytesWritten;
+
+    private record Version(@NotNull FileTime modified, long size) {
+    }
+
+    FileWriteMonitor(@NotNull Path folder) {
+        this.folder = folder;
+        scan();
+        reset();
+    }
+
+    /**
+     * Counts the files created or changed since the last scan.
+     */
+    void scan() {
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    Version version = new Version(attributes.lastModifiedTime(), attributes.size());
+                    if (!version.equals(versions.put(file, version))) {
+                        filesWritten++;
+                        bytesWritten += version.size();
+                    }
+                } catch (IOException e) {
+                    // Deleted while scanning, e.g. a temporary file
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void reset() {
+        filesWritten = 0;
+        bytesWritten = 0;
+    }
+
+    long getFilesWritten() {
+        return filesWritten;
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+}
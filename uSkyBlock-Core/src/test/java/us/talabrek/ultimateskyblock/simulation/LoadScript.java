@@ -0,0 +1,128 @@
+package us.talabrek.ultimateskyblock.simulation;
+
+import java.time.Duration;
+
+/**
+ * Script of a load simulation: how many islands and players there are, and how often each of them does something.
+ * Rates are per simulated second, i.e. per 20 ticks.
+ */
+public class LoadScript {
+    private int islands = 50;
+    private int players = 400;
+    private int online = 200;
+    private Duration duration = Duration.ofMinutes(5);
+    private double joinsPerSecond = 2;
+    private double chatPerSecond = 20;
+    private double completionsPerSecond = 5;
+    private double blockChangesPerSecond = 200;
+    private long seed = 42;
+
+    /**
+     * Number of islands, each created by a player of its own.
+     */
+    public LoadScript islands(int islands) {
+        this.islands = islands;
+        return this;
+    }
+
+    /**
+     * Number of players, including the island leaders. Players that aren't leaders visit the islands.
+     */
+    public LoadScript players(int players) {
+        this.players = players;
+        return this;
+    }
+
+    /**
+     * Number of players online at a time.
+     */
+    public LoadScript online(int online) {
+        this.online = online;
+        return this;
+    }
+
+    /**
+     * Simulated time the script runs, after the islands are created.
+     */
+    public LoadScript duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Players leaving per second, each replaced by an offline player joining.
+     */
+    public LoadScript joinsPerSecond(double joinsPerSecond) {
+        this.joinsPerSecond = joinsPerSecond;
+        return this;
+    }
+
+    public LoadScript chatPerSecond(double chatPerSecond) {
+        this.chatPerSecond = chatPerSecond;
+        return this;
+    }
+
+    public LoadScript completionsPerSecond(double completionsPerSecond) {
+        this.completionsPerSecond = completionsPerSecond;
+        return this;
+    }
+
+    /**
+     * Blocks placed or broken per second, half of each.
+     */
+    public LoadScript blockChangesPerSecond(double blockChangesPerSecond) {
+        this.blockChangesPerSecond = blockChangesPerSecond;
+        return this;
+    }
+
+    /**
+     * Seed of the random choice of players, so a run can be repeated.
+     */
+    public LoadScript seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public int getIslands() {
+        return islands;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public int getOnline() {
+        return online;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public double getJoinsPerSecond() {
+        return joinsPerSecond;
+    }
+
+    public double getChatPerSecond() {
+        return chatPerSecond;
+    }
+
+    public double getCompletionsPerSecond() {
+        return completionsPerSecond;
+    }
+
+    public double getBlockChangesPerSecond() {
+        return blockChangesPerSecond;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d islands, %d players (%d online), %ss: %.1f joins/s, %.1f chat/s, %.1f completions/s, "
+                + "%.1f block changes/s", islands, players, online, duration.toSeconds(), joinsPerSecond, chatPerSecond,
+            completionsPerSecond, blockChangesPerSecond);
+    }
+}
@@ -0,0 +1,246 @@
+package us.talabrek.ultimateskyblock.simulation;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.api.event.IslandChatEvent;
+import us.talabrek.ultimateskyblock.chat.ChatLogic;
+import us.talabrek.ultimateskyblock.event.PlayerEvents;
+import us.talabrek.ultimateskyblock.island.BlockLimitLogic;
+import us.talabrek.ultimateskyblock.island.IslandInfo;
+import us.talabrek.ultimateskyblock.island.IslandLogic;
+import us.talabrek.ultimateskyblock.island.level.IslandScore;
+import us.talabrek.ultimateskyblock.metrics.LatencyHistogram;
+import us.talabrek.ultimateskyblock.metrics.MetricsRegistry;
+import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.player.PlayerLogic;
+import us.talabrek.ultimateskyblock.util.LocationUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Drives a {@link LoadScript} against a {@link SimulatedServer}, timing each operation.
+ * <p>
+ * The islands are created first, after which the players chat, complete challenges, place and break blocks, and
+ * leave and join, every tick at the rates of the script. The periodic saves of the plugin run as scheduled, and
+ * are timed by the plugin itself.
+ */
+public class LoadSimulation {
+    static final String ISLAND_CREATE = "island_create";
+    static final String PLAYER_JOIN = "player_join";
+    static final String PLAYER_QUIT = "player_quit";
+    static final String CHAT = "chat";
+    static final String CHALLENGE_COMPLETE = "challenge_complete";
+    static final String BLOCK_PLACE = "block_place";
+    static final String BLOCK_BREAK = "block_break";
+    static final List<String> SAVES = List.of("usb_island_save_seconds", "usb_player_save_seconds");
+
+    private static final int TICKS_PER_SECOND = 20;
+    // Hoppers placed per island are kept below the block limit, so placing is never refused
+    private static final int MAX_HOPPERS = 8;
+
+    private final SimulatedServer server;
+    private final LoadScript script;
+    private final Random random;
+    private final MetricsRegistry metrics;
+    private final IslandLogic islandLogic;
+    private final PlayerLogic playerLogic;
+    private final ChatLogic chatLogic;
+    private final BlockLimitLogic blockLimitLogic;
+    private final PlayerEvents playerEvents;
+    private final Map<String, LatencyHistogram> operations = new LinkedHashMap<>();
+    private final List<Player> online = new ArrayList<>();
+    private final List<Integer> offline = new ArrayList<>();
+    private final Map<Integer, Player> players = new HashMap<>();
+    private final Map<Player, Integer> indexOf = new HashMap<>();
+    private final Map<Material, ItemStack> items = new LinkedHashMap<>();
+    private int[] hoppers;
+
+    public LoadSimulation(@NotNull SimulatedServer server, @NotNull LoadScript script) {
+        this.server = server;
+        this.script = script;
+        this.random = new Random(script.getSeed());
+        this.metrics = server.getInstance(MetricsRegistry.class);
+        this.islandLogic = server.getInstance(IslandLogic.class);
+        this.playerLogic = server.getInstance(PlayerLogic.class);
+        this.chatLogic = server.getInstance(ChatLogic.class);
+        this.blockLimitLogic = server.getInstance(BlockLimitLogic.class);
+        this.playerEvents = server.getInstance(PlayerEvents.class);
+        for (String operation : List.of(ISLAND_CREATE, PLAYER_JOIN, PLAYER_QUIT, CHAT, CHALLENGE_COMPLETE, BLOCK_PLACE, BLOCK_BREAK)) {
+            operations.put(operation, metrics.histogram("simulation_" + operation + "_seconds",
+                "Time spent on " + operation.replace('_', ' ') + " in the load simulation"));
+        }
+        items.put(Material.HOPPER, new ItemStack(Material.HOPPER));
+        items.put(Material.COBBLESTONE, new ItemStack(Material.COBBLESTONE));
+    }
+
+    public @NotNull SimulationReport run() {
+        FileWriteMonitor files = new FileWriteMonitor(server.getDataFolder());
+        long failuresBefore = server.getTaskFailures();
+        long started = System.nanoTime();
+
+        hoppers = new int[script.getIslands()];
+        for (int i = 0; i < script.getIslands(); i++) {
+            Player leader = timedJoin(i);
+            int island = i;
+            operations.get(ISLAND_CREATE).time(() -> createIsland(leader, island));
+        }
+        for (int i = script.getIslands(); i < script.getPlayers(); i++) {
+            if (online.size() < script.getOnline()) {
+                timedJoin(i);
+            } else {
+                offline.add(i);
+            }
+        }
+        server.advance(1);
+
+        long seconds = script.getDuration().toSeconds();
+        double dueJoins = 0;
+        double dueChat = 0;
+        double dueCompletions = 0;
+        double dueBlockChanges = 0;
+        for (long second = 0; second < seconds; second++) {
+            for (int tick = 0; tick < TICKS_PER_SECOND; tick++) {
+                dueJoins += script.getJoinsPerSecond() / TICKS_PER_SECOND;
+                for (; dueJoins >= 1; dueJoins--) {
+                    rejoin();
+                }
+                dueChat += script.getChatPerSecond() / TICKS_PER_SECOND;
+                for (; dueChat >= 1; dueChat--) {
+                    chat();
+                }
+                dueCompletions += script.getCompletionsPerSecond() / TICKS_PER_SECOND;
+                for (; dueCompletions >= 1; dueCompletions--) {
+                    completeChallenge();
+                }
+                dueBlockChanges += script.getBlockChangesPerSecond() / TICKS_PER_SECOND;
+                for (; dueBlockChanges >= 1; dueBlockChanges--) {
+                    changeBlock();
+                }
+                server.advance(1);
+            }
+            files.scan();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        Map<String, LatencyHistogram> saves = new LinkedHashMap<>();
+        for (String save : SAVES) {
+            saves.put(save, metrics.histogram(save, ""));
+        }
+        return new SimulationReport(script, elapsed, operations, saves, files.getFilesWritten(),
+            files.getBytesWritten(), server.getTaskFailures() - failuresBefore);
+    }
+
+    private Player timedJoin(int index) {
+        Player player = players.computeIfAbsent(index, this::createPlayer);
+        operations.get(PLAYER_JOIN).time(() -> server.join(player));
+        online.add(player);
+        indexOf.put(player, index);
+        return player;
+    }
+
+    private Player createPlayer(int index) {
+        String name = "player" + index;
+        UUID uuid = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+        // Players stand on the islands, next to each other
+        Location location = server.getIslandLocation(index % script.getIslands()).add(index % 7, 1, index / 7 % 7);
+        return server.createPlayer(uuid, name, location);
+    }
+
+    private void createIsland(Player leader, int island) {
+        Location location = server.getIslandLocation(island);
+        PlayerInfo playerInfo = playerLogic.getPlayerInfo(leader.getUniqueId());
+        playerInfo.startNewIsland(location);
+        IslandInfo islandInfo = islandLogic.createIslandInfo(LocationUtil.getIslandName(location), leader.getName());
+        playerInfo.save();
+        IslandScore score = new IslandScore(0, Collections.emptyList());
+        blockLimitLogic.updateBlockCount(location, score);
+        islandLogic.updateRank(islandInfo, score);
+    }
+
+    private void rejoin() {
+        if (online.isEmpty() || offline.isEmpty()) {
+            return;
+        }
+        Player player = online.remove(random.nextInt(online.size()));
+        int index = indexOf.remove(player);
+        operations.get(PLAYER_QUIT).time(() -> server.quit(player));
+        int joining = offline.remove(random.nextInt(offline.size()));
+        offline.add(index);
+        timedJoin(joining);
+    }
+
+    private void chat() {
+        if (online.isEmpty()) {
+            return;
+        }
+        Player sender = online.get(random.nextInt(online.size()));
+        IslandChatEvent.Type type = random.nextInt(5) == 0 ? IslandChatEvent.Type.PARTY : IslandChatEvent.Type.ISLAND;
+        operations.get(CHAT).time(() -> chatLogic.sendMessage(sender, type, "hello from " + sender.getName()));
+    }
+
+    private void completeChallenge() {
+        List<Player> leaders = new ArrayList<>();
+        for (Player player : online) {
+            if (indexOf.get(player) < script.getIslands()) {
+                leaders.add(player);
+            }
+        }
+        if (leaders.isEmpty()) {
+            return;
+        }
+        Player player = leaders.get(random.nextInt(leaders.size()));
+        String challenge = SimulatedServer.CHALLENGES.get(random.nextInt(SimulatedServer.CHALLENGES.size()));
+        operations.get(CHALLENGE_COMPLETE).time(() -> server.getChallengeCompletionLogic()
+            .completeChallenge(playerLogic.getPlayerInfo(player.getUniqueId()), challenge));
+    }
+
+    private void changeBlock() {
+        if (online.isEmpty()) {
+            return;
+        }
+        Player player = online.get(random.nextInt(online.size()));
+        int island = indexOf.get(player) % script.getIslands();
+        Material type = random.nextBoolean() ? Material.HOPPER : Material.COBBLESTONE;
+        boolean place = random.nextBoolean();
+        if (type == Material.HOPPER) {
+            place = hoppers[island] == 0 || (place && hoppers[island] < MAX_HOPPERS);
+            hoppers[island] += place ? 1 : -1;
+        }
+        Block block = createBlock(player.getLocation().add(random.nextInt(16) - 8, random.nextInt(8) - 4, random.nextInt(16) - 8), type);
+        if (place) {
+            BlockPlaceEvent event = new BlockPlaceEvent(block, null, block, items.get(type), player, true, EquipmentSlot.HAND);
+            operations.get(BLOCK_PLACE).time(() -> playerEvents.onBlockPlaceEvent(event));
+        } else {
+            BlockBreakEvent event = new BlockBreakEvent(block, player);
+            operations.get(BLOCK_BREAK).time(() -> playerEvents.onBlockBreak(event));
+        }
+    }
+
+    private Block createBlock(Location location, Material type) {
+        Block block = mock(Block.class, withSettings().stubOnly());
+        when(block.getType()).thenReturn(type);
+        when(block.getWorld()).thenReturn(location.getWorld());
+        when(block.getLocation()).thenReturn(location);
+        return block;
+    }
+}
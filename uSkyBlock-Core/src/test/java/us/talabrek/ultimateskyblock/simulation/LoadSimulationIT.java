@@ -0,0 +1,66 @@
+package us.talabrek.ultimateskyblock.simulation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Runs a few simulated minutes of load against the plugin's services. Takes a while, so it runs with the integration
+ * tests in {@code mvn verify} rather than with the unit tests.
+ */
+public class LoadSimulationIT {
+    // Generous limits, so only regressions by an order of magnitude fail on a slow build server
+    private static final SimulationReport.Thresholds THRESHOLDS = new SimulationReport.Thresholds()
+        .minThroughput(1000)
+        .maxP99(Duration.ofMillis(50))
+        .maxSaveP99(Duration.ofMillis(500))
+        .maxBytesWritten(16 * 1024 * 1024);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testLoadStaysWithinThresholds() throws Exception {
+        LoadScript script = new LoadScript()
+            .islands(50)
+            .players(400)
+            .online(200)
+            .duration(Duration.ofMinutes(5));
+        Path dataFolder = tempFolder.newFolder().toPath();
+        try (SimulatedServer server = new SimulatedServer(dataFolder)) {
+            SimulationReport report = new LoadSimulation(server, script).run();
+
+            assertThat(report.getOperations().get(LoadSimulation.ISLAND_CREATE).getCount(), is(50L));
+            assertThat(report.getOperations().get(LoadSimulation.CHAT).getCount(), is(20L * 300));
+            assertThat(report.getOperations().get(LoadSimulation.CHALLENGE_COMPLETE).getCount(), is(5L * 300));
+            assertThat(report.getOperations().get(LoadSimulation.BLOCK_PLACE).getCount()
+                + report.getOperations().get(LoadSimulation.BLOCK_BREAK).getCount(), is(200L * 300));
+            assertThat(report.getOperations().get(LoadSimulation.PLAYER_QUIT).getCount(), greaterThan(500L));
+            // Islands are saved every 30 seconds, players every 2 minutes
+            assertThat(report.getSaves().get("usb_island_save_seconds").getCount(), is(10L));
+            assertThat(report.getSaves().get("usb_player_save_seconds").getCount(), is(2L));
+            assertThat(report.getBytesWritten(), greaterThan(0L));
+            assertThat(report.toString(), THRESHOLDS.check(report), is(empty()));
+        }
+        assertThat(countFiles(dataFolder.resolve("islands")), is(50L));
+        // Only the island leaders have player data worth saving
+        assertThat(countFiles(dataFolder.resolve("players")), is(50L));
+        assertThat(countFiles(dataFolder.resolve("completion")), greaterThan(0L));
+    }
+
+    private static long countFiles(Path folder) throws Exception {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.filter(file -> file.toString().endsWith(".yml")).count();
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package us.talabrek.ultimateskyblock.simulation;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+import com.google.inject.util.Providers;
+import dk.lockfuglsang.minecraft.file.FileUtil;
+import dk.lockfuglsang.minecraft.util.BukkitServerMock;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.PluginConfig;
+import us.talabrek.ultimateskyblock.Settings;
+import us.talabrek.ultimateskyblock.api.event.EventLogic;
+import us.talabrek.ultimateskyblock.bootstrap.SkyblockModule;
+import us.talabrek.ultimateskyblock.challenge.ChallengeCompletion;
+import us.talabrek.ultimateskyblock.challenge.ChallengeCompletionLogic;
+import us.talabrek.ultimateskyblock.challenge.ChallengeLogic;
+import us.talabrek.ultimateskyblock.challenge.ChallengeMenuCache;
+import us.talabrek.ultimateskyblock.chat.ChatRecipients;
+import us.talabrek.ultimateskyblock.hook.HookManager;
+import us.talabrek.ultimateskyblock.island.BlockLimitLogic;
+import us.talabrek.ultimateskyblock.island.IslandLogic;
+import us.talabrek.ultimateskyblock.player.NotificationManager;
+import us.talabrek.ultimateskyblock.player.PerkLogic;
+import us.talabrek.ultimateskyblock.player.PlayerInfo;
+import us.talabrek.ultimateskyblock.player.PlayerLogic;
+import us.talabrek.ultimateskyblock.uSkyBlock;
+import us.talabrek.ultimateskyblock.util.LocationUtil;
+import us.talabrek.ultimateskyblock.util.Scheduler;
+import us.talabrek.ultimateskyblock.uuid.PlayerDB;
+import us.talabrek.ultimateskyblock.world.WorldManager;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * A fake server the plugin's services are booted against, to drive them with synthetic load.
+ * <p>
+ * The {@link SkyblockModule} is booted against a data folder of its own, with the services that need a running server
+ * (worlds, notifications, perks and hooks) replaced by mocks. Challenges are faked as well, as loading them needs
+ * item factories, but their completions are tracked by the real {@link ChallengeCompletionLogic}.
+ * <p>
+ * Tasks scheduled with the Bukkit scheduler run when the simulated ticks advance, the async ones included, on the
+ * simulating thread. Players connected to the simulated server are not visible through {@code Bukkit.getPlayer}, so
+ * their data is loaded as for offline players, skipping the join-time checks that need WorldGuard.
+ * <p>
+ * Booting changes global state: the island {@link Settings}, the {@link FileUtil} data folder, the Bukkit server and
+ * the plugin instance. It is restored on {@link #close()}, so tests running after the simulation in the same JVM are
+ * unaffected.
+ */
+public class SimulatedServer implements AutoCloseable {
+    public static final List<String> CHALLENGES = List.of(
+        "cobblestonegenerator", "applecollector", "breadmaker", "pumpkinfarmer", "sugarcanefarmer",
+        "cactusfarmer", "glassmaker", "seedcollector", "monsterslayer", "netherportal");
+
+    private static final Logger logger = Logger.getLogger(SimulatedServer.class.getName());
+
+    private final GlobalState previous;
+    private final Path dataFolder;
+    private final World world;
+    private final uSkyBlock plugin;
+    private final Injector injector;
+    private final ChallengeCompletionLogic completionLogic;
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private final Map<UUID, Player> online = new ConcurrentHashMap<>();
+    private volatile long tick = 0;
+    private long sequence = 0;
+    private long taskFailures = 0;
+
+    public SimulatedServer(@NotNull Path dataFolder) throws ReflectiveOperationException {
+        this.previous = GlobalState.save();
+        this.dataFolder = dataFolder;
+        Settings.island_distance = 128;
+        Settings.island_radius = 64;
+        Settings.island_height = 150;
+        Settings.island_protectionRange = 128;
+        FileUtil.setDataFolder(dataFolder.toFile());
+        FileConfiguration config = FileUtil.getYmlConfiguration("config.yml");
+        config.set("options.advanced.playerdb.storage", "yml");
+
+        Server server = BukkitServerMock.setupServerMock();
+        when(server.getLogger()).thenReturn(logger);
+        when(server.getPluginManager()).thenReturn(mock(PluginManager.class, withSettings().stubOnly()));
+        BukkitScheduler bukkitScheduler = createScheduler();
+        when(server.getScheduler()).thenReturn(bukkitScheduler);
+
+        world = mock(World.class, withSettings().stubOnly());
+        when(world.getName()).thenReturn("skyworld");
+        WorldManager worldManager = mock(WorldManager.class, withSettings().stubOnly());
+        when(worldManager.getWorld()).thenReturn(world);
+        when(worldManager.isSkyWorld(any())).thenReturn(true);
+        when(worldManager.isSkyAssociatedWorld(any())).thenReturn(true);
+        PluginConfig pluginConfig = mock(PluginConfig.class, withSettings().stubOnly());
+        when(pluginConfig.getYamlConfig()).thenReturn(config);
+
+        plugin = mock(uSkyBlock.class, withSettings().stubOnly());
+        when(plugin.getName()).thenReturn("uSkyBlock");
+        when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.getLogger()).thenReturn(logger);
+        when(plugin.getWorldManager()).thenReturn(worldManager);
+        setInstance(plugin);
+
+        // Provided rather than bound as instances, as Guice would then inject the fields of the mocked classes
+        injector = Guice.createInjector(Modules.override(new SkyblockModule(plugin)).with(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(uSkyBlock.class).toProvider(Providers.of(plugin));
+                bind(Plugin.class).toProvider(Providers.of(plugin));
+                bind(PluginConfig.class).toProvider(Providers.of(pluginConfig));
+                bind(WorldManager.class).toProvider(Providers.of(worldManager));
+                bind(PerkLogic.class).toProvider(Providers.of(mock(PerkLogic.class)));
+                bind(NotificationManager.class).toProvider(Providers.of(mock(NotificationManager.class)));
+                bind(HookManager.class).toProvider(Providers.of(mock(HookManager.class)));
+            }
+        }));
+
+        IslandLogic islandLogic = injector.getInstance(IslandLogic.class);
+        PlayerLogic playerLogic = injector.getInstance(PlayerLogic.class);
+        ChallengeLogic challengeLogic = createChallengeLogic();
+        when(plugin.getScheduler()).thenReturn(injector.getInstance(Scheduler.class));
+        when(plugin.getPlayerDB()).thenReturn(injector.getInstance(PlayerDB.class));
+        when(plugin.getPlayerLogic()).thenReturn(playerLogic);
+        when(plugin.getBlockLimitLogic()).thenReturn(injector.getInstance(BlockLimitLogic.class));
+        when(plugin.getEventLogic()).thenReturn(mock(EventLogic.class, withSettings().stubOnly()));
+        when(plugin.getChallengeLogic()).thenReturn(challengeLogic);
+        when(plugin.isMaintenanceMode()).thenReturn(false);
+        when(plugin.playerIsOnIsland(any(Player.class))).thenReturn(true);
+        when(plugin.getIslandInfo(anyString())).thenAnswer(a -> islandLogic.getIslandInfo((String) a.getArgument(0)));
+        when(plugin.getIslandInfo(any(PlayerInfo.class))).thenAnswer(a -> islandLogic.getIslandInfo((PlayerInfo) a.getArgument(0)));
+        when(plugin.getIslandInfo(any(Location.class))).thenAnswer(a -> islandLogic.getIslandInfo(getIslandNameAt(a.getArgument(0))));
+        when(plugin.getPlayerInfo(any(UUID.class))).thenAnswer(a -> playerLogic.getPlayerInfo((UUID) a.getArgument(0)));
+        when(plugin.getPlayerInfo(any(Player.class))).thenAnswer(a -> playerLogic.getPlayerInfo(((Player) a.getArgument(0)).getUniqueId()));
+
+        YamlConfiguration challengesConfig = new YamlConfiguration();
+        challengesConfig.set("challengeSharing", "island");
+        completionLogic = new ChallengeCompletionLogic(plugin, challengesConfig, new ChallengeMenuCache());
+    }
+
+    private static void setInstance(uSkyBlock plugin) throws ReflectiveOperationException {
+        setStatic(uSkyBlock.class, "instance", plugin);
+    }
+
+    private static Object getStatic(Class<?> type, String name) throws ReflectiveOperationException {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(null);
+    }
+
+    private static void setStatic(Class<?> type, String name, Object value) throws ReflectiveOperationException {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(null, value);
+    }
+
+    private ChallengeLogic createChallengeLogic() {
+        ChallengeLogic challengeLogic = mock(ChallengeLogic.class, withSettings().stubOnly());
+        doAnswer(a -> {
+            Map<String, ChallengeCompletion> challengeMap = a.getArgument(0);
+            for (String challenge : CHALLENGES) {
+                challengeMap.putIfAbsent(challenge, new ChallengeCompletion(challenge, null, 0, 0));
+            }
+            return null;
+        }).when(challengeLogic).populateChallenges(anyMap());
+        when(challengeLogic.getResetDuration(anyString())).thenReturn(Duration.ofHours(20));
+        doAnswer(a -> {
+            completionLogic.completeChallenge(a.getArgument(0), a.getArgument(1));
+            return null;
+        }).when(challengeLogic).completeChallenge(any(PlayerInfo.class), anyString());
+        return challengeLogic;
+    }
+
+    private BukkitScheduler createScheduler() {
+        BukkitScheduler scheduler = mock(BukkitScheduler.class, withSettings().stubOnly());
+        when(scheduler.runTask(any(Plugin.class), any(Runnable.class)))
+            .thenAnswer(a -> schedule(a.getArgument(1), 0, 0));
+        when(scheduler.runTaskAsynchronously(any(Plugin.class), any(Runnable.class)))
+            .thenAnswer(a -> schedule(a.getArgument(1), 0, 0));
+        when(scheduler.runTaskLater(any(Plugin.class), any(Runnable.class), anyLong()))
+            .thenAnswer(a -> schedule(a.getArgument(1), a.getArgument(2), 0));
+        when(scheduler.runTaskLaterAsynchronously(any(Plugin.class), any(Runnable.class), anyLong()))
+            .thenAnswer(a -> schedule(a.getArgument(1), a.getArgument(2), 0));
+        when(scheduler.runTaskTimer(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+            .thenAnswer(a -> schedule(a.getArgument(1), a.getArgument(2), a.getArgument(3)));
+        when(scheduler.runTaskTimerAsynchronously(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+            .thenAnswer(a -> schedule(a.getArgument(1), a.getArgument(2), a.getArgument(3)));
+        return scheduler;
+    }
+
+    private synchronized BukkitTask schedule(Runnable runnable, long delay, long period) {
+        Task task = new Task(runnable, tick + Math.max(1, delay), period, sequence++);
+        tasks.add(task);
+        BukkitTask handle = mock(BukkitTask.class, withSettings().stubOnly());
+        doAnswer(a -> task.cancelled = true).when(handle).cancel();
+        when(handle.isCancelled()).thenAnswer(a -> task.cancelled);
+        return handle;
+    }
+
+    /**
+     * Advances the server the given number of ticks, running the tasks that are due.
+     */
+    public void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            tick++;
+            Task task;
+            while ((task = nextDue()) != null) {
+                if (task.cancelled) {
+                    continue;
+                }
+                try {
+                    task.runnable.run();
+                } catch (RuntimeException e) {
+                    taskFailures++;
+                    logger.log(Level.WARNING, "Task failed in tick " + tick, e);
+                }
+                if (task.period > 0 && !task.cancelled) {
+                    reschedule(task);
+                }
+            }
+        }
+    }
+
+    private synchronized Task nextDue() {
+        Task task = tasks.peek();
+        return task != null && task.nextTick <= tick ? tasks.poll() : null;
+    }
+
+    private synchronized void reschedule(Task task) {
+        task.nextTick = tick + task.period;
+        tasks.add(task);
+    }
+
+    /**
+     * Creates a player standing at the given location, which is online once it has joined.
+     */
+    public @NotNull Player createPlayer(@NotNull UUID uuid, @NotNull String name, @NotNull Location location) {
+        Player player = mock(Player.class, withSettings().stubOnly());
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.getName()).thenReturn(name);
+        when(player.getDisplayName()).thenReturn(name);
+        when(player.isOnline()).thenAnswer(a -> online.containsKey(uuid));
+        when(player.getWorld()).thenReturn(world);
+        when(player.getLocation()).thenAnswer(a -> location.clone());
+        return player;
+    }
+
+    /**
+     * Connects the player, and loads the player data as the plugin does on join.
+     */
+    public void join(@NotNull Player player) {
+        online.put(player.getUniqueId(), player);
+        getInstance(PlayerDB.class).updatePlayer(player.getUniqueId(), player.getName(), player.getDisplayName());
+        getInstance(ChatRecipients.class).indexOnlinePlayers(List.of(player));
+        getInstance(PlayerLogic.class).getPlayerInfo(player.getUniqueId());
+    }
+
+    /**
+     * Disconnects the player, and drops the player data from the cache as the plugin does on quit.
+     */
+    public void quit(@NotNull Player player) {
+        online.remove(player.getUniqueId());
+        getInstance(ChatRecipients.class).onQuit(new PlayerQuitEvent(player, "quit"));
+        PlayerLogic playerLogic = getInstance(PlayerLogic.class);
+        playerLogic.removeActivePlayer(playerLogic.getPlayerInfo(player.getUniqueId()));
+    }
+
+    public @NotNull Collection<Player> getOnlinePlayers() {
+        return Collections.unmodifiableCollection(online.values());
+    }
+
+    public @NotNull Location getIslandLocation(int index) {
+        return new Location(world, (index % 32) * Settings.island_distance, Settings.island_height,
+            (index / 32) * Settings.island_distance);
+    }
+
+    /**
+     * Gets the name of the island on the island grid nearest the location.
+     */
+    public static @NotNull String getIslandNameAt(@NotNull Location location) {
+        int distance = Settings.island_distance;
+        Location island = new Location(location.getWorld(),
+            Math.round(location.getX() / distance) * distance, Settings.island_height,
+            Math.round(location.getZ() / distance) * distance);
+        return LocationUtil.getIslandName(island);
+    }
+
+    public <T> T getInstance(@NotNull Class<T> type) {
+        return injector.getInstance(type);
+    }
+
+    public @NotNull uSkyBlock getPlugin() {
+        return plugin;
+    }
+
+    public @NotNull World getWorld() {
+        return world;
+    }
+
+    public @NotNull ChallengeCompletionLogic getChallengeCompletionLogic() {
+        return completionLogic;
+    }
+
+    public @NotNull Path getDataFolder() {
+        return dataFolder;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The number of scheduled tasks that failed.
+     */
+    public long getTaskFailures() {
+        return taskFailures;
+    }
+
+    /**
+     * Shuts down the services like the plugin does when disabled, writing everything cached to the data folder, and
+     * restores the global state changed when booting.
+     */
+    @Override
+    public void close() throws ReflectiveOperationException {
+        try {
+            completionLogic.shutdown();
+            getInstance(IslandLogic.class).shutdown();
+            getInstance(PlayerLogic.class).shutdown();
+            getInstance(PlayerDB.class).shutdown();
+            getInstance(Scheduler.class).shutdown();
+        } finally {
+            previous.restore();
+        }
+    }
+
+    /**
+     * The global state the simulated server changes.
+     */
+    private record GlobalState(int islandDistance, int islandRadius, int islandHeight, int protectionRange,
+                               File dataFolder, Server server, uSkyBlock instance) {
+        static GlobalState save() throws ReflectiveOperationException {
+            return new GlobalState(Settings.island_distance, Settings.island_radius, Settings.island_height,
+                Settings.island_protectionRange, (File) getStatic(FileUtil.class, "dataFolder"), Bukkit.getServer(),
+                (uSkyBlock) getStatic(uSkyBlock.class, "instance"));
+        }
+
+        void restore() throws ReflectiveOperationException {
+            Settings.island_distance = islandDistance;
+            Settings.island_radius = islandRadius;
+            Settings.island_height = islandHeight;
+            Settings.island_protectionRange = protectionRange;
+            // Also drops the configs read from the simulation's data folder
+            FileUtil.setDataFolder(dataFolder);
+            setStatic(Bukkit.class, "server", server);
+            setInstance(instance);
+        }
+    }
+
+    private static class Task implements Comparable<Task> {
+        private final Runnable runnable;
+        private final long period;
+        private final long sequence;
+        private long nextTick;
+        private volatile boolean cancelled;
+
+        Task(Runnable runnable, long nextTick, long period, long sequence) {
+            this.runnable = runnable;
+            this.nextTick = nextTick;
+            this.period = period;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(@NotNull Task other) {
+            int cmp = Long.compare(nextTick, other.nextTick);
+            return cmp != 0 ? cmp : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package us.talabrek.ultimateskyblock.simulation;
+
+import org.jetbrains.annotations.NotNull;
+import us.talabrek.ultimateskyblock.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link LoadSimulation}: throughput, latencies per operation and the volume of files written.
+ */
+public class SimulationReport {
+    private final LoadScript script;
+    private final Duration elapsed;
+    private final Map<String, LatencyHistogram> operations;
+    private final Map<String, LatencyHistogram> saves;
+    private final long filesWritten;
+    private final long bytesWritten;
+    private final long taskFailures;
+
+    SimulationReport(LoadScript script, Duration elapsed, Map<String, LatencyHistogram> operations,
+                     Map<String, LatencyHistogram> saves, long filesWritten, long bytesWritten, long taskFailures) {
+        this.script = script;
+        this.elapsed = elapsed;
+        this.operations = new LinkedHashMap<>(operations);
+        this.saves = new LinkedHashMap<>(saves);
+        this.filesWritten = filesWritten;
+        this.bytesWritten = bytesWritten;
+        this.taskFailures = taskFailures;
+    }
+
+    /**
+     * @return Wall-clock time the simulation took.
+     */
+    public @NotNull Duration getElapsed() {
+        return elapsed;
+    }
+
+    public long getOperationCount() {
+        return operations.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+    }
+
+    /**
+     * @return Operations per wall-clock second, the periodic saves excluded.
+     */
+    public double getThroughput() {
+        return getOperationCount() / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+    }
+
+    /**
+     * @return Latencies of the operations driven by the script, by name.
+     */
+    public @NotNull Map<String, LatencyHistogram> getOperations() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * @return Latencies of the periodic saves of the plugin, by metric name.
+     */
+    public @NotNull Map<String, LatencyHistogram> getSaves() {
+        return Collections.unmodifiableMap(saves);
+    }
+
+    public long getFilesWritten() {
+        return filesWritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getTaskFailures() {
+        return taskFailures;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Script: ").append(script).append('\n');
+        sb.append(String.format("Ran %d operations in %dms: %.0f ops/s%n", getOperationCount(), elapsed.toMillis(), getThroughput()));
+        for (Map<String, LatencyHistogram> histograms : List.of(operations, saves)) {
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                sb.append(String.format("  %-24s %s%n", entry.getKey(), entry.getValue().getSummary()));
+            }
+        }
+        sb.append(String.format("Wrote %d files, %d KiB%n", filesWritten, bytesWritten / 1024));
+        sb.append(String.format("Failed tasks: %d", taskFailures));
+        return sb.toString();
+    }
+
+    /**
+     * Limits a {@link SimulationReport} must stay within, to guard against regressions.
+     */
+    public static class Thresholds {
+        private double minThroughput = 0;
+        private Duration maxP99 = Duration.ofSeconds(1);
+        private Duration maxSaveP99 = Duration.ofSeconds(1);
+        private long maxBytesWritten = Long.MAX_VALUE;
+
+        /**
+         * Minimum operations per wall-clock second.
+         */
+        public Thresholds minThroughput(double minThroughput) {
+            this.minThroughput = minThroughput;
+            return this;
+        }
+
+        /**
+         * Maximum 99th percentile latency of each operation.
+         */
+        public Thresholds maxP99(Duration maxP99) {
+            this.maxP99 = maxP99;
+            return this;
+        }
+
+        /**
+         * Maximum 99th percentile latency of the periodic saves.
+         */
+        public Thresholds maxSaveP99(Duration maxSaveP99) {
+            this.maxSaveP99 = maxSaveP99;
+            return this;
+        }
+
+        public Thresholds maxBytesWritten(long maxBytesWritten) {
+            this.maxBytesWritten = maxBytesWritten;
+            return this;
+        }
+
+        /**
+         * @return A description of each threshold the report exceeds, empty if it passes.
+         */
+        public @NotNull List<String> check(@NotNull SimulationReport report) {
+            List<String> violations = new ArrayList<>();
+            if (report.getThroughput() < minThroughput) {
+                violations.add(String.format("throughput %.0f ops/s is below %.0f ops/s", report.getThroughput(), minThroughput));
+            }
+            checkP99(report.getOperations(), maxP99, violations);
+            checkP99(report.getSaves(), maxSaveP99, violations);
+            if (report.getBytesWritten() > maxBytesWritten) {
+                violations.add(String.format("wrote %d bytes, more than %d", report.getBytesWritten(), maxBytesWritten));
+            }
+            if (report.getTaskFailures() > 0) {
+                violations.add(report.getTaskFailures() + " scheduled task(s) failed");
+            }
+            return violations;
+        }
+
+        private static void checkP99(Map<String, LatencyHistogram> histograms, Duration max, List<String> violations) {
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                Duration p99 = entry.getValue().getQuantile(0.99);
+                if (p99.compareTo(max) > 0) {
+                    violations.add(String.format("p99 of %s is %dms, above %dms", entry.getKey(), p99.toMillis(), max.toMillis()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package us.talabrek.ultimateskyblock.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import us.talabrek.ultimateskyblock.challenge.ChallengeCompletion;
+import us.talabrek.ultimateskyblock.challenge.ChallengeCompletionLogic;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the binary format against randomly generated records, each seed reproducing a failing record.
+ */
+public class SnapshotCodecTest {
+    private static final int RECORDS = 500;
+    private static final String[] KEYS = {"player", "islandX", "islandY", "islandZ", "homeX", "homeYaw", "perms",
+        "bannedFrom", "trustedOn", "pending-commands", "displayName", "uuid", "version"};
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testPlayerDataRoundTrip() throws Exception {
+        for (long seed = 0; seed < RECORDS; seed++) {
+            YamlConfiguration original = new YamlConfiguration();
+            fillSection(original, new Random(seed), 0);
+
+            YamlConfiguration decoded = new YamlConfiguration();
+            SnapshotCodec.decodePlayerData(SnapshotCodec.encodePlayerData(original), decoded);
+
+            assertSameSection("seed " + seed, decoded, original);
+            assertThat("seed " + seed, decoded.saveToString(), is(original.saveToString()));
+        }
+    }
+
+    @Test
+    public void testCompletionsRoundTrip() throws Exception {
+        for (long seed = 0; seed < RECORDS; seed++) {
+            Map<String, ChallengeCompletion> original = createCompletions(new Random(seed));
+
+            Map<String, ChallengeCompletion> decoded = SnapshotCodec.decodeCompletions(SnapshotCodec.encodeCompletions(original.values()));
+
+            assertThat("seed " + seed, decoded.size(), is(original.size()));
+            for (ChallengeCompletion completion : original.values()) {
+                ChallengeCompletion actual = decoded.get(completion.getName());
+                assertThat("seed " + seed, actual, notNullValue());
+                assertThat("seed " + seed, actual.cooldownUntil(), is(completion.cooldownUntil()));
+                assertThat("seed " + seed, actual.getTimesCompleted(), is(completion.getTimesCompleted()));
+                assertThat("seed " + seed, actual.getTimesCompletedInCooldown(), is(completion.getTimesCompletedInCooldown()));
+            }
+            // Exactly what the yml file of the completions holds
+            assertThat("seed " + seed, toYml(decoded), is(toYml(original)));
+        }
+    }
+
+    @Test
+    public void testChallengeNamesAreInterned() throws Exception {
+        Map<String, ChallengeCompletion> completions = createCompletions(new Random(1));
+        byte[] data = SnapshotCodec.encodeCompletions(completions.values());
+
+        Map<String, ChallengeCompletion> first = SnapshotCodec.decodeCompletions(data);
+        Map<String, ChallengeCompletion> second = SnapshotCodec.decodeCompletions(data);
+
+        for (String name : first.keySet()) {
+            assertThat(second.get(name).getName() == first.get(name).getName(), is(true));
+        }
+    }
+
+    @Test
+    public void testTruncatedDataIsRejected() throws Exception {
+        for (long seed = 0; seed < 50; seed++) {
+            YamlConfiguration config = new YamlConfiguration();
+            fillSection(config, new Random(seed), 0);
+            byte[] playerData = SnapshotCodec.encodePlayerData(config);
+            byte[] completions = SnapshotCodec.encodeCompletions(createCompletions(new Random(seed)).values());
+            for (int length = 0; length < playerData.length; length++) {
+                assertRejected("seed " + seed, () -> SnapshotCodec.decodePlayerData(Arrays.copyOf(playerData, length), new YamlConfiguration()));
+            }
+            for (int length = 0; length < completions.length; length++) {
+                assertRejected("seed " + seed, () -> SnapshotCodec.decodeCompletions(Arrays.copyOf(completions, length)));
+            }
+            // Not mixed up with each other
+            assertRejected("seed " + seed, () -> SnapshotCodec.decodeCompletions(playerData));
+            assertRejected("seed " + seed, () -> SnapshotCodec.decodePlayerData(completions, new YamlConfiguration()));
+        }
+    }
+
+    @Test
+    public void testFiles() throws Exception {
+        File folder = tempFolder.newFolder("players");
+        YamlConfiguration config = new YamlConfiguration();
+        fillSection(config, new Random(42), 0);
+        config.save(DataFormat.YML.getFile(folder, "id"));
+
+        assertThat(DataFormat.locate(folder, "id"), is(DataFormat.YML.getFile(folder, "id")));
+        SnapshotCodec.writePlayerData(config, DataFormat.BINARY.getFile(folder, "id").toPath());
+        assertThat(DataFormat.locate(folder, "id"), is(DataFormat.BINARY.getFile(folder, "id")));
+        assertThat(DataFormat.locate(folder, "other"), nullValue());
+
+        YamlConfiguration read = new YamlConfiguration();
+        SnapshotCodec.readPlayerData(DataFormat.BINARY.getFile(folder, "id").toPath(), read);
+        assertThat(read.saveToString(), is(config.saveToString()));
+        assertThat(new File(folder, "id.dat.tmp").exists(), is(false));
+    }
+
+    @Test
+    public void testParseTimeReduction() throws Exception {
+        List<String> ymlPlayers = new ArrayList<>();
+        List<byte[]> binaryPlayers = new ArrayList<>();
+        List<String> ymlCompletions = new ArrayList<>();
+        List<byte[]> binaryCompletions = new ArrayList<>();
+        for (int i = 0; i < RECORDS; i++) {
+            YamlConfiguration player = createPlayerData(new Random(i));
+            ymlPlayers.add(player.saveToString());
+            binaryPlayers.add(SnapshotCodec.encodePlayerData(player));
+            Map<String, ChallengeCompletion> completions = createCompletions(new Random(i));
+            ymlCompletions.add(toYml(completions));
+            binaryCompletions.add(SnapshotCodec.encodeCompletions(completions.values()));
+        }
+
+        long ymlTime = Long.MAX_VALUE;
+        long binaryTime = Long.MAX_VALUE;
+        // Best of several rounds, the first ones warm up the JIT
+        for (int round = 0; round < 5; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < RECORDS; i++) {
+                new YamlConfiguration().loadFromString(ymlPlayers.get(i));
+                new YamlConfiguration().loadFromString(ymlCompletions.get(i));
+            }
+            ymlTime = Math.min(ymlTime, System.nanoTime() - started);
+            started = System.nanoTime();
+            for (int i = 0; i < RECORDS; i++) {
+                SnapshotCodec.decodePlayerData(binaryPlayers.get(i), new YamlConfiguration());
+                SnapshotCodec.decodeCompletions(binaryCompletions.get(i));
+            }
+            binaryTime = Math.min(binaryTime, System.nanoTime() - started);
+        }
+        long ymlBytes = ymlPlayers.stream().mapToLong(String::length).sum() + ymlCompletions.stream().mapToLong(String::length).sum();
+        long binaryBytes = binaryPlayers.stream().mapToLong(b -> b.length).sum() + binaryCompletions.stream().mapToLong(b -> b.length).sum();
+        String parsed = String.format("Parsed %d players and completions: yml %dms (%d KiB), binary %dms (%d KiB)",
+            RECORDS, Duration.ofNanos(ymlTime).toMillis(), ymlBytes / 1024, Duration.ofNanos(binaryTime).toMillis(),
+            binaryBytes / 1024);
+
+        assertThat(parsed, binaryTime, lessThan(ymlTime));
+        assertThat(parsed, binaryBytes, lessThan(ymlBytes));
+    }
+
+    private static void fillSection(ConfigurationSection section, Random random, int depth) {
+        int entries = random.nextInt(depth == 0 ? 12 : 6);
+        for (int i = 0; i < entries; i++) {
+            // Mostly keys seen before, so the dictionary is shared
+            String key = random.nextInt(4) == 0 ? randomKey(random) : KEYS[random.nextInt(KEYS.length)];
+            switch (random.nextInt(depth < 3 ? 11 : 10)) {
+                case 0 -> section.set(key, randomString(random));
+                case 1 -> section.set(key, random.nextInt());
+                case 2 -> section.set(key, random.nextInt(1000) - 500);
+                case 3 -> section.set(key, random.nextLong());
+                case 4 -> section.set(key, random.nextDouble() * 1e6 - 5e5);
+                case 5 -> section.set(key, random.nextFloat() * 360 - 180);
+                case 6 -> section.set(key, random.nextBoolean());
+                case 7 -> {
+                    List<String> list = new ArrayList<>();
+                    for (int j = random.nextInt(5); j > 0; j--) {
+                        list.add(randomString(random));
+                    }
+                    section.set(key, list);
+                }
+                case 8 -> section.set(key, List.of(random.nextInt(), random.nextBoolean()));
+                case 9 -> section.set(key, UUID.nameUUIDFromBytes(key.getBytes()).toString());
+                default -> fillSection(section.createSection(key), random, depth + 1);
+            }
+        }
+    }
+
+    private static YamlConfiguration createPlayerData(Random random) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("version", 1);
+        config.set("player.displayName", "player" + random.nextInt(10000));
+        config.set("player.uuid", new UUID(random.nextLong(), random.nextLong()).toString());
+        for (String coordinate : List.of("islandX", "islandY", "islandZ", "homeX", "homeY", "homeZ")) {
+            config.set("player." + coordinate, random.nextInt(20000) - 10000);
+        }
+        config.set("player.homeYaw", random.nextFloat() * 360);
+        config.set("player.homePitch", random.nextFloat() * 180 - 90);
+        List<String> perms = new ArrayList<>();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            perms.add("usb.perk.reward" + random.nextInt(50));
+        }
+        config.set("player.perms", perms);
+        config.set("bannedFrom", List.of((random.nextInt(100) * 128) + ",0"));
+        config.set("trustedOn", List.of());
+        return config;
+    }
+
+    private static Map<String, ChallengeCompletion> createCompletions(Random random) {
+        Map<String, ChallengeCompletion> completions = new LinkedHashMap<>();
+        Instant now = Instant.now();
+        int challenges = random.nextInt(60);
+        for (int i = 0; i < challenges; i++) {
+            String name = random.nextInt(4) == 0 ? randomKey(random) : "challenge" + i;
+            Instant cooldownUntil = switch (random.nextInt(3)) {
+                case 0 -> null;
+                // Well ahead or behind, so it doesn't expire while testing
+                case 1 -> now.plusMillis(3_600_000 + random.nextInt(Integer.MAX_VALUE));
+                default -> Instant.ofEpochMilli(1 + random.nextInt(Integer.MAX_VALUE));
+            };
+            int timesCompleted = random.nextBoolean() ? random.nextInt(100) : random.nextInt();
+            completions.put(name, new ChallengeCompletion(name, cooldownUntil, timesCompleted, random.nextInt(100)));
+        }
+        return completions;
+    }
+
+    private static String toYml(Map<String, ChallengeCompletion> completions) {
+        YamlConfiguration config = new YamlConfiguration();
+        ChallengeCompletionLogic.saveToConfiguration(config, completions);
+        return config.saveToString();
+    }
+
+    private static String randomKey(Random random) {
+        return "key-" + Integer.toString(random.nextInt(1 << 20), 36) + randomString(random).replace('.', '_');
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = random.nextInt(20); i > 0; i--) {
+            int codePoint = switch (random.nextInt(4)) {
+                case 0 -> 0x20 + random.nextInt(0x5F);
+                case 1 -> 0xA0 + random.nextInt(0x700);
+                case 2 -> 0x4E00 + random.nextInt(0x5000);
+                default -> 0x1F600 + random.nextInt(0x50);
+            };
+            sb.appendCodePoint(codePoint);
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameSection(String message, ConfigurationSection actual, ConfigurationSection expected) {
+        assertThat(message, actual.getKeys(false), is(expected.getKeys(false)));
+        for (String key : expected.getKeys(false)) {
+            if (expected.isConfigurationSection(key)) {
+                assertThat(message + ": " + key, actual.isConfigurationSection(key), is(true));
+                assertSameSection(message, actual.getConfigurationSection(key), expected.getConfigurationSection(key));
+            } else {
+                assertThat(message + ": " + key, actual.get(key), is(expected.get(key)));
+            }
+        }
+    }
+
+    private static void assertRejected(String message, Decoding decoding) {
+        try {
+            decoding.decode();
+            fail(message + ": decoded invalid data");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    private interface Decoding {
+        void decode() throws IOException;
+    }
+}
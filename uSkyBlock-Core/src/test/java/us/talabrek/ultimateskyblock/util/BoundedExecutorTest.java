@@ -0,0 +1,170 @@
+package us.talabrek.ultimateskyblock.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
+
+@RunWith(Parameterized.class)
+public class BoundedExecutorTest {
+    private final boolean virtual;
+    private BoundedExecutor executor;
+
+    @Parameterized.Parameters(name = "virtual={0}")
+    public static List<Object[]> parameters() {
+        return List.of(new Object[]{false}, new Object[]{true});
+    }
+
+    public BoundedExecutorTest(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    @After
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown(Duration.ZERO);
+        }
+    }
+
+    @Test
+    public void testRejectsWhenSaturated() throws Exception {
+        executor = new BoundedExecutor("test", 1, 2, virtual);
+        // Virtual threads are only available from Java 21, otherwise a fixed pool is used
+        assertThat(executor.isVirtual(), is(virtual && Runtime.version().feature() >= 21));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocking = executor.submit(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<Void> queued1 = executor.submit(() -> {});
+        CompletableFuture<Void> queued2 = executor.submit(() -> {});
+        assertThat(executor.getQueueDepth(), is(2));
+
+        CompletableFuture<Void> rejected = executor.submit(() -> {});
+        assertThat(rejected.isCompletedExceptionally(), is(true));
+        assertThat(cause(rejected), instanceOf(RejectedExecutionException.class));
+
+        release.countDown();
+        CompletableFuture.allOf(blocking, queued1, queued2).get(5, TimeUnit.SECONDS);
+        assertThat(executor.getQueueDepth(), is(0));
+        // Capacity is available again
+        executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testBoundsConcurrency() throws Exception {
+        executor = new BoundedExecutor("test", 3, 1000, virtual);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                sleep(1);
+                concurrent.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertThat(maxConcurrent.get(), lessThanOrEqualTo(3));
+    }
+
+    @Test
+    public void testThreadsAreNamed() throws Exception {
+        executor = new BoundedExecutor("io", 1, 1, virtual);
+        String[] name = new String[1];
+        executor.submit(() -> name[0] = Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        assertThat(name[0], startsWith("uSkyBlock-io-"));
+    }
+
+    @Test
+    public void testOrderlyShutdownCompletesAcceptedTasks() throws Exception {
+        executor = new BoundedExecutor("test", 1, 10, virtual);
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(() -> {
+                sleep(10);
+                completed.incrementAndGet();
+            }));
+        }
+        assertThat(executor.shutdown(Duration.ofSeconds(5)), is(true));
+        assertThat(completed.get(), is(10));
+        for (CompletableFuture<Void> future : futures) {
+            assertThat(future.isDone() && !future.isCompletedExceptionally(), is(true));
+        }
+
+        CompletableFuture<Void> late = executor.submit(completed::incrementAndGet);
+        assertThat(cause(late), instanceOf(RejectedExecutionException.class));
+        assertThat(completed.get(), is(10));
+    }
+
+    @Test
+    public void testShutdownInterruptsStuckTasks() throws Exception {
+        executor = new BoundedExecutor("test", 1, 10, virtual);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> stuck = executor.submit(() -> {
+            started.countDown();
+            await(new CountDownLatch(1));
+        });
+        CompletableFuture<Void> waiting = executor.submit(() -> {});
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+
+        long start = System.nanoTime();
+        assertThat(executor.shutdown(Duration.ofMillis(100)), is(false));
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), lessThanOrEqualTo(2L));
+        stuck.handle((v, e) -> null).get(5, TimeUnit.SECONDS);
+        // The task that never started doesn't complete normally
+        try {
+            waiting.get(5, TimeUnit.SECONDS);
+            throw new AssertionError("The waiting task should not complete normally");
+        } catch (CancellationException | ExecutionException expected) {
+            // Dropped from the queue, or interrupted while waiting for a thread
+        }
+    }
+
+    private static Throwable cause(CompletableFuture<Void> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package us.talabrek.ultimateskyblock.util;
+
+import dk.lockfuglsang.minecraft.util.BukkitServerMock;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import us.talabrek.ultimateskyblock.util.Scheduler.Workload;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SchedulerTest {
+    private Plugin plugin;
+    private Scheduler scheduler;
+
+    @Before
+    public void setUp() {
+        plugin = mock(Plugin.class);
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("options.advanced.executors.scoring.threads", 1);
+        config.set("options.advanced.executors.scoring.queue", 1);
+        config.set("options.advanced.executors.io.virtual", false);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger(SchedulerTest.class.getName()));
+        scheduler = new Scheduler(plugin);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testExecutorsAreConfigured() {
+        BoundedExecutor scoring = scheduler.getExecutor(Workload.SCORING);
+        assertThat(scoring.getName(), is("scoring"));
+        assertThat(scoring.getThreads(), is(1));
+        assertThat(scoring.getQueueSize(), is(1));
+        assertThat(scheduler.getExecutor(Workload.SCORING), is(scoring));
+
+        BoundedExecutor io = scheduler.getExecutor(Workload.IO);
+        assertThat(io.isVirtual(), is(false));
+        assertThat(io.getThreads(), is(16));
+        assertThat(io.getQueueSize(), is(1024));
+    }
+
+    @Test
+    public void testSaturatedWorkloadDoesNotBlockOthers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = scheduler.async(Workload.SCORING, () -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<Void> queued = scheduler.async(Workload.SCORING, () -> {});
+        CompletableFuture<Void> rejected = scheduler.async(Workload.SCORING, () -> {});
+        assertThat(cause(rejected), instanceOf(RejectedExecutionException.class));
+
+        // Other workloads still run while scoring is saturated
+        scheduler.async(Workload.IO, () -> {}).get(5, TimeUnit.SECONDS);
+        scheduler.async(Workload.EVENTS, () -> {}).get(5, TimeUnit.SECONDS);
+
+        release.countDown();
+        CompletableFuture.allOf(running, queued).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testRejectedCallbackFallsBackToBukkit() throws Exception {
+        // Bukkit runs its async tasks on a thread of its own
+        Server server = BukkitServerMock.setupServerMock();
+        BukkitScheduler bukkitScheduler = mock(BukkitScheduler.class);
+        when(server.getScheduler()).thenReturn(bukkitScheduler);
+        when(bukkitScheduler.runTaskAsynchronously(eq(plugin), any(Runnable.class))).thenAnswer(invocation -> {
+            new Thread(invocation.<Runnable>getArgument(1)).start();
+            return mock(BukkitTask.class);
+        });
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = scheduler.async(Workload.SCORING, () -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<Void> queued = scheduler.async(Workload.SCORING, () -> {});
+
+        CountDownLatch callback = new CountDownLatch(1);
+        CompletableFuture<Void> saturated = scheduler.asyncOrFallback(Workload.SCORING, callback::countDown);
+        assertThat(callback.await(5, TimeUnit.SECONDS), is(true));
+        saturated.get(5, TimeUnit.SECONDS);
+
+        release.countDown();
+        CompletableFuture.allOf(running, queued).get(5, TimeUnit.SECONDS);
+
+        scheduler.shutdown();
+        AtomicBoolean ran = new AtomicBoolean();
+        assertThat(cause(scheduler.asyncOrFallback(Workload.SCORING, () -> ran.set(true))),
+            instanceOf(RejectedExecutionException.class));
+        assertThat(ran.get(), is(false));
+    }
+
+    @Test
+    public void testShutdownWaitsForAcceptedTasksAndRejectsNewOnes() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean completed = new AtomicBoolean();
+        CompletableFuture<Void> saving = scheduler.async(Workload.IO, () -> {
+            started.countDown();
+            sleep(200);
+            completed.set(true);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+
+        scheduler.shutdown();
+        assertThat(completed.get(), is(true));
+        assertThat(saving.isDone() && !saving.isCompletedExceptionally(), is(true));
+
+        assertThat(scheduler.getExecutor(Workload.IO), nullValue());
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Void> late = scheduler.async(Workload.IO, () -> ran.set(true));
+        assertThat(cause(late), instanceOf(RejectedExecutionException.class));
+        assertThat(ran.get(), is(false));
+    }
+
+    private static Throwable cause(CompletableFuture<Void> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
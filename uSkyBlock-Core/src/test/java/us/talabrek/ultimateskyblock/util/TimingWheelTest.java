@@ -0,0 +1,148 @@
+package us.talabrek.ultimateskyblock.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import us.talabrek.ultimateskyblock.test.MutableClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class TimingWheelTest {
+    private MutableClock clock;
+    private Scheduler scheduler;
+    private TimingWheel wheel;
+    private List<String> ran;
+
+    @Before
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2025-02-10T12:00:00.300Z"));
+        scheduler = mock(Scheduler.class);
+        // 8 slots of one second, so a revolution is 8 seconds
+        wheel = new TimingWheel(clock, scheduler, mock(Logger.class), Duration.ofSeconds(1), 8);
+        ran = new ArrayList<>();
+    }
+
+    @Test
+    public void testDrivenByOneRepeatingTask() {
+        verify(scheduler).sync(any(Runnable.class), eq(Duration.ofSeconds(1)), eq(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    public void testTaskRunsAtDeadlineAndNotBefore() {
+        schedule("a", Duration.ofMillis(1500));
+        schedule("b", Duration.ofSeconds(1));
+
+        advance(Duration.ofMillis(999));
+        assertThat(ran, empty());
+        advance(Duration.ofMillis(1));
+        assertThat(ran, contains("b"));
+        advance(Duration.ofMillis(499));
+        assertThat(ran, contains("b"));
+        advance(Duration.ofMillis(501));
+        assertThat(ran, contains("b", "a"));
+        assertThat(wheel.size(), is(0));
+    }
+
+    @Test
+    public void testDelaysLongerThanOneRevolution() {
+        schedule("short", Duration.ofSeconds(3));
+        schedule("long", Duration.ofSeconds(19));
+
+        for (int i = 1; i <= 18; i++) {
+            advance(Duration.ofSeconds(1));
+            assertThat("after " + i + "s", ran, i < 3 ? empty() : contains("short"));
+        }
+        advance(Duration.ofSeconds(1));
+        assertThat(ran, contains("short", "long"));
+    }
+
+    @Test
+    public void testClockJumpRunsAllExpired() {
+        schedule("a", Duration.ofSeconds(2));
+        schedule("b", Duration.ofSeconds(30));
+        schedule("c", Duration.ofSeconds(100));
+
+        advance(Duration.ofMinutes(1));
+        assertThat(ran, contains("a", "b"));
+        assertThat(wheel.size(), is(1));
+
+        schedule("d", Duration.ofSeconds(1));
+        advance(Duration.ofSeconds(1));
+        assertThat(ran, contains("a", "b", "d"));
+        advance(Duration.ofSeconds(39));
+        assertThat(ran, contains("a", "b", "d", "c"));
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheel.Timeout a = schedule("a", Duration.ofSeconds(2));
+        TimingWheel.Timeout b = schedule("b", Duration.ofSeconds(2));
+        TimingWheel.Timeout c = schedule("c", Duration.ofSeconds(2));
+
+        assertThat(b.cancel(), is(true));
+        assertThat(b.cancel(), is(false));
+        assertThat(wheel.size(), is(2));
+        advance(Duration.ofSeconds(2));
+        assertThat(ran, contains("c", "a"));
+        assertThat(a.isExpired(), is(true));
+        assertThat(b.isCancelled(), is(true));
+        assertThat(c.cancel(), is(false));
+    }
+
+    @Test
+    public void testZeroDelayRunsOnNextTick() {
+        schedule("a", Duration.ZERO);
+        wheel.advance();
+        assertThat(ran, empty());
+        advance(Duration.ofSeconds(1));
+        assertThat(ran, contains("a"));
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopOthers() {
+        wheel.schedule(Duration.ofSeconds(1), () -> {
+            throw new IllegalStateException("expected");
+        });
+        schedule("a", Duration.ofSeconds(1));
+        advance(Duration.ofSeconds(1));
+        assertThat(ran, contains("a"));
+    }
+
+    @Test
+    public void testManyTimeouts() {
+        List<TimingWheel.Timeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            timeouts.add(schedule("t" + i, Duration.ofMillis(i * 7L)));
+        }
+        for (int i = 0; i < timeouts.size(); i += 2) {
+            timeouts.get(i).cancel();
+        }
+        assertThat(wheel.size(), is(5000));
+        for (int i = 0; i < 80; i++) {
+            advance(Duration.ofSeconds(1));
+        }
+        assertThat(ran.size(), is(5000));
+        assertThat(wheel.size(), is(0));
+    }
+
+    private TimingWheel.Timeout schedule(String name, Duration delay) {
+        return wheel.schedule(delay, () -> ran.add(name));
+    }
+
+    private void advance(Duration duration) {
+        clock.advance(duration);
+        wheel.advance();
+    }
+}
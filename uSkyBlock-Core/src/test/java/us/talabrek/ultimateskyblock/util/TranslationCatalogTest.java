@@ -0,0 +1,55 @@
+package us.talabrek.ultimateskyblock.util;
+
+import dk.lockfuglsang.minecraft.po.POCatalog;
+import dk.lockfuglsang.minecraft.po.POCatalogCompiler;
+import dk.lockfuglsang.minecraft.po.POParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Compiles every shipped locale like the build does, and verifies the catalogs translate exactly like the .po files.
+ */
+public class TranslationCatalogTest {
+    private static final File PO_FOLDER = new File("src/main/po");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testShippedLocalesMatchPOParser() throws Exception {
+        File target = tempFolder.newFolder("i18n");
+        File[] poFiles = PO_FOLDER.listFiles((dir, name) -> name.endsWith(".po"));
+        assertThat(poFiles.length, greaterThan(0));
+        assertThat(POCatalogCompiler.compileAll(PO_FOLDER, target), is(poFiles.length));
+
+        for (File poFile : poFiles) {
+            Properties expected;
+            try (InputStream in = new FileInputStream(poFile)) {
+                expected = POParser.asProperties(in);
+            }
+            String locale = poFile.getName().replace(".po", "").toLowerCase(Locale.ROOT);
+            POCatalog catalog;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(new File(target, locale + POCatalog.EXTENSION)))) {
+                catalog = POCatalog.read(in);
+            }
+            assertThat(poFile.getName(), catalog.size(), is(expected.size()));
+            for (String key : expected.stringPropertyNames()) {
+                assertThat(poFile.getName() + ": " + key, catalog.get(key), is(expected.getProperty(key)));
+            }
+            assertThat(catalog.get("§eThis is not a shipped message"), nullValue());
+        }
+    }
+}